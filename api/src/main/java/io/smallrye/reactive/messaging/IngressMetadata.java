@@ -0,0 +1,109 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.common.annotation.Experimental;
+
+/**
+ * Metadata attached by the incoming connectors to the messages they create, recording when the message entered the
+ * application.
+ * <p>
+ * The metadata is only attached when the {@code ingress-timestamp} attribute of the incoming channel is set to
+ * {@code true}. The connector calls {@link #acknowledged()} or {@link #nacked(Throwable)} once the acknowledgement of
+ * the message completes. The framework observes this completion using {@link #whenAcknowledged()}, for example to record
+ * the time spent by the message in the application in the metrics of the ingress channel.
+ * <p>
+ * The metadata is immutable, except for its acknowledgement which completes once. As it is shared by the messages
+ * derived from the received message, only the first completion is taken into account.
+ * <p>
+ * The timestamp is obtained with {@link System#nanoTime()}, so it can only be compared with other values obtained in the
+ * same JVM.
+ */
+@Experimental("Ingress metadata is a SmallRye specific feature")
+public final class IngressMetadata {
+
+    private final String channel;
+    private final long timestamp;
+    private final CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+
+    private IngressMetadata(String channel, long timestamp) {
+        this.channel = channel;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Creates a new ingress metadata stamped with the current time.
+     *
+     * @param channel the name of the incoming channel, must not be {@code null}
+     * @return the metadata
+     */
+    public static IngressMetadata now(String channel) {
+        if (channel == null) {
+            throw new IllegalArgumentException("`channel` must not be `null`");
+        }
+        return new IngressMetadata(channel, System.nanoTime());
+    }
+
+    /**
+     * Retrieves the ingress metadata from inside the {@link Metadata} of a {@link Message}.
+     *
+     * @param message message containing metadata, must not be {@code null}.
+     * @return an {@link Optional} containing the attached {@link IngressMetadata}, empty if none.
+     */
+    public static Optional<IngressMetadata> fromMessage(Message<?> message) {
+        return message.getMetadata(IngressMetadata.class);
+    }
+
+    /**
+     * @return the name of the incoming channel on which the message has been received
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return the time at which the message has been received, as returned by {@link System#nanoTime()}
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns a stage completed when the acknowledgement of the message completes: normally if the message has been
+     * acknowledged, exceptionally with a {@link java.util.concurrent.CompletionException} wrapping the reason if it has
+     * been acknowledged negatively. The stage is completed synchronously by the connector, so the elapsed time can be
+     * measured in its callbacks using {@link System#nanoTime()}.
+     * <p>
+     * Each call returns a new stage, so the observers cannot complete the stage seen by the others.
+     *
+     * @return the completion stage
+     */
+    public CompletionStage<Void> whenAcknowledged() {
+        return acknowledgement.thenApply(Function.identity());
+    }
+
+    /**
+     * Notifies that the positive acknowledgement of the message has completed. This method is called by the connectors.
+     */
+    public void acknowledged() {
+        acknowledgement.complete(null);
+    }
+
+    /**
+     * Notifies that the negative acknowledgement of the message has completed. This method is called by the connectors.
+     *
+     * @param reason the reason of the negative acknowledgement, must not be {@code null}
+     */
+    public void nacked(Throwable reason) {
+        if (reason == null) {
+            throw new IllegalArgumentException("`reason` must not be `null`");
+        }
+        acknowledgement.completeExceptionally(reason);
+    }
+}
@@ -0,0 +1,40 @@
+package io.smallrye.reactive.messaging;
+
+import javax.enterprise.inject.spi.Prioritized;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.common.annotation.Experimental;
+
+/**
+ * Extracts the ordering key of a message, generally from its metadata (the record key for Kafka, the group-id for
+ * AMQP, the topic for MQTT...). It's used by the methods annotated with
+ * {@link io.smallrye.reactive.messaging.annotations.OrderedByKey}: messages with the same key are processed
+ * sequentially, while messages with different keys are processed concurrently.
+ * <p>
+ * To register an extractor, expose a, generally {@code ApplicationScoped} bean, implementing this interface.
+ * When multiple extractors are available, the first one (by descending priority) returning a non-{@code null} key is
+ * used. The default priority is {@link #KEY_EXTRACTOR_DEFAULT_PRIORITY}.
+ */
+@Experimental("SmallRye only feature")
+public interface KeyExtractor extends Prioritized {
+
+    /**
+     * Default priority: {@code 100}
+     */
+    int KEY_EXTRACTOR_DEFAULT_PRIORITY = 100;
+
+    /**
+     * Extracts the key of the given message.
+     *
+     * @param message the message, not {@code null}
+     * @return the key, {@code null} if this extractor cannot extract a key from the given message. The key must
+     *         implement {@code equals} and {@code hashCode}.
+     */
+    Object extractKey(Message<?> message);
+
+    @Override
+    default int getPriority() {
+        return KEY_EXTRACTOR_DEFAULT_PRIORITY;
+    }
+}
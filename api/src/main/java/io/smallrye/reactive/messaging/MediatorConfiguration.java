@@ -2,12 +2,17 @@ package io.smallrye.reactive.messaging;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.enterprise.inject.spi.Bean;
 
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.DelayedRetry;
 import io.smallrye.reactive.messaging.annotations.Merge;
 
 public interface MediatorConfiguration {
@@ -36,18 +41,131 @@ public interface MediatorConfiguration {
 
     Merge.Mode getMerge();
 
+    /**
+     * @return the weights of the incoming channels when using {@link Merge.Mode#WEIGHTED}, the channels not present in
+     *         the map have a weight of 1.
+     * @see Merge#weights()
+     */
+    default Map<String, Integer> getMergeWeights() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * @return the number of items requested in advance from each source when using {@link Merge.Mode#ROUND_ROBIN} or
+     *         {@link Merge.Mode#WEIGHTED}.
+     * @see Merge#prefetch()
+     */
+    default int getMergePrefetch() {
+        return 16;
+    }
+
     boolean getBroadcast();
 
     Bean<?> getBean();
 
     int getNumberOfSubscriberBeforeConnecting();
 
+    /**
+     * @return the size of the ring buffer shared by the subscribers of a broadcast stream, {@code 0} (default) to
+     *         dispatch the messages at the pace of the slowest subscriber.
+     * @see io.smallrye.reactive.messaging.annotations.Broadcast#bufferSize()
+     */
+    default int getBroadcastBufferSize() {
+        return 0;
+    }
+
+    /**
+     * @return the policy applied to the subscribers of a broadcast stream lagging behind by the size of the buffer.
+     * @see io.smallrye.reactive.messaging.annotations.Broadcast#onSlowSubscriber()
+     */
+    default Broadcast.SlowSubscriberPolicy getBroadcastPolicy() {
+        return Broadcast.SlowSubscriberPolicy.BLOCK;
+    }
+
     boolean isBlocking();
 
     String getWorkerPoolName();
 
     boolean isBlockingExecutionOrdered();
 
+    /**
+     * @return the maximum number of concurrent invocations of a subscriber method consuming individual messages or
+     *         payloads, {@code 1} by default.
+     * @see io.smallrye.reactive.messaging.annotations.MaxConcurrency
+     */
+    default int getMaxConcurrency() {
+        return 1;
+    }
+
+    /**
+     * @return the class of the {@link KeyExtractor} used to preserve the ordering of the messages with the same key,
+     *         {@code KeyExtractor.class} to use the {@link KeyExtractor} beans, {@code null} if the executions are not
+     *         ordered by key.
+     * @see io.smallrye.reactive.messaging.annotations.OrderedByKey
+     */
+    default Class<? extends KeyExtractor> getKeyExtractorClass() {
+        return null;
+    }
+
+    /**
+     * @return the maximum number of messages per batch, only used by the {@link Consumption#BATCH_MESSAGE} and
+     *         {@link Consumption#BATCH_PAYLOAD} consumptions.
+     * @see io.smallrye.reactive.messaging.annotations.Batch
+     */
+    default int getBatchSize() {
+        return Batch.DEFAULT_SIZE;
+    }
+
+    /**
+     * @return the maximum time, in milliseconds, to wait for a batch to be complete, only used by the
+     *         {@link Consumption#BATCH_MESSAGE} and {@link Consumption#BATCH_PAYLOAD} consumptions.
+     * @see io.smallrye.reactive.messaging.annotations.Batch
+     */
+    default long getBatchMaxWait() {
+        return Batch.DEFAULT_MAX_WAIT;
+    }
+
+    /**
+     * @return the maximum number of invocations per message, including the first one, {@code 1} (default) to not
+     *         retry the failed invocations.
+     * @see io.smallrye.reactive.messaging.annotations.DelayedRetry#maxAttempts()
+     */
+    default int getRetryMaxAttempts() {
+        return 1;
+    }
+
+    /**
+     * @return the delay, in milliseconds, before the first retry of a failed invocation.
+     * @see io.smallrye.reactive.messaging.annotations.DelayedRetry#delay()
+     */
+    default long getRetryDelay() {
+        return DelayedRetry.DEFAULT_DELAY;
+    }
+
+    /**
+     * @return the maximum delay, in milliseconds, between two invocations of a message.
+     * @see io.smallrye.reactive.messaging.annotations.DelayedRetry#maxDelay()
+     */
+    default long getRetryMaxDelay() {
+        return DelayedRetry.DEFAULT_MAX_DELAY;
+    }
+
+    /**
+     * @return the factor applied to the retry delay after each retry.
+     * @see io.smallrye.reactive.messaging.annotations.DelayedRetry#multiplier()
+     */
+    default double getRetryMultiplier() {
+        return DelayedRetry.DEFAULT_MULTIPLIER;
+    }
+
+    /**
+     * @return the proportion of the retry delay which is randomized.
+     * @see io.smallrye.reactive.messaging.annotations.DelayedRetry#jitter()
+     */
+    default double getRetryJitter() {
+        return DelayedRetry.DEFAULT_JITTER;
+    }
+
     /**
      * Implementation of the {@link Invoker} interface that can be used to invoke the method described by this configuration
      * The invoker class can either have a no-arg constructor in which case it's expected to be look up the bean
@@ -83,6 +201,9 @@ public interface MediatorConfiguration {
         MESSAGE,
         PAYLOAD,
 
+        BATCH_MESSAGE,
+        BATCH_PAYLOAD,
+
         NONE
     }
 }
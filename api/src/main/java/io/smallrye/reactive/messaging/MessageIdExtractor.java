@@ -0,0 +1,38 @@
+package io.smallrye.reactive.messaging;
+
+import javax.enterprise.inject.spi.Prioritized;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.common.annotation.Experimental;
+
+/**
+ * Extracts the identifier of a message, generally from its metadata (the topic, partition and offset for Kafka, the
+ * message-id for AMQP and JMS, the id of a Cloud Event...). It's used by the deduplication of the incoming channels:
+ * a message whose identifier has already been received during the deduplication window is acknowledged and dropped.
+ * <p>
+ * To register an extractor, expose a, generally {@code ApplicationScoped} bean, implementing this interface.
+ * When multiple extractors are available, the first one (by descending priority) returning a non-{@code null}
+ * identifier is used. The default priority is {@link #MESSAGE_ID_EXTRACTOR_DEFAULT_PRIORITY}.
+ */
+@Experimental("SmallRye only feature")
+public interface MessageIdExtractor extends Prioritized {
+
+    /**
+     * Default priority: {@code 100}
+     */
+    int MESSAGE_ID_EXTRACTOR_DEFAULT_PRIORITY = 100;
+
+    /**
+     * Extracts the identifier of the given message.
+     *
+     * @param message the message, not {@code null}
+     * @return the identifier, {@code null} if this extractor cannot extract an identifier from the given message.
+     */
+    String extractId(Message<?> message);
+
+    @Override
+    default int getPriority() {
+        return MESSAGE_ID_EXTRACTOR_DEFAULT_PRIORITY;
+    }
+}
@@ -1,5 +1,8 @@
 package io.smallrye.reactive.messaging;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.OnOverflow;
@@ -95,4 +98,64 @@ public interface MutinyEmitter<T> extends EmitterBehavior {
      *         configured and the emitter overflows.
      */
     <M extends Message<? extends T>> void send(M msg);
+
+    /**
+     * Sends a batch of payloads to the channel.
+     * <p>
+     * A {@link Message} object is created for each payload. The messages are passed to the channel together, without
+     * messages from other senders in between, once the returned {@code Uni} is subscribed to.
+     * The {@code Uni} emits a {@code null} item once all the messages are acknowledged, or fails with the reason of the
+     * first negative acknowledgement.
+     * <p>
+     * With an overflow strategy of {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or
+     * {@link OnOverflow.Strategy#BUFFER BUFFER}, either the whole batch is sent or none of the messages are.
+     * <p>
+     * The default implementation sends the payloads one by one using {@link #send(Object)}, without these guarantees.
+     *
+     * @param payloads the <em>things</em> to send, must not be {@code null} or contain {@code null}
+     * @return the {@code Uni}, that requires subscription to send the messages.
+     * @throws IllegalStateException if the channel has been cancelled or terminated or if an overflow strategy of
+     *         {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or {@link OnOverflow.Strategy#BUFFER BUFFER} is
+     *         configured and the emitter overflows.
+     */
+    default Uni<Void> sendAll(Iterable<? extends T> payloads) {
+        // Sends the payloads one by one, implementations override this method to send the batch atomically
+        if (payloads == null) {
+            throw new IllegalArgumentException("`payloads` must not be `null`");
+        }
+        return Uni.createFrom().deferred(() -> {
+            List<Uni<Void>> acks = new ArrayList<>();
+            for (T payload : payloads) {
+                acks.add(send(payload));
+            }
+            if (acks.isEmpty()) {
+                return Uni.createFrom().voidItem();
+            }
+            return Uni.combine().all().unis(acks).discardItems();
+        });
+    }
+
+    /**
+     * Sends a batch of messages to the channel.
+     * <p>
+     * The messages are passed to the channel together, without messages from other senders in between.
+     * With an overflow strategy of {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or
+     * {@link OnOverflow.Strategy#BUFFER BUFFER}, either the whole batch is sent or none of the messages are.
+     * <p>
+     * The default implementation sends the messages one by one using {@link #send(Message)}, without these guarantees.
+     *
+     * @param messages the <em>Messages</em> to send, must not be {@code null} or contain {@code null}
+     * @throws IllegalStateException if the channel has been cancelled or terminated or if an overflow strategy of
+     *         {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or {@link OnOverflow.Strategy#BUFFER BUFFER} is
+     *         configured and the emitter overflows.
+     */
+    default void sendMessages(List<? extends Message<? extends T>> messages) {
+        // Sends the messages one by one, implementations override this method to send the batch atomically
+        if (messages == null) {
+            throw new IllegalArgumentException("`messages` must not be `null`");
+        }
+        for (Message<? extends T> message : messages) {
+            send(message);
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package io.smallrye.reactive.messaging;
+
+import org.eclipse.microprofile.config.Config;
+
+import io.smallrye.common.annotation.Experimental;
+
+/**
+ * The configuration of a channel passed to its connector.
+ * <p>
+ * The attributes of the channel and of its connector are read when the channel is created, and then served from an
+ * immutable snapshot, so the connectors can read them on the message path without querying the configuration sources.
+ * Changes of dynamic configuration sources are therefore not visible until {@link #refresh()} is called.
+ */
+@Experimental("Configuration snapshots are a SmallRye specific feature")
+public interface RefreshableConfig extends Config {
+
+    /**
+     * Reads the attributes of the channel and of its connector again, and replaces the snapshot. Use this method when
+     * the configuration sources are dynamic.
+     */
+    void refresh();
+
+}
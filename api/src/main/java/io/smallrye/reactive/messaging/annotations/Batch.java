@@ -0,0 +1,52 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifies that a method annotated with {@link org.eclipse.microprofile.reactive.messaging.Incoming} receives the
+ * messages by batches. The method takes a {@code List<T>} (payloads) or a {@code List<Message<T>>} parameter, and
+ * returns {@code void}, a <code>CompletionStage</code> or a <code>Uni</code>:
+ *
+ * <pre>
+ * &#64;Incoming("orders")
+ * &#64;Batch(size = 500, maxWait = 200)
+ * public Uni&lt;Void&gt; store(List&lt;Order&gt; orders) {
+ *     // ...
+ * }
+ * </pre>
+ *
+ * The messages are collected until the batch contains {@link #size()} messages, or until {@link #maxWait()}
+ * milliseconds have elapsed since the reception of the first message of the batch. A batch is never empty.
+ *
+ * With the post-processing acknowledgement (the default for payloads), all the messages of the batch are acknowledged
+ * once the processing of the batch completes successfully, or negatively acknowledged if it fails. Methods receiving
+ * messages are responsible for the acknowledgement (manual acknowledgement by default).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(METHOD)
+public @interface Batch {
+
+    /**
+     * Default maximum batch size: {@code 128}
+     */
+    int DEFAULT_SIZE = 128;
+
+    /**
+     * Default maximum waiting time: {@code 1000} milliseconds
+     */
+    long DEFAULT_MAX_WAIT = 1000;
+
+    /**
+     * @return the maximum number of messages per batch, must be greater than 0.
+     */
+    int size() default DEFAULT_SIZE;
+
+    /**
+     * @return the maximum time, in milliseconds, to wait for a batch to be complete, must be greater than 0.
+     */
+    long maxWait() default DEFAULT_MAX_WAIT;
+}
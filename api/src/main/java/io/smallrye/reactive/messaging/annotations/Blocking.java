@@ -20,6 +20,12 @@ import java.lang.annotation.Target;
 public @interface Blocking {
     String DEFAULT_WORKER_POOL = "<no-value>";
 
+    /**
+     * Name of the worker pool running each execution on a virtual thread. This name is reserved: a custom worker pool
+     * named {@code virtual} always uses virtual threads.
+     */
+    String VIRTUAL_THREAD_POOL = "virtual";
+
     /**
      * Indicates the name of the worker pool to use for execution.
      * By default all executions will be performed on the default worker pool.
@@ -27,6 +33,12 @@ public @interface Blocking {
      * The maximum concurrency of a custom worker pool can be set with the following configuration key:
      * <code>smallrye.messaging.worker.{pool-name}.max-concurrency</code>
      *
+     * The {@link #VIRTUAL_THREAD_POOL virtual} worker pool, and the pools configured with
+     * <code>smallrye.messaging.worker.{pool-name}.virtual=true</code>, run each execution on a virtual thread (Java 21+)
+     * instead of a platform thread. Their maximum concurrency bounds the number of concurrent executions and defaults to
+     * 1024. On JVMs without virtual threads, these pools fall back to at most {@code max-concurrency} platform threads,
+     * created on demand.
+     *
      * @return custom worker pool name for blocking execution.
      */
     String value() default DEFAULT_WORKER_POOL;
@@ -26,4 +26,43 @@ public @interface Broadcast {
      */
     int value() default 0;
 
+    /**
+     * Indicates the number of messages kept for each subscriber in the ring buffer shared by the subscribers.
+     * <p>
+     * With the default value {@code 0}, the subscribers receive the messages at the pace of the slowest one. With a
+     * positive value, the messages are stored in a ring buffer of this size (rounded up to the next power of two), and
+     * each subscriber consumes it at its own pace, until it lags behind by the size of the buffer. Then, the
+     * {@link #onSlowSubscriber()} policy applies.
+     *
+     * @return the size of the buffer, 0 to dispatch the items at the pace of the slowest subscriber.
+     */
+    int bufferSize() default 0;
+
+    /**
+     * Indicates what happens when a subscriber lags behind by the size of the buffer. Ignored if {@link #bufferSize()}
+     * is {@code 0}.
+     *
+     * @return the policy, {@link SlowSubscriberPolicy#BLOCK} by default.
+     */
+    SlowSubscriberPolicy onSlowSubscriber() default SlowSubscriberPolicy.BLOCK;
+
+    /**
+     * The policies applied to the subscribers lagging behind by the size of the broadcast buffer.
+     */
+    enum SlowSubscriberPolicy {
+        /**
+         * The upstream is not requested more items until the subscriber catches up, slowing down all the subscribers
+         * using this policy.
+         */
+        BLOCK,
+        /**
+         * The oldest messages not yet received by the subscriber are dropped. The other subscribers are not impacted.
+         */
+        DROP_OLDEST,
+        /**
+         * The subscriber receives a failure and is detached from the stream. The other subscribers are not impacted.
+         */
+        DETACH
+    }
+
 }
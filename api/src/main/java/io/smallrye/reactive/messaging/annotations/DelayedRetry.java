@@ -0,0 +1,96 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries the failed invocations of a method annotated with {@link org.eclipse.microprofile.reactive.messaging.Incoming}
+ * and consuming individual messages, payloads or batches. The method must not produce a stream.
+ *
+ * <pre>
+ * &#64;Incoming("orders")
+ * &#64;DelayedRetry(maxAttempts = 5, delay = 200, maxDelay = 5000)
+ * public CompletionStage&lt;Void&gt; store(Order order) {
+ *     // ...
+ * }
+ * </pre>
+ *
+ * An invocation fails if the method throws an exception, or if the returned <code>CompletionStage</code> or
+ * <code>Uni</code> fails. The method is then invoked again with the same message after a delay, growing exponentially
+ * with the number of attempts: {@code delay * multiplier^(attempt - 1)}, capped to {@link #maxDelay()}, and randomized
+ * by {@link #jitter()}. The message is only negatively acknowledged, or the failure propagated, once the
+ * {@link #maxAttempts()} invocations have failed.
+ *
+ * The pending retries do not hold a thread: they are parked in a timer shared by all the methods. So that the following
+ * messages are processed while a message waits for its retry, the method has a maximum concurrency of
+ * {@link #DEFAULT_CONCURRENCY} unless it is also annotated with {@link MaxConcurrency}: the messages, or batches, may
+ * then be processed concurrently and complete in a different order, and processors emit their results in completion
+ * order. With {@code @MaxConcurrency(1)}, the messages are processed one at a time in order, and a message waiting for
+ * its retry holds the following ones. On methods annotated with {@link OrderedByKey}, the following messages with the
+ * same key wait until all the attempts for the message have completed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(METHOD)
+public @interface DelayedRetry {
+
+    /**
+     * Default maximum number of attempts: {@code 3}
+     */
+    int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Default delay before the first retry: {@code 100} milliseconds
+     */
+    long DEFAULT_DELAY = 100;
+
+    /**
+     * Default maximum delay between two attempts: {@code 10000} milliseconds
+     */
+    long DEFAULT_MAX_DELAY = 10_000;
+
+    /**
+     * Default delay multiplier: {@code 2}
+     */
+    double DEFAULT_MULTIPLIER = 2;
+
+    /**
+     * Default jitter: {@code 0.2}
+     */
+    double DEFAULT_JITTER = 0.2;
+
+    /**
+     * Default maximum concurrency of the methods annotated with {@link DelayedRetry} and not with
+     * {@link MaxConcurrency}: {@code 16}
+     */
+    int DEFAULT_CONCURRENCY = 16;
+
+    /**
+     * @return the maximum number of invocations per message, including the first one, must be greater than 0.
+     */
+    int maxAttempts() default DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * @return the delay, in milliseconds, before the first retry, must be positive or 0.
+     */
+    long delay() default DEFAULT_DELAY;
+
+    /**
+     * @return the maximum delay, in milliseconds, between two attempts, must be greater than or equal to the
+     *         {@link #delay()}.
+     */
+    long maxDelay() default DEFAULT_MAX_DELAY;
+
+    /**
+     * @return the factor applied to the delay after each retry, must be greater than or equal to 1.
+     */
+    double multiplier() default DEFAULT_MULTIPLIER;
+
+    /**
+     * @return the proportion of the delay which is randomized, between 0 (no randomization) and 1. With a jitter of
+     *         {@code 0.2}, a delay of 100 milliseconds is randomized between 80 and 120 milliseconds.
+     */
+    double jitter() default DEFAULT_JITTER;
+}
@@ -0,0 +1,38 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures the maximum number of concurrent invocations of a method annotated with
+ * {@link org.eclipse.microprofile.reactive.messaging.Incoming} and consuming individual messages or payloads. Methods
+ * also annotated with {@link org.eclipse.microprofile.reactive.messaging.Outgoing} are only supported when they are
+ * annotated with {@link OrderedByKey}, or with a value of 1.
+ *
+ * By default, a message is only passed to the method once the processing of the previous one has completed, except
+ * for the methods annotated with {@link DelayedRetry}, whose default is {@link DelayedRetry#DEFAULT_CONCURRENCY}.
+ * With a maximum concurrency greater than 1, up to that number of messages are processed concurrently, and so
+ * may complete in a different order. This is useful for methods returning a <code>CompletionStage</code> or a
+ * <code>Uni</code>, and for {@link Blocking} methods, whose executions are then dispatched concurrently on the
+ * worker pool (as with <code>ordered = false</code>).
+ *
+ * Each message is still acknowledged (or negatively acknowledged) individually once its processing completes.
+ *
+ * The value can be overridden, or set for a method not using this annotation, with the following configuration keys:
+ * <ul>
+ * <li><code>smallrye.messaging.mediator.{class-name}.{method-name}.max-concurrency</code> for a given method,</li>
+ * <li><code>mp.messaging.incoming.{channel-name}.max-concurrency</code> for a channel managed by a connector.</li>
+ * </ul>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(METHOD)
+public @interface MaxConcurrency {
+
+    /**
+     * @return the maximum number of concurrent invocations, must be greater than 0.
+     */
+    int value();
+}
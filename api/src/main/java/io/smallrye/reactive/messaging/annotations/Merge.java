@@ -24,9 +24,37 @@ public @interface Merge {
         /**
          * Concat the sources.
          */
-        CONCAT
+        CONCAT,
+        /**
+         * Merge the different sources, taking the items from each of them in turn. A source producing items at a high
+         * rate cannot delay the items of the others by more than one item per source.
+         */
+        ROUND_ROBIN,
+        /**
+         * Merge the different sources, taking, in turn, up to {@link #weights() weight} items from each of them. Under
+         * load, each source gets a share of the downstream demand proportional to its weight.
+         */
+        WEIGHTED
     }
 
     Mode value() default Mode.MERGE;
 
+    /**
+     * Configures the weights of the incoming channels when using {@link Mode#WEIGHTED}. Each entry has the form
+     * {@code channel=weight}, the weight being a positive integer. The channels not listed have a weight of 1.
+     * <p>
+     * The weight of a channel applies to each of its sources.
+     *
+     * @return the weights, empty by default
+     */
+    String[] weights() default {};
+
+    /**
+     * Configures the number of items requested in advance from each source when using {@link Mode#ROUND_ROBIN} or
+     * {@link Mode#WEIGHTED}.
+     *
+     * @return the number of items, 16 by default
+     */
+    int prefetch() default 16;
+
 }
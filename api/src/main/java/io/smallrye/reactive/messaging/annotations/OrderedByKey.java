@@ -0,0 +1,34 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import io.smallrye.reactive.messaging.KeyExtractor;
+
+/**
+ * Identifies that the executions of a {@link Blocking} method must preserve the ordering of the messages sharing the
+ * same key, but can run concurrently for messages with different keys.
+ *
+ * The key of each message is computed by a {@link KeyExtractor}. By default, the {@link KeyExtractor} beans are used
+ * (connectors provide extractors based on their metadata, such as the Kafka record key). A specific extractor can be
+ * configured with {@link #value()}. Messages without key are processed without ordering guarantee.
+ *
+ * This annotation takes precedence over {@link Blocking#ordered()}. The results of a processor method are emitted
+ * as soon as the execution completes, so only the relative order of the messages sharing the same key is preserved.
+ * The number of messages processed concurrently can be limited using {@link MaxConcurrency}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(METHOD)
+public @interface OrderedByKey {
+
+    /**
+     * Indicates the class of the {@link KeyExtractor} to use. It's either a bean class, or a class with a public no-arg
+     * constructor. By default, all the {@link KeyExtractor} beans are used.
+     *
+     * @return the key extractor class
+     */
+    Class<? extends KeyExtractor> value() default KeyExtractor.class;
+}
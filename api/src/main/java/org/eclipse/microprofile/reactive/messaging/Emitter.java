@@ -18,6 +18,9 @@
  */
 package org.eclipse.microprofile.reactive.messaging;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import io.smallrye.reactive.messaging.EmitterBehavior;
@@ -76,4 +79,58 @@ public interface Emitter<T> extends EmitterBehavior {
      */
     <M extends Message<? extends T>> void send(M msg);
 
+    /**
+     * Sends a batch of payloads to the channel.
+     * <p>
+     * A {@link Message} object is created for each payload. The messages are passed to the channel together, without
+     * messages from other senders in between. The returned {@code CompletionStage} is completed once all the messages
+     * are acknowledged, or completed exceptionally with the reason of the first negative acknowledgement.
+     * <p>
+     * With an overflow strategy of {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or
+     * {@link OnOverflow.Strategy#BUFFER BUFFER}, either the whole batch is sent or none of the messages are.
+     * <p>
+     * The default implementation sends the payloads one by one using {@link #send(Object)}, without these guarantees.
+     *
+     * @param payloads the <em>things</em> to send, must not be {@code null} or contain {@code null}
+     * @return the {@code CompletionStage}, which will be completed when all the messages are acknowledged.
+     * @throws IllegalStateException if the channel has been cancelled or terminated or if an overflow strategy of
+     *         {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or {@link OnOverflow.Strategy#BUFFER BUFFER} is
+     *         configured and the emitter overflows.
+     */
+    default CompletionStage<Void> sendAll(Iterable<? extends T> payloads) {
+        // Sends the payloads one by one, implementations override this method to send the batch atomically
+        if (payloads == null) {
+            throw new IllegalArgumentException("`payloads` must not be `null`");
+        }
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (T payload : payloads) {
+            acks.add(send(payload).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(acks.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Sends a batch of messages to the channel.
+     * <p>
+     * The messages are passed to the channel together, without messages from other senders in between.
+     * With an overflow strategy of {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or
+     * {@link OnOverflow.Strategy#BUFFER BUFFER}, either the whole batch is sent or none of the messages are.
+     * <p>
+     * The default implementation sends the messages one by one using {@link #send(Message)}, without these guarantees.
+     *
+     * @param messages the <em>Messages</em> to send, must not be {@code null} or contain {@code null}
+     * @throws IllegalStateException if the channel has been cancelled or terminated or if an overflow strategy of
+     *         {@link OnOverflow.Strategy#THROW_EXCEPTION THROW_EXCEPTION} or {@link OnOverflow.Strategy#BUFFER BUFFER} is
+     *         configured and the emitter overflows.
+     */
+    default void sendMessages(List<? extends Message<? extends T>> messages) {
+        // Sends the messages one by one, implementations override this method to send the batch atomically
+        if (messages == null) {
+            throw new IllegalArgumentException("`messages` must not be `null`");
+        }
+        for (Message<? extends T> message : messages) {
+            send(message);
+        }
+    }
+
 }
@@ -24,7 +24,6 @@ import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
-import java.util.stream.StreamSupport;
 
 import io.smallrye.common.annotation.Experimental;
 
@@ -406,15 +405,11 @@ public interface Message<T> {
      * @param clazz the class of the metadata to retrieve, must not be {@code null}
      * @return an {@link Optional} containing the associated metadata, empty if none.
      */
-    @SuppressWarnings("unchecked")
     default <M> Optional<M> getMetadata(Class<? extends M> clazz) {
         if (clazz == null) {
             throw new IllegalArgumentException("`clazz` must not be `null`");
         }
-        return StreamSupport.stream(getMetadata().spliterator(), false)
-                .filter(clazz::isInstance)
-                .map(x -> (M) x) // casting is safe here as we checked the type before.
-                .findAny();
+        return getMetadata().get(clazz);
     }
 
     /**
@@ -1,6 +1,9 @@
 package org.eclipse.microprofile.reactive.messaging;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import io.smallrye.common.annotation.Experimental;
 
@@ -10,6 +13,8 @@ import io.smallrye.common.annotation.Experimental;
  * This class stores message metadata that can be related to the transport layer or to the business / application.
  * <p>
  * Instances of this class are <strong>immutable</strong>. Modification operation returned new instances.
+ * The entries are stored in a small array, in insertion order. Lookups scan this array (metadata sets generally contain
+ * a handful of entries), and instances created by {@link #copy()} share it.
  * Contained instances are not constrained, but should be immutable. Only one instance of each class can be stored,
  * as the class is used to retrieve the metadata.
  * <p>
@@ -20,17 +25,23 @@ import io.smallrye.common.annotation.Experimental;
 @Experimental("metadata propagation is a SmallRye-specific feature")
 public class Metadata implements Iterable<Object> {
 
-    private final Set<Object> backend;
+    private static final Object[] NO_ENTRIES = new Object[0];
 
-    private static final Metadata EMPTY = new Metadata(Collections.emptySet());
+    private static final Metadata EMPTY = new Metadata(NO_ENTRIES);
+
+    /**
+     * The entries, in insertion order, at most one per class.
+     * This array is never modified once the instance is created, so it can be shared between instances.
+     */
+    private final Object[] entries;
 
     /**
      * {@link Metadata} instances must be created using the static factory methods.
      *
-     * @param backend the backend, must not be {@code null}, must be immutable.
+     * @param entries the entries, must not be {@code null}, must not be modified after the call.
      */
-    private Metadata(Set<Object> backend) {
-        this.backend = Collections.unmodifiableSet(backend);
+    private Metadata(Object[] entries) {
+        this.entries = entries;
     }
 
     /**
@@ -52,7 +63,7 @@ public class Metadata implements Iterable<Object> {
         if (metadata == null) {
             throw new IllegalArgumentException("`metadata` must not be `null`");
         }
-        return new Metadata(Collections.singleton(metadata));
+        return new Metadata(new Object[] { metadata });
     }
 
     /**
@@ -66,8 +77,14 @@ public class Metadata implements Iterable<Object> {
         if (metadata == null) {
             throw new IllegalArgumentException("`metadata` must not be `null`");
         }
-        Set<Object> set = addMetadataToSet(Arrays.asList(metadata));
-        return new Metadata(set);
+        if (metadata.length == 0) {
+            return EMPTY;
+        }
+        Object[] copy = new Object[metadata.length];
+        for (int i = 0; i < metadata.length; i++) {
+            add(copy, i, metadata[i]);
+        }
+        return new Metadata(copy);
     }
 
     public static Metadata from(Iterable<Object> iterable) {
@@ -77,49 +94,43 @@ public class Metadata implements Iterable<Object> {
         if (iterable instanceof Metadata) {
             return (Metadata) iterable;
         }
-        Set<Object> set = addMetadataToSet(iterable);
+        Object[] array = NO_ENTRIES;
+        int size = 0;
+        for (Object meta : iterable) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, Math.max(4, size * 2));
+            }
+            add(array, size++, meta);
+        }
 
-        if (set.isEmpty()) {
+        if (size == 0) {
             return Metadata.empty();
         }
-        return new Metadata(set);
+        return new Metadata(size == array.length ? array : Arrays.copyOf(array, size));
     }
 
-    private static Set<Object> addMetadataToSet(Iterable<Object> iterable) {
-        Set<Object> set = new HashSet<>();
-        for (Object meta : iterable) {
-            if (meta == null) {
-                throw new IllegalArgumentException("One of the item is `null`");
-            }
-            // Ensure that the class is not used.
-            if (contains(set, meta)) {
-                throw new IllegalArgumentException("Duplicated metadata detected: " + meta.getClass().getName());
-            }
-            set.add(meta);
+    /**
+     * Stores {@code meta} at the position {@code size} of {@code array}, after checking it is not {@code null} and
+     * that the first {@code size} entries do not contain an instance of the same class.
+     */
+    private static void add(Object[] array, int size, Object meta) {
+        if (meta == null) {
+            throw new IllegalArgumentException("One of the item is `null`");
         }
-        return set;
-    }
-
-    private static boolean contains(Set<Object> set, Object meta) {
-        Class<?> clazz = meta.getClass();
-        for (Object o : set) {
-            if (o.getClass().equals(clazz)) {
-                return true;
-            }
+        // Ensure that the class is not used.
+        if (indexOf(array, size, meta.getClass()) != -1) {
+            throw new IllegalArgumentException("Duplicated metadata detected: " + meta.getClass().getName());
         }
-        return false;
+        array[size] = meta;
     }
 
-    private static void replaceOrAdd(Set<Object> set, Object meta) {
-        Class<?> clazz = meta.getClass();
-        for (Object o : set) {
-            if (o.getClass().equals(clazz)) {
-                set.remove(o);
-                set.add(meta);
-                return;
+    private static int indexOf(Object[] array, int size, Class<?> clazz) {
+        for (int i = 0; i < size; i++) {
+            if (array[i].getClass() == clazz) {
+                return i;
             }
         }
-        set.add(meta);
+        return -1;
     }
 
     /**
@@ -134,8 +145,18 @@ public class Metadata implements Iterable<Object> {
         if (meta == null) {
             throw new IllegalArgumentException("`meta` must not be `null`");
         }
-        Set<Object> copy = new HashSet<>(backend);
-        replaceOrAdd(copy, meta);
+        int index = indexOf(entries, entries.length, meta.getClass());
+        Object[] copy;
+        if (index == -1) {
+            copy = Arrays.copyOf(entries, entries.length + 1);
+            copy[entries.length] = meta;
+        } else {
+            if (entries[index] == meta) {
+                return this;
+            }
+            copy = entries.clone();
+            copy[index] = meta;
+        }
         return new Metadata(copy);
     }
 
@@ -151,22 +172,66 @@ public class Metadata implements Iterable<Object> {
         if (clazz == null) {
             throw new IllegalArgumentException("`clazz` must not be `null`");
         }
-        Set<Object> copy = new LinkedHashSet<>(backend);
-        copy.stream()
-                .filter(o -> o.getClass().equals(clazz))
-                .findAny()
-                .ifPresent(copy::remove);
+        int index = indexOf(entries, entries.length, clazz);
+        if (index == -1) {
+            return new Metadata(entries);
+        }
+        if (entries.length == 1) {
+            return EMPTY;
+        }
+        Object[] copy = new Object[entries.length - 1];
+        System.arraycopy(entries, 0, copy, 0, index);
+        System.arraycopy(entries, index + 1, copy, index, entries.length - index - 1);
         return new Metadata(copy);
     }
 
     /**
      * Copies the current {@link Metadata} instance.
+     * As instances are immutable, the entries are shared with the current instance.
      *
      * @return the new instance.
      */
     public Metadata copy() {
-        Set<Object> copy = new LinkedHashSet<>(backend);
-        return new Metadata(copy);
+        return new Metadata(entries);
+    }
+
+    /**
+     * Retrieves the metadata associated with the given class.
+     * An instance of exactly this class is preferred, otherwise the first instance of a sub-class is returned.
+     *
+     * @param clazz the class of the metadata to retrieve, must not be {@code null}
+     * @param <M> the target type
+     * @return an {@link Optional} containing the associated metadata, empty if none.
+     */
+    @SuppressWarnings("unchecked")
+    public <M> Optional<M> get(Class<? extends M> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("`clazz` must not be `null`");
+        }
+        int index = indexOf(entries, entries.length, clazz);
+        if (index != -1) {
+            return Optional.of((M) entries[index]);
+        }
+        for (Object entry : entries) {
+            if (clazz.isInstance(entry)) {
+                return Optional.of((M) entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * @return {@code true} if there are no entries
+     */
+    public boolean isEmpty() {
+        return entries.length == 0;
     }
 
     /**
@@ -174,6 +239,21 @@ public class Metadata implements Iterable<Object> {
      */
     @Override
     public Iterator<Object> iterator() {
-        return backend.iterator();
+        return new Iterator<Object>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < entries.length;
+            }
+
+            @Override
+            public Object next() {
+                if (index >= entries.length) {
+                    throw new NoSuchElementException();
+                }
+                return entries[index++];
+            }
+        };
     }
 }
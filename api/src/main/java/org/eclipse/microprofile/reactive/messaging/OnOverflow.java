@@ -94,7 +94,21 @@ public @interface OnOverflow {
          * The values are propagated without any back pressure strategy. It's the responsibility from the downstream to
          * implement a strategy to deal with overflow.
          */
-        NONE
+        NONE,
+
+        /**
+         * Buffers the values in memory until the downstream consumes them, in a buffer with the size specified by
+         * {@link #bufferSize()} if present, or the value of the config property
+         * <strong>mp.messaging.emitter.default-buffer-size</strong> otherwise.
+         * When the buffer is full, the payloads are written to memory-mapped segment files, in the directory configured
+         * by <strong>mp.messaging.emitter.spill.directory</strong>, and replayed in order when the downstream requests
+         * them. A segment file is deleted once all its messages are acknowledged.
+         * <p>
+         * The payloads must be byte arrays, strings or {@link java.io.Serializable}. If the spilled messages exceed the
+         * size configured by <strong>mp.messaging.emitter.spill.max-size</strong>, an {@link IllegalStateException}
+         * is thrown by the {@code Emitter.send} method.
+         */
+        SPILL
     }
 
     /**
@@ -103,8 +117,8 @@ public @interface OnOverflow {
     Strategy value();
 
     /**
-     * @return the size of the buffer when {@link Strategy#BUFFER} is used. If not set and if the {@link Strategy#BUFFER}
-     *         strategy is used, the buffer size will be defaulted to the value of the config property
+     * @return the size of the buffer when {@link Strategy#BUFFER} or {@link Strategy#SPILL} is used. If not set and if
+     *         one of these strategies is used, the buffer size will be defaulted to the value of the config property
      *         mp.messaging.emitter.default-buffer-size.
      */
     long bufferSize() default 0;
@@ -0,0 +1,95 @@
+package org.eclipse.microprofile.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.junit.Test;
+
+public class EmitterTest {
+
+    @Test
+    public void testDefaultSendAll() {
+        ListEmitter emitter = new ListEmitter();
+        CompletableFuture<Void> future = emitter.sendAll(Arrays.asList("a", "b", "c")).toCompletableFuture();
+        assertThat(emitter.messages).extracting(m -> (Object) m.getPayload()).containsExactly("a", "b", "c");
+        assertThat(future).isNotDone();
+
+        emitter.messages.get(0).ack();
+        emitter.messages.get(2).ack();
+        assertThat(future).isNotDone();
+        emitter.messages.get(1).ack();
+        assertThat(future).isCompleted();
+
+        assertThat(emitter.sendAll(Collections.emptyList())).isCompleted();
+        assertThatThrownBy(() -> emitter.sendAll(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testDefaultSendAllWithNegativeAcknowledgement() {
+        ListEmitter emitter = new ListEmitter();
+        CompletableFuture<Void> future = emitter.sendAll(Arrays.asList("a", "b")).toCompletableFuture();
+        emitter.messages.get(0).nack(new Exception("boom"));
+        emitter.messages.get(1).ack();
+        assertThat(future).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testDefaultSendMessages() {
+        ListEmitter emitter = new ListEmitter();
+        emitter.sendMessages(Arrays.asList(Message.of("a"), Message.of("b")));
+        assertThat(emitter.messages).extracting(m -> (Object) m.getPayload()).containsExactly("a", "b");
+        assertThatThrownBy(() -> emitter.sendMessages(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * An emitter only implementing the single message methods.
+     */
+    private static class ListEmitter implements Emitter<String> {
+        private final List<Message<? extends String>> messages = new ArrayList<>();
+
+        @Override
+        public CompletionStage<Void> send(String payload) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            send(Message.of(payload, () -> {
+                future.complete(null);
+                return CompletableFuture.completedFuture(null);
+            }, reason -> {
+                future.completeExceptionally(reason);
+                return CompletableFuture.completedFuture(null);
+            }));
+            return future;
+        }
+
+        @Override
+        public <M extends Message<? extends String>> void send(M msg) {
+            messages.add(msg);
+        }
+
+        @Override
+        public void complete() {
+            // Not used
+        }
+
+        @Override
+        public void error(Exception e) {
+            // Not used
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean hasRequests() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.eclipse.microprofile.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class MetadataTest {
+
+    private final Meta1 meta1 = new Meta1();
+    private final Meta2 meta2 = new Meta2();
+    private final Meta3 meta3 = new Meta3();
+
+    @Test
+    public void testEntriesAreKeptInInsertionOrder() {
+        Metadata metadata = Metadata.of(meta3, meta1, meta2);
+        assertThat(metadata).containsExactly(meta3, meta1, meta2);
+        assertThat(metadata.size()).isEqualTo(3);
+        assertThat(metadata.isEmpty()).isFalse();
+        assertThat(Metadata.from(Arrays.asList(meta2, meta1))).containsExactly(meta2, meta1);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertThat(Metadata.of()).isSameAs(Metadata.empty());
+        assertThat(Metadata.from(Arrays.asList())).isSameAs(Metadata.empty());
+        assertThat(Metadata.empty().size()).isEqualTo(0);
+        assertThat(Metadata.empty().isEmpty()).isTrue();
+        assertThat(Metadata.empty().get(Meta1.class)).isEmpty();
+        Iterator<Object> iterator = Metadata.empty().iterator();
+        assertThat(iterator.hasNext()).isFalse();
+        assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void testDuplicatesAndNullsAreRejected() {
+        assertThatThrownBy(() -> Metadata.of(meta1, new Meta1())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Metadata.of(meta1, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Metadata.from(Arrays.asList(meta1, meta2, new Meta2())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Metadata.empty().with(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Metadata.empty().get(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testGet() {
+        Metadata metadata = Metadata.of(meta1, meta2);
+        assertThat(metadata.get(Meta1.class)).containsSame(meta1);
+        assertThat(metadata.get(Meta2.class)).containsSame(meta2);
+        assertThat(metadata.get(Meta3.class)).isEmpty();
+        // Lookups by super type
+        assertThat(metadata.<Base> get(Base.class)).containsSame(meta2);
+        assertThat(metadata.get(Object.class)).containsSame(meta1);
+    }
+
+    @Test
+    public void testGetPrefersExactClass() {
+        Metadata metadata = Metadata.of(meta2, new Base());
+        assertThat(metadata.get(Base.class).get()).isNotSameAs(meta2).isExactlyInstanceOf(Base.class);
+    }
+
+    @Test
+    public void testWithDoesNotModifyTheInstance() {
+        Metadata metadata = Metadata.of(meta1, meta2);
+        Metadata added = metadata.with(meta3);
+        assertThat(metadata).containsExactly(meta1, meta2);
+        assertThat(added).containsExactly(meta1, meta2, meta3);
+
+        Meta1 other = new Meta1();
+        Metadata replaced = added.with(other);
+        assertThat(replaced).containsExactly(other, meta2, meta3);
+        assertThat(added).containsExactly(meta1, meta2, meta3);
+
+        assertThat(replaced.with(other)).isSameAs(replaced);
+    }
+
+    @Test
+    public void testWithout() {
+        Metadata metadata = Metadata.of(meta1, meta2, meta3);
+        assertThat(metadata.without(Meta2.class)).containsExactly(meta1, meta3);
+        assertThat(metadata.without(Meta1.class)).containsExactly(meta2, meta3);
+        assertThat(metadata.without(Meta3.class)).containsExactly(meta1, meta2);
+        assertThat(metadata.without(String.class)).containsExactly(meta1, meta2, meta3);
+        assertThat(metadata).containsExactly(meta1, meta2, meta3);
+        assertThat(Metadata.of(meta1).without(Meta1.class)).isSameAs(Metadata.empty());
+        // Only exact classes are removed
+        assertThat(metadata.without(Base.class)).containsExactly(meta1, meta2, meta3);
+    }
+
+    @Test
+    public void testCopy() {
+        Metadata metadata = Metadata.of(meta1, meta2);
+        Metadata copy = metadata.copy();
+        assertThat(copy).isNotSameAs(metadata).containsExactly(meta1, meta2);
+        assertThat(copy.with(meta3)).containsExactly(meta1, meta2, meta3);
+        assertThat(metadata).containsExactly(meta1, meta2);
+    }
+
+    @Test
+    public void testIteratorIsReadOnly() {
+        Iterator<Object> iterator = Metadata.of(meta1).iterator();
+        iterator.next();
+        assertThatThrownBy(iterator::remove).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    public static class Meta1 {
+    }
+
+    public static class Base {
+    }
+
+    public static class Meta2 extends Base {
+    }
+
+    public static class Meta3 {
+    }
+}
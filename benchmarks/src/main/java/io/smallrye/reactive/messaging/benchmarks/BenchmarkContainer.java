@@ -0,0 +1,107 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.Map;
+
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.se.SeContainer;
+import javax.enterprise.inject.se.SeContainerInitializer;
+import javax.enterprise.inject.spi.Extension;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import io.smallrye.config.SmallRyeConfigProviderResolver;
+import io.smallrye.reactive.messaging.MediatorFactory;
+import io.smallrye.reactive.messaging.connectors.ExecutionHolder;
+import io.smallrye.reactive.messaging.connectors.InMemoryConnector;
+import io.smallrye.reactive.messaging.connectors.InMemorySource;
+import io.smallrye.reactive.messaging.connectors.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.extension.ChannelProducer;
+import io.smallrye.reactive.messaging.extension.HealthCenter;
+import io.smallrye.reactive.messaging.extension.MediatorManager;
+import io.smallrye.reactive.messaging.extension.ReactiveMessagingExtension;
+import io.smallrye.reactive.messaging.impl.ConfiguredChannelFactory;
+import io.smallrye.reactive.messaging.impl.InternalChannelRegistry;
+import io.smallrye.reactive.messaging.impl.LegacyConfiguredChannelFactory;
+import io.smallrye.reactive.messaging.metrics.MetricDecorator;
+
+/**
+ * Starts a Weld SE container with the reactive messaging beans, the in-memory connector and the benchmarked beans.
+ */
+public class BenchmarkContainer implements AutoCloseable {
+
+    private final SeContainer container;
+
+    private BenchmarkContainer(SeContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * Starts the container.
+     *
+     * @param properties configuration properties, set as system properties
+     * @param beans the application beans
+     * @return the started container
+     */
+    public static BenchmarkContainer start(Map<String, String> properties, Class<?>... beans) {
+        return start(properties, new Extension[0], beans);
+    }
+
+    /**
+     * Starts the container with additional portable extensions.
+     *
+     * @param properties configuration properties, set as system properties
+     * @param extensions the additional extensions
+     * @param beans the application beans
+     * @return the started container
+     */
+    public static BenchmarkContainer start(Map<String, String> properties, Extension[] extensions, Class<?>... beans) {
+        properties.forEach(System::setProperty);
+        release();
+
+        SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+        initializer.addBeanClasses(MediatorFactory.class,
+                ExecutionHolder.class,
+                MediatorManager.class,
+                WorkerPoolRegistry.class,
+                InternalChannelRegistry.class,
+                ChannelProducer.class,
+                ConfiguredChannelFactory.class,
+                LegacyConfiguredChannelFactory.class,
+                MetricDecorator.class,
+                HealthCenter.class,
+
+                InMemoryConnector.class,
+                Tracker.class,
+
+                io.smallrye.config.inject.ConfigProducer.class);
+        initializer.addBeanClasses(beans);
+        initializer.disableDiscovery();
+        initializer.addExtensions(new ReactiveMessagingExtension());
+        initializer.addExtensions(extensions);
+        return new BenchmarkContainer(initializer.initialize());
+    }
+
+    private static void release() {
+        SmallRyeConfigProviderResolver.instance()
+                .releaseConfig(ConfigProvider.getConfig(BenchmarkContainer.class.getClassLoader()));
+    }
+
+    public <T> T get(Class<T> clazz) {
+        return container.select(clazz).get();
+    }
+
+    public Tracker tracker() {
+        return get(Tracker.class);
+    }
+
+    public <T> InMemorySource<T> source(String channel) {
+        return container.select(InMemoryConnector.class, Any.Literal.INSTANCE).get().source(channel);
+    }
+
+    @Override
+    public void close() {
+        container.close();
+        InMemoryConnector.clear();
+        release();
+    }
+}
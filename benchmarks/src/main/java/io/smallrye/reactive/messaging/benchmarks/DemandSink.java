@@ -0,0 +1,61 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Terminal bean consuming the {@code out} channel only when the benchmark requests items.
+ * <p>
+ * It is used to benchmark publishers, which would otherwise emit unbounded streams as soon as the application
+ * starts.
+ */
+@ApplicationScoped
+public class DemandSink {
+
+    @Inject
+    Tracker tracker;
+
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+    @Incoming("out")
+    public Subscriber<Message<String>> consume() {
+        return new Subscriber<Message<String>>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription.set(s);
+            }
+
+            @Override
+            public void onNext(Message<String> message) {
+                message.ack();
+                tracker.increment();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new IllegalStateException("The benchmarked stream has failed", t);
+            }
+
+            @Override
+            public void onComplete() {
+                // Unexpected, the tracker will report the missing messages
+            }
+        };
+    }
+
+    public void request(long count) {
+        Subscription s = subscription.get();
+        if (s == null) {
+            throw new IllegalStateException("The sink has not been subscribed");
+        }
+        s.request(count);
+    }
+
+}
@@ -0,0 +1,109 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.reactive.messaging.extension.EmitterConfiguration;
+import io.smallrye.reactive.messaging.extension.EmitterImpl;
+
+/**
+ * Measures the throughput of an emitter when many threads send messages concurrently.
+ * <p>
+ * The {@code LOCK} serialization reproduces the previous emitters, which held the emitter lock while delivering each
+ * message, by sending the messages while holding a lock. The {@code DRAIN_LOOP} serialization relies on the emitter
+ * only.
+ * <p>
+ * The number of producer threads is set with the JMH {@code -t} option. The {@link #main(String[])} method runs the
+ * benchmark with 1, 2, 4, 8, 16, 32 and 64 threads.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmitterContentionBenchmark {
+
+    public enum Overflow {
+        DEFAULT,
+        UNBOUNDED_BUFFER
+    }
+
+    public enum Serialization {
+        LOCK,
+        DRAIN_LOOP
+    }
+
+    @Param
+    public Overflow overflow;
+
+    @Param
+    public Serialization serialization;
+
+    private EmitterImpl<String> emitter;
+    private Cancellable subscription;
+    private final LongAdder received = new LongAdder();
+    private final Message<String> message = Message.of("hello");
+    private final Object lock = new Object();
+
+    @Setup
+    public void setup() {
+        EmitterConfiguration configuration = new EmitterConfiguration();
+        configuration.name = "benchmark";
+        configuration.overflowBufferSize = -1;
+        configuration.numberOfSubscriberBeforeConnecting = -1;
+        if (overflow == Overflow.UNBOUNDED_BUFFER) {
+            configuration.overflowBufferStrategy = OnOverflow.Strategy.UNBOUNDED_BUFFER;
+        }
+        emitter = new EmitterImpl<>(configuration, 128);
+        subscription = Multi.createFrom().publisher(emitter.getPublisher())
+                .subscribe().with(m -> received.increment());
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscription.cancel();
+    }
+
+    @Benchmark
+    public void send() {
+        if (serialization == Serialization.LOCK) {
+            synchronized (lock) {
+                emitter.send(message);
+            }
+        } else {
+            emitter.send(message);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] { 1, 2, 4, 8, 16, 32, 64 }) {
+            Options options = new OptionsBuilder()
+                    .include(EmitterContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
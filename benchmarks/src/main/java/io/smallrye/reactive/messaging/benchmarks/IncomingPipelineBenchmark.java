@@ -0,0 +1,33 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.Map;
+
+import io.smallrye.reactive.messaging.connectors.InMemoryConnector;
+import io.smallrye.reactive.messaging.connectors.InMemorySource;
+
+/**
+ * Base class for the benchmarks of mediators consuming the {@code in} channel, fed by the in-memory connector.
+ */
+public abstract class IncomingPipelineBenchmark extends PipelineBenchmark {
+
+    public static final String PAYLOAD = "hello";
+
+    private InMemorySource<String> source;
+
+    @Override
+    protected Map<String, String> configuration() {
+        return InMemoryConnector.switchIncomingChannelsToInMemory("in");
+    }
+
+    @Override
+    protected void onStart() {
+        source = container.source("in");
+    }
+
+    @Override
+    protected void emit(int count) {
+        for (int i = 0; i < count; i++) {
+            source.send(PAYLOAD);
+        }
+    }
+}
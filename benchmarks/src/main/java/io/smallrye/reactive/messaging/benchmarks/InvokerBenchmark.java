@@ -0,0 +1,90 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.Invoker;
+import io.smallrye.reactive.messaging.MethodHandleInvoker;
+import io.smallrye.reactive.messaging.ProcessingException;
+
+/**
+ * Compares the cost of invoking a mediator method using the method handle invoker (the default) and the reflective
+ * invocation (used when the method handle cannot be created).
+ * <p>
+ * Use {@code ProcessorMediatorBenchmark} to measure the impact on a complete pipeline.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InvokerBenchmark {
+
+    public enum Strategy {
+        METHOD_HANDLE,
+        REFLECTION
+    }
+
+    @Param
+    public Strategy strategy;
+
+    private Invoker process;
+    private Invoker produce;
+    private String payload;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Target target = new Target();
+        process = create(Target.class.getMethod("process", String.class), target);
+        produce = create(Target.class.getMethod("produce"), target);
+        payload = "hello";
+    }
+
+    private Invoker create(Method method, Object bean) {
+        if (strategy == Strategy.METHOD_HANDLE) {
+            return MethodHandleInvoker.create(method, bean, method.getName());
+        }
+        // Same as the fallback used by AbstractMediator
+        return args -> {
+            try {
+                return method.invoke(bean, args);
+            } catch (Exception e) {
+                throw new ProcessingException(method.getName(), e);
+            }
+        };
+    }
+
+    @Benchmark
+    public Object processPayload() {
+        return process.invoke(payload);
+    }
+
+    @Benchmark
+    public Object producePayload() {
+        return produce.invoke();
+    }
+
+    public static class Target {
+
+        public String process(String payload) {
+            return payload;
+        }
+
+        public String produce() {
+            return "hello";
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.DefaultMediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorIndexGenerator;
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.helpers.TypeUtils;
+
+/**
+ * Measures the analysis of mediators with generic signatures done at startup by {@link DefaultMediatorConfiguration},
+ * with and without the mediator index generated by {@link MediatorIndexGenerator}.
+ * <p>
+ * The mediators of {@link GenericBeans} are loaded by a dedicated class loader, which also exposes the index when
+ * {@link #indexed} is set. They are analyzed {@link #beans} times, from different copies of their methods, so each
+ * copy has its own generic type instances, as the beans of a large application declaring the same signatures.
+ * <p>
+ * {@link #analyze()} runs with the type cache of {@link TypeUtils} filled by the previous invocations, while
+ * {@link #startup()} clears it first, as a new deployment, and {@link #startupUncached()} disables it using the
+ * {@link TypeUtils#CACHE_SIZE_PROPERTY} system property.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MediatorAnalysisBenchmark {
+
+    private static final String UNCACHED = "-D" + TypeUtils.CACHE_SIZE_PROPERTY + "=0";
+
+    @Param({ "false", "true" })
+    public boolean indexed;
+
+    @Param({ "1", "100" })
+    public int beans;
+
+    private Path classes;
+    private URLClassLoader loader;
+    private Bean<?> bean;
+    private final List<Method> methods = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException {
+        classes = Files.createTempDirectory("mediator-index");
+        String resource = GenericBeans.class.getName().replace('.', '/') + ".class";
+        Path copy = classes.resolve(resource);
+        Files.createDirectories(copy.getParent());
+        try (InputStream stream = GenericBeans.class.getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(stream, copy);
+        }
+        loader = new IsolatingClassLoader(classes.toUri().toURL(), GenericBeans.class.getName());
+        if (indexed) {
+            new MediatorIndexGenerator(loader).generate(classes);
+        }
+
+        Class<?> beanClass = loader.loadClass(GenericBeans.class.getName());
+        methods.clear();
+        for (int i = 0; i < beans; i++) {
+            // Each call returns new copies of the methods
+            for (Method method : beanClass.getDeclaredMethods()) {
+                if (method.getAnnotation(Incoming.class) != null || method.getAnnotation(Outgoing.class) != null) {
+                    methods.add(method);
+                }
+            }
+        }
+        methods.sort(Comparator.comparing(Method::getName));
+        bean = (Bean<?>) Proxy.newProxyInstance(MediatorAnalysisBenchmark.class.getClassLoader(),
+                new Class<?>[] { Bean.class },
+                (proxy, method, args) -> method.getName().equals("getBeanClass") ? beanClass : null);
+        // Loads the index, if any, out of the measurement
+        analyze();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loader.close();
+        try (Stream<Path> files = Files.walk(classes)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<DefaultMediatorConfiguration> analyze() {
+        List<DefaultMediatorConfiguration> configurations = new ArrayList<>(methods.size());
+        for (Method method : methods) {
+            DefaultMediatorConfiguration configuration = new DefaultMediatorConfiguration(method, bean);
+            Incoming incoming = method.getAnnotation(Incoming.class);
+            configuration.compute(incoming != null ? Collections.singletonList(incoming) : Collections.emptyList(),
+                    method.getAnnotation(Outgoing.class), method.getAnnotation(Blocking.class));
+            configurations.add(configuration);
+        }
+        return configurations;
+    }
+
+    @Benchmark
+    public List<DefaultMediatorConfiguration> startup() {
+        TypeUtils.clearCache();
+        return analyze();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = UNCACHED)
+    public List<DefaultMediatorConfiguration> startupUncached() {
+        return analyze();
+    }
+
+    /**
+     * Loads the given class itself, so it is associated with the index of the given directory, and delegates the
+     * other classes to the class loader of the benchmark.
+     */
+    private static class IsolatingClassLoader extends URLClassLoader {
+
+        private final String isolated;
+
+        IsolatingClassLoader(URL classes, String isolated) {
+            super(new URL[] { classes }, MediatorAnalysisBenchmark.class.getClassLoader());
+            this.isolated = isolated;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(isolated)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                return clazz != null ? clazz : findClass(name);
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class GenericBeans {
+
+        @Incoming("a")
+        @Outgoing("b")
+        public CompletionStage<Message<List<String>>> process(Message<List<String>> message) {
+            return null;
+        }
+
+        @Incoming("c")
+        @Outgoing("d")
+        public Uni<List<Integer>> processPayload(List<Integer> payload) {
+            return null;
+        }
+
+        @Incoming("e")
+        @Outgoing("f")
+        public PublisherBuilder<Message<List<Long>>> transform(PublisherBuilder<Message<List<Long>>> stream) {
+            return null;
+        }
+
+        @Incoming("g")
+        @Outgoing("h")
+        public Publisher<Message<String>> flatMap(Message<List<String>> message) {
+            return null;
+        }
+
+        @Incoming("i")
+        @Batch
+        public CompletionStage<Void> consumeBatch(List<Message<List<String>>> messages) {
+            return null;
+        }
+
+        @Incoming("j")
+        @Acknowledgment(Acknowledgment.Strategy.MANUAL)
+        public Uni<Void> consume(Message<List<String>> message) {
+            return null;
+        }
+
+        @Incoming("k")
+        @Blocking
+        public void consumeBlocking(List<String> payload) {
+        }
+
+        @Outgoing("l")
+        public Multi<Message<List<String>>> produce() {
+            return null;
+        }
+    }
+}
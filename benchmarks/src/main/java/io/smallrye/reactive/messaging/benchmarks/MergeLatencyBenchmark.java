@@ -0,0 +1,161 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.annotations.Merge;
+import io.smallrye.reactive.messaging.helpers.FairMerge;
+
+/**
+ * Measures the latency of the items of a low-rate source merged with a high-rate source, under a skewed load: the
+ * high-rate source always has items available, and the downstream spends some time on each item, so it is saturated.
+ * <p>
+ * Each invocation emits an item on the low-rate source and waits until the downstream receives it. Use the percentiles
+ * reported by the {@code SampleTime} mode to compare the tail latency of the merge modes. The wait is bounded, so an
+ * invocation taking about one second means that the item has been starved.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MergeLatencyBenchmark {
+
+    private static final long HIGH = -1L;
+
+    /**
+     * The maximum time waited for a low-rate item, as the Mutiny merge can starve the low-rate source.
+     */
+    private static final long MAX_WAIT = TimeUnit.SECONDS.toNanos(1);
+
+    @Param({ "MERGE", "ROUND_ROBIN", "WEIGHTED" })
+    public Merge.Mode mode;
+
+    /**
+     * The amount of work done by the downstream for each item, see {@link Blackhole#consumeCPU(long)}.
+     */
+    @Param({ "100" })
+    public long work;
+
+    private ExecutorService executor;
+    private UnicastProcessor<Long> low;
+    private Consumer consumer;
+    private long sequence;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        low = UnicastProcessor.create();
+        List<Publisher<Long>> sources = Arrays.asList(Multi.createFrom().iterable(MergeLatencyBenchmark::infinite), low);
+        Publisher<Long> merged;
+        switch (mode) {
+            case ROUND_ROBIN:
+                merged = new FairMerge<>(sources, null, 16);
+                break;
+            case WEIGHTED:
+                // Favor the low-rate source
+                merged = new FairMerge<>(sources, new int[] { 1, 8 }, 16);
+                break;
+            default:
+                merged = Multi.createBy().merging().streams(sources);
+        }
+        consumer = new Consumer(work);
+        Multi.createFrom().publisher(merged).runSubscriptionOn(executor).subscribe(consumer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        consumer.cancel();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void lowRateItem() {
+        long expected = ++sequence;
+        low.onNext(expected);
+        long deadline = System.nanoTime() + MAX_WAIT;
+        while (consumer.received < expected && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+    }
+
+    private static Iterator<Long> infinite() {
+        return new Iterator<Long>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Long next() {
+                return HIGH;
+            }
+        };
+    }
+
+    private static class Consumer implements Subscriber<Long> {
+        private final long work;
+        private volatile Subscription subscription;
+        private volatile long received;
+
+        private Consumer(long work) {
+            this.work = work;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(Long item) {
+            Blackhole.consumeCPU(work);
+            if (item != HIGH) {
+                received = item;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Ignored
+        }
+
+        @Override
+        public void onComplete() {
+            // Ignored
+        }
+
+        private void cancel() {
+            Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
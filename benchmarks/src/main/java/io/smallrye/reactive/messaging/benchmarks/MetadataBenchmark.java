@@ -0,0 +1,96 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the typical metadata operations performed for each message: building the metadata of an incoming message,
+ * adding metadata along the pipeline, and looking metadata up by class in a sink.
+ * <p>
+ * Run with {@code -prof gc} to get the allocation rate per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetadataBenchmark {
+
+    @Param({ "3", "5" })
+    public int entries;
+
+    private Object[] values;
+    private Message<String> message;
+
+    @Setup
+    public void setup() {
+        Object[] all = { new Meta1(), new Meta2(), new Meta3(), new Meta4(), new Meta5() };
+        values = new Object[entries];
+        System.arraycopy(all, 0, values, 0, entries);
+        message = Message.of("hello", Metadata.of(values));
+    }
+
+    @Benchmark
+    public Metadata create() {
+        return Metadata.of(values);
+    }
+
+    @Benchmark
+    public Message<String> addMetadata() {
+        return message.addMetadata(new Extra());
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        // Same as a sink checking a few optional metadata
+        blackhole.consume(message.getMetadata(Meta1.class));
+        blackhole.consume(message.getMetadata(values[entries - 1].getClass()));
+        blackhole.consume(message.getMetadata(Extra.class));
+    }
+
+    @Benchmark
+    public void pipeline(Blackhole blackhole) {
+        // Incoming message, enriched by a processor, consumed by a sink
+        Message<String> incoming = Message.of("hello", Metadata.of(values));
+        Message<String> enriched = incoming.withPayload("HELLO").addMetadata(new Extra());
+        blackhole.consume(enriched.getMetadata(Meta1.class));
+        blackhole.consume(enriched.getMetadata(Extra.class));
+        blackhole.consume(enriched.getMetadata(Missing.class));
+    }
+
+    public static class Meta1 {
+    }
+
+    public static class Meta2 {
+    }
+
+    public static class Meta3 {
+    }
+
+    public static class Meta4 {
+    }
+
+    public static class Meta5 {
+    }
+
+    public static class Extra {
+    }
+
+    public static class Missing {
+    }
+}
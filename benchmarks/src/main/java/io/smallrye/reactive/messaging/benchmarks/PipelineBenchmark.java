@@ -0,0 +1,100 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class for the benchmarks driving a mediator end-to-end.
+ * <p>
+ * Two benchmarks are provided for each mediator variant:
+ * <ul>
+ * <li>{@code throughput} sends {@link #BATCH} messages per invocation and reports messages per second,</li>
+ * <li>{@code latency} sends a single message and waits for it to reach the end of the pipeline, the sample mode
+ * reports the percentiles (p0.99...).</li>
+ * </ul>
+ * The allocation rate is reported by the {@code gc} profiler enabled by the {@code benchmarks} Maven profile.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class PipelineBenchmark {
+
+    public static final int BATCH = 1000;
+
+    protected BenchmarkContainer container;
+    protected Tracker tracker;
+    private long expected;
+
+    /**
+     * @return the configuration of the application
+     */
+    protected abstract Map<String, String> configuration();
+
+    /**
+     * @return the application beans
+     */
+    protected abstract Class<?>[] beans();
+
+    /**
+     * Requests the emission of the given number of messages.
+     *
+     * @param count the number of messages
+     */
+    protected abstract void emit(int count);
+
+    @Setup(Level.Trial)
+    public void start() {
+        container = BenchmarkContainer.start(configuration(), beans());
+        tracker = container.tracker();
+        expected = tracker.count();
+        onStart();
+    }
+
+    /**
+     * Called once the application has started.
+     */
+    protected void onStart() {
+        // Nothing by default
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        container.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void throughput() {
+        emitAndAwait(BATCH);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void latency() {
+        emitAndAwait(1);
+    }
+
+    private void emitAndAwait(int count) {
+        expected += count;
+        emit(count);
+        tracker.await(expected);
+    }
+}
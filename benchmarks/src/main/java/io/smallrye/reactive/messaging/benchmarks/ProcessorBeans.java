@@ -0,0 +1,119 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+
+/**
+ * The {@code ProcessorMediator} variants, consuming {@code in} and producing {@code out}.
+ */
+public class ProcessorBeans {
+
+    private ProcessorBeans() {
+        // Avoid direct instantiation.
+    }
+
+    @ApplicationScoped
+    public static class PayloadProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public String process(String payload) {
+            return payload;
+        }
+    }
+
+    @ApplicationScoped
+    public static class MessageProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public Message<String> process(Message<String> message) {
+            return message;
+        }
+    }
+
+    @ApplicationScoped
+    public static class CompletionStageOfPayloadProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public CompletionStage<String> process(String payload) {
+            return CompletableFuture.completedFuture(payload);
+        }
+    }
+
+    @ApplicationScoped
+    public static class CompletionStageOfMessageProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public CompletionStage<Message<String>> process(Message<String> message) {
+            return CompletableFuture.completedFuture(message);
+        }
+    }
+
+    @ApplicationScoped
+    public static class UniOfPayloadProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public Uni<String> process(String payload) {
+            return Uni.createFrom().item(payload);
+        }
+    }
+
+    @ApplicationScoped
+    public static class UniOfMessageProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public Uni<Message<String>> process(Message<String> message) {
+            return Uni.createFrom().item(message);
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingOrderedProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        @Blocking
+        public String process(String payload) {
+            return payload;
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingUnorderedProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        @Blocking(ordered = false)
+        public String process(String payload) {
+            return payload;
+        }
+    }
+
+    @ApplicationScoped
+    public static class PublisherOfPayloadProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public Publisher<String> process(String payload) {
+            return Multi.createFrom().item(payload);
+        }
+    }
+
+    @ApplicationScoped
+    public static class ProcessorBuilderOfPayloadProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        public ProcessorBuilder<String, String> process() {
+            return ReactiveStreams.<String> builder().map(payload -> payload);
+        }
+    }
+}
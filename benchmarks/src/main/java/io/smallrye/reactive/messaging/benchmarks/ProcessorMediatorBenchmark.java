@@ -0,0 +1,36 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the {@code ProcessorMediator} production and consumption variants.
+ */
+public class ProcessorMediatorBenchmark extends IncomingPipelineBenchmark {
+
+    public enum Variant {
+        PAYLOAD(ProcessorBeans.PayloadProcessor.class),
+        MESSAGE(ProcessorBeans.MessageProcessor.class),
+        COMPLETION_STAGE_OF_PAYLOAD(ProcessorBeans.CompletionStageOfPayloadProcessor.class),
+        COMPLETION_STAGE_OF_MESSAGE(ProcessorBeans.CompletionStageOfMessageProcessor.class),
+        UNI_OF_PAYLOAD(ProcessorBeans.UniOfPayloadProcessor.class),
+        UNI_OF_MESSAGE(ProcessorBeans.UniOfMessageProcessor.class),
+        BLOCKING_ORDERED(ProcessorBeans.BlockingOrderedProcessor.class),
+        BLOCKING_UNORDERED(ProcessorBeans.BlockingUnorderedProcessor.class),
+        PUBLISHER_OF_PAYLOAD(ProcessorBeans.PublisherOfPayloadProcessor.class),
+        PROCESSOR_BUILDER_OF_PAYLOAD(ProcessorBeans.ProcessorBuilderOfPayloadProcessor.class);
+
+        final Class<?> bean;
+
+        Variant(Class<?> bean) {
+            this.bean = bean;
+        }
+    }
+
+    @Param
+    public Variant variant;
+
+    @Override
+    protected Class<?>[] beans() {
+        return new Class<?>[] { variant.bean, Sink.class };
+    }
+}
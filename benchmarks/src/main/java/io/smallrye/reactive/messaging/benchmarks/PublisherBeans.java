@@ -0,0 +1,110 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+
+/**
+ * The {@code PublisherMediator} variants, producing {@code out}.
+ */
+public class PublisherBeans {
+
+    public static final String PAYLOAD = "hello";
+
+    private PublisherBeans() {
+        // Avoid direct instantiation.
+    }
+
+    @ApplicationScoped
+    public static class PayloadPublisher {
+        @Outgoing("out")
+        public String produce() {
+            return PAYLOAD;
+        }
+    }
+
+    @ApplicationScoped
+    public static class MessagePublisher {
+        @Outgoing("out")
+        public Message<String> produce() {
+            return Message.of(PAYLOAD);
+        }
+    }
+
+    @ApplicationScoped
+    public static class CompletionStageOfPayloadPublisher {
+        @Outgoing("out")
+        public CompletionStage<String> produce() {
+            return CompletableFuture.completedFuture(PAYLOAD);
+        }
+    }
+
+    @ApplicationScoped
+    public static class CompletionStageOfMessagePublisher {
+        @Outgoing("out")
+        public CompletionStage<Message<String>> produce() {
+            return CompletableFuture.completedFuture(Message.of(PAYLOAD));
+        }
+    }
+
+    @ApplicationScoped
+    public static class UniOfPayloadPublisher {
+        @Outgoing("out")
+        public Uni<String> produce() {
+            return Uni.createFrom().item(PAYLOAD);
+        }
+    }
+
+    @ApplicationScoped
+    public static class UniOfMessagePublisher {
+        @Outgoing("out")
+        public Uni<Message<String>> produce() {
+            return Uni.createFrom().item(Message.of(PAYLOAD));
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingOrderedPublisher {
+        @Outgoing("out")
+        @Blocking
+        public String produce() {
+            return PAYLOAD;
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingUnorderedPublisher {
+        @Outgoing("out")
+        @Blocking(ordered = false)
+        public String produce() {
+            return PAYLOAD;
+        }
+    }
+
+    @ApplicationScoped
+    public static class MultiOfPayloadPublisher {
+        @Outgoing("out")
+        public Multi<String> produce() {
+            return Multi.createFrom().items(() -> Stream.generate(() -> PAYLOAD));
+        }
+    }
+
+    @ApplicationScoped
+    public static class PublisherBuilderOfMessagePublisher {
+        @Outgoing("out")
+        public PublisherBuilder<Message<String>> produce() {
+            return ReactiveStreams.generate(() -> Message.of(PAYLOAD));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the {@code PublisherMediator} production variants.
+ * <p>
+ * The produced messages are pulled by the {@link DemandSink}, as publishers emit as fast as they are requested.
+ */
+public class PublisherMediatorBenchmark extends PipelineBenchmark {
+
+    public enum Variant {
+        PAYLOAD(PublisherBeans.PayloadPublisher.class),
+        MESSAGE(PublisherBeans.MessagePublisher.class),
+        COMPLETION_STAGE_OF_PAYLOAD(PublisherBeans.CompletionStageOfPayloadPublisher.class),
+        COMPLETION_STAGE_OF_MESSAGE(PublisherBeans.CompletionStageOfMessagePublisher.class),
+        UNI_OF_PAYLOAD(PublisherBeans.UniOfPayloadPublisher.class),
+        UNI_OF_MESSAGE(PublisherBeans.UniOfMessagePublisher.class),
+        BLOCKING_ORDERED(PublisherBeans.BlockingOrderedPublisher.class),
+        BLOCKING_UNORDERED(PublisherBeans.BlockingUnorderedPublisher.class),
+        MULTI_OF_PAYLOAD(PublisherBeans.MultiOfPayloadPublisher.class),
+        PUBLISHER_BUILDER_OF_MESSAGE(PublisherBeans.PublisherBuilderOfMessagePublisher.class);
+
+        final Class<?> bean;
+
+        Variant(Class<?> bean) {
+            this.bean = bean;
+        }
+    }
+
+    @Param
+    public Variant variant;
+
+    private DemandSink sink;
+
+    @Override
+    protected Map<String, String> configuration() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    protected Class<?>[] beans() {
+        return new Class<?>[] { variant.bean, DemandSink.class };
+    }
+
+    @Override
+    protected void onStart() {
+        sink = container.get(DemandSink.class);
+    }
+
+    @Override
+    protected void emit(int count) {
+        sink.request(count);
+    }
+}
@@ -0,0 +1,22 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+
+/**
+ * Terminal bean consuming the {@code out} channel.
+ */
+@ApplicationScoped
+public class Sink {
+
+    @Inject
+    Tracker tracker;
+
+    @Incoming("out")
+    public void consume(String payload) {
+        tracker.increment();
+    }
+
+}
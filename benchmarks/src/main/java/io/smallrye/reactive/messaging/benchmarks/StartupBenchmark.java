@@ -0,0 +1,140 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.Extension;
+import javax.interceptor.Interceptor;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.DefaultMediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorConfiguration;
+import io.smallrye.reactive.messaging.extension.MediatorManager;
+
+/**
+ * Measures the time needed to start and stop an application with many mediators.
+ * <p>
+ * The mediators are synthetic processors, organized in chains of {@link #depth} processors consuming the same source.
+ * Each chain is declared from its end to its beginning, so a mediator is always declared before its upstream.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    @Param({ "100", "1000", "4000" })
+    public int mediators;
+
+    @Param({ "50" })
+    public int depth;
+
+    @Benchmark
+    public void startAndStop() {
+        SyntheticMediators extension = new SyntheticMediators(mediators, depth);
+        try (BenchmarkContainer container = BenchmarkContainer.start(Collections.emptyMap(),
+                new Extension[] { extension }, SyntheticBeans.class)) {
+            if (!container.get(MediatorManager.class).isInitialized()) {
+                throw new IllegalStateException("The mediators have not been initialized");
+            }
+        }
+    }
+
+    @ApplicationScoped
+    public static class SyntheticBeans {
+
+        @Outgoing("source")
+        public Publisher<Integer> source() {
+            return Multi.createFrom().empty();
+        }
+
+        public int process(int i) {
+            return i;
+        }
+    }
+
+    /**
+     * Adds the synthetic mediators before the reactive messaging extension initializes the mediators.
+     */
+    public static class SyntheticMediators implements Extension {
+
+        private final int count;
+        private final int depth;
+
+        public SyntheticMediators(int count, int depth) {
+            this.count = count;
+            this.depth = depth;
+        }
+
+        void addMediators(@Observes @Priority(Interceptor.Priority.LIBRARY_BEFORE) AfterDeploymentValidation done,
+                BeanManager beanManager) throws NoSuchMethodException {
+            Bean<?> bean = beanManager.resolve(beanManager.getBeans(SyntheticBeans.class));
+            Method method = SyntheticBeans.class.getMethod("process", int.class);
+            List<MediatorConfiguration> configurations = new ArrayList<>();
+            for (int chain = 0; chain < count / depth; chain++) {
+                for (int i = depth - 1; i >= 0; i--) {
+                    String incoming = i == 0 ? "source" : "chain-" + chain + "-" + (i - 1);
+                    String outgoing = "chain-" + chain + "-" + i;
+                    DefaultMediatorConfiguration configuration = new DefaultMediatorConfiguration(method, bean);
+                    configuration.compute(Collections.singletonList(incoming(incoming)), outgoing(outgoing), null);
+                    configurations.add(configuration);
+                }
+            }
+            beanManager.createInstance().select(MediatorManager.class).get().addAnalyzed(configurations);
+        }
+
+        private static Incoming incoming(String channel) {
+            return new Incoming() {
+                @Override
+                public String value() {
+                    return channel;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return Incoming.class;
+                }
+            };
+        }
+
+        private static Outgoing outgoing(String channel) {
+            return new Outgoing() {
+                @Override
+                public String value() {
+                    return channel;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return Outgoing.class;
+                }
+            };
+        }
+    }
+}
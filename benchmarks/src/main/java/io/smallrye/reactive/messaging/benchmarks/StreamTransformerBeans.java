@@ -0,0 +1,67 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+
+/**
+ * The {@code StreamTransformerMediator} variants, transforming {@code in} into {@code out}.
+ */
+public class StreamTransformerBeans {
+
+    private StreamTransformerBeans() {
+        // Avoid direct instantiation.
+    }
+
+    @ApplicationScoped
+    public static class MultiOfPayloadTransformer {
+        @Incoming("in")
+        @Outgoing("out")
+        public Multi<String> transform(Multi<String> stream) {
+            return stream.map(String::toUpperCase);
+        }
+    }
+
+    @ApplicationScoped
+    public static class MultiOfMessageTransformer {
+        @Incoming("in")
+        @Outgoing("out")
+        public Multi<Message<String>> transform(Multi<Message<String>> stream) {
+            return stream.map(m -> m.withPayload(m.getPayload().toUpperCase()));
+        }
+    }
+
+    @ApplicationScoped
+    public static class PublisherOfMessageTransformer {
+        @Incoming("in")
+        @Outgoing("out")
+        public Publisher<Message<String>> transform(Publisher<Message<String>> stream) {
+            return Multi.createFrom().publisher(stream)
+                    .map(m -> m.withPayload(m.getPayload().toUpperCase()));
+        }
+    }
+
+    @ApplicationScoped
+    public static class PublisherBuilderOfPayloadTransformer {
+        @Incoming("in")
+        @Outgoing("out")
+        public PublisherBuilder<String> transform(PublisherBuilder<String> stream) {
+            return stream.map(String::toUpperCase);
+        }
+    }
+
+    @ApplicationScoped
+    public static class PublisherBuilderOfMessageTransformer {
+        @Incoming("in")
+        @Outgoing("out")
+        public PublisherBuilder<Message<String>> transform(PublisherBuilder<Message<String>> stream) {
+            return stream.map(m -> m.withPayload(m.getPayload().toUpperCase()));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the {@code StreamTransformerMediator} variants.
+ */
+public class StreamTransformerMediatorBenchmark extends IncomingPipelineBenchmark {
+
+    public enum Variant {
+        MULTI_OF_PAYLOAD(StreamTransformerBeans.MultiOfPayloadTransformer.class),
+        MULTI_OF_MESSAGE(StreamTransformerBeans.MultiOfMessageTransformer.class),
+        PUBLISHER_OF_MESSAGE(StreamTransformerBeans.PublisherOfMessageTransformer.class),
+        PUBLISHER_BUILDER_OF_PAYLOAD(StreamTransformerBeans.PublisherBuilderOfPayloadTransformer.class),
+        PUBLISHER_BUILDER_OF_MESSAGE(StreamTransformerBeans.PublisherBuilderOfMessageTransformer.class);
+
+        final Class<?> bean;
+
+        Variant(Class<?> bean) {
+            this.bean = bean;
+        }
+    }
+
+    @Param
+    public Variant variant;
+
+    @Override
+    protected Class<?>[] beans() {
+        return new Class<?>[] { variant.bean, Sink.class };
+    }
+}
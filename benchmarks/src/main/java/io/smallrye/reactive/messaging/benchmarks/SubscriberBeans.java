@@ -0,0 +1,137 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.reactivestreams.Subscriber;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+
+/**
+ * The {@code SubscriberMediator} variants, consuming {@code in}.
+ */
+public class SubscriberBeans {
+
+    private SubscriberBeans() {
+        // Avoid direct instantiation.
+    }
+
+    @ApplicationScoped
+    public static class VoidPayloadSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public void consume(String payload) {
+            tracker.increment();
+        }
+    }
+
+    @ApplicationScoped
+    public static class CompletionStageOfPayloadSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public CompletionStage<Void> consume(String payload) {
+            tracker.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @ApplicationScoped
+    public static class CompletionStageOfMessageSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public CompletionStage<Void> consume(Message<String> message) {
+            tracker.increment();
+            return message.ack();
+        }
+    }
+
+    @ApplicationScoped
+    public static class UniOfPayloadSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public Uni<Void> consume(String payload) {
+            tracker.increment();
+            return Uni.createFrom().nullItem();
+        }
+    }
+
+    @ApplicationScoped
+    public static class UniOfMessageSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public Uni<Void> consume(Message<String> message) {
+            tracker.increment();
+            return Uni.createFrom().completionStage(message.ack());
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingOrderedSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        @Blocking
+        public void consume(String payload) {
+            tracker.increment();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingUnorderedSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        @Blocking(ordered = false)
+        public void consume(String payload) {
+            tracker.increment();
+        }
+    }
+
+    @ApplicationScoped
+    public static class SubscriberOfPayloadSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public Subscriber<String> consume() {
+            return ReactiveStreams.<String> builder()
+                    .forEach(payload -> tracker.increment())
+                    .build();
+        }
+    }
+
+    @ApplicationScoped
+    public static class SubscriberBuilderOfMessageSubscriber {
+        @Inject
+        Tracker tracker;
+
+        @Incoming("in")
+        public SubscriberBuilder<Message<String>, Void> consume() {
+            return ReactiveStreams.<Message<String>> builder()
+                    .forEach(message -> {
+                        message.ack();
+                        tracker.increment();
+                    });
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the {@code SubscriberMediator} consumption variants.
+ */
+public class SubscriberMediatorBenchmark extends IncomingPipelineBenchmark {
+
+    public enum Variant {
+        VOID_PAYLOAD(SubscriberBeans.VoidPayloadSubscriber.class),
+        COMPLETION_STAGE_OF_PAYLOAD(SubscriberBeans.CompletionStageOfPayloadSubscriber.class),
+        COMPLETION_STAGE_OF_MESSAGE(SubscriberBeans.CompletionStageOfMessageSubscriber.class),
+        UNI_OF_PAYLOAD(SubscriberBeans.UniOfPayloadSubscriber.class),
+        UNI_OF_MESSAGE(SubscriberBeans.UniOfMessageSubscriber.class),
+        BLOCKING_ORDERED(SubscriberBeans.BlockingOrderedSubscriber.class),
+        BLOCKING_UNORDERED(SubscriberBeans.BlockingUnorderedSubscriber.class),
+        SUBSCRIBER_OF_PAYLOAD(SubscriberBeans.SubscriberOfPayloadSubscriber.class),
+        SUBSCRIBER_BUILDER_OF_MESSAGE(SubscriberBeans.SubscriberBuilderOfMessageSubscriber.class);
+
+        final Class<?> bean;
+
+        Variant(Class<?> bean) {
+            this.bean = bean;
+        }
+    }
+
+    @Param
+    public Variant variant;
+
+    @Override
+    protected Class<?>[] beans() {
+        return new Class<?>[] { variant.bean };
+    }
+}
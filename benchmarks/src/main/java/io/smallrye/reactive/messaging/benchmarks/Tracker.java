@@ -0,0 +1,44 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Bean counting the messages that reached the end of the benchmarked pipeline.
+ * <p>
+ * Benchmarks send messages and then wait until the counter has reached the expected value.
+ */
+@ApplicationScoped
+public class Tracker {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    private final AtomicLong count = new AtomicLong();
+
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Busy-waits until the counter reaches the given value.
+     *
+     * @param expected the expected value
+     * @throws IllegalStateException if the counter did not reach the expected value in time, which denotes a broken
+     *         pipeline
+     */
+    public void await(long expected) {
+        long deadline = System.nanoTime() + TIMEOUT;
+        while (count.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Expected " + expected + " messages, got " + count.get());
+            }
+            Thread.yield();
+        }
+    }
+}
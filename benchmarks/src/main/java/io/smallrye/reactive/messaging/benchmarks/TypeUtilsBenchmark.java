@@ -0,0 +1,103 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.reactive.messaging.helpers.TypeUtils;
+
+/**
+ * Measures the type assignability checks made when resolving a converter ({@link #converter()}) and when injecting a
+ * channel or analyzing a mediator ({@link #injection()}), on a type with a deep generic hierarchy.
+ * <p>
+ * The {@code Uncached} variants disable the cache using the {@link TypeUtils#CACHE_SIZE_PROPERTY} system property.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypeUtilsBenchmark {
+
+    private static final String UNCACHED = "-D" + TypeUtils.CACHE_SIZE_PROPERTY + "=0";
+
+    public Level7<String> deep;
+    public Supplier<? extends List<? extends List<? extends List<? extends List<String>>>>> target;
+    public Map<String, Message<String>> unrelated;
+
+    private Type deepType;
+    private Type targetType;
+    private Type unrelatedType;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        deepType = TypeUtilsBenchmark.class.getField("deep").getGenericType();
+        targetType = TypeUtilsBenchmark.class.getField("target").getGenericType();
+        unrelatedType = TypeUtilsBenchmark.class.getField("unrelated").getGenericType();
+    }
+
+    @Benchmark
+    public boolean converter() {
+        return TypeUtils.isAssignable(Level7.class, targetType);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = UNCACHED)
+    public boolean converterUncached() {
+        return TypeUtils.isAssignable(Level7.class, targetType);
+    }
+
+    @Benchmark
+    public boolean injection() {
+        return TypeUtils.isAssignable(deepType, targetType) && !TypeUtils.isAssignable(unrelatedType, targetType);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = UNCACHED)
+    public boolean injectionUncached() {
+        return TypeUtils.isAssignable(deepType, targetType) && !TypeUtils.isAssignable(unrelatedType, targetType);
+    }
+
+    public static class Level0<T> implements Supplier<T> {
+        @Override
+        public T get() {
+            return null;
+        }
+    }
+
+    public static class Level1<T> extends Level0<T> {
+    }
+
+    public static class Level2<T> extends Level1<List<T>> {
+    }
+
+    public static class Level3<T> extends Level2<T> {
+    }
+
+    public static class Level4<T> extends Level3<List<T>> {
+    }
+
+    public static class Level5<T> extends Level4<T> {
+    }
+
+    public static class Level6<T> extends Level5<List<T>> {
+    }
+
+    public static class Level7<T> extends Level6<List<T>> {
+    }
+}
@@ -5,6 +5,7 @@ import messages.MyMetadata;
 import org.eclipse.microprofile.reactive.messaging.*;
 
 import javax.inject.Inject;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
@@ -61,6 +62,15 @@ public class EmitterExamples {
     }
     // end::message-meta[]
 
+    // tag::batch[]
+    public void sendBatch(List<Double> prices) {
+        CompletionStage<Void> acked = emitterForPrices.sendAll(prices);
+        // the CompletionStage is completed when all the messages
+        // are acknowledged, or failed on the first nack
+        acked.toCompletableFuture().join();
+    }
+    // end::batch[]
+
     // tag::broadcast[]
     @Inject
     @Broadcast
@@ -13,6 +13,7 @@ import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 import org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory;
 
+import io.smallrye.reactive.messaging.RefreshableConfig;
 import io.smallrye.reactive.messaging.annotations.ConnectorAttribute;
 
 /**
@@ -48,6 +49,7 @@ public class CommonConfigurationClassWriter {
             writeImportStatements(out);
             out.println("import " + ConfigProvider.class.getName() + ";");
             out.println("import " + ConnectorFactory.class.getName() + ";");
+            out.println("import " + RefreshableConfig.class.getName() + ";");
 
             writeClassDeclaration(simpleName, connector, out);
             writeConstructorAndConfigAccessor(simpleName, out);
@@ -116,6 +118,18 @@ public class CommonConfigurationClassWriter {
         out.println("  }");
         out.println();
 
+        // Refresh hook
+        out.println("  /**");
+        out.println("   * Reads the connector configuration again, if it is served from a snapshot.");
+        out.println("   * Use this method when the configuration sources are dynamic.");
+        out.println("   */");
+        out.println("  public void refresh() {");
+        out.println("    if (config instanceof RefreshableConfig) {");
+        out.println("      ((RefreshableConfig) config).refresh();");
+        out.println("    }");
+        out.println("  }");
+        out.println();
+
         // Get Channel method
         out.println("  /**");
         out.println("   * @return the channel name");
@@ -124,6 +138,15 @@ public class CommonConfigurationClassWriter {
         out.println("    return config.getValue(ConnectorFactory.CHANNEL_NAME_ATTRIBUTE, String.class);");
         out.println("  }");
         out.println();
+
+        // Get Ingress timestamp method
+        out.println("  /**");
+        out.println("   * @return whether the incoming messages must carry an ingress timestamp");
+        out.println("   */");
+        out.println("  public boolean getIngressTimestamp() {");
+        out.println("    return config.getOptionalValue(\"ingress-timestamp\", Boolean.class).orElse(false);");
+        out.println("  }");
+        out.println();
     }
 
     private void writeValidateMethod(List<ConnectorAttribute> attributes, PrintWriter out) {
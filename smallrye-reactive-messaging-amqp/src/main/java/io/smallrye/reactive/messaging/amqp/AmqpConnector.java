@@ -97,7 +97,8 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
     private Multi<? extends Message<?>> getStreamOfMessages(AmqpReceiver receiver,
             ConnectionHolder holder,
             String address,
-            AmqpFailureHandler onNack) {
+            AmqpFailureHandler onNack,
+            String ingressChannel) {
         log.receiverListeningAddress(address);
 
         // The processor is used to inject AMQP Connection failure in the stream and trigger a retry.
@@ -111,7 +112,7 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
         return Multi.createFrom().deferred(
                 () -> {
                     Multi<? extends Message<?>> stream = receiver.toMulti()
-                            .map(m -> new AmqpMessage<>(m, holder.getContext(), onNack));
+                            .map(m -> new AmqpMessage<>(m, holder.getContext(), onNack, ingressChannel));
                     return Multi.createBy().merging().streams(stream, processor);
                 });
     }
@@ -139,7 +140,8 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
                         .setDurable(durable)
                         .setLinkName(link)))
                 .onItem().invoke(r -> opened.put(ic.getChannel(), true))
-                .onItem().transformToMulti(r -> getStreamOfMessages(r, holder, address, onNack));
+                .onItem().transformToMulti(r -> getStreamOfMessages(r, holder, address, onNack,
+                        ic.getIngressTimestamp() ? ic.getChannel() : null));
 
         Integer interval = ic.getReconnectInterval();
         Integer attempts = ic.getReconnectAttempts();
@@ -0,0 +1,21 @@
+package io.smallrye.reactive.messaging.amqp;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.KeyExtractor;
+
+/**
+ * Uses the group-id of the incoming AMQP message as ordering key.
+ */
+@ApplicationScoped
+public class AmqpGroupIdKeyExtractor implements KeyExtractor {
+
+    @Override
+    public Object extractKey(Message<?> message) {
+        return message.getMetadata(IncomingAmqpMetadata.class)
+                .map(IncomingAmqpMetadata::getGroupId)
+                .orElse(null);
+    }
+}
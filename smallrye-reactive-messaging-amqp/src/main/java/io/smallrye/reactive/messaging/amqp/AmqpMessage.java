@@ -9,6 +9,7 @@ import org.apache.qpid.proton.message.Message;
 import org.apache.qpid.proton.message.MessageError;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.smallrye.reactive.messaging.amqp.fault.AmqpFailureHandler;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.Context;
@@ -22,6 +23,7 @@ public class AmqpMessage<T> implements org.eclipse.microprofile.reactive.messagi
     protected final IncomingAmqpMetadata amqpMetadata;
     private final Context context;
     protected final AmqpFailureHandler onNack;
+    private final IngressMetadata ingress;
 
     @Deprecated
     public static <T> AmqpMessageBuilder<T> builder() {
@@ -32,11 +34,27 @@ public class AmqpMessage<T> implements org.eclipse.microprofile.reactive.messagi
         this(delegate.getDelegate(), context, onNack);
     }
 
+    public AmqpMessage(io.vertx.mutiny.amqp.AmqpMessage delegate, Context context, AmqpFailureHandler onNack,
+            String ingressChannel) {
+        this(delegate.getDelegate(), context, onNack, ingressChannel);
+    }
+
     public AmqpMessage(io.vertx.amqp.AmqpMessage msg, Context context, AmqpFailureHandler onNack) {
+        this(msg, context, onNack, null);
+    }
+
+    public AmqpMessage(io.vertx.amqp.AmqpMessage msg, Context context, AmqpFailureHandler onNack,
+            String ingressChannel) {
         this.message = msg;
         this.context = context;
         this.amqpMetadata = new IncomingAmqpMetadata(this.message);
-        this.metadata = Metadata.of(amqpMetadata);
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            this.metadata = Metadata.of(amqpMetadata, ingress);
+        } else {
+            this.ingress = null;
+            this.metadata = Metadata.of(amqpMetadata);
+        }
         this.onNack = onNack;
     }
 
@@ -50,12 +68,19 @@ public class AmqpMessage<T> implements org.eclipse.microprofile.reactive.messagi
             this.message.accepted();
             future.complete(null);
         });
+        if (ingress != null) {
+            return future.whenComplete((v, f) -> ingress.acknowledged());
+        }
         return future;
     }
 
     @Override
     public CompletionStage<Void> nack(Throwable reason) {
-        return onNack.handle(this, context, reason);
+        CompletionStage<Void> stage = onNack.handle(this, context, reason);
+        if (ingress != null) {
+            return stage.whenComplete((v, f) -> ingress.nacked(reason));
+        }
+        return stage;
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,21 @@
+package io.smallrye.reactive.messaging.amqp;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.MessageIdExtractor;
+
+/**
+ * Uses the message-id of the incoming AMQP message as message identifier.
+ */
+@ApplicationScoped
+public class AmqpMessageIdExtractor implements MessageIdExtractor {
+
+    @Override
+    public String extractId(Message<?> message) {
+        return message.getMetadata(IncomingAmqpMetadata.class)
+                .map(IncomingAmqpMetadata::getId)
+                .orElse(null);
+    }
+}
@@ -5,11 +5,14 @@ import static org.awaitility.Awaitility.await;
 import static org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory.CHANNEL_NAME_ATTRIBUTE;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.messaging.AmqpSequence;
 import org.apache.qpid.proton.amqp.messaging.Data;
@@ -29,6 +32,7 @@ import org.reactivestreams.Subscription;
 
 import io.smallrye.common.constraint.NotNull;
 import io.smallrye.config.SmallRyeConfigProviderResolver;
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.smallrye.reactive.messaging.connectors.ExecutionHolder;
 import io.smallrye.reactive.messaging.extension.MediatorManager;
 import io.vertx.core.json.JsonArray;
@@ -124,6 +128,50 @@ public class AmqpSourceTest extends AmqpBrokerTestBase {
                         .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
     }
 
+    @Test
+    public void testSourceWithIngressTimestamp() {
+        String topic = UUID.randomUUID().toString();
+        Map<String, Object> config = getConfig(topic);
+        config.put("durable", false);
+        config.put("ingress-timestamp", true);
+        config.put("failure-strategy", "reject");
+
+        provider = new AmqpConnector();
+        provider.setup(executionHolder);
+        PublisherBuilder<? extends Message<?>> builder = provider.getPublisherBuilder(new MapBasedConfig(config));
+
+        List<Message<Integer>> messages = new CopyOnWriteArrayList<>();
+        AtomicBoolean opened = new AtomicBoolean();
+        builder.buildRs().subscribe(createSubscriber(messages, opened));
+        await().until(opened::get);
+        await().until(() -> isAmqpConnectorAlive(provider));
+
+        AtomicInteger counter = new AtomicInteger();
+        usage.produce(topic, 2, counter::getAndIncrement);
+        await().until(() -> messages.size() == 2);
+
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        for (Message<Integer> message : messages) {
+            IngressMetadata ingress = message.getMetadata(IngressMetadata.class)
+                    .orElseThrow(() -> new AssertionError("Ingress metadata expected"));
+            assertThat(ingress.getChannel()).isEqualTo(config.get(CHANNEL_NAME_ATTRIBUTE));
+            assertThat(message.getMetadata(IncomingAmqpMetadata.class)).isPresent();
+            ingress.whenAcknowledged()
+                    .whenComplete((x, f) -> latencies.add(System.nanoTime() - ingress.getTimestamp()));
+        }
+
+        // The messages are delivered but not settled yet
+        Queue queue = AmqpBroker.server.getActiveMQServer().locateQueue(SimpleString.toSimpleString(topic));
+        assertThat(queue.getMessageCount()).isEqualTo(2);
+
+        messages.get(0).ack().toCompletableFuture().join();
+        messages.get(1).nack(new Exception("boom")).toCompletableFuture().join();
+        assertThat(latencies).hasSize(2).allSatisfy(latency -> assertThat(latency).isPositive());
+
+        // The acknowledgement and the rejection reach the broker
+        await().until(() -> queue.getMessageCount() == 0);
+    }
+
     @NotNull
     private <T, O> Subscriber<T> createSubscriber(List<Message<O>> messages, AtomicBoolean opened) {
         //noinspection ReactiveStreamsSubscriberImplementation
@@ -127,7 +127,8 @@ public class SnsConnector implements IncomingConnectorFactory, OutgoingConnector
         boolean broadcast = ic.getBroadcast();
         String host = ic.getHost();
         String snsUrl = ic.getSnsUrl();
-        SnsVerticle snsVerticle = new SnsVerticle(host, topic, port, ic.getMockSnsTopics(), snsUrl);
+        String ingressChannel = ic.getIngressTimestamp() ? ic.getChannel() : null;
+        SnsVerticle snsVerticle = new SnsVerticle(host, topic, port, ic.getMockSnsTopics(), snsUrl, ingressChannel);
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         vertx.deployVerticle(snsVerticle, ar -> {
             if (ar.succeeded()) {
@@ -7,9 +7,12 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 
 import com.amazonaws.services.sns.message.SnsNotification;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+
 /**
  * Implementation of {@link Message} for SNS. Currently, it only support payload of type {@code String}.
  *
@@ -25,6 +28,14 @@ public class SnsMessage implements Message<String> {
      * String payload, used for testing
      */
     private final String payload;
+    /**
+     * Ingress metadata, {@code null} if the ingress timestamp is disabled
+     */
+    private final IngressMetadata ingress;
+    /**
+     * Metadata, containing the ingress metadata if any
+     */
+    private final Metadata metadata;
 
     /**
      * Constructor for AWS SNS.
@@ -32,9 +43,21 @@ public class SnsMessage implements Message<String> {
      * @param snsNotification the notification, must not be {@code null}
      */
     public SnsMessage(SnsNotification snsNotification) {
+        this(snsNotification, null);
+    }
+
+    /**
+     * Constructor for AWS SNS.
+     *
+     * @param snsNotification the notification, must not be {@code null}
+     * @param ingressChannel the channel recorded in the ingress metadata, {@code null} to not attach it
+     */
+    public SnsMessage(SnsNotification snsNotification, String ingressChannel) {
         Objects.requireNonNull(snsNotification, msg.messageNotNull());
         this.snsNotification = snsNotification;
         payload = null;
+        ingress = ingressChannel != null ? IngressMetadata.now(ingressChannel) : null;
+        metadata = ingress != null ? Metadata.of(ingress) : Metadata.empty();
     }
 
     /**
@@ -43,16 +66,45 @@ public class SnsMessage implements Message<String> {
      * @param payload the payload.
      */
     public SnsMessage(String payload) {
+        this(payload, null);
+    }
+
+    /**
+     * Constructor for fake SNS.
+     *
+     * @param payload the payload.
+     * @param ingressChannel the channel recorded in the ingress metadata, {@code null} to not attach it
+     */
+    public SnsMessage(String payload, String ingressChannel) {
         this.payload = payload;
         snsNotification = null;
+        ingress = ingressChannel != null ? IngressMetadata.now(ingressChannel) : null;
+        metadata = ingress != null ? Metadata.of(ingress) : Metadata.empty();
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return metadata;
     }
 
     @Override
     public CompletionStage<Void> ack() {
         //Acknowledgment is handled automatically by AWS SDK.
+        if (ingress != null) {
+            ingress.acknowledged();
+        }
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        CompletionStage<Void> stage = Message.super.nack(reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
+    }
+
     @Override
     public String getPayload() {
         return snsNotification != null ? snsNotification.getMessage() : payload;
@@ -35,6 +35,7 @@ public class SnsVerticle extends AbstractVerticle {
     private final int port;
     private final boolean mockSns;
     private final String snsUrl;
+    private final String ingressChannel;
 
     private final SnsMessageManager messageManager = new SnsMessageManager();
     private final BlockingQueue<SnsMessage> msgQ = new LinkedBlockingDeque<>();
@@ -51,11 +52,26 @@ public class SnsVerticle extends AbstractVerticle {
      * @param snsUrl the SNS url
      */
     public SnsVerticle(String endpoint, String topic, int port, boolean mockSns, String snsUrl) {
+        this(endpoint, topic, port, mockSns, snsUrl, null);
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param endpoint Endpoint url.
+     * @param topic SNS topic name.
+     * @param port listening port for this verticle.
+     * @param mockSns {@code true} if it is mock/non-sns topic.
+     * @param snsUrl the SNS url
+     * @param ingressChannel the channel recorded in the ingress metadata of the messages, {@code null} to not attach it
+     */
+    public SnsVerticle(String endpoint, String topic, int port, boolean mockSns, String snsUrl, String ingressChannel) {
         this.topic = topic;
         this.endpoint = endpoint;
         this.port = port;
         this.mockSns = mockSns;
         this.snsUrl = snsUrl;
+        this.ingressChannel = ingressChannel;
     }
 
     @Override
@@ -108,7 +124,7 @@ public class SnsVerticle extends AbstractVerticle {
             //In case of fake SNS. it will receive message without full AWS SNS attributes
             //so messageManager will not do its full functionality and it will not work.
             //In case of test/fake SNS will receive message and add it directly to msgQ and return success.
-            SnsMessage snsMessage = new SnsMessage(snsNotification.getString("Message"));
+            SnsMessage snsMessage = new SnsMessage(snsNotification.getString("Message"), ingressChannel);
             msgQ.add(snsMessage);
             routingContext.response().setStatusCode(200).end();
             return;
@@ -118,7 +134,7 @@ public class SnsVerticle extends AbstractVerticle {
 
                     @Override
                     public void handle(SnsNotification notification) {
-                        SnsMessage snsMessage = new SnsMessage(notification);
+                        SnsMessage snsMessage = new SnsMessage(notification, ingressChannel);
                         msgQ.add(snsMessage);
                         log.messageAddedToQueue();
                     }
@@ -84,6 +84,7 @@ public class CamelConnector implements IncomingConnectorFactory, OutgoingConnect
         String name = ic.getEndpointUri();
         CamelFailureHandler.Strategy strategy = CamelFailureHandler.Strategy.from(ic.getFailureStrategy());
         CamelFailureHandler onNack = createFailureHandler(strategy, ic.getChannel());
+        String ingressChannel = ic.getIngressTimestamp() ? ic.getChannel() : null;
 
         Publisher<Exchange> publisher;
         if (name.startsWith(REACTIVE_STREAMS_SCHEME)) {
@@ -97,7 +98,7 @@ public class CamelConnector implements IncomingConnectorFactory, OutgoingConnect
         }
 
         return ReactiveStreams.fromPublisher(publisher)
-                .map(ex -> new CamelMessage<>(ex, onNack));
+                .map(ex -> new CamelMessage<>(ex, onNack, ingressChannel));
     }
 
     @Override
@@ -6,15 +6,29 @@ import org.apache.camel.Exchange;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+
 public class CamelMessage<T> implements Message<T> {
     private final Exchange exchange;
     private final Metadata metadata;
     private final CamelFailureHandler onNack;
+    private final IngressMetadata ingress;
 
     public CamelMessage(Exchange exchange, CamelFailureHandler onNack) {
+        this(exchange, onNack, null);
+    }
+
+    public CamelMessage(Exchange exchange, CamelFailureHandler onNack, String ingressChannel) {
         this.exchange = exchange;
         this.onNack = onNack;
-        metadata = Metadata.of(new IncomingExchangeMetadata(exchange));
+        IncomingExchangeMetadata exchangeMetadata = new IncomingExchangeMetadata(exchange);
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            metadata = Metadata.of(exchangeMetadata, ingress);
+        } else {
+            this.ingress = null;
+            metadata = Metadata.of(exchangeMetadata);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -36,8 +50,21 @@ public class CamelMessage<T> implements Message<T> {
         return metadata;
     }
 
+    @Override
+    public CompletionStage<Void> ack() {
+        CompletionStage<Void> stage = Message.super.ack();
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.acknowledged());
+        }
+        return stage;
+    }
+
     @Override
     public CompletionStage<Void> nack(Throwable reason) {
-        return onNack.handle(this, reason);
+        CompletionStage<Void> stage = onNack.handle(this, reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
     }
 }
@@ -80,6 +80,7 @@ public class PubSubConnector implements IncomingConnectorFactory, OutgoingConnec
     public PublisherBuilder<? extends Message<?>> getPublisherBuilder(final Config config) {
         final PubSubConfig pubSubConfig = new PubSubConfig(projectId, getTopic(config), getCredentialPath(config),
                 getSubscription(config), mockPubSubTopics, host.orElse(null), port.orElse(null));
+        final String ingressChannel = getIngressChannel(config);
 
         return ReactiveStreams.fromCompletionStage(CompletableFuture.supplyAsync(() -> {
             createTopic(pubSubConfig);
@@ -87,7 +88,7 @@ public class PubSubConnector implements IncomingConnectorFactory, OutgoingConnec
             return pubSubConfig;
         }, executorService))
                 .flatMapRsPublisher(
-                        cfg -> Multi.createFrom().emitter(new PubSubSource(cfg, pubSubManager)));
+                        cfg -> Multi.createFrom().emitter(new PubSubSource(cfg, pubSubManager, ingressChannel)));
     }
 
     @Override
@@ -151,6 +152,13 @@ public class PubSubConnector implements IncomingConnectorFactory, OutgoingConnec
         return config.getValue("subscription", String.class);
     }
 
+    private static String getIngressChannel(final Config config) {
+        if (config.getOptionalValue("ingress-timestamp", Boolean.class).orElse(false)) {
+            return config.getValue(ConnectorFactory.CHANNEL_NAME_ATTRIBUTE, String.class);
+        }
+        return null;
+    }
+
     private static Path getCredentialPath(final Config config) {
         return config.getOptionalValue("credential-path", String.class)
                 .map(File::new)
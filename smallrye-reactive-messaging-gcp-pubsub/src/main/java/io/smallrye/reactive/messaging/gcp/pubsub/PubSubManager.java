@@ -53,7 +53,11 @@ public class PubSubManager {
     }
 
     public void subscriber(PubSubConfig config, MultiEmitter<? super Message<?>> emitter) {
-        final Subscriber subscriber = buildSubscriber(config, new PubSubMessageReceiver(emitter));
+        subscriber(config, null, emitter);
+    }
+
+    public void subscriber(PubSubConfig config, String ingressChannel, MultiEmitter<? super Message<?>> emitter) {
+        final Subscriber subscriber = buildSubscriber(config, new PubSubMessageReceiver(emitter, ingressChannel));
         emitter.onTermination(() -> {
             subscriber.stopAsync();
             try {
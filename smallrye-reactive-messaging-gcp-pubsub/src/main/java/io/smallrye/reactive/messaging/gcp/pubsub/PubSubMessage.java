@@ -7,24 +7,40 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
 import com.google.pubsub.v1.PubsubMessage;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+
 public class PubSubMessage implements Message<String> {
 
     private final PubsubMessage message;
 
     private final AckReplyConsumer ackReplyConsumer;
 
+    private final IngressMetadata ingress;
+
+    private final Metadata metadata;
+
     public PubSubMessage(final PubsubMessage message) {
         this.message = Objects.requireNonNull(message, msg.isRequired("message"));
         this.ackReplyConsumer = null;
+        this.ingress = null;
+        this.metadata = Metadata.empty();
     }
 
     public PubSubMessage(final PubsubMessage message, final AckReplyConsumer ackReplyConsumer) {
+        this(message, ackReplyConsumer, null);
+    }
+
+    public PubSubMessage(final PubsubMessage message, final AckReplyConsumer ackReplyConsumer,
+            final String ingressChannel) {
         this.message = Objects.requireNonNull(message, msg.isRequired("message"));
         this.ackReplyConsumer = Objects.requireNonNull(ackReplyConsumer, msg.isRequired("ackReplyConsumer"));
+        this.ingress = ingressChannel != null ? IngressMetadata.now(ingressChannel) : null;
+        this.metadata = ingress != null ? Metadata.of(ingress) : Metadata.empty();
     }
 
     public PubsubMessage getMessage() {
@@ -36,14 +52,31 @@ public class PubSubMessage implements Message<String> {
         return message.getData().toStringUtf8();
     }
 
+    @Override
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
     @Override
     public CompletionStage<Void> ack() {
         if (ackReplyConsumer != null) {
             ackReplyConsumer.ack();
         }
+        if (ingress != null) {
+            ingress.acknowledged();
+        }
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        CompletionStage<Void> stage = Message.super.nack(reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
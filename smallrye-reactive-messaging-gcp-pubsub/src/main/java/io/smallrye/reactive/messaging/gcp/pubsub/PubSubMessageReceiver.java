@@ -17,14 +17,21 @@ public class PubSubMessageReceiver implements MessageReceiver {
 
     private final MultiEmitter<? super Message<?>> emitter;
 
+    private final String ingressChannel;
+
     public PubSubMessageReceiver(MultiEmitter<? super Message<?>> emitter) {
+        this(emitter, null);
+    }
+
+    public PubSubMessageReceiver(MultiEmitter<? super Message<?>> emitter, String ingressChannel) {
         this.emitter = Objects.requireNonNull(emitter, msg.isRequired("emitter"));
+        this.ingressChannel = ingressChannel;
     }
 
     @Override
     public void receiveMessage(final PubsubMessage message, final AckReplyConsumer ackReplyConsumer) {
         log.receivedMessage(message);
-        emitter.emit(new PubSubMessage(message, ackReplyConsumer));
+        emitter.emit(new PubSubMessage(message, ackReplyConsumer, ingressChannel));
     }
 
 }
@@ -15,14 +15,21 @@ public class PubSubSource implements Consumer<MultiEmitter<? super Message<?>>>
 
     private final PubSubManager manager;
 
+    private final String ingressChannel;
+
     public PubSubSource(final PubSubConfig config, final PubSubManager manager) {
+        this(config, manager, null);
+    }
+
+    public PubSubSource(final PubSubConfig config, final PubSubManager manager, final String ingressChannel) {
         this.config = Objects.requireNonNull(config, msg.isRequired("config"));
         this.manager = Objects.requireNonNull(manager, msg.isRequired("manager"));
+        this.ingressChannel = ingressChannel;
     }
 
     @Override
     public void accept(MultiEmitter<? super Message<?>> emitter) {
-        manager.subscriber(config, emitter);
+        manager.subscriber(config, ingressChannel, emitter);
     }
 
 }
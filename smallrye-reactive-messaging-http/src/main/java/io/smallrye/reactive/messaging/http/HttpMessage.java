@@ -12,6 +12,8 @@ import java.util.function.Supplier;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+
 public class HttpMessage<T> implements Message<T> {
 
     private final T payload;
@@ -21,9 +23,13 @@ public class HttpMessage<T> implements Message<T> {
     private final HttpRequestMetadata incomingHttpMetadata;
 
     HttpMessage(HttpRequestMetadata metadata, T payload, Supplier<CompletionStage<Void>> ack) {
+        this(metadata, null, payload, ack);
+    }
+
+    HttpMessage(HttpRequestMetadata metadata, IngressMetadata ingress, T payload, Supplier<CompletionStage<Void>> ack) {
         this.incomingHttpMetadata = metadata;
         this.outgoingHttpMetadata = null;
-        this.metadata = Metadata.of(metadata);
+        this.metadata = ingress != null ? Metadata.of(metadata, ingress) : Metadata.of(metadata);
         this.payload = payload;
         this.ack = ack;
     }
@@ -11,6 +11,7 @@ import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.MultiMap;
@@ -23,12 +24,14 @@ public class HttpSource {
     private final String host;
     private final int port;
     private final Vertx vertx;
+    private final String ingressChannel;
     private HttpServer server;
 
     HttpSource(Vertx vertx, HttpConnectorIncomingConfiguration config) {
         this.vertx = vertx;
         this.host = config.getHost();
         this.port = config.getPort();
+        this.ingressChannel = config.getIngressTimestamp() ? config.getChannel() : null;
     }
 
     PublisherBuilder<? extends Message<?>> source() {
@@ -56,6 +59,7 @@ public class HttpSource {
     }
 
     private CompletionStage<HttpMessage<byte[]>> toMessage(HttpServerRequest request) {
+        IngressMetadata ingress = ingressChannel != null ? IngressMetadata.now(ingressChannel) : null;
 
         Map<String, List<String>> h = new HashMap<>();
         Map<String, List<String>> q = new HashMap<>();
@@ -73,17 +77,23 @@ public class HttpSource {
         CompletableFuture<HttpMessage<byte[]>> future = new CompletableFuture<>();
         if (request.method() == HttpMethod.PUT || request.method() == HttpMethod.POST) {
             request.bodyHandler(buffer -> {
-                HttpMessage<byte[]> message = new HttpMessage<>(meta, buffer.getBytes(), () -> {
+                HttpMessage<byte[]> message = new HttpMessage<>(meta, ingress, buffer.getBytes(), () -> {
                     // Send the response when the message has been acked.
                     request.response().setStatusCode(202).endAndForget();
+                    if (ingress != null) {
+                        ingress.acknowledged();
+                    }
                     return CompletableFuture.completedFuture(null);
                 });
                 future.complete(message);
             });
         } else {
-            HttpMessage<byte[]> message = new HttpMessage<>(meta, new byte[0], () -> {
+            HttpMessage<byte[]> message = new HttpMessage<>(meta, ingress, new byte[0], () -> {
                 // Send the response when the message has been acked.
                 request.response().setStatusCode(202).endAndForget();
+                if (ingress != null) {
+                    ingress.acknowledged();
+                }
                 return CompletableFuture.completedFuture(null);
             });
             future.complete(message);
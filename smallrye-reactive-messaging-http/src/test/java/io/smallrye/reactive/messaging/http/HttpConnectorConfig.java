@@ -61,6 +61,11 @@ public class HttpConnectorConfig implements Config {
         return this;
     }
 
+    public HttpConnectorConfig ingressTimestamp() {
+        map.put(prefix + "ingress-timestamp", true);
+        return this;
+    }
+
     @SuppressWarnings("ResultOfMethodCallIgnored")
     void write() {
         File out = new File("target/test-classes/META-INF/microprofile-config.properties");
@@ -0,0 +1,79 @@
+package io.smallrye.reactive.messaging.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.smallrye.reactive.messaging.IngressMetadata;
+
+public class HttpSourceIngressTimestampTest extends HttpTestBase {
+
+    @Before
+    public void setup() {
+        RestAssured.reset();
+        addClasses(Receiver.class);
+        addConfig(new HttpConnectorConfig("sink", "incoming", null).ingressTimestamp());
+        initialize();
+
+        await()
+                .catchUncaughtExceptions()
+                .until(() -> {
+                    Response response = RestAssured.get("/health").andReturn();
+                    return response.statusCode() == 200;
+                });
+    }
+
+    @Test
+    public void testWithIngressTimestamp() {
+        Response response = RestAssured
+                .given()
+                .body("hello")
+                .post("/message")
+                .thenReturn();
+        assertThat(response.statusCode()).isEqualTo(202);
+
+        List<HttpMessage<?>> list = get(Receiver.class).list();
+        assertThat(list).hasSize(1);
+        assertThat(list.get(0).getMetadata(IngressMetadata.class))
+                .hasValueSatisfying(ingress -> assertThat(ingress.getChannel()).isEqualTo("sink"));
+        assertThat(list.get(0).getMetadata(HttpRequestMetadata.class)).isPresent();
+        // The acknowledgement completes before the response is sent
+        assertThat(get(Receiver.class).latencies()).hasSize(1).allSatisfy(latency -> assertThat(latency).isPositive());
+    }
+
+    @ApplicationScoped
+    public static class Receiver {
+
+        final List<HttpMessage<?>> list = new CopyOnWriteArrayList<>();
+        final List<Long> latencies = new CopyOnWriteArrayList<>();
+
+        @Incoming("sink")
+        public CompletionStage<Void> receive(Message<?> m) {
+            list.add((HttpMessage<?>) m);
+            IngressMetadata.fromMessage(m).ifPresent(ingress -> ingress.whenAcknowledged()
+                    .thenRun(() -> latencies.add(System.nanoTime() - ingress.getTimestamp())));
+            return m.ack();
+        }
+
+        public List<HttpMessage<?>> list() {
+            return list;
+        }
+
+        public List<Long> latencies() {
+            return latencies;
+        }
+    }
+
+}
@@ -24,6 +24,7 @@ import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 
 import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.helpers.MessageUtils;
 
 /**
  * An implementation of connector used for testing applications without having to use external broker.
@@ -143,7 +144,11 @@ public class InMemoryConnector implements IncomingConnectorFactory, OutgoingConn
     public PublisherBuilder<? extends Message<?>> getPublisherBuilder(Config config) {
         String name = config.getOptionalValue("channel-name", String.class)
                 .orElseThrow(ex::illegalArgumentInvalidIncomingConfig);
-        return sources.computeIfAbsent(name, InMemorySourceImpl::new).source;
+        InMemorySourceImpl<?> source = sources.computeIfAbsent(name, InMemorySourceImpl::new);
+        if (config.getOptionalValue("ingress-timestamp", Boolean.class).orElse(false)) {
+            source.ingressChannel = name;
+        }
+        return source.source;
     }
 
     @Override
@@ -208,6 +213,7 @@ public class InMemoryConnector implements IncomingConnectorFactory, OutgoingConn
         private final UnicastProcessor<Message<T>> processor;
         private final PublisherBuilder<? extends Message<T>> source;
         private final String name;
+        private volatile String ingressChannel;
 
         private InMemorySourceImpl(String name) {
             this.name = name;
@@ -221,13 +227,20 @@ public class InMemoryConnector implements IncomingConnectorFactory, OutgoingConn
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public InMemorySource<T> send(T messageOrPayload) {
+            Message<T> message;
             if (messageOrPayload instanceof Message) {
-                //noinspection unchecked
-                processor.onNext((Message<T>) messageOrPayload);
+                message = (Message<T>) messageOrPayload;
             } else {
-                processor.onNext(Message.of(messageOrPayload));
+                message = Message.of(messageOrPayload);
+            }
+            String channel = ingressChannel;
+            if (channel != null) {
+                // Stamped when sent, as the processor buffers the messages
+                message = (Message<T>) MessageUtils.withIngressMetadata(message, channel);
             }
+            processor.onNext(message);
             return this;
         }
 
@@ -19,6 +19,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+
 public class InMemoryConnectorTest extends WeldTestBase {
 
     @Before
@@ -71,6 +73,31 @@ public class InMemoryConnectorTest extends WeldTestBase {
         assertThat(acked).isTrue();
     }
 
+    @Test
+    public void testWithIngressTimestamp() {
+        releaseConfig();
+        Map<String, Object> conf = new HashMap<>();
+        conf.put("mp.messaging.incoming.foo.connector", InMemoryConnector.CONNECTOR);
+        conf.put("mp.messaging.incoming.foo.ingress-timestamp", true);
+        conf.put("mp.messaging.outgoing.bar.connector", InMemoryConnector.CONNECTOR);
+        installConfig(new MapBasedConfig(conf));
+
+        addBeanClass(MyBeanReceivingMessage.class);
+        initialize();
+        InMemoryConnector bean = container.getBeanManager().createInstance()
+                .select(InMemoryConnector.class, ConnectorLiteral.of(InMemoryConnector.CONNECTOR)).get();
+        InMemorySource<String> foo = bean.source("foo");
+        InMemorySink<String> bar = bean.sink("bar");
+        foo.send("hello");
+
+        assertThat(bar.received()).hasSize(1);
+        IngressMetadata ingress = bar.received().get(0).getMetadata(IngressMetadata.class)
+                .orElseThrow(() -> new AssertionError("Ingress metadata expected"));
+        assertThat(ingress.getChannel()).isEqualTo("foo");
+        // The sink acknowledges the messages
+        assertThat(ingress.whenAcknowledged().toCompletableFuture()).isCompleted();
+    }
+
     @Test
     public void testWithMultiplePayloads() {
         addBeanClass(MyBeanReceivingString.class);
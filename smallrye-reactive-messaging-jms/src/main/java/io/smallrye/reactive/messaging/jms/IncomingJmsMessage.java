@@ -12,6 +12,8 @@ import javax.json.bind.Jsonb;
 
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+
 public class IncomingJmsMessage<T> implements org.eclipse.microprofile.reactive.messaging.Message<T> {
     private final Message delegate;
     private final Executor executor;
@@ -19,8 +21,13 @@ public class IncomingJmsMessage<T> implements org.eclipse.microprofile.reactive.
     private final Jsonb json;
     private final IncomingJmsMessageMetadata jmsMetadata;
     private final Metadata metadata;
+    private final IngressMetadata ingress;
 
     IncomingJmsMessage(Message message, Executor executor, Jsonb json) {
+        this(message, executor, json, null);
+    }
+
+    IncomingJmsMessage(Message message, Executor executor, Jsonb json, String ingressChannel) {
         this.delegate = message;
         this.json = json;
         this.executor = executor;
@@ -40,7 +47,13 @@ public class IncomingJmsMessage<T> implements org.eclipse.microprofile.reactive.
         }
 
         this.jmsMetadata = new IncomingJmsMessageMetadata(message);
-        this.metadata = Metadata.of(this.jmsMetadata);
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            this.metadata = Metadata.of(this.jmsMetadata, this.ingress);
+        } else {
+            this.ingress = null;
+            this.metadata = Metadata.of(this.jmsMetadata);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -103,13 +116,26 @@ public class IncomingJmsMessage<T> implements org.eclipse.microprofile.reactive.
 
     @Override
     public CompletionStage<Void> ack() {
-        return CompletableFuture.runAsync(() -> {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
             try {
                 delegate.acknowledge();
             } catch (JMSException e) {
                 throw new IllegalArgumentException();
             }
         }, executor);
+        if (ingress != null) {
+            return future.whenComplete((x, f) -> ingress.acknowledged());
+        }
+        return future;
+    }
+
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        CompletionStage<Void> stage = org.eclipse.microprofile.reactive.messaging.Message.super.nack(reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
     }
 
     @Override
@@ -0,0 +1,21 @@
+package io.smallrye.reactive.messaging.jms;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.MessageIdExtractor;
+
+/**
+ * Uses the message id of the incoming JMS message as message identifier.
+ */
+@ApplicationScoped
+public class JmsMessageIdExtractor implements MessageIdExtractor {
+
+    @Override
+    public String extractId(Message<?> message) {
+        return message.getMetadata(IncomingJmsMessageMetadata.class)
+                .map(IncomingJmsMessageMetadata::getMessageId)
+                .orElse(null);
+    }
+}
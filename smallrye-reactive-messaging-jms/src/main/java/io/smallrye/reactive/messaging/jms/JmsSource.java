@@ -38,6 +38,7 @@ class JmsSource {
         boolean nolocal = config.getNoLocal();
         boolean broadcast = config.getBroadcast();
         boolean durable = config.getDurable();
+        String ingressChannel = config.getIngressTimestamp() ? config.getChannel() : null;
 
         Destination destination = getDestination(context, name, config);
 
@@ -54,11 +55,11 @@ class JmsSource {
         publisher = new JmsPublisher(consumer);
 
         if (!broadcast) {
-            source = ReactiveStreams.fromPublisher(publisher).map(m -> new IncomingJmsMessage<>(m, executor, json));
+            source = ReactiveStreams.fromPublisher(publisher).map(m -> new IncomingJmsMessage<>(m, executor, json, ingressChannel));
         } else {
             source = ReactiveStreams.fromPublisher(
                     Multi.createFrom().publisher(publisher)
-                            .map(m -> new IncomingJmsMessage<>(m, executor, json))
+                            .map(m -> new IncomingJmsMessage<>(m, executor, json, ingressChannel))
                             .broadcast().toAllSubscribers());
         }
     }
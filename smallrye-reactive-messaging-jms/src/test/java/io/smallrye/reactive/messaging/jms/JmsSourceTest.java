@@ -10,11 +10,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import javax.jms.JMSConsumer;
 import javax.jms.JMSContext;
 import javax.jms.JMSException;
 import javax.jms.JMSProducer;
@@ -32,6 +38,7 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.smallrye.reactive.messaging.jms.support.JmsTestBase;
 import io.smallrye.reactive.messaging.jms.support.MapBasedConfig;
 
@@ -207,6 +214,57 @@ public class JmsSourceTest extends JmsTestBase {
                 .containsAll(IntStream.of(49).boxed().collect(Collectors.toList()));
     }
 
+    @Test
+    public void testIngressTimestamp() {
+        Queue q = jms.createQueue("queue");
+        JMSProducer producer = jms.createProducer();
+
+        // Both messages are sent first, so the auto-created queue is never empty and deleted during the test
+        producer.setProperty("outcome", "ack").send(q, "acked");
+        producer.setProperty("outcome", "nack").send(q, "nacked");
+        receiveWithIngressTimestamp("outcome = 'ack'", message -> message.ack());
+        receiveWithIngressTimestamp("outcome = 'nack'", message -> message.nack(new Exception("boom")));
+
+        // The acknowledgement reached the broker, only the nacked message is redelivered
+        JMSConsumer consumer = jms.createConsumer(q);
+        assertThat(consumer.receiveBody(String.class, 5000)).isEqualTo("nacked");
+        assertThat(consumer.receiveNoWait()).isNull();
+        consumer.close();
+    }
+
+    private void receiveWithIngressTimestamp(String selector,
+            Function<IncomingJmsMessage<?>, CompletionStage<Void>> acknowledgement) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // With CLIENT_ACKNOWLEDGE, closing the context without acknowledging the message makes it available again
+        JMSContext context = factory.createContext(JMSContext.CLIENT_ACKNOWLEDGE);
+        JmsSource source = new JmsSource(context,
+                new JmsConnectorIncomingConfiguration(new MapBasedConfig.Builder()
+                        .put("channel-name", "queue").put("selector", selector).put("ingress-timestamp", true)
+                        .build()),
+                null, executor);
+        try {
+            List<IncomingJmsMessage<?>> list = new CopyOnWriteArrayList<>();
+            source.getSource().forEach(list::add).run();
+            await().until(() -> list.size() == 1);
+
+            IncomingJmsMessage<?> message = list.get(0);
+            IngressMetadata ingress = message.getMetadata(IngressMetadata.class)
+                    .orElseThrow(() -> new AssertionError("Ingress metadata expected"));
+            assertThat(ingress.getChannel()).isEqualTo("queue");
+            assertThat(message.getMetadata(IncomingJmsMessageMetadata.class)).isPresent();
+            AtomicLong latency = new AtomicLong(-1);
+            ingress.whenAcknowledged()
+                    .whenComplete((x, f) -> latency.set(System.nanoTime() - ingress.getTimestamp()));
+
+            acknowledgement.apply(message).toCompletableFuture().join();
+            assertThat(latency.get()).isPositive();
+        } finally {
+            source.close();
+            context.close();
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testBroadcast() {
         JmsSource source = new JmsSource(jms,
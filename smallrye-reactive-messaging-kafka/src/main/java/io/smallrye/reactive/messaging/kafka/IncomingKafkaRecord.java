@@ -10,6 +10,7 @@ import org.eclipse.microprofile.reactive.messaging.Metadata;
 
 import io.grpc.Context;
 import io.opentelemetry.OpenTelemetry;
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.smallrye.reactive.messaging.TracingMetadata;
 import io.smallrye.reactive.messaging.ce.CloudEventMetadata;
 import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
@@ -25,12 +26,22 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T> {
     private final KafkaCommitHandler commitHandler;
     private final KafkaFailureHandler onNack;
     private final T payload;
+    private final IngressMetadata ingress;
 
     public IncomingKafkaRecord(KafkaConsumerRecord<K, T> record,
             KafkaCommitHandler commitHandler,
             KafkaFailureHandler onNack,
             boolean cloudEventEnabled,
             boolean tracingEnabled) {
+        this(record, commitHandler, onNack, cloudEventEnabled, tracingEnabled, null);
+    }
+
+    public IncomingKafkaRecord(KafkaConsumerRecord<K, T> record,
+            KafkaCommitHandler commitHandler,
+            KafkaFailureHandler onNack,
+            boolean cloudEventEnabled,
+            boolean tracingEnabled,
+            String ingressChannel) {
         this.commitHandler = commitHandler;
         this.kafkaMetadata = new IncomingKafkaRecordMetadata<>(record);
 
@@ -69,6 +80,13 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T> {
             meta.add(tracingMetadata);
         }
 
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            meta.add(this.ingress);
+        } else {
+            this.ingress = null;
+        }
+
         this.metadata = Metadata.from(meta);
         this.onNack = onNack;
         if (payload == null && !payloadSet) {
@@ -124,12 +142,20 @@ public class IncomingKafkaRecord<K, T> implements KafkaRecord<K, T> {
 
     @Override
     public CompletionStage<Void> ack() {
-        return commitHandler.handle(this);
+        CompletionStage<Void> stage = commitHandler.handle(this);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.acknowledged());
+        }
+        return stage;
     }
 
     @Override
     public CompletionStage<Void> nack(Throwable reason) {
-        return onNack.handle(this, reason);
+        CompletionStage<Void> stage = onNack.handle(this, reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
     }
 
     public synchronized void injectTracingMetadata(TracingMetadata tracingMetadata) {
@@ -0,0 +1,34 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.nio.ByteBuffer;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.KeyExtractor;
+
+/**
+ * Uses the key of the incoming Kafka record as ordering key.
+ * <p>
+ * {@code byte[]} keys are wrapped in a {@link ByteBuffer}, as arrays do not implement {@code equals} and
+ * {@code hashCode}.
+ */
+@ApplicationScoped
+public class KafkaKeyExtractor implements KeyExtractor {
+
+    @Override
+    public Object extractKey(Message<?> message) {
+        return message.getMetadata(IncomingKafkaRecordMetadata.class)
+                .map(IncomingKafkaRecordMetadata::getKey)
+                .map(KafkaKeyExtractor::wrap)
+                .orElse(null);
+    }
+
+    private static Object wrap(Object key) {
+        if (key instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) key);
+        }
+        return key;
+    }
+}
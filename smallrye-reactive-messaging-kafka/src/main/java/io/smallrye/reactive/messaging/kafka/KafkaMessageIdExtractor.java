@@ -0,0 +1,22 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.MessageIdExtractor;
+
+/**
+ * Uses the topic, partition and offset of the incoming Kafka record as message identifier, so the records redelivered
+ * after a rebalance are detected.
+ */
+@ApplicationScoped
+public class KafkaMessageIdExtractor implements MessageIdExtractor {
+
+    @Override
+    public String extractId(Message<?> message) {
+        return message.getMetadata(IncomingKafkaRecordMetadata.class)
+                .map(metadata -> metadata.getTopic() + "-" + metadata.getPartition() + "@" + metadata.getOffset())
+                .orElse(null);
+    }
+}
@@ -53,6 +53,7 @@ public class KafkaSource<K, V> {
     private final boolean isReadinessEnabled;
     private final boolean isCloudEventEnabled;
     private final String channel;
+    private final String ingressChannel;
 
     public KafkaSource(Vertx vertx,
             String consumerGroup,
@@ -80,6 +81,7 @@ public class KafkaSource<K, V> {
         isReadinessEnabled = this.configuration.getHealthReadinessEnabled();
         isCloudEventEnabled = this.configuration.getCloudEvents();
         channel = this.configuration.getChannel();
+        ingressChannel = this.configuration.getIngressTimestamp() ? channel : null;
 
         JsonHelper.asJsonObject(config.config())
                 .forEach(e -> kafkaConfiguration.put(e.getKey(), e.getValue().toString()));
@@ -189,7 +191,7 @@ public class KafkaSource<K, V> {
                 .map(rec -> commitHandler
                         .received(
                                 new IncomingKafkaRecord<>(rec, commitHandler, failureHandler, isCloudEventEnabled,
-                                        isTracingEnabled)));
+                                        isTracingEnabled, ingressChannel)));
 
         if (config.getTracingEnabled()) {
             incomingMulti = incomingMulti.onItem().invoke(this::incomingTrace);
@@ -4,12 +4,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Headers;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.junit.jupiter.api.Test;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
+import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
+import io.smallrye.reactive.messaging.kafka.fault.KafkaFailureHandler;
+import io.vertx.kafka.client.consumer.impl.KafkaConsumerRecordImpl;
+import io.vertx.mutiny.kafka.client.consumer.KafkaConsumerRecord;
+
 public class KafkaRecordTest {
 
     @Test
@@ -107,4 +118,54 @@ public class KafkaRecordTest {
         assertThat(headers.lastHeader("x-key-2").value()).isEqualTo("key-2".getBytes());
     }
 
+    @Test
+    public void testIncomingRecordWithIngressTimestamp() {
+        List<String> signals = new CopyOnWriteArrayList<>();
+        KafkaCommitHandler commitHandler = new KafkaCommitHandler() {
+            @Override
+            public <K, V> CompletionStage<Void> handle(IncomingKafkaRecord<K, V> record) {
+                signals.add("commit-" + record.getOffset());
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        KafkaFailureHandler failureHandler = new KafkaFailureHandler() {
+            @Override
+            public <K, V> CompletionStage<Void> handle(IncomingKafkaRecord<K, V> record, Throwable reason) {
+                signals.add("failure-" + record.getOffset());
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        for (int offset = 0; offset < 2; offset++) {
+            IncomingKafkaRecord<String, String> record = new IncomingKafkaRecord<>(
+                    new KafkaConsumerRecord<>(new KafkaConsumerRecordImpl<>(
+                            new ConsumerRecord<>("topic", 0, offset, "key", "value"))),
+                    commitHandler, failureHandler, false, false, "channel");
+            IngressMetadata ingress = record.getMetadata(IngressMetadata.class)
+                    .orElseThrow(() -> new AssertionError("Ingress metadata expected"));
+            assertThat(ingress.getChannel()).isEqualTo("channel");
+            assertThat(record.getMetadata(IncomingKafkaRecordMetadata.class)).isPresent();
+            ingress.whenAcknowledged()
+                    .whenComplete((x, f) -> latencies.add(System.nanoTime() - ingress.getTimestamp()));
+
+            if (offset == 0) {
+                record.ack().toCompletableFuture().join();
+            } else {
+                record.nack(new Exception("boom")).toCompletableFuture().join();
+            }
+        }
+        // The acknowledgements still reach the commit and failure handlers
+        assertThat(signals).containsExactly("commit-0", "failure-1");
+        assertThat(latencies).hasSize(2).allSatisfy(latency -> assertThat(latency).isPositive());
+    }
+
+    @Test
+    public void testIncomingRecordWithoutIngressTimestamp() {
+        IncomingKafkaRecord<String, String> record = new IncomingKafkaRecord<>(
+                new KafkaConsumerRecord<>(new KafkaConsumerRecordImpl<>(
+                        new ConsumerRecord<>("topic", 0, 0, "key", "value"))),
+                null, null, false, false);
+        assertThat(record.getMetadata(IngressMetadata.class)).isEmpty();
+    }
 }
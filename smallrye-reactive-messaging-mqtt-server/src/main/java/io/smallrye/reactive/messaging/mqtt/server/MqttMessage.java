@@ -4,8 +4,10 @@ import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.vertx.mutiny.mqtt.messages.MqttPublishMessage;
 
 public class MqttMessage implements Message<byte[]> {
@@ -13,12 +15,26 @@ public class MqttMessage implements Message<byte[]> {
     private final MqttPublishMessage message;
     private final String clientId;
     private final Supplier<CompletionStage<Void>> ack;
+    private final IngressMetadata ingress;
+    private final Metadata metadata;
 
     MqttMessage(MqttPublishMessage message, String clientId,
             Supplier<CompletionStage<Void>> ack) {
+        this(message, clientId, null, ack);
+    }
+
+    MqttMessage(MqttPublishMessage message, String clientId, String ingressChannel,
+            Supplier<CompletionStage<Void>> ack) {
         this.message = message;
         this.clientId = clientId;
         this.ack = ack;
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            this.metadata = Metadata.of(ingress);
+        } else {
+            this.ingress = null;
+            this.metadata = Metadata.empty();
+        }
     }
 
     @Override
@@ -26,11 +42,28 @@ public class MqttMessage implements Message<byte[]> {
         return this.message.payload().getDelegate().getBytes();
     }
 
+    @Override
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
     @Override
     public CompletionStage<Void> ack() {
+        if (ingress != null) {
+            return ack.get().whenComplete((x, f) -> ingress.acknowledged());
+        }
         return ack.get();
     }
 
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        CompletionStage<Void> stage = Message.super.nack(reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
+    }
+
     public int getMessageId() {
         return message.messageId();
     }
@@ -41,6 +41,7 @@ class MqttServerSource {
 
     MqttServerSource(Vertx vertx, MqttServerConnectorIncomingConfiguration config) {
         this.broadcast = config.getBroadcast();
+        final String ingressChannel = config.getIngressTimestamp() ? config.getChannel() : null;
         final MqttServerOptions options = mqttServerOptions(config);
         this.mqttServer = MqttServer.create(vertx, options);
         final BehaviorProcessor<MqttMessage> processor = BehaviorProcessor.create();
@@ -76,7 +77,7 @@ class MqttServerSource {
                 final Context ctx = vertx.getOrCreateContext();
                 log.receivedMessageFromClient(message.payload(), message.qosLevel(), endpoint.clientIdentifier());
 
-                processor.onNext(new MqttMessage(message, endpoint.clientIdentifier(), () -> {
+                processor.onNext(new MqttMessage(message, endpoint.clientIdentifier(), ingressChannel, () -> {
                     CompletableFuture<Void> future = new CompletableFuture<>();
                     ctx.runOnContext(x -> {
                         if (message.qosLevel() == AT_LEAST_ONCE) {
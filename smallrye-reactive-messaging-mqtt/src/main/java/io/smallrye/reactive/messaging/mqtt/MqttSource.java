@@ -31,6 +31,7 @@ public class MqttSource {
         boolean broadcast = config.getBroadcast();
         MqttFailureHandler.Strategy strategy = MqttFailureHandler.Strategy.from(config.getFailureStrategy());
         MqttFailureHandler onNack = createFailureHandler(strategy, config.getChannel());
+        String ingressChannel = config.getIngressTimestamp() ? config.getChannel() : null;
 
         if (topic.contains("#") || topic.contains("+")) {
             String replace = topic.replace("+", "[^/]+")
@@ -48,7 +49,7 @@ public class MqttSource {
                                     subscribed.set(true);
                                     return holder.stream()
                                             .transform().byFilteringItemsWith(m -> matches(topic, m))
-                                            .onItem().transform(m -> new ReceivingMqttMessage(m, onNack));
+                                            .onItem().transform(m -> new ReceivingMqttMessage(m, onNack, ingressChannel));
                                 }))
                         .stage(multi -> {
                             if (broadcast) {
@@ -0,0 +1,22 @@
+package io.smallrye.reactive.messaging.mqtt;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.KeyExtractor;
+
+/**
+ * Uses the topic of the incoming MQTT message as ordering key.
+ */
+@ApplicationScoped
+public class MqttTopicKeyExtractor implements KeyExtractor {
+
+    @Override
+    public Object extractKey(Message<?> message) {
+        if (message instanceof MqttMessage) {
+            return ((MqttMessage<?>) message).getTopic();
+        }
+        return null;
+    }
+}
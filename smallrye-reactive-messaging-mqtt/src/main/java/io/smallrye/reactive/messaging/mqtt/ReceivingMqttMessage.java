@@ -2,16 +2,32 @@ package io.smallrye.reactive.messaging.mqtt;
 
 import java.util.concurrent.CompletionStage;
 
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.vertx.mutiny.mqtt.messages.MqttPublishMessage;
 
 public class ReceivingMqttMessage implements MqttMessage<byte[]> {
     final MqttPublishMessage message;
     final MqttFailureHandler onNack;
+    private final IngressMetadata ingress;
+    private final Metadata metadata;
 
     ReceivingMqttMessage(MqttPublishMessage message, MqttFailureHandler onNack) {
+        this(message, onNack, null);
+    }
+
+    ReceivingMqttMessage(MqttPublishMessage message, MqttFailureHandler onNack, String ingressChannel) {
         this.message = message;
         this.onNack = onNack;
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            this.metadata = Metadata.of(ingress);
+        } else {
+            this.ingress = null;
+            this.metadata = null;
+        }
     }
 
     @Override
@@ -39,8 +55,29 @@ public class ReceivingMqttMessage implements MqttMessage<byte[]> {
         return message.topicName();
     }
 
+    @Override
+    public Metadata getMetadata() {
+        if (ingress == null) {
+            return MqttMessage.super.getMetadata();
+        }
+        return metadata;
+    }
+
+    @Override
+    public CompletionStage<Void> ack() {
+        CompletionStage<Void> stage = MqttMessage.super.ack();
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.acknowledged());
+        }
+        return stage;
+    }
+
     @Override
     public CompletionStage<Void> nack(Throwable reason) {
-        return this.onNack.handle(reason);
+        CompletionStage<Void> stage = this.onNack.handle(reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
+        }
+        return stage;
     }
 }
@@ -2,9 +2,15 @@ package io.smallrye.reactive.messaging.mqtt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.junit.Test;
 
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.IngressMetadata;
 
 public class MqttMessageTest {
 
@@ -69,4 +75,42 @@ public class MqttMessageTest {
         assertThat(message.isDuplicate()).isFalse();
         assertThat(message.isRetain()).isTrue();
     }
+
+    @Test
+    public void testReceivedMessageWithIngressTimestamp() {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        MqttFailureHandler onNack = reason -> {
+            failures.add(reason);
+            return CompletableFuture.completedFuture(null);
+        };
+        ReceivingMqttMessage message = new ReceivingMqttMessage(publish("hello"), onNack, "channel");
+
+        assertThat(message.getPayload()).isEqualTo("hello".getBytes());
+        IngressMetadata ingress = message.getMetadata(IngressMetadata.class)
+                .orElseThrow(() -> new AssertionError("Ingress metadata expected"));
+        assertThat(ingress.getChannel()).isEqualTo("channel");
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        ingress.whenAcknowledged()
+                .whenComplete((x, f) -> latencies.add(System.nanoTime() - ingress.getTimestamp()));
+
+        // The nack still reaches the failure handler
+        Exception boom = new Exception("boom");
+        message.nack(boom).toCompletableFuture().join();
+        assertThat(failures).containsExactly(boom);
+        assertThat(latencies).hasSize(1).allSatisfy(latency -> assertThat(latency).isPositive());
+        assertThat(ingress.whenAcknowledged().toCompletableFuture()).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testReceivedMessageWithoutIngressTimestamp() {
+        ReceivingMqttMessage message = new ReceivingMqttMessage(publish("hello"),
+                reason -> CompletableFuture.completedFuture(null));
+        assertThat(message.getMetadata()).isEmpty();
+        assertThat(message.ack()).isCompleted();
+    }
+
+    private static io.vertx.mutiny.mqtt.messages.MqttPublishMessage publish(String payload) {
+        return new io.vertx.mutiny.mqtt.messages.MqttPublishMessage(io.vertx.mqtt.messages.MqttPublishMessage.create(1,
+                MqttQoS.AT_LEAST_ONCE, false, false, "topic", Unpooled.copiedBuffer(payload.getBytes())));
+    }
 }
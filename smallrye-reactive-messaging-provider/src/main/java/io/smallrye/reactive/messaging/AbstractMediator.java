@@ -8,9 +8,14 @@ import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -22,23 +27,47 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.connectors.WorkerPoolRegistry;
 import io.smallrye.reactive.messaging.extension.HealthCenter;
+import io.smallrye.reactive.messaging.extension.MediatorStatistics;
 import io.smallrye.reactive.messaging.helpers.BroadcastHelper;
+import io.smallrye.reactive.messaging.helpers.HashedWheelTimer;
+import io.smallrye.reactive.messaging.helpers.KeySequencer;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
 import io.smallrye.reactive.messaging.helpers.TypeUtils;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 
 public abstract class AbstractMediator {
 
+    /**
+     * The number of messages processed concurrently by a method ordered by key without configured max concurrency.
+     */
+    static final int DEFAULT_ORDERED_BY_KEY_CONCURRENCY = 128;
+
     protected final MediatorConfiguration configuration;
     protected WorkerPoolRegistry workerPoolRegistry;
     private Invoker invoker;
     private Instance<PublisherDecorator> decorators;
+    private Iterable<StatisticsListener> statisticsListeners;
     protected HealthCenter health;
     private Instance<MessageConverter> converters;
+    private Instance<KeyExtractor> extractors;
+    protected int maxConcurrency;
+    /**
+     * Computes the ordering key of the messages, {@code null} if the executions are not ordered by key.
+     */
+    private Function<Message<?>, Object> keyExtractor;
+    private KeySequencer sequencer;
+    private MediatorStatistics statistics;
+    private HashedWheelTimer retryTimer;
 
     public AbstractMediator(MediatorConfiguration configuration) {
         this.configuration = configuration;
+        this.maxConcurrency = configuration.getMaxConcurrency();
     }
 
     public synchronized void setInvoker(Invoker invoker) {
@@ -49,6 +78,10 @@ public abstract class AbstractMediator {
         this.decorators = decorators;
     }
 
+    public void setStatisticsListeners(Iterable<StatisticsListener> statisticsListeners) {
+        this.statisticsListeners = statisticsListeners;
+    }
+
     public void setConverters(Instance<MessageConverter> converters) {
         this.converters = converters;
     }
@@ -57,6 +90,42 @@ public abstract class AbstractMediator {
         this.workerPoolRegistry = workerPoolRegistry;
     }
 
+    public void setKeyExtractors(Instance<KeyExtractor> extractors) {
+        this.extractors = extractors;
+    }
+
+    /**
+     * Sets the timer in which the retries of the failed invocations are parked.
+     *
+     * @param retryTimer the timer
+     */
+    public void setRetryTimer(HashedWheelTimer retryTimer) {
+        this.retryTimer = retryTimer;
+    }
+
+    /**
+     * Sets the statistics in which the invocations of the method are recorded.
+     * Must be called before {@link #initialize(Object)}.
+     *
+     * @param statistics the statistics
+     */
+    public void setStatistics(MediatorStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Overrides the maximum concurrency computed from the method annotations, typically from the channel
+     * configuration. Must be called before {@link #initialize(Object)}.
+     *
+     * @param maxConcurrency the maximum number of concurrent invocations, must be greater than 0
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw ex.illegalArgumentForMaxConcurrency(configuration.methodAsString(), maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
     public void run() {
         // Do nothing by default.
     }
@@ -72,6 +141,9 @@ public abstract class AbstractMediator {
     public void initialize(Object bean) {
         // Method overriding initialize MUST call super(bean).
         synchronized (this) {
+            if (this.invoker == null) {
+                this.invoker = MethodHandleInvoker.create(configuration.getMethod(), bean, configuration.methodAsString());
+            }
             if (this.invoker == null) {
                 this.invoker = args -> {
                     try {
@@ -83,9 +155,21 @@ public abstract class AbstractMediator {
             }
         }
         Objects.requireNonNull(this.invoker, msg.invokerNotInitialized());
+        if (this.statistics != null) {
+            synchronized (this) {
+                this.invoker = this.statistics.instrument(this.invoker);
+            }
+        }
         if (this.configuration.isBlocking()) {
             Objects.requireNonNull(this.workerPoolRegistry, msg.workerPoolNotInitialized());
         }
+        if (this.configuration.getRetryMaxAttempts() > 1) {
+            Objects.requireNonNull(this.retryTimer, msg.retryTimerNotInitialized());
+        }
+        if (this.configuration.getKeyExtractorClass() != null) {
+            this.keyExtractor = createKeyExtractor(this.configuration.getKeyExtractorClass());
+            this.sequencer = new KeySequencer();
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -111,13 +195,164 @@ public abstract class AbstractMediator {
                         }
                     },
                     configuration.getWorkerPoolName(),
-                    configuration.isBlockingExecutionOrdered());
+                    // Ordered executions would be serialized by the worker pool
+                    configuration.isBlockingExecutionOrdered() && keyExtractor == null && maxConcurrency == 1);
         } catch (RuntimeException e) {
             log.methodException(configuration().methodAsString(), e);
             throw e;
         }
     }
 
+    /**
+     * Invokes the blocking method for the given message, retrying the failed invocations as described in
+     * {@link #withRetry(Uni)}. If the executions are ordered by key, the execution starts once the executions for the
+     * previous messages with the same key have completed, including their retries, so the key is held until the last
+     * attempt.
+     *
+     * @param message the message being processed, used to compute the ordering key
+     * @param args the method parameters
+     * @param <T> the type of result
+     * @return the {@link Uni} executing the method when subscribed
+     */
+    protected <T> Uni<T> invokeBlockingFor(Message<?> message, Object... args) {
+        Uni<T> invocation = withRetry(Uni.createFrom().deferred(() -> invokeBlocking(args)));
+        if (keyExtractor == null) {
+            return invocation;
+        }
+        Object key = keyExtractor.apply(message);
+        if (key == null) {
+            return invocation;
+        }
+        return sequencer.sequence(key, () -> invocation);
+    }
+
+    /**
+     * Retries the given invocation when it fails, as configured by the
+     * {@link io.smallrye.reactive.messaging.annotations.DelayedRetry} annotation. The invocation is subscribed again once
+     * the retry delay has elapsed, so it must invoke the method for each subscription. The delays are parked in the retry
+     * timer, without holding a thread. The invocation is retried on the Vert.x context of the failed invocation, if
+     * any.
+     *
+     * @param invocation the invocation of the method for a message, or a batch
+     * @param <T> the type of result
+     * @return the invocation retried until it succeeds or the maximum number of attempts is reached, in which case the
+     *         last failure is propagated
+     */
+    protected <T> Uni<T> withRetry(Uni<T> invocation) {
+        if (configuration.getRetryMaxAttempts() <= 1) {
+            return invocation;
+        }
+        return invocation.onFailure().recoverWithUni(failure -> retry(invocation, 1, failure));
+    }
+
+    private <T> Uni<T> retry(Uni<T> invocation, int attempts, Throwable failure) {
+        int maxAttempts = configuration.getRetryMaxAttempts();
+        if (attempts >= maxAttempts) {
+            return Uni.createFrom().failure(failure);
+        }
+        long delay = getRetryDelay(attempts);
+        log.retryingInvocation(configuration.methodAsString(), delay, attempts + 1, maxAttempts);
+        if (statistics != null) {
+            statistics.onRetry();
+        }
+        // The retry resumes on the Vert.x context of the failed invocation, if any, rather than on the timer thread
+        Context context = Vertx.currentContext();
+        return Uni.createFrom().<Void> emitter(emitter -> {
+            HashedWheelTimer.Timeout timeout = retryTimer.schedule(() -> {
+                if (context != null) {
+                    context.runOnContext(x -> emitter.complete(null));
+                } else {
+                    emitter.complete(null);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            emitter.onTermination(timeout::cancel);
+        })
+                .onItem().transformToUni(x -> invocation)
+                .onFailure().recoverWithUni(f -> retry(invocation, attempts + 1, f));
+    }
+
+    /**
+     * @return an executor running the tasks on the Vert.x context of the caller, {@code null} if the caller does not run
+     *         on a Vert.x context
+     */
+    protected static Executor currentContext() {
+        Context context = Vertx.currentContext();
+        return context == null ? null : task -> context.runOnContext(x -> task.run());
+    }
+
+    /**
+     * @param attempts the number of failed invocations
+     * @return the delay, in milliseconds, before the next invocation
+     */
+    long getRetryDelay(int attempts) {
+        double delay = Math.min(configuration.getRetryMaxDelay(),
+                configuration.getRetryDelay() * Math.pow(configuration.getRetryMultiplier(), attempts - 1));
+        double jitter = configuration.getRetryJitter();
+        if (jitter > 0) {
+            delay = delay * (1 - jitter + 2 * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        return Math.round(delay);
+    }
+
+    /**
+     * @return the maximum number of messages processed concurrently.
+     */
+    protected int getConcurrency() {
+        if (keyExtractor != null && maxConcurrency == 1) {
+            return DEFAULT_ORDERED_BY_KEY_CONCURRENCY;
+        }
+        return maxConcurrency;
+    }
+
+    /**
+     * Maps each message to a {@link Uni}. If the concurrency is 1, a message is only passed to the function once the
+     * {@link Uni} produced for the previous one has completed, preserving the order. Otherwise, up to
+     * {@link #getConcurrency()} {@link Uni Unis} are subscribed concurrently, and the items are emitted in completion
+     * order.
+     *
+     * @param upstream the stream of messages, or batches of messages
+     * @param mapper the function producing the {@link Uni} for each item
+     * @param <I> the type of item
+     * @return the stream of results
+     */
+    protected <I> Multi<Message<?>> transformToUni(Multi<I> upstream,
+            Function<I, Uni<? extends Message<?>>> mapper) {
+        int concurrency = getConcurrency();
+        if (concurrency > 1) {
+            return upstream.onItem().transformToUni(mapper).merge(concurrency);
+        }
+        return upstream.onItem().transformToUniAndConcatenate(mapper);
+    }
+
+    private Function<Message<?>, Object> createKeyExtractor(Class<? extends KeyExtractor> clazz) {
+        if (clazz != KeyExtractor.class) {
+            KeyExtractor extractor;
+            if (extractors != null && extractors.select(clazz).isResolvable()) {
+                extractor = extractors.select(clazz).get();
+            } else {
+                try {
+                    extractor = clazz.getDeclaredConstructor().newInstance();
+                } catch (Exception e) {
+                    throw ex.illegalStateUnableToCreateKeyExtractor(clazz.getName(), configuration.methodAsString(), e);
+                }
+            }
+            return extractor::extractKey;
+        }
+        List<KeyExtractor> list = extractors == null || extractors.isUnsatisfied() ? Collections.emptyList()
+                : extractors.stream()
+                        .sorted(Comparator.comparingInt(KeyExtractor::getPriority).reversed())
+                        .collect(Collectors.toList());
+        return message -> {
+            for (KeyExtractor extractor : list) {
+                Object key = extractor.extractKey(message);
+                if (key != null) {
+                    return key;
+                }
+            }
+            return null;
+        };
+    }
+
     protected CompletionStage<Message<?>> getAckOrCompletion(Message<?> message) {
         CompletionStage<Void> ack = message.ack();
         if (ack != null) {
@@ -145,31 +380,77 @@ public abstract class AbstractMediator {
 
     public abstract boolean isConnected();
 
-    protected Function<Message<?>, ? extends CompletionStage<? extends Message<?>>> managePreProcessingAck() {
-        return this::handlePreProcessingAck;
-    }
-
-    protected CompletionStage<Message<?>> handlePreProcessingAck(Message<?> message) {
-        if (configuration.getAcknowledgment() == Acknowledgment.Strategy.PRE_PROCESSING) {
-            return getAckOrCompletion(message);
+    /**
+     * Applies the {@link PublisherDecorator decorators} and the broadcast configuration to the given stream. The
+     * decorators are applied to the builder as-is, the stream is only converted to a {@link Multi} when it's
+     * broadcast.
+     *
+     * @param input the stream produced by the mediator
+     * @return the decorated stream
+     */
+    public PublisherBuilder<? extends Message<?>> decorate(PublisherBuilder<? extends Message<?>> input) {
+        if (input == null) {
+            return null;
         }
-        return CompletableFuture.completedFuture(message);
+        PublisherBuilder<? extends Message<?>> decorated = applyDecorators(input);
+        if (configuration.getBroadcast()) {
+            return broadcast(MultiUtils.fromPublisherBuilder(decorated));
+        }
+        return decorated;
     }
 
-    public PublisherBuilder<? extends Message<?>> decorate(PublisherBuilder<? extends Message<?>> input) {
+    /**
+     * Applies the {@link PublisherDecorator decorators} and the broadcast configuration to the stream produced by the
+     * mediator. The stream is wrapped into a {@link PublisherBuilder} once for the decorators, and unwrapped once
+     * decorated. The built-in decorators use {@code map}, {@code peek} and {@code filter} operators, or return a
+     * {@link Multi}, so the stream does not go through the Reactive Streams Operators engine, unless a custom
+     * decorator uses other operators.
+     *
+     * @param input the stream produced by the mediator
+     * @return the decorated stream
+     */
+    protected Multi<? extends Message<?>> decorate(Multi<? extends Message<?>> input) {
         if (input == null) {
             return null;
         }
+        Multi<? extends Message<?>> decorated = MultiUtils
+                .fromPublisherBuilder(applyDecorators(MultiUtils.toPublisherBuilder(input)));
+        if (configuration.getBroadcast()) {
+            return MultiUtils.fromPublisherBuilder(broadcast(decorated));
+        }
+        return decorated;
+    }
 
+    private PublisherBuilder<? extends Message<?>> applyDecorators(PublisherBuilder<? extends Message<?>> input) {
+        PublisherBuilder<? extends Message<?>> builder = input;
         for (PublisherDecorator decorator : decorators) {
-            input = decorator.decorate(input, getConfiguration().getOutgoing());
+            builder = decorator.decorate(builder, getConfiguration().getOutgoing());
         }
+        return builder;
+    }
 
-        if (configuration.getBroadcast()) {
-            return BroadcastHelper.broadcastPublisher(input.buildRs(), configuration.getNumberOfSubscriberBeforeConnecting());
-        } else {
-            return input;
+    private PublisherBuilder<? extends Message<?>> broadcast(Multi<? extends Message<?>> input) {
+        return BroadcastHelper.broadcastPublisher(input, configuration.getOutgoing(),
+                configuration.getNumberOfSubscriberBeforeConnecting(), configuration.getBroadcastBufferSize(),
+                configuration.getBroadcastPolicy(), statisticsListeners);
+    }
+
+    /**
+     * Acknowledges the messages before their processing if the method uses the {@code PRE_PROCESSING} strategy.
+     *
+     * @param input the incoming messages
+     * @return the stream of messages, unchanged if the method does not use the {@code PRE_PROCESSING} strategy
+     */
+    protected Multi<Message<?>> handlePreProcessingAck(Multi<Message<?>> input) {
+        if (configuration.getAcknowledgment() == Acknowledgment.Strategy.PRE_PROCESSING) {
+            return input.onItem().transformToUniAndConcatenate(m -> Uni.createFrom().completionStage(getAckOrCompletion(m)));
         }
+        return input;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T> T cast(Object o) {
+        return (T) o;
     }
 
     public void setHealth(HealthCenter health) {
@@ -177,47 +458,68 @@ public abstract class AbstractMediator {
     }
 
     public PublisherBuilder<? extends Message<?>> convert(PublisherBuilder<? extends Message<?>> upstream) {
+        return MultiUtils.toPublisherBuilder(convert(MultiUtils.<Message<?>> fromPublisherBuilder(cast(upstream))));
+    }
+
+    protected Multi<Message<?>> convert(Multi<Message<?>> upstream) {
         final Type injectedPayloadType = configuration.getIngestedPayloadType();
         if (injectedPayloadType != null) {
-            return upstream
-                    .map(new Function<Message<?>, Message<?>>() {
-
-                        MessageConverter actual;
-
-                        @Override
-                        public Message<?> apply(Message<?> o) {
-                            //noinspection ConstantConditions - it can be `null`
-                            if (injectedPayloadType == null) {
-                                return o;
-                            } else if (o.getPayload() != null && o.getPayload().getClass().equals(injectedPayloadType)) {
-                                return o;
-                            }
-
-                            if (actual != null) {
-                                // Use the cached converter.
-                                return actual.convert(o, injectedPayloadType);
-                            } else {
-                                if (o.getPayload() != null
-                                        && TypeUtils.isAssignable(o.getPayload().getClass(), injectedPayloadType)) {
-                                    actual = MessageConverter.IdentityConverter.INSTANCE;
-                                    return o;
-                                }
-                                // Lookup and cache
-                                for (MessageConverter conv : getSortedConverters()) {
-                                    if (conv.canConvert(o, injectedPayloadType)) {
-                                        actual = conv;
-                                        return actual.convert(o, injectedPayloadType);
-                                    }
-                                }
-                                // No converter found
-                                return o;
-                            }
-                        }
-                    });
+            return upstream.onItem().transform(new ConverterFunction(injectedPayloadType));
         }
         return upstream;
     }
 
+    /**
+     * Converts the messages into messages with the ingested payload type.
+     * <p>
+     * The converter to use is resolved once per payload class, and cached. The cache also records the classes without
+     * converter (mapped to the identity converter), so, for a given payload class, the resolution is a single lookup.
+     */
+    private class ConverterFunction implements Function<Message<?>, Message<?>> {
+
+        private final Type target;
+        private final Map<Class<?>, MessageConverter> cache = new ConcurrentHashMap<>();
+        private volatile List<MessageConverter> sorted;
+
+        private ConverterFunction(Type target) {
+            this.target = target;
+        }
+
+        @Override
+        public Message<?> apply(Message<?> message) {
+            Object payload = message.getPayload();
+            // Null payloads are cached under Void, which is never the class of a payload
+            Class<?> clazz = payload == null ? Void.class : payload.getClass();
+            if (clazz.equals(target)) {
+                return message;
+            }
+            MessageConverter converter = cache.get(clazz);
+            if (converter == null) {
+                converter = resolve(message, clazz);
+                cache.put(clazz, converter);
+            }
+            return converter.convert(message, target);
+        }
+
+        private MessageConverter resolve(Message<?> message, Class<?> clazz) {
+            if (clazz != Void.class && TypeUtils.isAssignable(clazz, target)) {
+                return MessageConverter.IdentityConverter.INSTANCE;
+            }
+            List<MessageConverter> list = sorted;
+            if (list == null) {
+                list = getSortedConverters();
+                sorted = list;
+            }
+            for (MessageConverter conv : list) {
+                if (conv.canConvert(message, target)) {
+                    return conv;
+                }
+            }
+            // No converter found, the message is passed as it is
+            return MessageConverter.IdentityConverter.INSTANCE;
+        }
+    }
+
     private List<MessageConverter> getSortedConverters() {
         if (converters.isUnsatisfied()) {
             return Collections.emptyList();
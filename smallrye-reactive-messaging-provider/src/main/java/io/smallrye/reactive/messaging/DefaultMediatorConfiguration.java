@@ -10,7 +10,9 @@ import java.lang.reflect.WildcardType;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.enterprise.inject.spi.Bean;
@@ -19,9 +21,13 @@ import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
 
+import io.smallrye.reactive.messaging.annotations.Batch;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.DelayedRetry;
 import io.smallrye.reactive.messaging.annotations.Incomings;
+import io.smallrye.reactive.messaging.annotations.MaxConcurrency;
+import io.smallrye.reactive.messaging.annotations.OrderedByKey;
 import io.smallrye.reactive.messaging.annotations.Merge;
 import io.smallrye.reactive.messaging.helpers.TypeUtils;
 import io.smallrye.reactive.messaging.helpers.Validation;
@@ -46,6 +52,10 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
 
     private Integer broadcastValue = null;
 
+    private int broadcastBufferSize = 0;
+
+    private Broadcast.SlowSubscriberPolicy broadcastPolicy = Broadcast.SlowSubscriberPolicy.BLOCK;
+
     /**
      * What does the mediator products and how is it produced
      */
@@ -65,14 +75,45 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
      */
     private Merge.Mode mergePolicy;
 
+    private Map<String, Integer> mergeWeights = Collections.emptyMap();
+
+    private int mergePrefetch = 16;
+
     private boolean isBlocking = false;
 
     private String workerPoolName = null;
 
     private boolean isOrderedExecution;
 
+    private int maxConcurrency = 1;
+
+    private Class<? extends KeyExtractor> keyExtractorClass;
+
+    private int batchSize = Batch.DEFAULT_SIZE;
+
+    private long batchMaxWait = Batch.DEFAULT_MAX_WAIT;
+
+    private int retryMaxAttempts = 1;
+
+    private long retryDelay = DelayedRetry.DEFAULT_DELAY;
+
+    private long retryMaxDelay = DelayedRetry.DEFAULT_MAX_DELAY;
+
+    private double retryMultiplier = DelayedRetry.DEFAULT_MULTIPLIER;
+
+    private double retryJitter = DelayedRetry.DEFAULT_JITTER;
+
     private final MediatorConfigurationSupport mediatorConfigurationSupport;
 
+    private final MediatorConfigurationSupport.GenericTypeAssignable returnTypeAssignable;
+
+    private final MediatorConfigurationSupport.GenericTypeAssignable firstMethodParamTypeAssignable;
+
+    /**
+     * The classification computed at build time, {@code null} if the method is not indexed.
+     */
+    private final MediatorIndex.Entry indexEntry;
+
     private Type ingestedPayloadType;
 
     public DefaultMediatorConfiguration(Method method, Bean<?> bean) {
@@ -81,11 +122,13 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         this.parameterTypes = method.getParameterTypes();
         this.mediatorBean = Objects.requireNonNull(bean, msg.beanMustBeSet());
 
+        this.returnTypeAssignable = new ReturnTypeGenericTypeAssignable(method);
+        this.firstMethodParamTypeAssignable = this.parameterTypes.length == 0
+                ? new AlwaysInvalidIndexGenericTypeAssignable()
+                : new MethodParamGenericTypeAssignable(method, 0);
         this.mediatorConfigurationSupport = new MediatorConfigurationSupport(methodAsString(), this.returnType,
-                this.parameterTypes,
-                new ReturnTypeGenericTypeAssignable(method),
-                this.parameterTypes.length == 0 ? new AlwaysInvalidIndexGenericTypeAssignable()
-                        : new MethodParamGenericTypeAssignable(method, 0));
+                this.parameterTypes, this.returnTypeAssignable, this.firstMethodParamTypeAssignable);
+        this.indexEntry = MediatorIndex.lookup(method);
     }
 
     public void compute(Incomings incomings, Outgoing outgoing, Blocking blocking) {
@@ -111,12 +154,20 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
             throw ex.illegalArgumentForAnnotationNullOrBlank("@Outgoing", methodAsString());
         }
 
-        this.shape = this.mediatorConfigurationSupport.determineShape(incomings, outgoing);
+        Acknowledgment.Strategy suppliedAcknowledgment = this.mediatorConfigurationSupport
+                .processSuppliedAcknowledgement(incomings, () -> {
+                    Acknowledgment annotation = method.getAnnotation(Acknowledgment.class);
+                    return annotation != null ? annotation.value() : null;
+                });
+        Batch batch = method.getAnnotation(Batch.class);
 
-        this.acknowledgment = this.mediatorConfigurationSupport.processSuppliedAcknowledgement(incomings, () -> {
-            Acknowledgment annotation = method.getAnnotation(Acknowledgment.class);
-            return annotation != null ? annotation.value() : null;
-        });
+        // Use the classification computed at build time, unless it has been computed from another version of the method
+        MediatorIndex.Entry entry = this.indexEntry != null && this.indexEntry.matches(method, !incomings.isEmpty(),
+                outgoing != null, suppliedAcknowledgment, batch != null) ? this.indexEntry : null;
+
+        this.shape = entry != null ? entry.getShape()
+                : this.mediatorConfigurationSupport.determineShape(incomings, outgoing);
+        this.acknowledgment = suppliedAcknowledgment;
 
         if (!incomings.isEmpty()) {
             this.incomingValues = incomings.stream().map(Incoming::value).collect(Collectors.toList());
@@ -132,33 +183,100 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
             }
         }
 
-        MediatorConfigurationSupport.ValidationOutput validationOutput = this.mediatorConfigurationSupport.validate(this.shape,
-                this.acknowledgment);
+        if (batch != null) {
+            this.mediatorConfigurationSupport.validateBatch(batch.size(), batch.maxWait());
+            this.batchSize = batch.size();
+            this.batchMaxWait = batch.maxWait();
+        }
+
+        MediatorConfigurationSupport.ValidationOutput validationOutput = entry != null ? validationOutput(entry) : null;
+        if (validationOutput == null) {
+            entry = null;
+            validationOutput = this.mediatorConfigurationSupport.validate(this.shape, this.acknowledgment,
+                    batch != null);
+        }
         this.production = validationOutput.getProduction();
         this.consumption = validationOutput.getConsumption();
         if (validationOutput.getUseBuilderTypes()) {
             this.useBuilderTypes = validationOutput.getUseBuilderTypes();
         }
         if (this.acknowledgment == null) {
-            this.acknowledgment = this.mediatorConfigurationSupport.processDefaultAcknowledgement(this.shape, this.consumption,
-                    this.production);
+            this.acknowledgment = entry != null ? entry.getAcknowledgment()
+                    : this.mediatorConfigurationSupport.processDefaultAcknowledgement(this.shape, this.consumption,
+                            this.production);
         }
         this.mergePolicy = this.mediatorConfigurationSupport.processMerge(incomings, () -> {
             Merge annotation = method.getAnnotation(Merge.class);
             return annotation != null ? annotation.value() : null;
         });
+        Merge merge = method.getAnnotation(Merge.class);
+        if (this.mergePolicy != null && merge != null) {
+            this.mergeWeights = this.mediatorConfigurationSupport.processMergeWeights(this.incomingValues,
+                    merge.weights(), merge.prefetch());
+            this.mergePrefetch = merge.prefetch();
+        }
         this.broadcastValue = this.mediatorConfigurationSupport.processBroadcast(outgoing, () -> {
             Broadcast annotation = method.getAnnotation(Broadcast.class);
             return annotation != null ? annotation.value() : null;
         });
+        Broadcast broadcast = method.getAnnotation(Broadcast.class);
+        if (this.broadcastValue != null && broadcast != null) {
+            this.broadcastBufferSize = broadcast.bufferSize();
+            this.broadcastPolicy = broadcast.onSlowSubscriber();
+        }
 
         if (this.isBlocking) {
             this.mediatorConfigurationSupport.validateBlocking(validationOutput);
         }
 
+        OrderedByKey orderedByKey = method.getAnnotation(OrderedByKey.class);
+        if (orderedByKey != null) {
+            this.mediatorConfigurationSupport.validateOrderedByKey(this.shape, validationOutput, this.isBlocking);
+            this.keyExtractorClass = orderedByKey.value();
+        }
+
+        MaxConcurrency concurrency = method.getAnnotation(MaxConcurrency.class);
+        if (concurrency != null) {
+            this.mediatorConfigurationSupport.validateMaxConcurrency(this.shape, validationOutput, concurrency.value(),
+                    orderedByKey != null);
+            this.maxConcurrency = concurrency.value();
+        }
+
+        DelayedRetry retry = method.getAnnotation(DelayedRetry.class);
+        if (retry != null) {
+            this.mediatorConfigurationSupport.validateDelayedRetry(this.shape, validationOutput, retry.maxAttempts(),
+                    retry.delay(), retry.maxDelay(), retry.multiplier(), retry.jitter());
+            this.retryMaxAttempts = retry.maxAttempts();
+            this.retryDelay = retry.delay();
+            this.retryMaxDelay = retry.maxDelay();
+            this.retryMultiplier = retry.multiplier();
+            this.retryJitter = retry.jitter();
+            if (concurrency == null && retry.maxAttempts() > 1) {
+                // The messages waiting for their retry must not stall the following ones
+                this.maxConcurrency = DelayedRetry.DEFAULT_CONCURRENCY;
+            }
+        }
+
         ingestedPayloadType = validationOutput.getIngestedPayloadType();
     }
 
+    /**
+     * Creates the output of the validation from the classification computed at build time, resolving the ingested
+     * payload type like {@link MediatorConfigurationSupport#validate(Shape, Acknowledgment.Strategy, boolean)}.
+     *
+     * @return the output, {@code null} if the payload type cannot be resolved and the method must be analyzed again
+     */
+    private MediatorConfigurationSupport.ValidationOutput validationOutput(MediatorIndex.Entry entry) {
+        Type payloadType = this.mediatorConfigurationSupport.resolvePayloadType(entry.getPayloadTypeLocation());
+        if (payloadType == null
+                && entry.getPayloadTypeLocation() != MediatorConfigurationSupport.PayloadTypeLocation.NONE) {
+            // The generator does not index these methods, let the analysis report it
+            return null;
+        }
+        return new MediatorConfigurationSupport.ValidationOutput(entry.getProduction(), entry.getConsumption(),
+                entry.getUseBuilderTypes(), payloadType, entry.getPayloadTypeLocation());
+    }
+
     @Override
     public Shape shape() {
         return shape;
@@ -224,6 +342,16 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         return mergePolicy;
     }
 
+    @Override
+    public Map<String, Integer> getMergeWeights() {
+        return mergeWeights;
+    }
+
+    @Override
+    public int getMergePrefetch() {
+        return mergePrefetch;
+    }
+
     @Override
     public boolean getBroadcast() {
         return broadcastValue != null;
@@ -243,6 +371,16 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         }
     }
 
+    @Override
+    public int getBroadcastBufferSize() {
+        return broadcastBufferSize;
+    }
+
+    @Override
+    public Broadcast.SlowSubscriberPolicy getBroadcastPolicy() {
+        return broadcastPolicy;
+    }
+
     @Override
     public boolean isBlocking() {
         return isBlocking;
@@ -258,6 +396,51 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         return isOrderedExecution;
     }
 
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public Class<? extends KeyExtractor> getKeyExtractorClass() {
+        return keyExtractorClass;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public long getBatchMaxWait() {
+        return batchMaxWait;
+    }
+
+    @Override
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    @Override
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    @Override
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    @Override
+    public double getRetryMultiplier() {
+        return retryMultiplier;
+    }
+
+    @Override
+    public double getRetryJitter() {
+        return retryJitter;
+    }
+
     @Override
     public Class<? extends Invoker> getInvokerClass() {
         return null;
@@ -265,14 +448,31 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
 
     static class ReflectionGenericTypeAssignable implements MediatorConfigurationSupport.GenericTypeAssignable {
 
-        private final Type type;
+        private final Supplier<Type> supplier;
+
+        private Type type;
 
         public ReflectionGenericTypeAssignable(Type type) {
-            this.type = type;
+            this(() -> type);
+        }
+
+        /**
+         * @param supplier resolves the generic type when first needed, as it is not needed for the indexed mediators
+         */
+        ReflectionGenericTypeAssignable(Supplier<Type> supplier) {
+            this.supplier = supplier;
+        }
+
+        private Type type() {
+            if (type == null) {
+                type = supplier.get();
+            }
+            return type;
         }
 
         @Override
         public Result check(Class<?> target, int index) {
+            Type type = type();
             if (!(type instanceof ParameterizedType)) {
                 return Result.NotGeneric;
             }
@@ -286,7 +486,7 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
 
         @Override
         public Type getType(int index) {
-            return extractGenericType(type, index);
+            return extractGenericType(type(), index);
         }
 
         private Type extractGenericType(Type owner, int index) {
@@ -308,7 +508,7 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
 
         @Override
         public Type getType(int index, int subIndex) {
-            Type generic = extractGenericType(this.type, index);
+            Type generic = extractGenericType(type(), index);
             if (generic != null) {
                 return extractGenericType(generic, subIndex);
             } else {
@@ -320,7 +520,7 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
     protected static class ReturnTypeGenericTypeAssignable extends ReflectionGenericTypeAssignable {
 
         ReturnTypeGenericTypeAssignable(Method method) {
-            super(method.getGenericReturnType());
+            super(method::getGenericReturnType);
         }
     }
 
@@ -346,16 +546,10 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
     protected static class MethodParamGenericTypeAssignable extends ReflectionGenericTypeAssignable {
 
         MethodParamGenericTypeAssignable(Method method, int paramIndex) {
-            super(getGenericParameterType(method, paramIndex));
-        }
-
-        private static Type getGenericParameterType(Method method, int paramIndex) {
-            Type[] genericParameterTypes = method.getGenericParameterTypes();
-            if (genericParameterTypes.length < paramIndex + 1) {
-                throw ex.illegalArgumentForGenericParameterType(method, genericParameterTypes.length,
-                        paramIndex);
+            super(() -> method.getGenericParameterTypes()[paramIndex]);
+            if (method.getParameterCount() < paramIndex + 1) {
+                throw ex.illegalArgumentForGenericParameterType(method, method.getParameterCount(), paramIndex);
             }
-            return genericParameterTypes[paramIndex];
         }
     }
 
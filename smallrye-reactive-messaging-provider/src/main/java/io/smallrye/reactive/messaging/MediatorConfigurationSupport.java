@@ -4,7 +4,9 @@ import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
 import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
 
 import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
@@ -29,6 +31,11 @@ public class MediatorConfigurationSupport {
     private final GenericTypeAssignable returnTypeAssignable;
     private final GenericTypeAssignable firstMethodParamTypeAssignable;
 
+    /**
+     * Where the last resolved ingested payload type is declared, recorded in the {@link ValidationOutput}.
+     */
+    private PayloadTypeLocation payloadTypeLocation = PayloadTypeLocation.NONE;
+
     public MediatorConfigurationSupport(String methodAsString, Class<?> returnType, Class<?>[] parameterTypes,
             GenericTypeAssignable returnTypeAssignable, GenericTypeAssignable firstMethodParamTypeAssignable) {
         this.methodAsString = methodAsString;
@@ -79,9 +86,17 @@ public class MediatorConfigurationSupport {
     }
 
     public ValidationOutput validate(Shape shape, Acknowledgment.Strategy acknowledgment) {
+        return validate(shape, acknowledgment, false);
+    }
+
+    public ValidationOutput validate(Shape shape, Acknowledgment.Strategy acknowledgment, boolean batch) {
+        if (batch && shape != Shape.SUBSCRIBER) {
+            throw ex.definitionBatchOnlySubscriber("@Batch", methodAsString);
+        }
+        payloadTypeLocation = PayloadTypeLocation.NONE;
         switch (shape) {
             case SUBSCRIBER:
-                return validateSubscriber();
+                return batch ? validateBatchSubscriber() : validateSubscriber();
             case PUBLISHER:
                 return validatePublisher();
             case PROCESSOR:
@@ -120,10 +135,10 @@ public class MediatorConfigurationSupport {
             Type payloadType;
             if (assignableToMessageCheck == GenericTypeAssignable.Result.Assignable) {
                 consumption = MediatorConfiguration.Consumption.STREAM_OF_MESSAGE;
-                payloadType = returnTypeAssignable.getType(0, 0);
+                payloadType = payloadType(PayloadTypeLocation.RETURN_TYPE_NESTED_ARGUMENT);
             } else {
                 consumption = MediatorConfiguration.Consumption.STREAM_OF_PAYLOAD;
-                payloadType = returnTypeAssignable.getType(0);
+                payloadType = payloadType(PayloadTypeLocation.RETURN_TYPE_ARGUMENT);
             }
 
             boolean builder = ClassUtils.isAssignable(returnType, SubscriberBuilder.class);
@@ -131,7 +146,7 @@ public class MediatorConfigurationSupport {
                 log.unableToExtractIngestedPayloadType(methodAsString,
                         "Cannot extract the type from the method signature");
             }
-            return new ValidationOutput(production, consumption, builder, payloadType);
+            return new ValidationOutput(production, consumption, builder, payloadType, payloadTypeLocation);
         }
 
         if (ClassUtils.isAssignable(returnType, CompletionStage.class)) {
@@ -150,13 +165,13 @@ public class MediatorConfigurationSupport {
             // Distinction between 3 and 4
             if (ClassUtils.isAssignable(parameterTypes[0], Message.class)) {
                 consumption = MediatorConfiguration.Consumption.MESSAGE;
-                payloadType = firstMethodParamTypeAssignable.getType(0);
+                payloadType = payloadType(PayloadTypeLocation.PARAMETER_TYPE_ARGUMENT);
             } else {
                 consumption = MediatorConfiguration.Consumption.PAYLOAD;
-                payloadType = parameterTypes[0];
+                payloadType = payloadType(PayloadTypeLocation.PARAMETER);
             }
 
-            return new ValidationOutput(production, consumption, payloadType);
+            return new ValidationOutput(production, consumption, false, payloadType, payloadTypeLocation);
         }
 
         if (ClassUtils.isAssignable(returnType, Uni.class)) {
@@ -175,10 +190,10 @@ public class MediatorConfigurationSupport {
             // Distinction between 3 and 4
             if (ClassUtils.isAssignable(parameterTypes[0], Message.class)) {
                 consumption = MediatorConfiguration.Consumption.MESSAGE;
-                payloadType = firstMethodParamTypeAssignable.getType(0);
+                payloadType = payloadType(PayloadTypeLocation.PARAMETER_TYPE_ARGUMENT);
             } else {
                 consumption = MediatorConfiguration.Consumption.PAYLOAD;
-                payloadType = parameterTypes[0];
+                payloadType = payloadType(PayloadTypeLocation.PARAMETER);
             }
 
             if (payloadType == null) {
@@ -186,7 +201,7 @@ public class MediatorConfigurationSupport {
                         "Cannot extract the type from the method signature");
             }
 
-            return new ValidationOutput(production, consumption, payloadType);
+            return new ValidationOutput(production, consumption, false, payloadType, payloadTypeLocation);
         }
 
         // Case 5 and 6, void
@@ -210,12 +225,51 @@ public class MediatorConfigurationSupport {
             //                                + returnType);
             //            }
 
-            return new ValidationOutput(production, consumption, param);
+            return new ValidationOutput(production, consumption, false, payloadType(PayloadTypeLocation.PARAMETER),
+                    payloadTypeLocation);
         }
 
         throw ex.definitionUnsupportedSignature("@Incoming", methodAsString);
     }
 
+    private ValidationOutput validateBatchSubscriber() {
+        // Supported signatures:
+        // 1. void/CompletionStage<Void>/Uni<Void> method(List<Message<I>> messages)
+        // 2. void/CompletionStage<Void>/Uni<Void> method(List<I> payloads)
+        if (parameterTypes.length != 1 || !ClassUtils.isAssignable(parameterTypes[0], List.class)) {
+            throw ex.definitionBatchSignature("@Batch", methodAsString);
+        }
+        if (!(returnType.equals(Void.TYPE) || ClassUtils.isAssignable(returnType, CompletionStage.class)
+                || ClassUtils.isAssignable(returnType, Uni.class))) {
+            throw ex.definitionBatchSignature("@Batch", methodAsString);
+        }
+        GenericTypeAssignable.Result assignableToMessageCheck = firstMethodParamTypeAssignable.check(Message.class, 0);
+        if (assignableToMessageCheck == GenericTypeAssignable.Result.NotGeneric) {
+            throw ex.definitionBatchSignature("@Batch", methodAsString);
+        }
+        MediatorConfiguration.Consumption consumption;
+        Type payloadType;
+        if (assignableToMessageCheck == GenericTypeAssignable.Result.Assignable) {
+            consumption = MediatorConfiguration.Consumption.BATCH_MESSAGE;
+            payloadType = payloadType(PayloadTypeLocation.PARAMETER_TYPE_NESTED_ARGUMENT);
+        } else {
+            consumption = MediatorConfiguration.Consumption.BATCH_PAYLOAD;
+            payloadType = payloadType(PayloadTypeLocation.PARAMETER_TYPE_ARGUMENT);
+        }
+        if (payloadType == null) {
+            log.unableToExtractIngestedPayloadType(methodAsString,
+                    "Cannot extract the type from the method signature");
+        }
+        return new ValidationOutput(MediatorConfiguration.Production.NONE, consumption, false, payloadType,
+                payloadTypeLocation);
+    }
+
+    public void validateBatch(int size, long maxWait) {
+        if (size < 1 || maxWait < 1) {
+            throw ex.definitionBatchValue("@Batch", methodAsString, size, maxWait);
+        }
+    }
+
     private ValidationOutput validatePublisher() {
         final MediatorConfiguration.Consumption consumption = MediatorConfiguration.Consumption.NONE;
 
@@ -340,9 +394,9 @@ public class MediatorConfigurationSupport {
                     : MediatorConfiguration.Consumption.STREAM_OF_PAYLOAD;
 
             if (consumption == MediatorConfiguration.Consumption.STREAM_OF_MESSAGE) {
-                payloadType = returnTypeAssignable.getType(0, 0);
+                payloadType = payloadType(PayloadTypeLocation.RETURN_TYPE_NESTED_ARGUMENT);
             } else {
-                payloadType = returnTypeAssignable.getType(0);
+                payloadType = payloadType(PayloadTypeLocation.RETURN_TYPE_ARGUMENT);
             }
 
             GenericTypeAssignable.Result secondGenericParamOfReturn = returnTypeAssignable.check(Message.class, 1);
@@ -374,8 +428,7 @@ public class MediatorConfigurationSupport {
                     ? MediatorConfiguration.Consumption.MESSAGE
                     : MediatorConfiguration.Consumption.PAYLOAD;
 
-            payloadType = extractIngestedTypeFromFirstParameter(consumption, firstMethodParamTypeAssignable.getType(0),
-                    parameterTypes[0]);
+            payloadType = extractIngestedTypeFromFirstParameter(consumption);
 
             useBuilderTypes = ClassUtils.isAssignable(returnType, PublisherBuilder.class);
         } else {
@@ -396,8 +449,7 @@ public class MediatorConfigurationSupport {
                 consumption = ClassUtils.isAssignable(param, Message.class) ? MediatorConfiguration.Consumption.MESSAGE
                         : MediatorConfiguration.Consumption.PAYLOAD;
 
-                payloadType = extractIngestedTypeFromFirstParameter(consumption,
-                        firstMethodParamTypeAssignable.getType(0), param);
+                payloadType = extractIngestedTypeFromFirstParameter(consumption);
             } else if (ClassUtils.isAssignable(returnType, Uni.class)) {
                 // Case 11 or 12 - Uni variant
                 GenericTypeAssignable.Result assignableToMessageCheck = returnTypeAssignable.check(Message.class, 0);
@@ -411,8 +463,7 @@ public class MediatorConfigurationSupport {
                 consumption = ClassUtils.isAssignable(param, Message.class) ? MediatorConfiguration.Consumption.MESSAGE
                         : MediatorConfiguration.Consumption.PAYLOAD;
 
-                payloadType = extractIngestedTypeFromFirstParameter(consumption,
-                        firstMethodParamTypeAssignable.getType(0), param);
+                payloadType = extractIngestedTypeFromFirstParameter(consumption);
             } else {
                 // Case 9 or 10
                 production = ClassUtils.isAssignable(returnType, Message.class)
@@ -421,8 +472,7 @@ public class MediatorConfigurationSupport {
                 consumption = ClassUtils.isAssignable(param, Message.class) ? MediatorConfiguration.Consumption.MESSAGE
                         : MediatorConfiguration.Consumption.PAYLOAD;
 
-                payloadType = extractIngestedTypeFromFirstParameter(consumption,
-                        firstMethodParamTypeAssignable.getType(0), param);
+                payloadType = extractIngestedTypeFromFirstParameter(consumption);
             }
         }
 
@@ -431,19 +481,44 @@ public class MediatorConfigurationSupport {
             throw ex.illegalStateForValidateProcessor(methodAsString);
         }
 
-        return new ValidationOutput(production, consumption, useBuilderTypes, payloadType);
+        return new ValidationOutput(production, consumption, useBuilderTypes, payloadType, payloadTypeLocation);
     }
 
-    private Type extractIngestedTypeFromFirstParameter(MediatorConfiguration.Consumption consumption,
-            Type genericTypeOfFirstParam, Class<?> parameterType) {
-        Type payloadType;
+    private Type extractIngestedTypeFromFirstParameter(MediatorConfiguration.Consumption consumption) {
         if (consumption == MediatorConfiguration.Consumption.MESSAGE
                 || consumption == MediatorConfiguration.Consumption.STREAM_OF_MESSAGE) {
-            payloadType = genericTypeOfFirstParam;
+            return payloadType(PayloadTypeLocation.PARAMETER_TYPE_ARGUMENT);
         } else {
-            payloadType = parameterType;
+            return payloadType(PayloadTypeLocation.PARAMETER);
+        }
+    }
+
+    private Type payloadType(PayloadTypeLocation location) {
+        this.payloadTypeLocation = location;
+        return resolvePayloadType(location);
+    }
+
+    /**
+     * Resolves the ingested payload type declared at the given location of the method signature.
+     *
+     * @param location the location, as returned by {@link ValidationOutput#getPayloadTypeLocation()}
+     * @return the type, {@code null} if not set or wildcard
+     */
+    public Type resolvePayloadType(PayloadTypeLocation location) {
+        switch (location) {
+            case PARAMETER:
+                return parameterTypes[0];
+            case PARAMETER_TYPE_ARGUMENT:
+                return firstMethodParamTypeAssignable.getType(0);
+            case PARAMETER_TYPE_NESTED_ARGUMENT:
+                return firstMethodParamTypeAssignable.getType(0, 0);
+            case RETURN_TYPE_ARGUMENT:
+                return returnTypeAssignable.getType(0);
+            case RETURN_TYPE_NESTED_ARGUMENT:
+                return returnTypeAssignable.getType(0, 0);
+            default:
+                return null;
         }
-        return payloadType;
     }
 
     private ValidationOutput validateStreamTransformer(Acknowledgment.Strategy acknowledgment) {
@@ -499,9 +574,9 @@ public class MediatorConfigurationSupport {
         }
 
         if (consumption == MediatorConfiguration.Consumption.STREAM_OF_MESSAGE) {
-            payloadType = firstMethodParamTypeAssignable.getType(0, 0);
+            payloadType = payloadType(PayloadTypeLocation.PARAMETER_TYPE_NESTED_ARGUMENT);
         } else {
-            payloadType = firstMethodParamTypeAssignable.getType(0);
+            payloadType = payloadType(PayloadTypeLocation.PARAMETER_TYPE_ARGUMENT);
         }
 
         if (useBuilderTypes) {
@@ -520,7 +595,7 @@ public class MediatorConfigurationSupport {
             log.unableToExtractIngestedPayloadType(methodAsString, "Cannot extract the type from the method signature");
         }
 
-        return new ValidationOutput(production, consumption, useBuilderTypes, payloadType);
+        return new ValidationOutput(production, consumption, useBuilderTypes, payloadType, payloadTypeLocation);
     }
 
     public Acknowledgment.Strategy processDefaultAcknowledgement(Shape shape,
@@ -548,7 +623,8 @@ public class MediatorConfigurationSupport {
             }
         } else if (shape == Shape.SUBSCRIBER) {
             if (consumption == MediatorConfiguration.Consumption.STREAM_OF_MESSAGE
-                    || consumption == MediatorConfiguration.Consumption.MESSAGE) {
+                    || consumption == MediatorConfiguration.Consumption.MESSAGE
+                    || consumption == MediatorConfiguration.Consumption.BATCH_MESSAGE) {
                 return Acknowledgment.Strategy.MANUAL;
             } else {
                 return Acknowledgment.Strategy.POST_PROCESSING;
@@ -568,6 +644,38 @@ public class MediatorConfigurationSupport {
         return null;
     }
 
+    /**
+     * Parses the weights of the incoming channels configured using {@link Merge#weights()}.
+     *
+     * @param incomings the incoming channels
+     * @param weights the weights, using the {@code channel=weight} format
+     * @param prefetch the number of items requested in advance from each source
+     * @return the weight of each configured channel
+     */
+    public Map<String, Integer> processMergeWeights(List<String> incomings, String[] weights, int prefetch) {
+        if (prefetch < 1) {
+            throw ex.definitionMergeValue("@Merge", methodAsString, "prefetch=" + prefetch);
+        }
+        Map<String, Integer> result = new HashMap<>();
+        for (String entry : weights) {
+            int separator = entry.lastIndexOf('=');
+            String channel = separator == -1 ? "" : entry.substring(0, separator).trim();
+            if (!incomings.contains(channel)) {
+                throw ex.definitionMergeValue("@Merge", methodAsString, entry);
+            }
+            try {
+                int weight = Integer.parseInt(entry.substring(separator + 1).trim());
+                if (weight < 1) {
+                    throw ex.definitionMergeValue("@Merge", methodAsString, entry);
+                }
+                result.put(channel, weight);
+            } catch (NumberFormatException e) {
+                throw ex.definitionMergeValue("@Merge", methodAsString, entry);
+            }
+        }
+        return result;
+    }
+
     public Integer processBroadcast(Object outgoing, Supplier<Integer> supplier) {
         Integer result = supplier.get();
         if (outgoing != null) {
@@ -587,6 +695,8 @@ public class MediatorConfigurationSupport {
 
         if (!(validationOutput.consumption.equals(MediatorConfiguration.Consumption.MESSAGE)
                 || validationOutput.consumption.equals(MediatorConfiguration.Consumption.PAYLOAD)
+                || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_MESSAGE)
+                || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_PAYLOAD)
                 || validationOutput.consumption.equals(MediatorConfiguration.Consumption.NONE))) {
             throw ex.definitionBlockingOnlyIndividualParam("@Blocking", methodAsString);
         }
@@ -600,11 +710,59 @@ public class MediatorConfigurationSupport {
         }
     }
 
+    public void validateMaxConcurrency(Shape shape, ValidationOutput validationOutput, int maxConcurrency,
+            boolean orderedByKey) {
+        if (maxConcurrency < 1) {
+            throw ex.definitionMaxConcurrencyValue("@MaxConcurrency", methodAsString, maxConcurrency);
+        }
+        // Processors are only supported when ordered by key, the relative order of the other messages being lost, or
+        // with a concurrency of 1, for example to keep the order of the messages despite a @DelayedRetry
+        if (!(shape == Shape.SUBSCRIBER || (shape == Shape.PROCESSOR && (orderedByKey || maxConcurrency == 1)))
+                || !(validationOutput.consumption.equals(MediatorConfiguration.Consumption.MESSAGE)
+                        || validationOutput.consumption.equals(MediatorConfiguration.Consumption.PAYLOAD)
+                        || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_MESSAGE)
+                        || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_PAYLOAD))) {
+            throw ex.definitionMaxConcurrencyOnlyIndividual("@MaxConcurrency", methodAsString);
+        }
+    }
+
+    public void validateDelayedRetry(Shape shape, ValidationOutput validationOutput, int maxAttempts, long delay,
+            long maxDelay, double multiplier, double jitter) {
+        if (maxAttempts < 1 || delay < 0 || maxDelay < delay || !(multiplier >= 1) || !(jitter >= 0 && jitter <= 1)) {
+            throw ex.definitionDelayedRetryValue("@DelayedRetry", methodAsString);
+        }
+        // The failed invocation must be replayable for a single message, or batch, and not produce a stream
+        boolean individual;
+        if (shape == Shape.SUBSCRIBER) {
+            individual = validationOutput.consumption.equals(MediatorConfiguration.Consumption.MESSAGE)
+                    || validationOutput.consumption.equals(MediatorConfiguration.Consumption.PAYLOAD)
+                    || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_MESSAGE)
+                    || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_PAYLOAD);
+        } else if (shape == Shape.PROCESSOR) {
+            individual = !(validationOutput.production.equals(MediatorConfiguration.Production.STREAM_OF_MESSAGE)
+                    || validationOutput.production.equals(MediatorConfiguration.Production.STREAM_OF_PAYLOAD));
+        } else {
+            individual = false;
+        }
+        if (!individual) {
+            throw ex.definitionDelayedRetryOnlyIndividual("@DelayedRetry", methodAsString);
+        }
+    }
+
+    public void validateOrderedByKey(Shape shape, ValidationOutput validationOutput, boolean blocking) {
+        if (!blocking || !(shape == Shape.SUBSCRIBER || shape == Shape.PROCESSOR)
+                || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_MESSAGE)
+                || validationOutput.consumption.equals(MediatorConfiguration.Consumption.BATCH_PAYLOAD)) {
+            throw ex.definitionOrderedByKeyOnlyBlockingIncoming("@OrderedByKey", methodAsString);
+        }
+    }
+
     public static class ValidationOutput {
         private final MediatorConfiguration.Production production;
         private final MediatorConfiguration.Consumption consumption;
         private final boolean useBuilderTypes;
         private final Type ingestedPayloadType;
+        private final PayloadTypeLocation payloadTypeLocation;
 
         public ValidationOutput(MediatorConfiguration.Production production,
                 MediatorConfiguration.Consumption consumption, Type ingestedPayloadType) {
@@ -614,10 +772,17 @@ public class MediatorConfigurationSupport {
         public ValidationOutput(MediatorConfiguration.Production production,
                 MediatorConfiguration.Consumption consumption,
                 boolean useBuilderTypes, Type ingestedPayloadType) {
+            this(production, consumption, useBuilderTypes, ingestedPayloadType, PayloadTypeLocation.NONE);
+        }
+
+        public ValidationOutput(MediatorConfiguration.Production production,
+                MediatorConfiguration.Consumption consumption,
+                boolean useBuilderTypes, Type ingestedPayloadType, PayloadTypeLocation payloadTypeLocation) {
             this.production = production;
             this.consumption = consumption;
             this.useBuilderTypes = useBuilderTypes;
             this.ingestedPayloadType = ingestedPayloadType;
+            this.payloadTypeLocation = payloadTypeLocation;
         }
 
         public MediatorConfiguration.Production getProduction() {
@@ -635,6 +800,46 @@ public class MediatorConfigurationSupport {
         public Type getIngestedPayloadType() {
             return ingestedPayloadType;
         }
+
+        /**
+         * @return where the ingested payload type is declared in the method signature, {@link PayloadTypeLocation#NONE}
+         *         if not computed
+         */
+        public PayloadTypeLocation getPayloadTypeLocation() {
+            return payloadTypeLocation;
+        }
+    }
+
+    /**
+     * Where the ingested payload type is declared in the method signature.
+     */
+    public enum PayloadTypeLocation {
+        /**
+         * The payload type is not computed.
+         */
+        NONE,
+        /**
+         * The first parameter, such as {@code X} in {@code method(X payload)}.
+         */
+        PARAMETER,
+        /**
+         * The type argument of the first parameter, such as {@code X} in {@code method(Message<X> message)}.
+         */
+        PARAMETER_TYPE_ARGUMENT,
+        /**
+         * The type argument of the type argument of the first parameter, such as {@code X} in
+         * {@code method(List<Message<X>> messages)}.
+         */
+        PARAMETER_TYPE_NESTED_ARGUMENT,
+        /**
+         * The type argument of the return type, such as {@code X} in {@code Subscriber<X> method()}.
+         */
+        RETURN_TYPE_ARGUMENT,
+        /**
+         * The type argument of the type argument of the return type, such as {@code X} in
+         * {@code Subscriber<Message<X>> method()}.
+         */
+        RETURN_TYPE_NESTED_ARGUMENT
     }
 
     public interface GenericTypeAssignable {
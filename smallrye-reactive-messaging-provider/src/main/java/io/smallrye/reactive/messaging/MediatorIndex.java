@@ -0,0 +1,243 @@
+package io.smallrye.reactive.messaging;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+
+/**
+ * Reads the mediator index generated at build time by {@link MediatorIndexGenerator}.
+ * <p>
+ * The index contains, for each annotated method, the classification computed by {@link MediatorConfigurationSupport}:
+ * shape, production, consumption, acknowledgment strategy and location of the ingested payload type. The methods not
+ * present in the index, or whose entry has been computed from another signature, are analyzed using reflection.
+ */
+public final class MediatorIndex {
+
+    /**
+     * The location of the index files.
+     */
+    public static final String LOCATION = "META-INF/smallrye-reactive-messaging/mediators.index";
+
+    private static final String NONE = "-";
+
+    private static final Map<ClassLoader, Map<String, Entry>> INDEXES = new WeakHashMap<>();
+
+    private MediatorIndex() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * Looks up the given method in the indexes visible from the class loader of its declaring class.
+     *
+     * @param method the method
+     * @return the entry, {@code null} if the method is not indexed
+     */
+    public static Entry lookup(Method method) {
+        ClassLoader loader = method.getDeclaringClass().getClassLoader();
+        if (loader == null) {
+            return null;
+        }
+        return index(loader).get(key(method));
+    }
+
+    /**
+     * Computes the hash of the generic signature of the method, which changes when any of the types used in the
+     * signature changes, including the type arguments.
+     *
+     * @param method the method
+     * @return the hash, in hexadecimal
+     */
+    static String signature(Method method) {
+        return Integer.toHexString(method.toGenericString().hashCode());
+    }
+
+    static String key(Method method) {
+        StringBuilder key = new StringBuilder(method.getDeclaringClass().getName())
+                .append('#').append(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(types[i].getTypeName());
+        }
+        return key.append(')').toString();
+    }
+
+    static synchronized Map<String, Entry> index(ClassLoader loader) {
+        return INDEXES.computeIfAbsent(loader, MediatorIndex::load);
+    }
+
+    private static Map<String, Entry> load(ClassLoader loader) {
+        Map<String, Entry> index = new HashMap<>();
+        Enumeration<URL> resources;
+        try {
+            resources = loader.getResources(LOCATION);
+        } catch (IOException e) {
+            log.unableToReadMediatorIndex(LOCATION, e);
+            return Collections.emptyMap();
+        }
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            Map<String, Entry> entries = new HashMap<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        parse(line, entries);
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // Ignore the whole file, the mediators it contains are analyzed at runtime
+                log.unableToReadMediatorIndex(url.toExternalForm(), e);
+                continue;
+            }
+            log.mediatorIndexLoaded(url.toExternalForm(), entries.size());
+            index.putAll(entries);
+        }
+        return index;
+    }
+
+    static void parse(String line, Map<String, Entry> entries) {
+        int separator = line.indexOf('=');
+        if (separator == -1) {
+            throw new IllegalArgumentException("Invalid index entry: " + line);
+        }
+        String[] values = line.substring(separator + 1).split(",");
+        if (values.length != 9) {
+            throw new IllegalArgumentException("Invalid index entry: " + line);
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values[i].trim();
+        }
+        Entry entry = new Entry(values[0],
+                Shape.valueOf(values[1]),
+                MediatorConfiguration.Production.valueOf(values[2]),
+                MediatorConfiguration.Consumption.valueOf(values[3]),
+                Boolean.parseBoolean(values[4]),
+                Acknowledgment.Strategy.valueOf(values[5]),
+                values[6].equals(NONE) ? null : Acknowledgment.Strategy.valueOf(values[6]),
+                Boolean.parseBoolean(values[7]),
+                MediatorConfigurationSupport.PayloadTypeLocation.valueOf(values[8]));
+        entries.put(line.substring(0, separator).trim(), entry);
+    }
+
+    /**
+     * Formats the index entry of the given method, read by {@link #parse(String, Map)}.
+     */
+    static String format(Method method, Shape shape, MediatorConfigurationSupport.ValidationOutput output,
+            Acknowledgment.Strategy acknowledgment, Acknowledgment.Strategy annotatedAcknowledgment, boolean batch) {
+        return key(method) + "=" + String.join(",",
+                signature(method),
+                shape.name(),
+                output.getProduction().name(),
+                output.getConsumption().name(),
+                Boolean.toString(output.getUseBuilderTypes()),
+                acknowledgment.name(),
+                annotatedAcknowledgment != null ? annotatedAcknowledgment.name() : NONE,
+                Boolean.toString(batch),
+                output.getPayloadTypeLocation().name());
+    }
+
+    /**
+     * The classification of a mediator method computed at build time.
+     */
+    public static final class Entry {
+        private final String signature;
+        private final Shape shape;
+        private final MediatorConfiguration.Production production;
+        private final MediatorConfiguration.Consumption consumption;
+        private final boolean useBuilderTypes;
+        private final Acknowledgment.Strategy acknowledgment;
+        private final Acknowledgment.Strategy annotatedAcknowledgment;
+        private final boolean batch;
+        private final MediatorConfigurationSupport.PayloadTypeLocation payloadTypeLocation;
+
+        Entry(String signature, Shape shape, MediatorConfiguration.Production production,
+                MediatorConfiguration.Consumption consumption, boolean useBuilderTypes,
+                Acknowledgment.Strategy acknowledgment, Acknowledgment.Strategy annotatedAcknowledgment, boolean batch,
+                MediatorConfigurationSupport.PayloadTypeLocation payloadTypeLocation) {
+            this.signature = signature;
+            this.shape = shape;
+            this.production = production;
+            this.consumption = consumption;
+            this.useBuilderTypes = useBuilderTypes;
+            this.acknowledgment = acknowledgment;
+            this.annotatedAcknowledgment = annotatedAcknowledgment;
+            this.batch = batch;
+            this.payloadTypeLocation = payloadTypeLocation;
+        }
+
+        /**
+         * Checks that the entry has been computed from the given method and annotations, and not from a previous
+         * version of the method.
+         *
+         * @param method the method
+         * @param incoming whether the method has incoming channels
+         * @param outgoing whether the method has an outgoing channel
+         * @param annotatedAcknowledgment the strategy set with {@code @Acknowledgment}, {@code null} if not set
+         * @param batch whether the method is annotated with {@code @Batch}
+         * @return {@code true} if the entry can be used for the method
+         */
+        public boolean matches(Method method, boolean incoming, boolean outgoing,
+                Acknowledgment.Strategy annotatedAcknowledgment, boolean batch) {
+            boolean shapeMatches;
+            if (incoming && outgoing) {
+                shapeMatches = shape == Shape.PROCESSOR || shape == Shape.STREAM_TRANSFORMER;
+            } else if (incoming) {
+                shapeMatches = shape == Shape.SUBSCRIBER;
+            } else {
+                shapeMatches = shape == Shape.PUBLISHER;
+            }
+            return shapeMatches
+                    && this.annotatedAcknowledgment == annotatedAcknowledgment
+                    && this.batch == batch
+                    && this.signature.equals(signature(method));
+        }
+
+        public Shape getShape() {
+            return shape;
+        }
+
+        public MediatorConfiguration.Production getProduction() {
+            return production;
+        }
+
+        public MediatorConfiguration.Consumption getConsumption() {
+            return consumption;
+        }
+
+        public boolean getUseBuilderTypes() {
+            return useBuilderTypes;
+        }
+
+        /**
+         * @return the acknowledgment strategy, the default strategy of the mediator if not set with
+         *         {@code @Acknowledgment}
+         */
+        public Acknowledgment.Strategy getAcknowledgment() {
+            return acknowledgment;
+        }
+
+        /**
+         * @return where the ingested payload type is declared in the method signature
+         */
+        public MediatorConfigurationSupport.PayloadTypeLocation getPayloadTypeLocation() {
+            return payloadTypeLocation;
+        }
+    }
+}
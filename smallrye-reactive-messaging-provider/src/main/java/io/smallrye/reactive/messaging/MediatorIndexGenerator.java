@@ -0,0 +1,164 @@
+package io.smallrye.reactive.messaging;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Incomings;
+
+/**
+ * Generates the mediator index, read by {@link MediatorIndex}, from compiled classes.
+ * <p>
+ * The mediators are classified by {@link MediatorConfigurationSupport}, exactly as done at runtime by
+ * {@link DefaultMediatorConfiguration} when the method is not indexed. Each line of the index has the form
+ * {@code org.acme.Bean#method(java.lang.String)=<signature hash>,<shape>,<production>,<consumption>,<use builder types>,<acknowledgment>,<@Acknowledgment value or ->,<@Batch>,<payload type location>}.
+ * The hash of the generic signature of the method, along with the {@code @Acknowledgment} and {@code @Batch}
+ * annotations, lets the runtime detect the entries computed from another version of the method.
+ * <p>
+ * The methods rejected by the analysis, or whose ingested payload type cannot be extracted, are not indexed: they are
+ * analyzed at runtime, which reports the error or warning.
+ * <p>
+ * The generator is meant to be run once the classes are compiled, for example using the {@code java} goal of the
+ * {@code exec-maven-plugin} in the {@code process-classes} phase, with the classes directory as argument. The classes
+ * are loaded, without being initialized, from the thread context class loader, which must also give access to their
+ * dependencies.
+ */
+public class MediatorIndexGenerator {
+
+    private final ClassLoader loader;
+
+    public MediatorIndexGenerator(ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: MediatorIndexGenerator <classes directory>...");
+        }
+        MediatorIndexGenerator generator = new MediatorIndexGenerator(Thread.currentThread().getContextClassLoader());
+        for (String directory : args) {
+            generator.generate(Paths.get(directory));
+        }
+    }
+
+    /**
+     * Indexes the mediators of the classes contained in the given directory, and writes the index in this directory.
+     *
+     * @param classes the classes directory
+     * @return the number of indexed methods
+     * @throws IOException if the classes cannot be listed, or the index cannot be written
+     */
+    public int generate(Path classes) throws IOException {
+        List<String> names;
+        try (Stream<Path> files = Files.walk(classes)) {
+            String separator = classes.getFileSystem().getSeparator();
+            names = files.map(f -> classes.relativize(f).toString())
+                    .filter(f -> f.endsWith(".class"))
+                    .map(f -> f.substring(0, f.length() - ".class".length()).replace(separator, "."))
+                    .filter(name -> !name.endsWith("module-info") && !name.endsWith("package-info"))
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, String> entries = new TreeMap<>();
+        for (String name : names) {
+            Class<?> clazz;
+            try {
+                clazz = Class.forName(name, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // A dependency is missing, the mediators of this class are analyzed at runtime
+                continue;
+            }
+            for (Method method : methods(clazz)) {
+                String entry = entry(method);
+                if (entry != null) {
+                    entries.put(MediatorIndex.key(method), entry);
+                }
+            }
+        }
+
+        Path index = classes.resolve(MediatorIndex.LOCATION);
+        Files.deleteIfExists(index);
+        if (!entries.isEmpty()) {
+            Files.createDirectories(index.getParent());
+            try (Writer writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+                for (String entry : entries.values()) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        }
+        return entries.size();
+    }
+
+    private static Method[] methods(Class<?> clazz) {
+        try {
+            return clazz.getDeclaredMethods();
+        } catch (LinkageError e) {
+            return new Method[0];
+        }
+    }
+
+    /**
+     * Classifies the given method like {@link DefaultMediatorConfiguration} does.
+     *
+     * @param method the method
+     * @return the index entry, {@code null} if the method is not a mediator or cannot be indexed
+     */
+    static String entry(Method method) {
+        if (method.isSynthetic() || method.isBridge()) {
+            return null;
+        }
+        boolean incoming = method.getAnnotation(Incoming.class) != null
+                || method.getAnnotation(Incomings.class) != null;
+        boolean outgoing = method.getAnnotation(Outgoing.class) != null;
+        if (!incoming && !outgoing) {
+            return null;
+        }
+
+        MediatorConfigurationSupport support = new MediatorConfigurationSupport(MediatorIndex.key(method),
+                method.getReturnType(), method.getParameterTypes(),
+                new DefaultMediatorConfiguration.ReturnTypeGenericTypeAssignable(method),
+                method.getParameterCount() == 0
+                        ? new DefaultMediatorConfiguration.AlwaysInvalidIndexGenericTypeAssignable()
+                        : new DefaultMediatorConfiguration.MethodParamGenericTypeAssignable(method, 0));
+        // Only the presence of the channels matters
+        List<String> incomings = incoming ? Collections.singletonList(Incoming.class.getName())
+                : Collections.emptyList();
+        String outgoingValue = outgoing ? Outgoing.class.getName() : null;
+        Acknowledgment annotation = method.getAnnotation(Acknowledgment.class);
+        Acknowledgment.Strategy annotatedAcknowledgment = annotation != null ? annotation.value() : null;
+        boolean batch = method.getAnnotation(Batch.class) != null;
+
+        try {
+            support.processSuppliedAcknowledgement(incomings, () -> annotatedAcknowledgment);
+            Shape shape = support.determineShape(incomings, outgoingValue);
+            MediatorConfigurationSupport.ValidationOutput output = support.validate(shape, annotatedAcknowledgment,
+                    batch);
+            if (output.getIngestedPayloadType() == null
+                    && output.getPayloadTypeLocation() != MediatorConfigurationSupport.PayloadTypeLocation.NONE) {
+                return null;
+            }
+            Acknowledgment.Strategy acknowledgment = annotatedAcknowledgment != null ? annotatedAcknowledgment
+                    : support.processDefaultAcknowledgement(shape, output.getConsumption(), output.getProduction());
+            return MediatorIndex.format(method, shape, output, acknowledgment, annotatedAcknowledgment, batch);
+        } catch (RuntimeException e) {
+            // Rejected, the runtime analysis reports the error
+            return null;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package io.smallrye.reactive.messaging;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link Invoker} calling the mediator method using a {@link MethodHandle} bound to the bean instance.
+ * <p>
+ * When the JVM provides {@code MethodHandles.privateLookupIn} (Java 9+), the methods with 0 or 1 parameter (all the
+ * mediator shapes) are invoked through a class spun by the {@link LambdaMetafactory} in the bean class. The call is
+ * then a plain interface call the JIT can inline into the stream stage. Otherwise, the method handle is adapted to the
+ * erased {@code (Object)Object} shape once and invoked without spreading the argument array.
+ * <p>
+ * In both cases, exceptions thrown by the method are reported exactly as the reflective invocation: wrapped into a
+ * {@link ProcessingException} whose cause is an {@link InvocationTargetException}.
+ */
+public final class MethodHandleInvoker implements Invoker {
+
+    /**
+     * {@code MethodHandles.privateLookupIn}, {@code null} on Java 8.
+     */
+    private static final Method PRIVATE_LOOKUP_IN = getPrivateLookupIn();
+
+    private final MethodHandle handle;
+    private final int arity;
+    private final String methodAsString;
+
+    private MethodHandleInvoker(MethodHandle handle, int arity, String methodAsString) {
+        this.handle = handle;
+        this.arity = arity;
+        this.methodAsString = methodAsString;
+    }
+
+    /**
+     * Creates the invoker for the given method and bean instance.
+     *
+     * @param method the method, must not be {@code null}
+     * @param bean the bean instance on which the method is called, ignored for static methods
+     * @param methodAsString the method description used in error messages
+     * @return the invoker, {@code null} if the method cannot be accessed through a method handle, in which case the
+     *         caller should use reflection.
+     */
+    public static Invoker create(Method method, Object bean, String methodAsString) {
+        try {
+            if (!Modifier.isPublic(method.getModifiers())
+                    || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            Invoker lambda = createLambdaInvoker(method, bean, methodAsString);
+            if (lambda != null) {
+                return lambda;
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(bean);
+            }
+            int arity = method.getParameterCount();
+            if (arity <= 1) {
+                handle = handle.asType(MethodType.genericMethodType(arity));
+            } else {
+                handle = handle.asSpreader(Object[].class, arity)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            }
+            return new MethodHandleInvoker(handle, arity, methodAsString);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // RuntimeException covers the (JDK 9+) InaccessibleObjectException and invalid bean instances
+            log.unableToCreateMethodHandle(methodAsString, e);
+            return null;
+        }
+    }
+
+    @Override
+    public Object invoke(Object... args) {
+        try {
+            switch (arity) {
+                case 0:
+                    return (Object) handle.invokeExact();
+                case 1:
+                    return (Object) handle.invokeExact(args[0]);
+                default:
+                    return (Object) handle.invokeExact(args);
+            }
+        } catch (Throwable t) { // NOSONAR - same contract as Method.invoke
+            throw ex.processingException(methodAsString, new InvocationTargetException(t));
+        }
+    }
+
+    private static Invoker createLambdaInvoker(Method method, Object bean, String methodAsString) {
+        int arity = method.getParameterCount();
+        if (PRIVATE_LOOKUP_IN == null || arity > 1) {
+            return null;
+        }
+        boolean isVoid = method.getReturnType() == void.class;
+        Class<?> functionalInterface;
+        String sam;
+        if (arity == 0) {
+            functionalInterface = isVoid ? Runnable.class : Supplier.class;
+            sam = isVoid ? "run" : "get";
+        } else {
+            functionalInterface = isVoid ? Consumer.class : Function.class;
+            sam = isVoid ? "accept" : "apply";
+        }
+        MethodType erased = MethodType.genericMethodType(arity);
+        if (isVoid) {
+            erased = erased.changeReturnType(void.class);
+        }
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        try {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null,
+                    method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle implementation = lookup.unreflect(method);
+            MethodType instantiated = MethodType.methodType(method.getReturnType(), method.getParameterTypes()).wrap();
+            if (isVoid) {
+                instantiated = instantiated.changeReturnType(void.class);
+            }
+            CallSite site = LambdaMetafactory.metafactory(lookup, sam,
+                    isStatic ? MethodType.methodType(functionalInterface)
+                            : MethodType.methodType(functionalInterface, method.getDeclaringClass()),
+                    erased,
+                    implementation, instantiated);
+            Object function = isStatic ? site.getTarget().invoke() : site.getTarget().invoke(bean);
+            if (arity == 0) {
+                return isVoid ? new RunnableInvoker((Runnable) function, methodAsString)
+                        : new SupplierInvoker((Supplier<?>) function, methodAsString);
+            }
+            return isVoid ? new ConsumerInvoker((Consumer<?>) function, methodAsString)
+                    : new FunctionInvoker((Function<?, ?>) function, methodAsString);
+        } catch (Throwable e) { // NOSONAR - LambdaConversionException, linkage errors...
+            log.unableToCreateMethodHandle(methodAsString, e);
+            return null;
+        }
+    }
+
+    private static Method getPrivateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private abstract static class LambdaInvoker implements Invoker {
+
+        private final String methodAsString;
+
+        LambdaInvoker(String methodAsString) {
+            this.methodAsString = methodAsString;
+        }
+
+        ProcessingException wrap(Throwable t) {
+            return ex.processingException(methodAsString, new InvocationTargetException(t));
+        }
+    }
+
+    private static final class RunnableInvoker extends LambdaInvoker {
+        private final Runnable function;
+
+        RunnableInvoker(Runnable function, String methodAsString) {
+            super(methodAsString);
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            try {
+                function.run();
+                return null;
+            } catch (Throwable t) { // NOSONAR
+                throw wrap(t);
+            }
+        }
+    }
+
+    private static final class SupplierInvoker extends LambdaInvoker {
+        private final Supplier<?> function;
+
+        SupplierInvoker(Supplier<?> function, String methodAsString) {
+            super(methodAsString);
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            try {
+                return function.get();
+            } catch (Throwable t) { // NOSONAR
+                throw wrap(t);
+            }
+        }
+    }
+
+    private static final class ConsumerInvoker extends LambdaInvoker {
+        private final Consumer<Object> function;
+
+        @SuppressWarnings("unchecked")
+        ConsumerInvoker(Consumer<?> function, String methodAsString) {
+            super(methodAsString);
+            this.function = (Consumer<Object>) function;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            try {
+                function.accept(args[0]);
+                return null;
+            } catch (Throwable t) { // NOSONAR
+                throw wrap(t);
+            }
+        }
+    }
+
+    private static final class FunctionInvoker extends LambdaInvoker {
+        private final Function<Object, ?> function;
+
+        @SuppressWarnings("unchecked")
+        FunctionInvoker(Function<?, ?> function, String methodAsString) {
+            super(methodAsString);
+            this.function = (Function<Object, ?>) function;
+        }
+
+        @Override
+        public Object invoke(Object... args) {
+            try {
+                return function.apply(args[0]);
+            } catch (Throwable t) { // NOSONAR
+                throw wrap(t);
+            }
+        }
+    }
+}
@@ -4,7 +4,6 @@ import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
 import static io.smallrye.reactive.messaging.i18n.ProviderMessages.msg;
 
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
@@ -12,18 +11,18 @@ import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
-import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
 
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.helpers.ClassUtils;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
 
 public class ProcessorMediator extends AbstractMediator {
 
-    private Processor<Message<?>, ? extends Message<?>> processor;
-    private PublisherBuilder<? extends Message<?>> publisher;
+    private Function<Multi<Message<?>>, Multi<? extends Message<?>>> function;
+    private Multi<? extends Message<?>> publisher;
 
     public ProcessorMediator(MediatorConfiguration configuration) {
         super(configuration);
@@ -34,13 +33,13 @@ public class ProcessorMediator extends AbstractMediator {
 
     @Override
     public void connectToUpstream(PublisherBuilder<? extends Message<?>> publisher) {
-        assert processor != null;
-        this.publisher = decorate(convert(publisher).via(processor));
+        assert function != null;
+        this.publisher = decorate(function.apply(convert(MultiUtils.fromPublisherBuilder(cast(publisher)))));
     }
 
     @Override
     public PublisherBuilder<? extends Message<?>> getStream() {
-        return Objects.requireNonNull(publisher);
+        return MultiUtils.toPublisherBuilder(Objects.requireNonNull(publisher));
     }
 
     @Override
@@ -150,58 +149,39 @@ public class ProcessorMediator extends AbstractMediator {
 
     @SuppressWarnings("unchecked")
     private void processMethodReturningAPublisherBuilderOfMessageAndConsumingMessages() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .map(msg -> (PublisherBuilder<Message<?>>) invoke(msg))
-                .flatMap(Function.identity())
-                .buildRs();
+        this.function = upstream -> handlePreProcessingAck(upstream)
+                .onItem().transformToMultiAndConcatenate(
+                        msg -> MultiUtils.fromPublisherBuilder((PublisherBuilder<Message<?>>) invoke(msg)));
     }
 
     @SuppressWarnings("unchecked")
     private void processMethodReturningAPublisherOfMessageAndConsumingMessages() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .map(msg -> (Publisher<Message<?>>) invoke(msg))
-                .flatMapRsPublisher(Function.identity())
-                .buildRs();
+        this.function = upstream -> handlePreProcessingAck(upstream)
+                .onItem().transformToMultiAndConcatenate(msg -> (Publisher<Message<?>>) invoke(msg));
     }
 
     private void processMethodReturningAProcessorBuilderOfMessages() {
         ProcessorBuilder<Message<?>, Message<?>> builder = Objects.requireNonNull(invoke(),
                 msg.methodReturnedNull(configuration.methodAsString()));
 
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .via(builder)
-                .buildRs();
+        this.function = upstream -> MultiUtils.fromPublisherBuilder(
+                MultiUtils.toPublisherBuilder(handlePreProcessingAck(upstream)).via(builder));
     }
 
     private void processMethodReturningAProcessorOfMessages() {
         Processor<Message<?>, Message<?>> result = Objects.requireNonNull(invoke(),
                 msg.methodReturnedNull(configuration.methodAsString()));
 
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(msg -> {
-                    if (configuration.getAcknowledgment() == Acknowledgment.Strategy.PRE_PROCESSING) {
-                        return msg.ack().thenApply((x -> msg));
-                    } else {
-                        return CompletableFuture.completedFuture(msg);
-                    }
-                })
-                .via(result)
-                .buildRs();
+        this.function = upstream -> MultiUtils.via(handlePreProcessingAck(upstream), result);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private void processMethodReturningAProcessorOfPayloads() {
         Processor returnedProcessor = invoke();
 
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .map(Message::getPayload)
-                .via(returnedProcessor)
-                .map(Message::of)
-                .buildRs();
+        this.function = upstream -> MultiUtils.via(
+                handlePreProcessingAck(upstream).onItem().transform(Message::getPayload), returnedProcessor)
+                .onItem().transform(p -> Message.of(p));
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -209,74 +189,54 @@ public class ProcessorMediator extends AbstractMediator {
         ProcessorBuilder returnedProcessorBuilder = invoke();
         Objects.requireNonNull(returnedProcessorBuilder, msg.methodReturnedNull(configuration.methodAsString()));
 
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .map(Message::getPayload)
-                .via(returnedProcessorBuilder)
-                .map(Message::of)
-                .buildRs();
+        this.function = upstream -> MultiUtils.fromPublisherBuilder(
+                MultiUtils.toPublisherBuilder(handlePreProcessingAck(upstream).onItem().transform(Message::getPayload))
+                        .via(returnedProcessorBuilder))
+                .onItem().transform(p -> Message.of(p));
     }
 
     private void processMethodReturningAPublisherBuilderOfPayloadsAndConsumingPayloads() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .flatMap(message -> {
+        this.function = upstream -> handlePreProcessingAck(upstream)
+                .onItem().transformToMultiAndConcatenate(message -> {
                     PublisherBuilder<?> pb = invoke(message.getPayload());
-                    return pb.map(payload -> Message.of(payload, message.getMetadata()));
+                    return MultiUtils.fromPublisherBuilder(pb)
+                            .onItem().transform(payload -> Message.of(payload, message.getMetadata()));
                     // TODO We can handle post-acknowledgement here.
-                })
-                .buildRs();
+                });
     }
 
     private void processMethodReturningAPublisherOfPayloadsAndConsumingPayloads() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .flatMap(message -> {
+        this.function = upstream -> handlePreProcessingAck(upstream)
+                .onItem().transformToMultiAndConcatenate(message -> {
                     Publisher<?> pub = invoke(message.getPayload());
-                    return ReactiveStreams.fromPublisher(pub)
-                            .map(payload -> Message.of(payload, message.getMetadata()));
+                    return MultiUtils.publisher(pub)
+                            .onItem().transform(payload -> Message.of(payload, message.getMetadata()));
                     // TODO We can handle post-acknowledgement here.
-                })
-                .buildRs();
+                });
     }
 
     private void processMethodReturningIndividualMessageAndConsumingIndividualItem() {
         // Item can be message or payload
         if (configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD) {
             if (configuration.isBlocking()) {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transformToUni(x -> invokeBlocking(message.getPayload()))
-                                .onItem().transform(x -> (Message<?>) x)
-                                .onItemOrFailure().<Message<Object>> transformToUni(this::handlePostInvocationWithMessage)
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> this.<Message<?>> invokeBlockingFor(message, message.getPayload())
+                                .onItemOrFailure().transformToUni(this::handlePostInvocationWithMessage));
             } else {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transform(x -> invoke(message.getPayload()))
-                                .onItem().transform(x -> (Message<?>) x)
-                                .onItemOrFailure().<Message<Object>> transformToUni(this::handlePostInvocationWithMessage)
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> withRetry(
+                                Uni.createFrom().item(() -> this.<Message<?>> invoke(message.getPayload())))
+                                .onItemOrFailure().transformToUni(this::handlePostInvocationWithMessage));
             }
         } else {
             if (configuration.isBlocking()) {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transformToUni(x -> invokeBlocking(message))
-                                .onItem().transform(x -> (Message<?>) x)
-                                .onItemOrFailure().<Message<Object>> transformToUni(this::handlePostInvocationWithMessage)
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> this.<Message<?>> invokeBlockingFor(message, message)
+                                .onItemOrFailure().transformToUni(this::handlePostInvocationWithMessage));
             } else {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transform(x -> invoke(message))
-                                .onItem().transform(x -> (Message<?>) x)
-                                .onItemOrFailure().<Message<Object>> transformToUni(this::handlePostInvocationWithMessage)
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> withRetry(Uni.createFrom().item(() -> this.<Message<?>> invoke(message)))
+                                .onItemOrFailure().transformToUni(this::handlePostInvocationWithMessage));
             }
         }
     }
@@ -289,52 +249,32 @@ public class ProcessorMediator extends AbstractMediator {
         // Item can be message or payload.
         if (configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD) {
             if (configuration.isBlocking()) {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transformToUni(x -> (Uni<?>) invokeBlocking(message.getPayload()))
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> invokeBlockingFor(message, message.getPayload())
                                 .onItemOrFailure()
-                                .<Message<Object>> transformToUni((res, fail) -> handlePostInvocation(message, res, fail))
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                                .transformToUni((res, fail) -> handlePostInvocation(message, res, fail)));
             } else {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transform(input -> invoke(input.getPayload()))
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> withRetry(Uni.createFrom().item(() -> invoke(message.getPayload())))
                                 .onItemOrFailure()
-                                .<Message<Object>> transformToUni((res, fail) -> handlePostInvocation(message, res, fail))
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                                .transformToUni((res, fail) -> handlePostInvocation(message, res, fail)));
             }
         } else {
             // Method consuming message and producing payloads
             if (configuration.isBlocking()) {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transformToUni(x -> (Uni<?>) invokeBlocking(message))
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> invokeBlockingFor(message, message)
                                 .onItemOrFailure()
-                                .<Message<Object>> transformToUni((res, fail) -> handlePostInvocation(message, res, fail))
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                                .transformToUni((res, fail) -> handlePostInvocation(message, res, fail)));
             } else {
-                this.processor = ReactiveStreams.<Message<?>> builder()
-                        .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                                .onItem().transform(this::invoke)
+                this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                        message -> withRetry(Uni.createFrom().item(() -> invoke(message)))
                                 .onItemOrFailure()
-                                .<Message<Object>> transformToUni((res, fail) -> handlePostInvocation(message, res, fail))
-                                .onItem().transformToMulti(this::handleSkip))
-                        .buildRs();
+                                .transformToUni((res, fail) -> handlePostInvocation(message, res, fail)));
             }
         }
     }
 
-    private Publisher<? extends Message<Object>> handleSkip(Message<Object> m) {
-        if (m == null) { // If message is null, skip.
-            return Multi.createFrom().empty();
-        } else {
-            return Multi.createFrom().item(m);
-        }
-    }
-
     private Uni<? extends Message<Object>> handlePostInvocation(Message<?> message, Object res, Throwable fail) {
         if (fail != null) {
             if (isPostAck()) {
@@ -373,43 +313,31 @@ public class ProcessorMediator extends AbstractMediator {
     }
 
     private void processMethodReturningACompletionStageOfMessageAndConsumingIndividualMessage() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                        .onItem().transformToUni(x -> Uni.createFrom().completionStage((CompletionStage<?>) invoke(message)))
+        this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                message -> withRetry(Uni.createFrom().deferred(
+                        () -> Uni.createFrom().completionStage((CompletionStage<?>) invoke(message))))
                         .onItemOrFailure()
-                        .transformToUni((res, fail) -> handlePostInvocationWithMessage((Message<?>) res, fail))
-                        .onItem().transformToMulti(this::handleSkip))
-                .buildRs();
+                        .transformToUni((res, fail) -> handlePostInvocationWithMessage((Message<?>) res, fail)));
     }
 
     private void processMethodReturningAUniOfMessageAndConsumingIndividualMessage() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                        .onItem().transformToUni(x -> invoke(message))
+        this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                message -> withRetry(Uni.createFrom().deferred(() -> this.<Uni<?>> invoke(message)))
                         .onItemOrFailure()
-                        .transformToUni((res, fail) -> handlePostInvocationWithMessage((Message<?>) res, fail))
-                        .onItem().transformToMulti(this::handleSkip))
-                .buildRs();
+                        .transformToUni((res, fail) -> handlePostInvocationWithMessage((Message<?>) res, fail)));
     }
 
     private void processMethodReturningACompletionStageOfPayloadAndConsumingIndividualPayload() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                        .onItem()
-                        .transformToUni(
-                                x -> Uni.createFrom().completionStage((CompletionStage<?>) invoke(message.getPayload())))
-                        .onItemOrFailure().transformToUni((res, fail) -> handlePostInvocation(message, res, fail))
-                        .onItem().transformToMulti(this::handleSkip))
-                .buildRs();
+        this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                message -> withRetry(Uni.createFrom().deferred(
+                        () -> Uni.createFrom().completionStage((CompletionStage<?>) invoke(message.getPayload()))))
+                        .onItemOrFailure().transformToUni((res, fail) -> handlePostInvocation(message, res, fail)));
     }
 
     private void processMethodReturningAUniOfPayloadAndConsumingIndividualPayload() {
-        this.processor = ReactiveStreams.<Message<?>> builder()
-                .flatMapRsPublisher(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                        .onItem().transformToUni(x -> invoke(message.getPayload()))
-                        .onItemOrFailure().transformToUni((res, fail) -> handlePostInvocation(message, res, fail))
-                        .onItem().transformToMulti(this::handleSkip))
-                .buildRs();
+        this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                message -> withRetry(Uni.createFrom().deferred(() -> this.<Uni<?>> invoke(message.getPayload())))
+                        .onItemOrFailure().transformToUni((res, fail) -> handlePostInvocation(message, res, fail)));
     }
 
     private boolean isReturningAPublisherOrAPublisherBuilder() {
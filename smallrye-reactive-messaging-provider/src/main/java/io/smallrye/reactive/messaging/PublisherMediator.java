@@ -9,14 +9,15 @@ import java.util.function.Function;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
-import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.reactivestreams.Publisher;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
 
 public class PublisherMediator extends AbstractMediator {
 
-    private PublisherBuilder<? extends Message<?>> publisher;
+    private Multi<? extends Message<?>> publisher;
 
     // Supported signatures:
     // 1. Publisher<Message<O>> method()
@@ -37,7 +38,7 @@ public class PublisherMediator extends AbstractMediator {
 
     @Override
     public PublisherBuilder<? extends Message<?>> getStream() {
-        return Objects.requireNonNull(publisher);
+        return MultiUtils.toPublisherBuilder(Objects.requireNonNull(publisher));
     }
 
     @Override
@@ -102,35 +103,35 @@ public class PublisherMediator extends AbstractMediator {
 
     private void produceAPublisherBuilderOfMessages() {
         PublisherBuilder<Message<?>> builder = invoke();
-        setPublisher(builder);
+        setPublisher(MultiUtils.fromPublisherBuilder(builder));
     }
 
-    private void setPublisher(PublisherBuilder<Message<?>> publisher) {
+    private void setPublisher(Multi<? extends Message<?>> publisher) {
         // no conversion for publisher.
         this.publisher = decorate(publisher);
     }
 
     private <P> void produceAPublisherBuilderOfPayloads() {
         PublisherBuilder<P> builder = invoke();
-        setPublisher(builder.map(Message::of));
+        setPublisher(MultiUtils.fromPublisherBuilder(builder).onItem().transform(Message::of));
     }
 
     private void produceAPublisherOfMessages() {
-        setPublisher(ReactiveStreams.fromPublisher(invoke()));
+        setPublisher(MultiUtils.publisher(invoke()));
     }
 
     private <P> void produceAPublisherOfPayloads() {
         Publisher<P> pub = invoke();
-        setPublisher(ReactiveStreams.fromPublisher(pub).map(Message::of));
+        setPublisher(MultiUtils.publisher(pub).onItem().transform(Message::of));
     }
 
     private <T> void produceIndividualMessages() {
         if (configuration.isBlocking()) {
-            setPublisher(ReactiveStreams.<Uni<T>> generate(this::invokeBlocking)
-                    .flatMapCompletionStage(Uni::subscribeAsCompletionStage)
-                    .map(message -> (Message<?>) message));
+            setPublisher(MultiUtils.<Uni<T>> generate(this::invokeBlocking)
+                    .onItem().transformToUniAndConcatenate(Function.identity())
+                    .onItem().transform(message -> (Message<?>) message));
         } else {
-            setPublisher(ReactiveStreams.generate(() -> {
+            setPublisher(MultiUtils.generate(() -> {
                 Message<?> message = invoke();
                 Objects.requireNonNull(message, msg.methodReturnedNull(configuration.methodAsString()));
                 return message;
@@ -140,40 +141,34 @@ public class PublisherMediator extends AbstractMediator {
 
     private <T> void produceIndividualPayloads() {
         if (configuration.isBlocking()) {
-            setPublisher(ReactiveStreams.<Uni<T>> generate(this::invokeBlocking)
-                    .flatMapCompletionStage(Uni::subscribeAsCompletionStage)
-                    .map(Message::of));
+            setPublisher(MultiUtils.<Uni<T>> generate(this::invokeBlocking)
+                    .onItem().transformToUniAndConcatenate(Function.identity())
+                    .onItem().transform(Message::of));
         } else {
-            setPublisher(ReactiveStreams.<T> generate(this::invoke)
-                    .map(Message::of));
+            setPublisher(MultiUtils.<T> generate(this::invoke)
+                    .onItem().transform(Message::of));
         }
     }
 
     private void produceIndividualCompletionStageOfMessages() {
-        setPublisher(ReactiveStreams.<CompletionStage<Message<?>>> generate(this::invoke)
-                .flatMapCompletionStage(Function.identity()));
+        setPublisher(MultiUtils.<CompletionStage<Message<?>>> generate(this::invoke)
+                .onItem().transformToUniAndConcatenate(cs -> Uni.createFrom().completionStage(cs)));
     }
 
     private <P> void produceIndividualCompletionStageOfPayloads() {
-        setPublisher(ReactiveStreams.<CompletionStage<P>> generate(this::invoke)
-                .flatMapCompletionStage(Function.identity())
-                .map(Message::of));
+        setPublisher(MultiUtils.<CompletionStage<P>> generate(this::invoke)
+                .onItem().transformToUniAndConcatenate(cs -> Uni.createFrom().completionStage(cs))
+                .onItem().transform(Message::of));
     }
 
     private void produceIndividualUniOfMessages() {
-        setPublisher(ReactiveStreams.<CompletionStage<Message<?>>> generate(() -> {
-            Uni<Message<?>> uni = this.invoke();
-            return uni.subscribeAsCompletionStage();
-        })
-                .flatMapCompletionStage(Function.identity()));
+        setPublisher(MultiUtils.<Uni<Message<?>>> generate(this::invoke)
+                .onItem().transformToUniAndConcatenate(Function.identity()));
     }
 
     private <P> void produceIndividualUniOfPayloads() {
-        setPublisher(ReactiveStreams.<CompletionStage<P>> generate(() -> {
-            Uni<P> uni = this.invoke();
-            return uni.subscribeAsCompletionStage();
-        })
-                .flatMapCompletionStage(Function.identity())
-                .map(Message::of));
+        setPublisher(MultiUtils.<Uni<P>> generate(this::invoke)
+                .onItem().transformToUniAndConcatenate(Function.identity())
+                .onItem().transform(Message::of));
     }
 }
@@ -9,17 +9,18 @@ import java.util.function.Function;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
-import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.reactivestreams.Publisher;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.reactive.converters.ReactiveTypeConverter;
 import io.smallrye.reactive.converters.Registry;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
 
 public class StreamTransformerMediator extends AbstractMediator {
 
-    Function<PublisherBuilder<? extends Message<?>>, PublisherBuilder<? extends Message<?>>> function;
+    Function<Multi<Message<?>>, Multi<? extends Message<?>>> function;
 
-    private PublisherBuilder<? extends Message<?>> publisher;
+    private Multi<? extends Message<?>> publisher;
 
     public StreamTransformerMediator(MediatorConfiguration configuration) {
         super(configuration);
@@ -28,13 +29,13 @@ public class StreamTransformerMediator extends AbstractMediator {
     @Override
     public void connectToUpstream(PublisherBuilder<? extends Message<?>> publisher) {
         Objects.requireNonNull(function);
-        this.publisher = decorate(function.apply(convert(publisher)));
+        this.publisher = decorate(function.apply(convert(MultiUtils.fromPublisherBuilder(cast(publisher)))));
     }
 
     @Override
     public PublisherBuilder<? extends Message<?>> getStream() {
         Objects.requireNonNull(publisher);
-        return publisher;
+        return MultiUtils.toPublisherBuilder(publisher);
     }
 
     @Override
@@ -78,58 +79,53 @@ public class StreamTransformerMediator extends AbstractMediator {
 
     private void processMethodConsumingAPublisherBuilderOfMessages() {
         function = publisher -> {
-            PublisherBuilder<Message<?>> prependedWithAck = publisher
-                    .flatMapCompletionStage(managePreProcessingAck());
+            PublisherBuilder<Message<?>> prependedWithAck = MultiUtils.toPublisherBuilder(handlePreProcessingAck(publisher));
 
             PublisherBuilder<Message<?>> builder = invoke(prependedWithAck);
             Objects.requireNonNull(builder, msg.methodReturnedNull(configuration.methodAsString()));
-            return builder;
+            return MultiUtils.fromPublisherBuilder(builder);
         };
     }
 
     @SuppressWarnings("unchecked")
     private void processMethodConsumingAPublisherOfMessages() {
         function = publisher -> {
-            Publisher<Message<?>> prependedWithAck = publisher
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .buildRs();
+            Publisher<Message<?>> prependedWithAck = handlePreProcessingAck(publisher);
             Class<?> parameterType = configuration.getParameterTypes()[0];
             Optional<? extends ReactiveTypeConverter<?>> converter = Registry.lookup(parameterType);
-            if (converter.isPresent()) {
+            if (converter.isPresent() && !parameterType.isInstance(prependedWithAck)) {
                 prependedWithAck = (Publisher<Message<?>>) converter.get().fromPublisher(prependedWithAck);
             }
             Publisher<Message<?>> result = invoke(prependedWithAck);
             Objects.requireNonNull(result, msg.methodReturnedNull(configuration.methodAsString()));
-            return ReactiveStreams.fromPublisher(result);
+            return MultiUtils.publisher(result);
         };
     }
 
     private void processMethodConsumingAPublisherBuilderOfPayload() {
-        function = builder -> {
-            PublisherBuilder<Object> unwrapped = builder
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .map(Message::getPayload);
+        function = publisher -> {
+            PublisherBuilder<Object> unwrapped = MultiUtils.toPublisherBuilder(handlePreProcessingAck(publisher)
+                    .onItem().transform(Message::getPayload));
             PublisherBuilder<Object> result = invoke(unwrapped);
             Objects.requireNonNull(result, msg.methodReturnedNull(configuration.methodAsString()));
-            return result.map(o -> (Message<?>) Message.of(o));
+            return MultiUtils.fromPublisherBuilder(result).onItem().transform(o -> (Message<?>) Message.of(o));
         };
     }
 
     private void processMethodConsumingAPublisherOfPayload() {
-        function = builder -> {
-            Publisher<?> stream = builder
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .map(Message::getPayload).buildRs();
+        function = publisher -> {
+            Publisher<?> stream = handlePreProcessingAck(publisher)
+                    .onItem().transform(Message::getPayload);
             // Ability to inject Publisher implementation in method getting a Publisher.
             Class<?> parameterType = configuration.getParameterTypes()[0];
             Optional<? extends ReactiveTypeConverter<?>> converter = Registry.lookup(parameterType);
-            if (converter.isPresent()) {
+            if (converter.isPresent() && !parameterType.isInstance(stream)) {
                 stream = (Publisher<?>) converter.get().fromPublisher(stream);
             }
             Publisher<Object> result = invoke(stream);
             Objects.requireNonNull(result, msg.methodReturnedNull(configuration.methodAsString()));
-            return ReactiveStreams.fromPublisher(result)
-                    .map(o -> (Message<?>) Message.of(o));
+            return MultiUtils.publisher(result)
+                    .onItem().transform(o -> (Message<?>) Message.of(o));
         };
     }
 
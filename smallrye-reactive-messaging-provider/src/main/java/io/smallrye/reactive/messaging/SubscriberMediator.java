@@ -3,6 +3,9 @@ package io.smallrye.reactive.messaging;
 import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
 import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReference;
@@ -17,13 +20,16 @@ import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.smallrye.reactive.messaging.helpers.ClassUtils;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
 
 public class SubscriberMediator extends AbstractMediator {
 
-    private PublisherBuilder<? extends Message<?>> source;
-    private SubscriberBuilder<Message<?>, Void> subscriber;
+    private Multi<Message<?>> source;
+    private Function<Multi<Message<?>>, Multi<? extends Message<?>>> function;
     /**
      * Keep track of the subscription to cancel it once the scope is terminated.
      */
@@ -36,6 +42,8 @@ public class SubscriberMediator extends AbstractMediator {
     // 4. CompletionStage<?> method(I i) - + Uni variant
     // 5. void/? method(Message<I> m) - The support of this method has been removed (CES - Reactive Hangout 2018/09/11).
     // 6. void/? method(I i)
+    // 7. void/CompletionStage<?>/Uni<?> method(List<Message<I>> messages) - with @Batch
+    // 8. void/CompletionStage<?>/Uni<?> method(List<I> payloads) - with @Batch
 
     public SubscriberMediator(MediatorConfiguration configuration) {
         super(configuration);
@@ -65,16 +73,22 @@ public class SubscriberMediator extends AbstractMediator {
                     processMethodReturningVoid();
                 }
                 break;
+            case BATCH_MESSAGE: // 7
+            case BATCH_PAYLOAD: // 8
+                processMethodConsumingBatches();
+                break;
             default:
                 throw ex.illegalArgumentForUnexpectedConsumption(configuration.consumption());
         }
 
-        assert this.subscriber != null;
+        assert this.function != null;
     }
 
     @Override
     public SubscriberBuilder<Message<?>, Void> getComputedSubscriber() {
-        return subscriber;
+        return ReactiveStreams.<Message<?>> builder()
+                .via(MultiUtils.processor(function))
+                .ignore();
     }
 
     @Override
@@ -84,43 +98,41 @@ public class SubscriberMediator extends AbstractMediator {
 
     @Override
     public void connectToUpstream(PublisherBuilder<? extends Message<?>> publisher) {
-        this.source = convert(publisher);
+        this.source = convert(MultiUtils.fromPublisherBuilder(cast(publisher)));
     }
 
     @SuppressWarnings({ "ReactiveStreamsSubscriberImplementation" })
     @Override
     public void run() {
         assert this.source != null;
-        assert this.subscriber != null;
+        assert this.function != null;
 
         AtomicReference<Throwable> syncErrorCatcher = new AtomicReference<>();
-        Subscriber<Message<?>> delegate = this.subscriber.build();
         Subscriber<Message<?>> delegating = new Subscriber<Message<?>>() {
             @Override
             public void onSubscribe(Subscription s) {
                 subscription.set(s);
-                delegate.onSubscribe(s);
+                s.request(Long.MAX_VALUE);
             }
 
             @Override
             public void onNext(Message<?> o) {
-                delegate.onNext(o);
+                // Ignored, the messages have been processed
             }
 
             @Override
             public void onError(Throwable t) {
                 log.streamProcessingException(t);
                 syncErrorCatcher.set(t);
-                delegate.onError(t);
             }
 
             @Override
             public void onComplete() {
-                delegate.onComplete();
+                // Nothing to do
             }
         };
 
-        this.source.to(delegating).run();
+        function.apply(this.source).subscribe(delegating);
         // Check if a synchronous error has been caught
         Throwable throwable = syncErrorCatcher.get();
         if (throwable != null) {
@@ -130,24 +142,80 @@ public class SubscriberMediator extends AbstractMediator {
 
     private void processMethodReturningVoid() {
         if (configuration.isBlocking()) {
-            this.subscriber = ReactiveStreams.<Message<?>> builder()
-                    .flatMapCompletionStage(m -> Uni.createFrom().completionStage(handlePreProcessingAck(m))
-                            .onItem().transformToUni(msg -> invokeBlocking(msg.getPayload()))
-                            .onItemOrFailure().transformToUni(handleInvocationResult(m))
-                            .subscribeAsCompletionStage())
-                    .onError(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure))
-                    .ignore();
+            this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                    m -> invokeBlockingFor(m, m.getPayload())
+                            .onItemOrFailure().transformToUni(handleInvocationResult(m)))
+                    .onFailure().invoke(this::reportFailure);
         } else {
-            this.subscriber = ReactiveStreams.<Message<?>> builder()
-                    .flatMapCompletionStage(m -> Uni.createFrom().completionStage(handlePreProcessingAck(m))
-                            .onItem().transform(msg -> invoke(msg.getPayload()))
-                            .onItemOrFailure().transformToUni(handleInvocationResult(m))
-                            .subscribeAsCompletionStage())
-                    .onError(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure))
-                    .ignore();
+            this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                    m -> withRetry(Uni.createFrom().item(() -> invoke(m.getPayload())))
+                            .onItemOrFailure().transformToUni(handleInvocationResult(m)))
+                    .onFailure().invoke(this::reportFailure);
         }
     }
 
+    private void processMethodConsumingBatches() {
+        boolean invokeWithPayloads = MediatorConfiguration.Consumption.BATCH_PAYLOAD == configuration.consumption();
+        Duration maxWait = Duration.ofMillis(configuration.getBatchMaxWait());
+        // The incomplete batches are emitted on the Vert.x context of their first message, if any, not on the timer
+        this.function = upstream -> transformToUni(
+                MultiUtils.batch(handlePreProcessingAck(upstream), configuration.getBatchSize(), maxWait,
+                        Infrastructure.getDefaultWorkerPool(), AbstractMediator::currentContext),
+                batch -> withRetry(Uni.createFrom().deferred(() -> invokeWithBatch(batch, invokeWithPayloads)))
+                        .onItemOrFailure().transformToUni(handleBatchInvocationResult(batch)))
+                .onFailure().invoke(this::reportFailure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Uni<Object> invokeWithBatch(List<Message<?>> batch, boolean invokeWithPayloads) {
+        Object argument = batch;
+        if (invokeWithPayloads) {
+            List<Object> payloads = new ArrayList<>(batch.size());
+            for (Message<?> message : batch) {
+                payloads.add(message.getPayload());
+            }
+            argument = payloads;
+        }
+        if (configuration.isBlocking()) {
+            return invokeBlocking(argument);
+        }
+        Object result = invoke(argument);
+        if (result instanceof CompletionStage) {
+            return Uni.createFrom().completionStage((CompletionStage<Object>) result);
+        } else if (result instanceof Uni) {
+            return (Uni<Object>) result;
+        }
+        return Uni.createFrom().nullItem();
+    }
+
+    /**
+     * With post-processing acknowledgement, acks (or nacks) all the messages of the batch, and completes once they are
+     * all acknowledged. The resulting {@link Uni} emits {@code null}, the batch is not passed downstream.
+     */
+    private BiFunction<Object, Throwable, Uni<? extends Message<?>>> handleBatchInvocationResult(
+            List<Message<?>> batch) {
+        return (success, failure) -> {
+            if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
+                CompletableFuture<?>[] acks = new CompletableFuture[batch.size()];
+                for (int i = 0; i < acks.length; i++) {
+                    Message<?> message = batch.get(i);
+                    acks[i] = (failure == null ? message.ack() : message.nack(failure)).toCompletableFuture();
+                }
+                return Uni.createFrom().completionStage(CompletableFuture.allOf(acks))
+                        .onItem().transform(x -> (Message<?>) null);
+            } else if (failure != null) {
+                // The messages may have been already acknowledged (PRE or MANUAL), so we cannot nack.
+                return Uni.createFrom().failure(failure);
+            } else {
+                return Uni.createFrom().nullItem();
+            }
+        };
+    }
+
+    private void reportFailure(Throwable failure) {
+        health.reportApplicationFailure(configuration.methodAsString(), failure);
+    }
+
     private BiFunction<Object, Throwable, Uni<? extends Message<?>>> handleInvocationResult(
             Message<?> m) {
         return (success, failure) -> {
@@ -171,39 +239,33 @@ public class SubscriberMediator extends AbstractMediator {
 
     private void processMethodReturningACompletionStage() {
         boolean invokeWithPayload = MediatorConfiguration.Consumption.PAYLOAD == configuration.consumption();
-        this.subscriber = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                        .onItem().transformToUni(m -> {
-                            CompletionStage<?> stage;
-                            if (invokeWithPayload) {
-                                stage = invoke(message.getPayload());
-                            } else {
-                                stage = invoke(message);
-                            }
-                            return Uni.createFrom().completionStage(stage.thenApply(x -> message));
-                        })
-                        .onItemOrFailure().transformToUni(handleInvocationResult(message))
-                        .subscribeAsCompletionStage())
-                .onError(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure))
-                .ignore();
+        this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                message -> withRetry(Uni.createFrom().deferred(() -> {
+                    CompletionStage<?> stage;
+                    if (invokeWithPayload) {
+                        stage = invoke(message.getPayload());
+                    } else {
+                        stage = invoke(message);
+                    }
+                    return Uni.createFrom().completionStage(stage.thenApply(x -> message));
+                }))
+                        .onItemOrFailure().transformToUni(handleInvocationResult(message)))
+                .onFailure().invoke(this::reportFailure);
     }
 
     private void processMethodReturningAUni() {
         boolean invokeWithPayload = MediatorConfiguration.Consumption.PAYLOAD == configuration.consumption();
 
-        this.subscriber = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(message -> Uni.createFrom().completionStage(handlePreProcessingAck(message))
-                        .onItem().transformToUni(x -> {
-                            if (invokeWithPayload) {
-                                return invoke(message.getPayload());
-                            } else {
-                                return invoke(message);
-                            }
-                        })
-                        .onItemOrFailure().transformToUni(handleInvocationResult(message))
-                        .subscribeAsCompletionStage())
-                .onError(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure))
-                .ignore();
+        this.function = upstream -> transformToUni(handlePreProcessingAck(upstream),
+                message -> withRetry(Uni.createFrom().deferred(() -> {
+                    if (invokeWithPayload) {
+                        return this.<Uni<?>> invoke(message.getPayload());
+                    } else {
+                        return this.<Uni<?>> invoke(message);
+                    }
+                }))
+                        .onItemOrFailure().transformToUni(handleInvocationResult(message)))
+                .onFailure().invoke(this::reportFailure);
     }
 
     @SuppressWarnings("unchecked")
@@ -239,11 +301,8 @@ public class SubscriberMediator extends AbstractMediator {
                             return future;
                         }
                     });
-            this.subscriber = ReactiveStreams.<Message<?>> builder()
-                    .flatMapCompletionStage(this::handlePreProcessingAck)
-                    .via(wrapper)
-                    .onError(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure))
-                    .ignore();
+            this.function = upstream -> MultiUtils.via(handlePreProcessingAck(upstream), wrapper)
+                    .onFailure().invoke(this::reportFailure);
         } else {
             Subscriber<Message<?>> sub;
             if (result instanceof Subscriber) {
@@ -252,11 +311,9 @@ public class SubscriberMediator extends AbstractMediator {
                 sub = ((SubscriberBuilder<Message<?>, Void>) result).build();
             }
             Subscriber<Message<?>> casted = sub;
-            this.subscriber = ReactiveStreams.<Message<?>> builder()
-                    .flatMapCompletionStage(this::handlePreProcessingAck)
-                    .via(new SubscriberWrapper<>(casted, Function.identity(), null))
-                    .onError(failure -> health.reportApplicationFailure(configuration.methodAsString(), failure))
-                    .ignore();
+            this.function = upstream -> MultiUtils
+                    .via(handlePreProcessingAck(upstream), new SubscriberWrapper<>(casted, Function.identity(), null))
+                    .onFailure().invoke(this::reportFailure);
         }
     }
 }
@@ -0,0 +1,191 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.smallrye.reactive.messaging.helpers.KeySequencer;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.mutiny.core.Promise;
+
+/**
+ * Worker running each blocking execution on its own virtual thread (Java 21+).
+ * <p>
+ * The number of concurrent executions is bounded by a {@link Semaphore} rather than by a thread pool. The permit is
+ * acquired on the virtual thread, so executions waiting for a permit do not hold a platform thread. On JVMs without
+ * virtual threads, the executions run on a pool of at most {@code concurrency} daemon platform threads, created on
+ * demand and released when idle, the other executions wait in the pool queue without holding a thread.
+ * <p>
+ * As for the Vert.x worker executors, when the execution is requested from a Vert.x context, the result is emitted on
+ * that context, and ordered executions requested from the same context are serialized.
+ */
+class VirtualThreadWorker {
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor}, {@code null} before Java 21.
+     */
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = getNewVirtualThreadPerTaskExecutor();
+
+    private static final Object NO_CONTEXT = new Object();
+
+    private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+    private final String name;
+    private final int concurrency;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final KeySequencer sequencer = new KeySequencer();
+
+    VirtualThreadWorker(String name, int concurrency) {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        if (virtualThreadExecutor != null) {
+            this.executor = virtualThreadExecutor;
+            this.virtual = true;
+        } else {
+            log.virtualThreadsNotSupported(name);
+            this.executor = createPlatformThreadExecutor(name, concurrency);
+            this.virtual = false;
+        }
+    }
+
+    static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    String name() {
+        return name;
+    }
+
+    int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return {@code true} if the executions run on virtual threads, {@code false} if they run on platform threads.
+     */
+    boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return the number of executions currently running.
+     */
+    int active() {
+        return concurrency - permits.availablePermits();
+    }
+
+    <T> Uni<T> executeBlocking(Handler<Promise<T>> blockingCodeHandler, boolean ordered) {
+        Context context = io.vertx.core.Vertx.currentContext();
+        if (ordered) {
+            return sequencer.sequence(context == null ? NO_CONTEXT : context,
+                    () -> execute(blockingCodeHandler, context));
+        }
+        return execute(blockingCodeHandler, context);
+    }
+
+    private <T> Uni<T> execute(Handler<Promise<T>> blockingCodeHandler, Context context) {
+        return Uni.createFrom().emitter(emitter -> {
+            try {
+                executor.execute(() -> run(blockingCodeHandler, emitter, context));
+            } catch (RejectedExecutionException e) {
+                emitter.fail(e);
+            }
+        });
+    }
+
+    private <T> void run(Handler<Promise<T>> blockingCodeHandler, UniEmitter<? super T> emitter, Context context) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.fail(e);
+            return;
+        }
+        io.vertx.core.Promise<T> promise = io.vertx.core.Promise.promise();
+        try {
+            blockingCodeHandler.handle(Promise.newInstance(promise));
+        } catch (Throwable t) { // NOSONAR - same behavior as executeBlocking
+            promise.tryFail(t);
+        } finally {
+            permits.release();
+        }
+        promise.future().onComplete(ar -> {
+            if (context == null) {
+                dispatch(emitter, ar.succeeded(), ar.result(), ar.cause());
+            } else {
+                context.runOnContext(x -> dispatch(emitter, ar.succeeded(), ar.result(), ar.cause()));
+            }
+        });
+    }
+
+    private static <T> void dispatch(UniEmitter<? super T> emitter, boolean success, T result, Throwable failure) {
+        if (success) {
+            emitter.complete(result);
+        } else {
+            emitter.fail(failure);
+        }
+    }
+
+    void close() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService createPlatformThreadExecutor(String name, int concurrency) {
+        // Bounded by the concurrency, so the executions waiting for a permit never hold a thread
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, IDLE_TIMEOUT_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new WorkerThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Method getNewVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        WorkerThreadFactory(String name) {
+            this.prefix = name + "-thread-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.core.Handler;
+import io.vertx.mutiny.core.Promise;
+
+/**
+ * Named worker pool, recording the {@link WorkerPoolStatistics} of the executions and bounding the number of pending
+ * executions.
+ * <p>
+ * When the pool has a bounded queue, at most {@code concurrency + max-queue-size} executions are pending at any time.
+ * Additional executions are either rejected, or deferred until a pending execution completes. Deferring does not queue
+ * the work: the caller stream does not get its result, and so does not request more messages, until the execution
+ * has started. So the upstream is back-pressured instead of accumulating messages in memory.
+ */
+class WorkerPool {
+
+    /**
+     * Behavior when the queue of a worker pool is full.
+     */
+    enum RejectionPolicy {
+        /**
+         * Defer the execution until a pending execution completes, back-pressuring the caller.
+         */
+        BACKPRESSURE,
+        /**
+         * Fail the execution with a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        FAIL
+    }
+
+    /**
+     * Submits blocking code to the underlying executor.
+     */
+    interface BlockingExecutor {
+        <T> Uni<T> executeBlocking(Handler<Promise<T>> blockingCodeHandler, boolean ordered);
+    }
+
+    private final BlockingExecutor executor;
+    private final WorkerPoolStatistics statistics;
+    private final int capacity;
+    private final RejectionPolicy policy;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param name the pool name
+     * @param executor the executor running the blocking code
+     * @param concurrency the maximum number of concurrent executions
+     * @param maxQueueSize the maximum number of executions waiting for a thread, -1 if unbounded
+     * @param policy the behavior when the queue is full
+     */
+    WorkerPool(String name, BlockingExecutor executor, int concurrency, int maxQueueSize, RejectionPolicy policy) {
+        this.executor = executor;
+        this.statistics = new WorkerPoolStatistics(name, concurrency, maxQueueSize);
+        this.capacity = maxQueueSize < 0 ? Integer.MAX_VALUE : concurrency + maxQueueSize;
+        this.policy = policy;
+    }
+
+    WorkerPoolStatistics statistics() {
+        return statistics;
+    }
+
+    <T> Uni<T> executeBlocking(Handler<Promise<T>> blockingCodeHandler, boolean ordered) {
+        return Uni.createFrom().deferred(() -> {
+            long requested = System.nanoTime();
+            statistics.onQueued();
+            if (tryAcquire()) {
+                return submit(blockingCodeHandler, ordered, requested);
+            }
+            if (policy == RejectionPolicy.FAIL) {
+                statistics.onRejected();
+                return Uni.createFrom().failure(ex.rejectedWorkerExecution(statistics.getName(), capacity));
+            }
+            return Uni.createFrom().<Void> emitter(emitter -> {
+                Waiter waiter = new Waiter(emitter);
+                emitter.onTermination(() -> {
+                    if (waiter.cancel()) {
+                        statistics.onCancelled();
+                    }
+                });
+                waiters.add(waiter);
+                // A pending execution may have completed before the waiter was added
+                drain();
+            }).onItem().transformToUni(x -> submit(blockingCodeHandler, ordered, requested));
+        });
+    }
+
+    private <T> Uni<T> submit(Handler<Promise<T>> blockingCodeHandler, boolean ordered, long requested) {
+        return executor.executeBlocking(promise -> {
+            long start = System.nanoTime();
+            statistics.onStarted(start - requested);
+            boolean failure = true;
+            try {
+                blockingCodeHandler.handle(promise);
+                failure = promise.getDelegate().future().failed();
+            } finally {
+                statistics.onCompleted(System.nanoTime() - start, failure);
+                release();
+            }
+        }, ordered);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = pending.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (pending.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        pending.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null || !waiter.resume()) {
+                // Nobody to resume, give the slot back
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final UniEmitter<? super Void> emitter;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Waiter(UniEmitter<? super Void> emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean resume() {
+            if (done.compareAndSet(false, true)) {
+                emitter.complete(null);
+                return true;
+            }
+            return false;
+        }
+
+        boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+    }
+}
@@ -5,12 +5,14 @@ import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
 import static io.smallrye.reactive.messaging.i18n.ProviderMessages.msg;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.annotation.Priority;
 import javax.enterprise.context.ApplicationScoped;
@@ -29,6 +31,7 @@ import org.eclipse.microprofile.reactive.messaging.Outgoing;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.smallrye.reactive.messaging.helpers.Validation;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 import io.vertx.core.Handler;
 import io.vertx.mutiny.core.Promise;
 import io.vertx.mutiny.core.WorkerExecutor;
@@ -37,6 +40,10 @@ import io.vertx.mutiny.core.WorkerExecutor;
 public class WorkerPoolRegistry {
     private static final String WORKER_CONFIG_PREFIX = "smallrye.messaging.worker";
     private static final String WORKER_CONCURRENCY = "max-concurrency";
+    private static final String WORKER_VIRTUAL = "virtual";
+    private static final String WORKER_MAX_QUEUE_SIZE = "max-queue-size";
+    private static final String WORKER_REJECTION_POLICY = "rejection-policy";
+    private static final int DEFAULT_VIRTUAL_CONCURRENCY = 1024;
 
     @Inject
     private ExecutionHolder executionHolder;
@@ -44,8 +51,15 @@ public class WorkerPoolRegistry {
     @Inject
     private Instance<Config> configInstance;
 
+    @Inject
+    private Instance<StatisticsListener> listeners;
+
     private final Map<String, Integer> workerConcurrency = new HashMap<>();
     private final Map<String, WorkerExecutor> workerExecutors = new ConcurrentHashMap<>();
+    private final Map<String, VirtualThreadWorker> virtualWorkers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> workerQueueSizes = new HashMap<>();
+    private final Map<String, WorkerPool.RejectionPolicy> workerRejectionPolicies = new HashMap<>();
+    private final Map<String, WorkerPool> workerPools = new ConcurrentHashMap<>();
 
     public void terminate(
             @Observes(notifyObserver = Reception.IF_EXISTS) @Priority(100) @BeforeDestroyed(ApplicationScoped.class) Object event) {
@@ -54,6 +68,9 @@ public class WorkerPoolRegistry {
                 executor.close();
             }
         }
+        for (VirtualThreadWorker worker : virtualWorkers.values()) {
+            worker.close();
+        }
     }
 
     public <T> Uni<T> executeWork(Handler<Promise<T>> blockingCodeHandler, String workerName, boolean ordered) {
@@ -62,7 +79,56 @@ public class WorkerPoolRegistry {
         if (workerName == null) {
             return executionHolder.vertx().executeBlocking(blockingCodeHandler, ordered);
         } else {
-            return getWorker(workerName).executeBlocking(blockingCodeHandler, ordered);
+            return getWorkerPool(workerName).executeBlocking(blockingCodeHandler, ordered);
+        }
+    }
+
+    /**
+     * Gets the statistics of a named worker pool.
+     *
+     * @param workerName the worker pool name
+     * @return the statistics, {@code null} if the pool has not been used yet
+     */
+    public WorkerPoolStatistics getStatistics(String workerName) {
+        WorkerPool pool = workerPools.get(workerName);
+        return pool == null ? null : pool.statistics();
+    }
+
+    /**
+     * @return the statistics of the named worker pools used so far
+     */
+    public Collection<WorkerPoolStatistics> getStatistics() {
+        return workerPools.values().stream().map(WorkerPool::statistics).collect(Collectors.toList());
+    }
+
+    private WorkerPool getWorkerPool(String workerName) {
+        WorkerPool pool = workerPools.get(workerName);
+        if (pool != null) {
+            return pool;
+        }
+        synchronized (this) {
+            pool = workerPools.get(workerName);
+            if (pool == null) {
+                int maxQueueSize = workerQueueSizes.getOrDefault(workerName, -1);
+                WorkerPool.RejectionPolicy policy = workerRejectionPolicies.getOrDefault(workerName,
+                        WorkerPool.RejectionPolicy.BACKPRESSURE);
+                VirtualThreadWorker virtual = virtualWorkers.get(workerName);
+                if (virtual != null) {
+                    pool = new WorkerPool(workerName, virtual::executeBlocking, virtual.concurrency(), maxQueueSize,
+                            policy);
+                } else {
+                    WorkerExecutor executor = getWorker(workerName);
+                    pool = new WorkerPool(workerName, executor::executeBlocking, workerConcurrency.get(workerName),
+                            maxQueueSize, policy);
+                }
+                workerPools.put(workerName, pool);
+                if (listeners != null) {
+                    for (StatisticsListener listener : listeners) {
+                        listener.onStatistics(pool.statistics());
+                    }
+                }
+            }
+            return pool;
         }
     }
 
@@ -116,9 +182,24 @@ public class WorkerPoolRegistry {
                 throw ex.illegalArgumentForAnnotationNullOrBlank("@Blocking", className + "#" + method);
             }
 
-            // Validate @Blocking worker pool has configuration to define concurrency
+            defineQueue(poolName);
+
             String workerConfigKey = WORKER_CONFIG_PREFIX + "." + poolName + "." + WORKER_CONCURRENCY;
             Optional<Integer> concurrency = configInstance.get().getOptionalValue(workerConfigKey, Integer.class);
+            if (isVirtual(poolName)) {
+                // Virtual thread pools are bounded by a semaphore, the concurrency is optional
+                int permits = concurrency.orElse(DEFAULT_VIRTUAL_CONCURRENCY);
+                if (permits < 1) {
+                    throw ex.illegalArgumentForWorkerConcurrency(poolName, permits);
+                }
+                virtualWorkers.computeIfAbsent(poolName, name -> {
+                    log.virtualWorkerPoolCreated(name, permits);
+                    return new VirtualThreadWorker(name, permits);
+                });
+                return;
+            }
+
+            // Validate @Blocking worker pool has configuration to define concurrency
             if (!concurrency.isPresent()) {
                 throw ex.illegalArgumentForWorkerConfigKey("@Blocking", className + "#" + method,
                         workerConfigKey);
@@ -128,6 +209,37 @@ public class WorkerPoolRegistry {
         }
     }
 
+    private void defineQueue(String poolName) {
+        String sizeKey = WORKER_CONFIG_PREFIX + "." + poolName + "." + WORKER_MAX_QUEUE_SIZE;
+        Optional<Integer> size = configInstance.get().getOptionalValue(sizeKey, Integer.class);
+        if (size.isPresent()) {
+            if (size.get() < 0) {
+                throw ex.illegalArgumentForWorkerConfigValue(poolName, size.get(), sizeKey);
+            }
+            workerQueueSizes.put(poolName, size.get());
+        }
+
+        String policyKey = WORKER_CONFIG_PREFIX + "." + poolName + "." + WORKER_REJECTION_POLICY;
+        Optional<String> policy = configInstance.get().getOptionalValue(policyKey, String.class);
+        if (policy.isPresent()) {
+            try {
+                workerRejectionPolicies.put(poolName,
+                        WorkerPool.RejectionPolicy.valueOf(policy.get().trim().toUpperCase().replace('-', '_')));
+            } catch (IllegalArgumentException e) {
+                throw ex.illegalArgumentForWorkerConfigValue(poolName, policy.get(), policyKey);
+            }
+        }
+    }
+
+    private boolean isVirtual(String poolName) {
+        if (poolName.equals(Blocking.VIRTUAL_THREAD_POOL)) {
+            return true;
+        }
+        return configInstance.get()
+                .getOptionalValue(WORKER_CONFIG_PREFIX + "." + poolName + "." + WORKER_VIRTUAL, Boolean.class)
+                .orElse(false);
+    }
+
     private void defineWorker(Method method) {
         Objects.requireNonNull(method, msg.methodWasEmpty());
 
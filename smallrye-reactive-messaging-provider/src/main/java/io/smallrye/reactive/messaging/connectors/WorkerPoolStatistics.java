@@ -0,0 +1,175 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.smallrye.reactive.messaging.statistics.LatencyHistogram;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of a named worker pool.
+ * <p>
+ * An execution is <em>queued</em> from the moment it is requested until it starts on a worker thread, including the time
+ * spent waiting for room in a bounded queue. It is then <em>active</em> until the blocking code returns.
+ */
+public class WorkerPoolStatistics implements Statistics {
+
+    /**
+     * The type of the worker pool statistics, tagged with the {@code pool} name.
+     */
+    public static final String TYPE = "worker";
+
+    private final String name;
+    private final int concurrency;
+    private final int maxQueueSize;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    WorkerPoolStatistics(String name, int concurrency, int maxQueueSize) {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.maxQueueSize = maxQueueSize;
+        this.tags = Collections.singletonMap("pool", name);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.gauge("queued", Measurement.NONE, this::getQueued),
+                Measurement.gauge("active", Measurement.NONE, this::getActive),
+                Measurement.counter("completed", Measurement.NONE, completed),
+                Measurement.counter("failed", Measurement.NONE, failed),
+                Measurement.counter("rejected", Measurement.NONE, rejected),
+                Measurement.histogram("queue-wait", queueWait),
+                Measurement.histogram("execution-time", executionTime)));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the name of the worker pool
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the maximum number of concurrent executions
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the maximum number of executions waiting for a worker thread, -1 if unbounded
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * @return the number of executions waiting for a worker thread
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return the number of executions running
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * @return the number of executions that have completed, successfully or not
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the number of executions that have failed
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the number of executions rejected because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the time spent by the executions between their request and their start, in nanoseconds
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return the execution time of the blocking code, in nanoseconds
+     */
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    void onQueued() {
+        queued.incrementAndGet();
+    }
+
+    void onStarted(long waitNanos) {
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        queueWait.record(waitNanos);
+    }
+
+    void onCompleted(long executionNanos, boolean failure) {
+        active.decrementAndGet();
+        executionTime.record(executionNanos);
+        completed.increment();
+        if (failure) {
+            failed.increment();
+        }
+    }
+
+    void onCancelled() {
+        queued.decrementAndGet();
+    }
+
+    void onRejected() {
+        queued.decrementAndGet();
+        rejected.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerPoolStatistics{name=" + name + ", queued=" + getQueued() + ", active=" + getActive()
+                + ", completed=" + getCompleted() + ", failed=" + getFailed() + ", rejected=" + getRejected() + "}";
+    }
+}
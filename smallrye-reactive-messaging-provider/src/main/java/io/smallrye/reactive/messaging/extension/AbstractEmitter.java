@@ -1,11 +1,20 @@
 package io.smallrye.reactive.messaging.extension;
 
 import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 import org.reactivestreams.Publisher;
 
@@ -14,8 +23,35 @@ import io.smallrye.mutiny.subscription.BackPressureStrategy;
 import io.smallrye.mutiny.subscription.MultiEmitter;
 import io.smallrye.reactive.messaging.EmitterBehavior;
 import io.smallrye.reactive.messaging.helpers.BroadcastHelper;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 
+/**
+ * Base class for the emitters.
+ * <p>
+ * Emitters can be called concurrently by many threads. Instead of serializing the producers with a lock, the thread
+ * winning the {@code wip} counter passes its item to the downstream emitter, and then drains the multi-producer,
+ * single-consumer queue in which the other producers enqueued their items meanwhile. These producers return as soon as
+ * their item is enqueued, and an uncontended send never touches the queue. All the items are handed to the same Mutiny
+ * emitter as before, so the overflow strategy applies to every message.
+ * <p>
+ * The checks that can reject a message (no subscriber, cancelled downstream, missing requests with the {@code BUFFER}
+ * and {@code THROW_EXCEPTION} strategies) run in the producer thread before the message is enqueued, so the producer
+ * gets the exception. A message enqueued by a producer and failing when the draining thread delivers it is nacked with
+ * the failure, the exception is never thrown to the draining thread.
+ * <p>
+ * The queue is bounded: a producer finding {@link #MAX_PENDING} enqueued items waits until the draining thread has
+ * delivered half of them, as it would have waited for the lock.
+ *
+ * @param <T> the type of payload
+ */
 public abstract class AbstractEmitter<T> implements EmitterBehavior {
+    private static final Object COMPLETED = new Object();
+
+    /**
+     * The number of enqueued items from which the producers wait for the draining thread.
+     */
+    static final int MAX_PENDING = 1024;
+
     protected final AtomicReference<MultiEmitter<? super Message<? extends T>>> internal = new AtomicReference<>();
     protected final Multi<Message<? extends T>> publisher;
 
@@ -23,9 +59,40 @@ public abstract class AbstractEmitter<T> implements EmitterBehavior {
 
     protected final AtomicReference<Throwable> synchronousFailure = new AtomicReference<>();
 
-    @SuppressWarnings("unchecked")
+    /**
+     * The items enqueued by the producers while another thread was delivering items.
+     */
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread drainer;
+
+    /**
+     * The monitor on which the producers wait when the queue is full.
+     */
+    private final Object room = new Object();
+    private volatile int waiting;
+
+    /**
+     * Opens the spill queue when the {@code SPILL} overflow strategy is used, {@code null} if the spill directory is
+     * not configured.
+     */
+    private final SpillSupport spill;
+
     public AbstractEmitter(EmitterConfiguration config, long defaultBufferSize) {
+        this(config, defaultBufferSize, null);
+    }
+
+    public AbstractEmitter(EmitterConfiguration config, long defaultBufferSize,
+            Iterable<StatisticsListener> statisticsListeners) {
+        this(config, defaultBufferSize, statisticsListeners, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    AbstractEmitter(EmitterConfiguration config, long defaultBufferSize, Iterable<StatisticsListener> statisticsListeners,
+            SpillSupport spill) {
         this.name = config.name;
+        this.spill = spill;
         if (defaultBufferSize <= 0) {
             throw ex.illegalArgumentForDefaultBuffer();
         }
@@ -48,27 +115,31 @@ public abstract class AbstractEmitter<T> implements EmitterBehavior {
 
         if (config.broadcast) {
             publisher = (Multi<Message<? extends T>>) BroadcastHelper
-                    .broadcastPublisher(tempPublisher, config.numberOfSubscriberBeforeConnecting).buildRs();
+                    .broadcastPublisher(tempPublisher, config.name, config.numberOfSubscriberBeforeConnecting,
+                            config.broadcastBufferSize, config.broadcastPolicy, statisticsListeners)
+                    .buildRs();
         } else {
             publisher = tempPublisher;
         }
     }
 
     @Override
-    public synchronized void complete() {
-        verify(internal, name).complete();
+    public void complete() {
+        verify(internal, name);
+        submit(COMPLETED);
     }
 
     @Override
-    public synchronized void error(Exception e) {
+    public void error(Exception e) {
         if (e == null) {
             throw ex.illegalArgumentForException("null");
         }
-        verify(internal, name).fail(e);
+        verify(internal, name);
+        submit(new Failure(e));
     }
 
     @Override
-    public synchronized boolean isCancelled() {
+    public boolean isCancelled() {
         MultiEmitter<? super Message<? extends T>> emitter = internal.get();
         return emitter == null || emitter.isCancelled();
     }
@@ -108,6 +179,13 @@ public abstract class AbstractEmitter<T> implements EmitterBehavior {
             case NONE:
                 return Multi.createFrom().emitter(deferred, BackPressureStrategy.IGNORE);
 
+            case SPILL:
+                if (spill == null) {
+                    throw ex.illegalStateSpillDirectoryNotSet(name, SpillSupport.SPILL_DIRECTORY_PROPERTY);
+                }
+                return SpillingEmitter.create(deferred, bufferSize > 0 ? bufferSize : defaultBufferSize,
+                        spill.open(name));
+
             default:
                 throw ex.illegalArgumentForBackPressure(overFlowStrategy);
         }
@@ -136,11 +214,47 @@ public abstract class AbstractEmitter<T> implements EmitterBehavior {
         return internal.get() != null;
     }
 
-    protected synchronized void emit(Message<? extends T> message) {
+    protected void emit(Message<? extends T> message) {
         if (message == null) {
             throw ex.illegalArgumentForNullValue();
         }
+        MultiEmitter<? super Message<? extends T>> emitter = checkBeforeEmitting();
+        if (emitter instanceof ThrowingEmitter) {
+            // Check the requests in the caller thread, so the caller gets the overflow exception
+            ((ThrowingEmitter<?>) emitter).reserve(1);
+        }
+        submit(message);
+        checkAfterEmitting();
+    }
+
+    /**
+     * Emits a batch of messages. The messages are delivered downstream by a single drain loop iteration, so the messages
+     * sent concurrently by other producers are not interleaved.
+     *
+     * @param messages the messages, must not be {@code null} or contain {@code null}
+     */
+    protected void emitAll(List<? extends Message<? extends T>> messages) {
+        if (messages == null) {
+            throw ex.illegalArgumentForNullValue();
+        }
+        for (Message<? extends T> message : messages) {
+            if (message == null) {
+                throw ex.illegalArgumentForNullValue();
+            }
+        }
+        MultiEmitter<? super Message<? extends T>> emitter = checkBeforeEmitting();
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (emitter instanceof ThrowingEmitter) {
+            // All or nothing, a batch is never partially sent
+            ((ThrowingEmitter<?>) emitter).reserve(messages.size());
+        }
+        submit(new Batch(messages));
+        checkAfterEmitting();
+    }
 
+    private MultiEmitter<? super Message<? extends T>> checkBeforeEmitting() {
         MultiEmitter<? super Message<? extends T>> emitter = verify(internal, name);
         if (synchronousFailure.get() != null) {
             throw ex.illegalStateForEmitter(synchronousFailure.get());
@@ -148,12 +262,192 @@ public abstract class AbstractEmitter<T> implements EmitterBehavior {
         if (emitter.isCancelled()) {
             throw ex.illegalStateForDownstreamCancel();
         }
-        emitter.emit(message);
+        return emitter;
+    }
+
+    private void checkAfterEmitting() {
         if (synchronousFailure.get() != null) {
             throw ex.illegalStateForEmitterWhileEmitting(synchronousFailure.get());
         }
     }
 
+    /**
+     * Creates the messages for a batch of payloads.
+     * The given callbacks are called once: when all the messages are acknowledged, or on the first negative
+     * acknowledgement. If there are no payloads, {@code onAcknowledged} is called immediately.
+     *
+     * @param payloads the payloads, must not contain {@code null}
+     * @param onAcknowledged called when all the messages are acknowledged
+     * @param onNegativeAcknowledgement called with the reason of the first negative acknowledgement
+     * @return the messages
+     */
+    protected List<Message<? extends T>> messagesOf(List<T> payloads, Runnable onAcknowledged,
+            Consumer<Throwable> onNegativeAcknowledgement) {
+        if (payloads.isEmpty()) {
+            onAcknowledged.run();
+            return new ArrayList<>();
+        }
+        AtomicInteger remaining = new AtomicInteger(payloads.size());
+        AtomicBoolean done = new AtomicBoolean();
+        List<Message<? extends T>> messages = new ArrayList<>(payloads.size());
+        for (T payload : payloads) {
+            messages.add(Message.of(payload, Metadata.empty(), () -> {
+                if (remaining.decrementAndGet() == 0 && done.compareAndSet(false, true)) {
+                    onAcknowledged.run();
+                }
+                return CompletableFuture.completedFuture(null);
+            }, reason -> {
+                if (done.compareAndSet(false, true)) {
+                    onNegativeAcknowledgement.accept(reason);
+                }
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+        return messages;
+    }
+
+    /**
+     * Copies the payloads to a list, failing if one of them is {@code null}.
+     *
+     * @param payloads the payloads, must not be {@code null}
+     * @return the list of payloads
+     */
+    static <T> List<T> toList(Iterable<? extends T> payloads) {
+        if (payloads == null) {
+            throw ex.illegalArgumentForNullValue();
+        }
+        List<T> list = new ArrayList<>();
+        for (T payload : payloads) {
+            if (payload == null) {
+                throw ex.illegalArgumentForNullValue();
+            }
+            list.add(payload);
+        }
+        return list;
+    }
+
+    /**
+     * Passes the given item downstream, or enqueues it if another thread is already delivering items.
+     * Only one thread delivers at a time, the others only increment {@code wip} so the delivering thread drains the queue
+     * once more before leaving.
+     *
+     * @param item the message, batch or terminal signal
+     */
+    private void submit(Object item) {
+        if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+            // Fast path, no contention: deliver the item directly, the failures are thrown to the caller
+            drainer = Thread.currentThread();
+            try {
+                deliver(item, false);
+            } finally {
+                drain();
+            }
+            return;
+        }
+        // The draining thread may send items while delivering one, it must not wait for itself
+        if (drainer != Thread.currentThread()) {
+            awaitRoom();
+        }
+        pending.incrementAndGet();
+        queue.offer(item);
+        if (wip.getAndIncrement() == 0) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            drainer = Thread.currentThread();
+            Object item;
+            while ((item = queue.poll()) != null) {
+                if (pending.decrementAndGet() == MAX_PENDING / 2 && waiting > 0) {
+                    synchronized (room) {
+                        room.notifyAll();
+                    }
+                }
+                deliver(item, true);
+            }
+            drainer = null;
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void awaitRoom() {
+        if (pending.get() < MAX_PENDING) {
+            return;
+        }
+        boolean interrupted = false;
+        synchronized (room) {
+            waiting++;
+            try {
+                // The draining thread notifies the producers when half of the items have been delivered
+                while (pending.get() >= MAX_PENDING) {
+                    try {
+                        room.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                waiting--;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delivers an item to the downstream emitter.
+     *
+     * @param item the message, batch or terminal signal
+     * @param enqueued whether the item has been enqueued by another producer, in which case the messages that cannot
+     *        be delivered are nacked instead of throwing the failure
+     */
+    @SuppressWarnings("unchecked")
+    private void deliver(Object item, boolean enqueued) {
+        if (item instanceof Batch) {
+            for (Object message : ((Batch) item).messages) {
+                deliver(message, enqueued);
+            }
+            return;
+        }
+        MultiEmitter<? super Message<? extends T>> emitter = internal.get();
+        try {
+            if (item == COMPLETED) {
+                emitter.complete();
+            } else if (item instanceof Failure) {
+                emitter.fail(((Failure) item).failure);
+            } else if (emitter instanceof ThrowingEmitter) {
+                ((ThrowingEmitter<Message<? extends T>>) emitter).emitReserved((Message<? extends T>) item);
+            } else {
+                emitter.emit((Message<? extends T>) item);
+            }
+        } catch (RuntimeException e) {
+            if (!enqueued) {
+                throw e;
+            }
+            nack(item, e);
+            return;
+        }
+        if (enqueued && synchronousFailure.get() != null) {
+            // The stream failed, the message has not been delivered
+            nack(item, synchronousFailure.get());
+        }
+    }
+
+    private static void nack(Object item, Throwable failure) {
+        if (item instanceof Message) {
+            try {
+                ((Message<?>) item).nack(failure);
+            } catch (RuntimeException e) {
+                // The draining thread delivers the messages of the other producers, it must not fail
+                log.unableToNackEmittedMessage(e);
+            }
+        }
+    }
+
     static <T> MultiEmitter<? super Message<? extends T>> verify(
             AtomicReference<MultiEmitter<? super Message<? extends T>>> reference,
             String name) {
@@ -166,4 +460,20 @@ public abstract class AbstractEmitter<T> implements EmitterBehavior {
         }
         return emitter;
     }
+
+    private static final class Failure {
+        private final Throwable failure;
+
+        private Failure(Throwable failure) {
+            this.failure = failure;
+        }
+    }
+
+    private static final class Batch {
+        private final List<?> messages;
+
+        private Batch(List<?> messages) {
+            this.messages = messages;
+        }
+    }
 }
@@ -16,6 +16,8 @@ public class EmitterConfiguration {
     public long overflowBufferSize;
     public boolean broadcast;
     public int numberOfSubscriberBeforeConnecting;
+    public int broadcastBufferSize;
+    public Broadcast.SlowSubscriberPolicy broadcastPolicy;
 
     public EmitterConfiguration() {
         // Used for proxies.
@@ -36,9 +38,13 @@ public class EmitterConfiguration {
         if (broadcast != null) {
             this.broadcast = Boolean.TRUE;
             this.numberOfSubscriberBeforeConnecting = broadcast.value();
+            this.broadcastBufferSize = broadcast.bufferSize();
+            this.broadcastPolicy = broadcast.onSlowSubscriber();
         } else {
             this.broadcast = Boolean.FALSE;
             this.numberOfSubscriberBeforeConnecting = -1;
+            this.broadcastBufferSize = 0;
+            this.broadcastPolicy = Broadcast.SlowSubscriberPolicy.BLOCK;
         }
     }
 }
@@ -2,6 +2,8 @@ package io.smallrye.reactive.messaging.extension;
 
 import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
@@ -9,6 +11,9 @@ import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+
 /**
  * Implementation of the emitter pattern.
  *
@@ -20,8 +25,18 @@ public class EmitterImpl<T> extends AbstractEmitter<T> implements Emitter<T> {
         super(config, defaultBufferSize);
     }
 
+    public EmitterImpl(EmitterConfiguration config, long defaultBufferSize,
+            Iterable<StatisticsListener> statisticsListeners) {
+        super(config, defaultBufferSize, statisticsListeners);
+    }
+
+    EmitterImpl(EmitterConfiguration config, long defaultBufferSize, Iterable<StatisticsListener> statisticsListeners,
+            SpillSupport spill) {
+        super(config, defaultBufferSize, statisticsListeners, spill);
+    }
+
     @Override
-    public synchronized CompletionStage<Void> send(T payload) {
+    public CompletionStage<Void> send(T payload) {
         if (payload == null) {
             throw ex.illegalArgumentForNullValue();
         }
@@ -38,11 +53,28 @@ public class EmitterImpl<T> extends AbstractEmitter<T> implements Emitter<T> {
     }
 
     @Override
-    public synchronized <M extends Message<? extends T>> void send(M msg) {
+    public <M extends Message<? extends T>> void send(M msg) {
         if (msg == null) {
             throw ex.illegalArgumentForNullValue();
         }
         emit(msg);
     }
 
+    @Override
+    public CompletionStage<Void> sendAll(Iterable<? extends T> payloads) {
+        List<T> list = toList(payloads);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        emitAll(messagesOf(list, () -> future.complete(null), future::completeExceptionally));
+        return future;
+    }
+
+    @Override
+    public void sendMessages(List<? extends Message<? extends T>> messages) {
+        if (messages == null) {
+            throw ex.illegalArgumentForNullValue();
+        }
+        // Copy, the list may be modified by the caller before the messages are delivered
+        emitAll(new ArrayList<>(messages));
+    }
+
 }
@@ -15,16 +15,25 @@ import org.reactivestreams.Subscriber;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.reactive.messaging.ChannelRegistry;
 import io.smallrye.reactive.messaging.annotations.Merge;
+import io.smallrye.reactive.messaging.helpers.FairMerge;
 
 @SuppressWarnings({ "PublisherImplementation" })
 class LazySource implements Publisher<Message<?>> {
     private PublisherBuilder<? extends Message<?>> delegate;
     private final String source;
     private final Merge.Mode mode;
+    private final int prefetch;
 
-    LazySource(String source, Merge.Mode mode) {
+    /**
+     * @param source the channel name
+     * @param mode the merge mode
+     * @param prefetch the number of items requested in advance from each publisher when using
+     *        {@link Merge.Mode#ROUND_ROBIN} or {@link Merge.Mode#WEIGHTED}
+     */
+    LazySource(String source, Merge.Mode mode, int prefetch) {
         this.source = source;
         this.mode = mode;
+        this.prefetch = prefetch;
     }
 
     public void configure(ChannelRegistry registry) {
@@ -44,6 +53,11 @@ class LazySource implements Publisher<Message<?>> {
                 case CONCAT:
                     concat(list);
                     break;
+
+                case ROUND_ROBIN:
+                case WEIGHTED:
+                    fairMerge(list);
+                    break;
                 default:
                     throw ex.illegalArgumentMergePolicy(source, mode);
             }
@@ -55,6 +69,16 @@ class LazySource implements Publisher<Message<?>> {
                 list.stream().map(PublisherBuilder::buildRs).collect(Collectors.toList())));
     }
 
+    private void fairMerge(List<PublisherBuilder<? extends Message<?>>> list) {
+        if (list.size() == 1) {
+            this.delegate = list.get(0);
+            return;
+        }
+        // All the publishers of the channel have the same weight
+        this.delegate = ReactiveStreams.fromPublisher(new FairMerge<Message<?>>(
+                list.stream().map(PublisherBuilder::buildRs).collect(Collectors.toList()), null, prefetch));
+    }
+
     private void concat(List<PublisherBuilder<? extends Message<?>>> list) {
         this.delegate = ReactiveStreams.fromPublisher(Multi.createBy().concatenating().streams(
                 list.stream().map(PublisherBuilder::buildRs).collect(Collectors.toList())));
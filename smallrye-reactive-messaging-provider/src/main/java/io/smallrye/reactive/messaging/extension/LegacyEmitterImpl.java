@@ -42,7 +42,7 @@ public class LegacyEmitterImpl<T> implements Emitter<T> {
     }
 
     @Override
-    public synchronized Emitter<T> send(T msg) {
+    public Emitter<T> send(T msg) {
         if (msg == null) {
             throw ex.illegalArgumentForNullValue();
         }
@@ -5,13 +5,23 @@ import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
@@ -25,10 +35,12 @@ import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.DeploymentException;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
@@ -36,10 +48,16 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.smallrye.reactive.messaging.*;
 import io.smallrye.reactive.messaging.annotations.Incomings;
 import io.smallrye.reactive.messaging.annotations.Merge;
 import io.smallrye.reactive.messaging.connectors.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.helpers.FairMerge;
+import io.smallrye.reactive.messaging.helpers.HashedWheelTimer;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
+import io.smallrye.reactive.messaging.helpers.SpillQueue;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 
 /**
  * Class responsible for managing mediators
@@ -50,6 +68,11 @@ public class MediatorManager {
     private static final int DEFAULT_BUFFER_SIZE = 128;
 
     public static final String STRICT_MODE_PROPERTY = "smallrye-messaging-strict-binding";
+
+    public static final String MEDIATOR_CONFIG_PREFIX = "smallrye.messaging.mediator.";
+    public static final String MAX_CONCURRENCY = "max-concurrency";
+    private static final long RETRY_TICK_DURATION = 10;
+    private static final int RETRY_TICKS_PER_WHEEL = 512;
     private final boolean strictMode = Boolean.parseBoolean(System.getProperty(STRICT_MODE_PROPERTY, "false"));
 
     private final CollectedMediatorMetadata collected = new CollectedMediatorMetadata();
@@ -59,6 +82,12 @@ public class MediatorManager {
 
     private final List<AbstractMediator> mediators = new ArrayList<>();
 
+    /**
+     * The timer in which the retries of the failed invocations are parked, shared by the mediators.
+     */
+    private final HashedWheelTimer retryTimer = new HashedWheelTimer(RETRY_TICK_DURATION, TimeUnit.MILLISECONDS,
+            RETRY_TICKS_PER_WHEEL, Infrastructure.getDefaultWorkerPool());
+
     @Inject
     @ConfigProperty(name = "mp.messaging.emitter.default-buffer-size", defaultValue = "128")
     int defaultBufferSize;
@@ -90,11 +119,25 @@ public class MediatorManager {
     @Inject
     Instance<MessageConverter> converters;
 
+    @Inject
+    Instance<KeyExtractor> extractors;
+
     @Inject
     HealthCenter health;
 
+    @Inject
+    Instance<StatisticsListener> statisticsListeners;
+
+    @Inject
+    Instance<Config> config;
+
     private volatile boolean initialized;
 
+    /**
+     * Opens the spill queues of the emitters using the {@code SPILL} overflow strategy, created on first use.
+     */
+    private SpillSupport spill;
+
     public MediatorManager() {
         if (strictMode) {
             log.strictModeEnabled();
@@ -145,6 +188,10 @@ public class MediatorManager {
         log.cancelSubscriptions();
         subscriptions.forEach(Subscription::cancel);
         subscriptions.clear();
+        retryTimer.stop();
+        if (spill != null) {
+            spill.close();
+        }
     }
 
     public void initializeAndRun() {
@@ -163,11 +210,21 @@ public class MediatorManager {
                     log.initializingMethod(mediator.getMethodAsString());
 
                     mediator.setDecorators(decorators);
+                    mediator.setStatisticsListeners(statisticsListeners);
                     mediator.setConverters(converters);
                     mediator.setHealth(health);
                     mediator.setWorkerPoolRegistry(workerPoolRegistry);
+                    mediator.setKeyExtractors(extractors);
+                    mediator.setRetryTimer(retryTimer);
+                    if (!statisticsListeners.isUnsatisfied()) {
+                        MediatorStatistics statistics = new MediatorStatistics(configuration.methodAsString());
+                        mediator.setStatistics(statistics);
+                        statisticsListeners.forEach(listener -> listener.onStatistics(statistics));
+                    }
 
                     try {
+                        mediator.setMaxConcurrency(getMaxConcurrency(configuration));
+
                         Object beanInstance = beanManager.getReference(configuration.getBean(), Object.class,
                                 beanManager.createCreationalContext(configuration.getBean()));
 
@@ -219,68 +276,64 @@ public class MediatorManager {
     private void weaving(Set<String> unmanagedSubscribers) {
         // At that point all the publishers have been registered in the registry
         log.connectingMediators();
-        List<AbstractMediator> unsatisfied = getAllNonSatisfiedMediators();
-        // This list contains the names of the streams that have bean connected and
         List<LazySource> lazy = new ArrayList<>();
-        while (!unsatisfied.isEmpty()) {
-            int numberOfUnsatisfiedBeforeLoop = unsatisfied.size();
-
-            unsatisfied.forEach(mediator -> {
-                log.attemptToResolve(mediator.getMethodAsString());
-                List<String> list = mediator.configuration().getIncoming();
-                if (list.size() == 1) {
-                    // Single source.
-                    List<PublisherBuilder<? extends Message<?>>> sources = channelRegistry.getPublishers(list.get(0));
-                    Optional<PublisherBuilder<? extends Message<?>>> maybeSource = getAggregatedSource(sources, list.get(0),
-                            mediator, lazy);
-                    maybeSource.ifPresent(publisher -> {
-                        mediator.connectToUpstream(publisher);
-                        log.connectingTo(mediator.getMethodAsString(), list, publisher);
-                        if (mediator.configuration().getOutgoing() != null) {
-                            channelRegistry.register(mediator.getConfiguration().getOutgoing(), mediator.getStream());
-                        }
-                    });
-                } else {
-                    List<PublisherBuilder<? extends Message<?>>> upstreams = new ArrayList<>();
-                    for (String sn : list) {
-                        List<PublisherBuilder<? extends Message<?>>> sources = channelRegistry.getPublishers(sn);
-                        Optional<PublisherBuilder<? extends Message<?>>> maybeSource = getAggregatedSource(sources, sn,
-                                mediator,
-                                lazy);
-                        maybeSource.ifPresent(upstreams::add);
-                    }
 
-                    if (upstreams.size() == list.size()) {
-                        // We have all our upstreams
-                        Multi<? extends Message<?>> merged = Multi.createBy().merging()
-                                .streams(upstreams.stream().map(PublisherBuilder::buildRs).collect(Collectors.toList()));
-                        mediator.connectToUpstream(ReactiveStreams.fromPublisher(merged));
-                        log.connectingTo(mediator.getMethodAsString(), list);
-                        if (mediator.configuration().getOutgoing() != null) {
-                            channelRegistry.register(mediator.getConfiguration().getOutgoing(), mediator.getStream());
+        // The mediators are the nodes of a graph whose edges are the channels. A mediator can be connected once all its
+        // incoming channels have a publisher, and its connection provides a publisher to its outgoing channel.
+        // So, the mediators are connected in topological order, each mediator and channel being visited once.
+        Map<String, List<AbstractMediator>> waiting = new HashMap<>();
+        Map<AbstractMediator, Integer> missing = new IdentityHashMap<>();
+        Deque<AbstractMediator> ready = new ArrayDeque<>();
+        for (AbstractMediator mediator : mediators) {
+            if (mediator.isConnected()) {
+                continue;
+            }
+            int count = 0;
+            for (String channel : new LinkedHashSet<>(mediator.configuration().getIncoming())) {
+                if (channelRegistry.getPublishers(channel).isEmpty()) {
+                    waiting.computeIfAbsent(channel, k -> new ArrayList<>()).add(mediator);
+                    count++;
+                }
+            }
+            if (count == 0) {
+                ready.add(mediator);
+            } else {
+                missing.put(mediator, count);
+            }
+        }
+
+        AbstractMediator mediator;
+        while ((mediator = ready.poll()) != null) {
+            connect(mediator, lazy);
+            String outgoing = mediator.configuration().getOutgoing();
+            if (outgoing != null) {
+                boolean first = channelRegistry.getPublishers(outgoing).isEmpty();
+                channelRegistry.register(outgoing, mediator.getStream());
+                if (first) {
+                    for (AbstractMediator downstream : waiting.getOrDefault(outgoing, Collections.emptyList())) {
+                        if (missing.merge(downstream, -1, Integer::sum) == 0) {
+                            missing.remove(downstream);
+                            ready.add(downstream);
                         }
                     }
                 }
-            });
+            }
+        }
 
-            unsatisfied = getAllNonSatisfiedMediators();
-            int numberOfUnsatisfiedAfterLoop = unsatisfied.size();
-
-            if (numberOfUnsatisfiedAfterLoop == numberOfUnsatisfiedBeforeLoop) {
-                // Stale!
-                if (strictMode) {
-                    throw ex.weavingImposibleToBind(unsatisfied.stream()
-                            .map(m -> m.configuration().methodAsString())
-                            .collect(Collectors.toList()),
-                            channelRegistry.getIncomingNames(),
-                            channelRegistry.getEmitterNames());
-                } else {
-                    log.impossibleToBindMediators(
-                            unsatisfied.stream().map(m -> m.configuration().methodAsString()).collect(Collectors.toList()),
-                            channelRegistry.getIncomingNames(),
-                            channelRegistry.getEmitterNames());
-                }
-                break;
+        if (!missing.isEmpty()) {
+            // The remaining mediators consume a channel without upstream, or are part of a cycle
+            List<String> unsatisfied = mediators.stream()
+                    .filter(missing::containsKey)
+                    .map(m -> m.configuration().methodAsString())
+                    .collect(Collectors.toList());
+            if (strictMode) {
+                throw ex.weavingImposibleToBind(unsatisfied,
+                        channelRegistry.getIncomingNames(),
+                        channelRegistry.getEmitterNames());
+            } else {
+                log.impossibleToBindMediators(unsatisfied,
+                        channelRegistry.getIncomingNames(),
+                        channelRegistry.getEmitterNames());
             }
         }
 
@@ -295,19 +348,25 @@ public class MediatorManager {
                 .forEach(AbstractMediator::run);
 
         // We also need to connect mediator and emitter to un-managed subscribers
+        Map<String, List<AbstractMediator>> downstreams = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (AbstractMediator m : mediators) {
+            if (m.configuration().getOutgoing() != null) {
+                downstreams.computeIfAbsent(m.configuration().getOutgoing(), k -> new ArrayList<>()).add(m);
+            }
+        }
         for (String name : unmanagedSubscribers) {
-            List<AbstractMediator> list = lookupForMediatorsWithMatchingDownstream(name);
+            List<AbstractMediator> list = downstreams.getOrDefault(name, Collections.emptyList());
             AbstractEmitter emitter = (AbstractEmitter) channelRegistry.getEmitter(name);
             List<SubscriberBuilder<? extends Message<?>, Void>> subscribers = channelRegistry.getSubscribers(name);
-            for (AbstractMediator mediator : list) {
+            for (AbstractMediator m : list) {
                 if (subscribers.size() == 1) {
-                    log.connectingMethodToSink(mediator.getMethodAsString(), name);
-                    mediator.getStream().to((SubscriberBuilder<Message<?>, Void>) subscribers.get(0)).run();
+                    log.connectingMethodToSink(m.getMethodAsString(), name);
+                    m.getStream().to((SubscriberBuilder<Message<?>, Void>) subscribers.get(0)).run();
                 } else if (subscribers.size() > 2) {
                     log.numberOfSubscribersConsumingStream(subscribers.size(), name);
                     subscribers.forEach(s -> {
-                        log.connectingMethodToSink(mediator.getMethodAsString(), name);
-                        mediator.getStream().to((SubscriberBuilder<Message<?>, Void>) s).run();
+                        log.connectingMethodToSink(m.getMethodAsString(), name);
+                        m.getStream().to((SubscriberBuilder<Message<?>, Void>) s).run();
                     });
                 }
             }
@@ -329,20 +388,80 @@ public class MediatorManager {
         initialized = true;
     }
 
-    private List<AbstractMediator> lookupForMediatorsWithMatchingDownstream(String name) {
-        return mediators.stream()
-                .filter(m -> m.configuration()
-                        .getOutgoing() != null)
-                .filter(m -> m.configuration()
-                        .getOutgoing()
-                        .equalsIgnoreCase(name))
-                .collect(Collectors.toList());
+    /**
+     * Connects the given mediator to its upstreams. All the incoming channels of the mediator must have a publisher.
+     */
+    private void connect(AbstractMediator mediator, List<LazySource> lazy) {
+        log.attemptToResolve(mediator.getMethodAsString());
+        List<String> list = mediator.configuration().getIncoming();
+        if (list.size() == 1) {
+            // Single source.
+            List<PublisherBuilder<? extends Message<?>>> sources = channelRegistry.getPublishers(list.get(0));
+            getAggregatedSource(sources, list.get(0), mediator, lazy).ifPresent(publisher -> {
+                mediator.connectToUpstream(publisher);
+                log.connectingTo(mediator.getMethodAsString(), list, publisher);
+            });
+        } else {
+            List<PublisherBuilder<? extends Message<?>>> upstreams = new ArrayList<>();
+            for (String sn : list) {
+                List<PublisherBuilder<? extends Message<?>>> sources = channelRegistry.getPublishers(sn);
+                getAggregatedSource(sources, sn, mediator, lazy).ifPresent(upstreams::add);
+            }
+            // We have all our upstreams
+            Merge.Mode mode = mediator.configuration().getMerge();
+            if (mode == Merge.Mode.ROUND_ROBIN || mode == Merge.Mode.WEIGHTED) {
+                int[] weights = new int[list.size()];
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = mode == Merge.Mode.WEIGHTED
+                            ? mediator.configuration().getMergeWeights().getOrDefault(list.get(i), 1)
+                            : 1;
+                }
+                mediator.connectToUpstream(ReactiveStreams.fromPublisher(new FairMerge<Message<?>>(
+                        upstreams.stream().map(PublisherBuilder::buildRs).collect(Collectors.toList()), weights,
+                        mediator.configuration().getMergePrefetch())));
+            } else {
+                Multi<? extends Message<?>> merged = Multi.createBy().merging()
+                        .streams(upstreams.stream().map(MultiUtils::fromPublisherBuilder)
+                                .collect(Collectors.toList()));
+                mediator.connectToUpstream(MultiUtils.toPublisherBuilder(merged));
+            }
+            log.connectingTo(mediator.getMethodAsString(), list);
+        }
     }
 
-    private List<AbstractMediator> getAllNonSatisfiedMediators() {
-        return mediators.stream()
-                .filter(mediator -> !mediator.isConnected())
-                .collect(Collectors.toList());
+    /**
+     * Gets the maximum concurrency of the given mediator, from (in this order):
+     * <ol>
+     * <li>the {@code smallrye.messaging.mediator.{class-name}.{method-name}.max-concurrency} property,</li>
+     * <li>the {@code max-concurrency} attribute of the first incoming (connector) channel configuring it,</li>
+     * <li>the value computed from the method annotations.</li>
+     * </ol>
+     */
+    private int getMaxConcurrency(MediatorConfiguration configuration) {
+        boolean supported = configuration.shape() == Shape.SUBSCRIBER
+                || (configuration.shape() == Shape.PROCESSOR && configuration.getKeyExtractorClass() != null);
+        if (!supported || config.isUnsatisfied()
+                || !(configuration.consumption() == MediatorConfiguration.Consumption.MESSAGE
+                        || configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD
+                        || configuration.consumption() == MediatorConfiguration.Consumption.BATCH_MESSAGE
+                        || configuration.consumption() == MediatorConfiguration.Consumption.BATCH_PAYLOAD)) {
+            return configuration.getMaxConcurrency();
+        }
+        Config root = config.get();
+        String methodKey = MEDIATOR_CONFIG_PREFIX + configuration.methodAsString().replace('#', '.') + "."
+                + MAX_CONCURRENCY;
+        Optional<Integer> value = root.getOptionalValue(methodKey, Integer.class);
+        if (value.isPresent()) {
+            return value.get();
+        }
+        for (String channel : configuration.getIncoming()) {
+            value = root.getOptionalValue(ConnectorFactory.INCOMING_PREFIX + channel + "." + MAX_CONCURRENCY,
+                    Integer.class);
+            if (value.isPresent()) {
+                return value.get();
+            }
+        }
+        return configuration.getMaxConcurrency();
     }
 
     private AbstractMediator createMediator(MediatorConfiguration configuration) {
@@ -364,7 +483,7 @@ public class MediatorManager {
         Merge.Mode merge = mediator.getConfiguration()
                 .getMerge();
         if (merge != null) {
-            LazySource lazySource = new LazySource(sourceName, merge);
+            LazySource lazySource = new LazySource(sourceName, merge, mediator.configuration().getMergePrefetch());
             lazy.add(lazySource);
             return Optional.of(ReactiveStreams.fromPublisher(lazySource));
         }
@@ -391,15 +510,54 @@ public class MediatorManager {
         }
     }
 
+    /**
+     * Gets the spill support, configured from (in this order):
+     * <ol>
+     * <li>the {@code mp.messaging.emitter.spill.directory} property, required to use the {@code SPILL} overflow
+     * strategy,</li>
+     * <li>the {@code mp.messaging.emitter.spill.segment-size} property, in bytes, defaulting to 8 MB,</li>
+     * <li>the {@code mp.messaging.emitter.spill.max-size} property, in bytes, defaulting to 1 GB,</li>
+     * <li>the {@code mp.messaging.emitter.spill.allowed-classes} property, the comma-separated patterns of the classes
+     * of the payloads which can be deserialized,</li>
+     * <li>the {@code mp.messaging.emitter.spill.max-in-memory} property, the maximum number of spilled messages of an
+     * emitter whose acknowledgement functions are kept in memory, defaulting to 10000.</li>
+     * </ol>
+     */
+    private synchronized SpillSupport getSpillSupport() {
+        if (spill == null) {
+            if (config.isUnsatisfied()) {
+                spill = new SpillSupport(null, SpillSupport.DEFAULT_SEGMENT_SIZE, SpillSupport.DEFAULT_MAX_SIZE,
+                        Collections.emptyList(), SpillQueue.DEFAULT_MAX_IN_MEMORY, statisticsListeners);
+            } else {
+                Config root = config.get();
+                spill = new SpillSupport(
+                        root.getOptionalValue(SpillSupport.SPILL_DIRECTORY_PROPERTY, String.class).map(Paths::get)
+                                .orElse(null),
+                        root.getOptionalValue(SpillSupport.SPILL_SEGMENT_SIZE_PROPERTY, Integer.class)
+                                .orElse(SpillSupport.DEFAULT_SEGMENT_SIZE),
+                        root.getOptionalValue(SpillSupport.SPILL_MAX_SIZE_PROPERTY, Long.class)
+                                .orElse(SpillSupport.DEFAULT_MAX_SIZE),
+                        root.getOptionalValue(SpillSupport.SPILL_ALLOWED_CLASSES_PROPERTY, String[].class)
+                                .map(Arrays::asList).orElse(Collections.emptyList()),
+                        root.getOptionalValue(SpillSupport.SPILL_MAX_IN_MEMORY_PROPERTY, Integer.class)
+                                .orElse(SpillQueue.DEFAULT_MAX_IN_MEMORY),
+                        statisticsListeners);
+            }
+        }
+        return spill;
+    }
+
     public void initializeEmitter(EmitterConfiguration emitterConfiguration, long defaultBufferSize) {
         Publisher<? extends Message<?>> publisher;
 
         if (emitterConfiguration.isMutinyEmitter) {
-            MutinyEmitterImpl<?> mutinyEmitter = new MutinyEmitterImpl<>(emitterConfiguration, defaultBufferSize);
+            MutinyEmitterImpl<?> mutinyEmitter = new MutinyEmitterImpl<>(emitterConfiguration, defaultBufferSize,
+                    statisticsListeners, getSpillSupport());
             publisher = mutinyEmitter.getPublisher();
             channelRegistry.register(emitterConfiguration.name, mutinyEmitter);
         } else {
-            EmitterImpl<?> emitter = new EmitterImpl<>(emitterConfiguration, defaultBufferSize);
+            EmitterImpl<?> emitter = new EmitterImpl<>(emitterConfiguration, defaultBufferSize, statisticsListeners,
+                    getSpillSupport());
             publisher = emitter.getPublisher();
             channelRegistry.register(emitterConfiguration.name, emitter);
         }
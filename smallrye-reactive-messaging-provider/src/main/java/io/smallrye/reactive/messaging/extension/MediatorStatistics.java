@@ -0,0 +1,126 @@
+package io.smallrye.reactive.messaging.extension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.smallrye.reactive.messaging.Invoker;
+import io.smallrye.reactive.messaging.statistics.LatencyHistogram;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of the invocations of a mediator method.
+ * <p>
+ * The processing time is the time spent in the method. For methods returning a {@code CompletionStage} or a {@code Uni},
+ * it is the time needed to return the asynchronous result, not the time until it completes. For blocking methods, it
+ * is the time spent on the worker thread.
+ */
+public class MediatorStatistics implements Statistics {
+
+    /**
+     * The type of the mediator statistics, tagged with the {@code method}.
+     */
+    public static final String TYPE = "method";
+
+    private final String method;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LatencyHistogram processingTime = new LatencyHistogram();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    MediatorStatistics(String method) {
+        this.method = method;
+        this.tags = Collections.singletonMap("method", method);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.counter("invocations", Measurement.NONE, invocations),
+                Measurement.counter("failures", Measurement.NONE, failures),
+                Measurement.counter("retries", Measurement.NONE, retries),
+                Measurement.histogram("processing-time", processingTime)));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the method, as {@code class#method}
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the number of invocations of the method
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * @return the number of invocations which threw an exception
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of retries of failed invocations, see
+     *         {@link io.smallrye.reactive.messaging.annotations.DelayedRetry}
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Records the scheduling of the retry of a failed invocation.
+     */
+    public void onRetry() {
+        retries.increment();
+    }
+
+    /**
+     * @return the processing time of the invocations, in nanoseconds
+     */
+    public LatencyHistogram getProcessingTime() {
+        return processingTime;
+    }
+
+    /**
+     * Wraps the given invoker to record the invocations.
+     *
+     * @param invoker the invoker
+     * @return the invoker recording the invocations in these statistics
+     */
+    public Invoker instrument(Invoker invoker) {
+        return args -> {
+            long start = System.nanoTime();
+            try {
+                return invoker.invoke(args);
+            } catch (RuntimeException e) {
+                failures.increment();
+                throw e;
+            } finally {
+                invocations.increment();
+                processingTime.record(System.nanoTime() - start);
+            }
+        };
+    }
+}
@@ -2,6 +2,8 @@ package io.smallrye.reactive.messaging.extension;
 
 import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -11,12 +13,23 @@ import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.subscription.Cancellable;
 import io.smallrye.reactive.messaging.MutinyEmitter;
 import io.smallrye.reactive.messaging.i18n.ProviderLogging;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 
 public class MutinyEmitterImpl<T> extends AbstractEmitter<T> implements MutinyEmitter<T> {
     public MutinyEmitterImpl(EmitterConfiguration config, long defaultBufferSize) {
         super(config, defaultBufferSize);
     }
 
+    public MutinyEmitterImpl(EmitterConfiguration config, long defaultBufferSize,
+            Iterable<StatisticsListener> statisticsListeners) {
+        super(config, defaultBufferSize, statisticsListeners);
+    }
+
+    MutinyEmitterImpl(EmitterConfiguration config, long defaultBufferSize, Iterable<StatisticsListener> statisticsListeners,
+            SpillSupport spill) {
+        super(config, defaultBufferSize, statisticsListeners, spill);
+    }
+
     @Override
     public Uni<Void> send(T payload) {
         if (payload == null) {
@@ -52,4 +65,21 @@ public class MutinyEmitterImpl<T> extends AbstractEmitter<T> implements MutinyEm
         Uni.createFrom().emitter(e -> emit(msg)).subscribe().with(x -> {
         }, ProviderLogging.log::failureEmittingMessage);
     }
+
+    @Override
+    public Uni<Void> sendAll(Iterable<? extends T> payloads) {
+        List<T> list = toList(payloads);
+        return Uni.createFrom().emitter(e -> emitAll(messagesOf(list, () -> e.complete(null), e::fail)));
+    }
+
+    @Override
+    public void sendMessages(List<? extends Message<? extends T>> messages) {
+        if (messages == null) {
+            throw ex.illegalArgumentForNullValue();
+        }
+        // Copy, the list may be modified by the caller before the messages are delivered
+        List<Message<? extends T>> copy = new ArrayList<>(messages);
+        Uni.createFrom().emitter(e -> emitAll(copy)).subscribe().with(x -> {
+        }, ProviderLogging.log::failureEmittingMessage);
+    }
 }
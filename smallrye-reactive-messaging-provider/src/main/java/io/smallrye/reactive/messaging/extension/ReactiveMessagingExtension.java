@@ -21,6 +21,7 @@ import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.smallrye.reactive.messaging.annotations.Broadcast;
 import io.smallrye.reactive.messaging.annotations.Incomings;
 import io.smallrye.reactive.messaging.connectors.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.helpers.TypeUtils;
 
 public class ReactiveMessagingExtension implements Extension {
 
@@ -158,6 +159,11 @@ public class ReactiveMessagingExtension implements Extension {
         }
     }
 
+    void beforeShutdown(@Observes BeforeShutdown shutdown) {
+        // Release the application types
+        TypeUtils.clearCache();
+    }
+
     private void createEmitterConfiguration(List<InjectionPoint> emitterInjectionPoints, boolean isMutinyEmitter,
             List<EmitterConfiguration> emitters) {
         for (InjectionPoint point : emitterInjectionPoints) {
@@ -0,0 +1,121 @@
+package io.smallrye.reactive.messaging.extension;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.smallrye.reactive.messaging.helpers.SpillQueue;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+/**
+ * Opens the {@link SpillQueue spill queues} of the emitters using the {@code SPILL} overflow strategy, and closes them
+ * on shutdown.
+ * <p>
+ * Each emitter gets its own sub-directory of the spill directory, named after the channel: the characters other than
+ * ASCII letters, digits, {@code _}, {@code -}, and {@code .} (except as first character) are percent-encoded, so two
+ * channels never share a directory. The spill directory must be configured, and must not be shared by several
+ * applications.
+ */
+class SpillSupport {
+
+    static final String SPILL_DIRECTORY_PROPERTY = "mp.messaging.emitter.spill.directory";
+    static final String SPILL_SEGMENT_SIZE_PROPERTY = "mp.messaging.emitter.spill.segment-size";
+    static final String SPILL_MAX_SIZE_PROPERTY = "mp.messaging.emitter.spill.max-size";
+    static final String SPILL_ALLOWED_CLASSES_PROPERTY = "mp.messaging.emitter.spill.allowed-classes";
+    static final String SPILL_MAX_IN_MEMORY_PROPERTY = "mp.messaging.emitter.spill.max-in-memory";
+
+    static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+    static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final Collection<String> allowedClasses;
+    private final int maxInMemory;
+    private final Iterable<StatisticsListener> listeners;
+    private final List<SpillQueue> queues = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param directory the spill directory, {@code null} if not configured
+     * @param segmentSize the size of the segments, in bytes
+     * @param maxSize the maximum size of the segments of an emitter, in bytes
+     * @param allowedClasses the patterns of the classes of the payloads which can be deserialized
+     * @param maxInMemory the maximum number of spilled messages of an emitter whose acknowledgement functions are kept
+     *        in memory
+     * @param listeners the listeners notified when a spill queue is opened
+     */
+    SpillSupport(Path directory, int segmentSize, long maxSize, Collection<String> allowedClasses, int maxInMemory,
+            Iterable<StatisticsListener> listeners) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        this.allowedClasses = allowedClasses;
+        this.maxInMemory = maxInMemory;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Opens the spill queue of an emitter, reading the messages spilled by a previous run.
+     *
+     * @param name the channel name
+     * @return the queue
+     * @throws IllegalStateException if the spill directory is not configured, or cannot be used
+     */
+    SpillQueue open(String name) {
+        if (directory == null) {
+            throw ex.illegalStateSpillDirectoryNotSet(name, SPILL_DIRECTORY_PROPERTY);
+        }
+        Path path = directory.resolve(encode(name));
+        SpillQueue queue;
+        try {
+            queue = new SpillQueue(name, path, segmentSize, maxSize, allowedClasses, maxInMemory);
+        } catch (IOException e) {
+            throw ex.illegalStateUnableToSpill(name, e);
+        }
+        queues.add(queue);
+        for (StatisticsListener listener : listeners) {
+            listener.onStatistics(queue.getStatistics());
+        }
+        return queue;
+    }
+
+    /**
+     * Encodes a channel name as a directory name. The encoding is injective, and the result cannot be {@code .} or
+     * {@code ..}.
+     *
+     * @param name the channel name
+     * @return the directory name
+     */
+    static String encode(String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == '-'
+                    || (b == '.' && builder.length() > 0)) {
+                builder.append((char) b);
+            } else {
+                builder.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Closes the spill queues, keeping the messages not sent downstream, or not acknowledged, for the next run.
+     */
+    void close() {
+        for (SpillQueue queue : queues) {
+            try {
+                queue.close();
+            } catch (IOException e) {
+                log.unableToCloseSpillDirectory(queue.getStatistics().getName(), e);
+            }
+        }
+        queues.clear();
+    }
+}
@@ -0,0 +1,167 @@
+package io.smallrye.reactive.messaging.extension;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.smallrye.reactive.messaging.helpers.SpillQueue;
+
+/**
+ * An Emitter which buffers the messages in memory while the downstream does not request them, and writes them to a
+ * {@link SpillQueue} once the buffer is full.
+ * <p>
+ * Once a message has been spilled, the next messages are spilled too, until the downstream has consumed all the spilled
+ * messages, so the messages are sent in order: first the messages of the buffer, then the spilled messages.
+ * The terminal signals are sent once all the messages have been sent.
+ *
+ * @param <T> the type of payload
+ */
+class SpillingEmitter<T> implements MultiEmitter<Message<? extends T>> {
+
+    private final long bufferSize;
+    private final SpillQueue queue;
+
+    // Guarded by this
+    private final Queue<Message<? extends T>> buffer = new ArrayDeque<>();
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile MultiEmitter<? super Message<? extends T>> delegate;
+    private volatile boolean done;
+    private volatile Throwable failure;
+    private boolean terminated;
+
+    public static <T> Multi<Message<? extends T>> create(
+            Consumer<MultiEmitter<? super Message<? extends T>>> deferred, long bufferSize, SpillQueue queue) {
+        // Same approach as the ThrowingEmitter, the requests are tracked by the SpillingEmitter, which only emits
+        // requested items
+        return Multi.createFrom().deferred(() -> {
+            SpillingEmitter<T> spillingEmitter = new SpillingEmitter<>(bufferSize, queue);
+
+            Consumer<MultiEmitter<? super Message<? extends T>>> consumer = emitter -> {
+                spillingEmitter.delegate = emitter;
+                deferred.accept(spillingEmitter);
+                // Sends the messages spilled by a previous run, if already requested
+                spillingEmitter.drain();
+            };
+
+            return Multi.createFrom().emitter(consumer, BackPressureStrategy.IGNORE)
+                    .onRequest().invoke(spillingEmitter::request);
+        });
+    }
+
+    SpillingEmitter(long bufferSize, SpillQueue queue) {
+        this.bufferSize = bufferSize;
+        this.queue = queue;
+    }
+
+    @Override
+    public MultiEmitter<Message<? extends T>> emit(Message<? extends T> item) {
+        synchronized (this) {
+            if (buffer.size() < bufferSize && queue.isEmpty()) {
+                buffer.add(item);
+            } else {
+                queue.append(item);
+            }
+        }
+        drain();
+        return this;
+    }
+
+    @Override
+    public void fail(Throwable failure) {
+        this.failure = failure;
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void complete() {
+        done = true;
+        drain();
+    }
+
+    @Override
+    public MultiEmitter<Message<? extends T>> onTermination(Runnable onTermination) {
+        delegate.onTermination(onTermination);
+        return this;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public long requested() {
+        return requested.get();
+    }
+
+    void request(long requests) {
+        Subscriptions.add(requested, requests);
+        drain();
+    }
+
+    /**
+     * Sends the buffered and spilled messages while the downstream requests them. Only one thread drains at a time, the
+     * others only increment {@code wip} so the draining thread checks the requests and the messages once more.
+     */
+    private void drain() {
+        // The downstream may request before the emitter is created
+        if (delegate == null || wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (delegate.isCancelled()) {
+                // The spilled messages are kept, the buffered ones are lost as with the other strategies
+                synchronized (this) {
+                    buffer.clear();
+                }
+            } else {
+                long emitted = 0;
+                long requests = requested.get();
+                Message<? extends T> next;
+                while (emitted != requests && (next = poll()) != null) {
+                    delegate.emit(next);
+                    emitted++;
+                }
+                if (emitted != 0) {
+                    Subscriptions.produced(requested, emitted);
+                }
+                if (done && !terminated && isEmpty()) {
+                    terminated = true;
+                    if (failure != null) {
+                        delegate.fail(failure);
+                    } else {
+                        delegate.complete();
+                    }
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<? extends T> poll() {
+        synchronized (this) {
+            Message<? extends T> message = buffer.poll();
+            if (message != null) {
+                return message;
+            }
+        }
+        return (Message<? extends T>) queue.poll();
+    }
+
+    private synchronized boolean isEmpty() {
+        return buffer.isEmpty() && queue.isEmpty();
+    }
+}
@@ -50,18 +50,36 @@ class ThrowingEmitter<T> implements MultiEmitter<T> {
     }
 
     public MultiEmitter<T> emit(T item) {
+        reserve(1);
+        delegate.emit(item);
+        return this;
+    }
+
+    /**
+     * Consumes {@code count} requests, or throws an exception if there are not enough outstanding requests, in which
+     * case no request is consumed. Used by the emitters to send a batch of items entirely or not at all.
+     *
+     * @param count the number of items about to be emitted
+     */
+    void reserve(long count) {
         // Decrement requested without going below zero
         long requests;
         do {
             requests = requested.get();
-        } while (requests > 0 && !requested.compareAndSet(requests, requests - 1));
+        } while (requests >= count && !requested.compareAndSet(requests, requests - count));
 
-        if (requests <= 0) {
+        if (requests < count) {
             throw ex.illegalStateInsufficientDownstreamRequests();
         }
+    }
 
+    /**
+     * Emits an item for which {@link #reserve(long)} has already been called.
+     *
+     * @param item the item
+     */
+    void emitReserved(T item) {
         delegate.emit(item);
-        return this;
     }
 
     public void fail(Throwable failure) {
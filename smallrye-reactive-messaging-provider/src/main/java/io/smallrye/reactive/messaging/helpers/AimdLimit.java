@@ -0,0 +1,38 @@
+package io.smallrye.reactive.messaging.helpers;
+
+/**
+ * Additive-increase / multiplicative-decrease limit.
+ */
+class AimdLimit implements LimitAlgorithm {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int min;
+    private final int max;
+    private final long timeout;
+
+    private volatile int limit;
+
+    AimdLimit(int initial, int min, int max, long timeout) {
+        this.min = min;
+        this.max = max;
+        this.timeout = timeout;
+        this.limit = Math.min(Math.max(initial, min), max);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rtt, int inflight, boolean dropped) {
+        int current = limit;
+        if (dropped || rtt > timeout) {
+            limit = Math.max(min, (int) (current * BACKOFF_RATIO));
+        } else if (inflight * 2 >= current) {
+            // Only grow when the limit is used, otherwise an idle sink would get an unbounded limit
+            limit = Math.min(max, current + 1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Arrays;
+
+/**
+ * A Bloom filter of 64-bit hashes, with a fixed size.
+ * <p>
+ * The bit indexes are derived from the two halves of the hash, so the hashes must be well distributed. The filter is
+ * not thread-safe.
+ */
+final class BloomFilter {
+
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+    private final long size;
+
+    /**
+     * Creates a filter with a false positive probability of about 1% once the given number of hashes are added.
+     *
+     * @param expected the expected number of hashes, must be positive
+     */
+    BloomFilter(int expected) {
+        // m = -n * ln(p) / ln(2)^2, with p = 0.01
+        long words = Math.max(1, (long) Math.ceil(expected * 9.6 / Long.SIZE));
+        this.bits = new long[(int) words];
+        this.size = words * Long.SIZE;
+    }
+
+    void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASHES; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, size);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASHES; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, size);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(bits, 0L);
+    }
+}
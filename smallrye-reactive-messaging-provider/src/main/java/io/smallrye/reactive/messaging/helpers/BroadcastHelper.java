@@ -6,6 +6,8 @@ import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.reactivestreams.Publisher;
 
 import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.annotations.Broadcast.SlowSubscriberPolicy;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 
 public class BroadcastHelper {
 
@@ -33,4 +35,31 @@ public class BroadcastHelper {
             return ReactiveStreams.fromPublisher(broadcastPublisher.broadcast().toAllSubscribers());
         }
     }
+
+    /**
+     * <p>
+     * Wraps an existing {@code Publisher} for broadcasting, letting each subscriber consume the messages at its own pace
+     * using a ring buffer shared by the subscribers.
+     * </p>
+     *
+     * @param publisher The publisher to be wrapped
+     * @param name The name of the stream, generally the channel name, used in the statistics and failures
+     * @param numberOfSubscriberBeforeConnecting Number of subscribers that must be present before broadcast occurs.
+     *        A value of 0 means any number of subscribers will trigger the broadcast.
+     * @param bufferSize The size of the ring buffer, rounded up to the next power of two. A value of 0 means the
+     *        messages are dispatched at the pace of the slowest subscriber, as with
+     *        {@link #broadcastPublisher(Publisher, int)}.
+     * @param policy The policy applied to the subscribers lagging behind by the size of the buffer
+     * @param listeners The listeners notified of the new subscribers, may be {@code null}
+     * @return The wrapped {@code Publisher} in a new {@code PublisherBuilder}
+     */
+    public static PublisherBuilder<? extends Message<?>> broadcastPublisher(Publisher<? extends Message<?>> publisher,
+            String name, int numberOfSubscriberBeforeConnecting, int bufferSize, SlowSubscriberPolicy policy,
+            Iterable<StatisticsListener> listeners) {
+        if (bufferSize == 0) {
+            return broadcastPublisher(publisher, numberOfSubscriberBeforeConnecting);
+        }
+        return ReactiveStreams.fromPublisher(Multi.createFrom().publisher(
+                new RingBroadcast<>(publisher, name, numberOfSubscriberBeforeConnecting, bufferSize, policy, listeners)));
+    }
 }
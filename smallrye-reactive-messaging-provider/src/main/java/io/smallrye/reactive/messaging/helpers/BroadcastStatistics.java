@@ -0,0 +1,120 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import io.smallrye.reactive.messaging.annotations.Broadcast.SlowSubscriberPolicy;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of a subscriber of a broadcast stream using a ring buffer.
+ * <p>
+ * The <em>lag</em> is the number of messages stored in the buffer and not yet received by the subscriber. When it
+ * reaches the size of the buffer, the {@link SlowSubscriberPolicy} applies.
+ */
+public class BroadcastStatistics implements Statistics {
+
+    /**
+     * The type of the broadcast statistics, tagged with the {@code channel} name and the {@code subscriber} index.
+     */
+    public static final String TYPE = "broadcast";
+
+    private final String name;
+    private final int subscriber;
+    private final SlowSubscriberPolicy policy;
+    private final LongSupplier lag;
+
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean detached;
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    BroadcastStatistics(String name, int subscriber, SlowSubscriberPolicy policy, LongSupplier lag) {
+        this.name = name;
+        this.subscriber = subscriber;
+        this.policy = policy;
+        this.lag = lag;
+        Map<String, String> map = new HashMap<>();
+        map.put("channel", name);
+        map.put("subscriber", Integer.toString(subscriber));
+        this.tags = Collections.unmodifiableMap(map);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.gauge("lag", Measurement.NONE, this::getLag),
+                Measurement.counter("dropped", Measurement.NONE, dropped),
+                Measurement.gauge("detached", Measurement.NONE, () -> detached ? 1 : 0)));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the name of the broadcast stream, generally the channel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the index of the subscriber, in the subscription order, starting from {@code 0}
+     */
+    public int getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * @return the policy applied when the subscriber lags behind by the size of the buffer
+     */
+    public SlowSubscriberPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of messages stored in the buffer and not yet received by the subscriber
+     */
+    public long getLag() {
+        return lag.getAsLong();
+    }
+
+    /**
+     * @return the number of messages dropped for this subscriber, always {@code 0} unless the policy is
+     *         {@link SlowSubscriberPolicy#DROP_OLDEST}
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return whether the subscriber has been detached, always {@code false} unless the policy is
+     *         {@link SlowSubscriberPolicy#DETACH}
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    void onDropped() {
+        dropped.increment();
+    }
+
+    void onDetached() {
+        detached = true;
+    }
+}
@@ -0,0 +1,383 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.reactive.messaging.IngressMetadata;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Limits the number of messages in flight in a sink, i.e. dispatched to the sink and not acknowledged yet.
+ * <p>
+ * The limit is computed by a {@link LimitAlgorithm} from the time between the dispatch of each message and its
+ * acknowledgement, so it follows the capacity of the sink instead of being configured statically. The limiter only
+ * requests messages from the upstream when the downstream requested them and the limit is not reached, so the
+ * messages wait upstream, where they can be buffered or dropped by the overflow strategy, rather than in the sink.
+ * <p>
+ * The generic messages, created with {@code Message.of} (and the messages derived from them), are wrapped to track
+ * their acknowledgement, without changing their payload or metadata. Connector-specific messages are passed as they
+ * are, as the sink may rely on their exact type: their acknowledgement is observed through their
+ * {@link IngressMetadata}, attached by the connectors when the {@code ingress-timestamp} attribute of the incoming
+ * channel is enabled. The connector-specific messages without this metadata cannot be observed, they are counted in
+ * {@link #getUntracked()} but do not count against the limit.
+ * <p>
+ * A sink fed by several streams, for example because several methods produce the messages of its channel, uses a
+ * {@link #processor() processor} per stream. The processors share the algorithm and the messages in flight, so the
+ * limit applies to the sink as a whole.
+ */
+public final class ConcurrencyLimiter implements Statistics {
+
+    /**
+     * The type of the concurrency limiter statistics, tagged with the {@code channel} name.
+     */
+    public static final String TYPE = "concurrency-limit";
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder untracked = new LongAdder();
+    private final List<LimitingProcessor> processors = new CopyOnWriteArrayList<>();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param name the name of the sink, generally the channel name
+     * @param algorithm the algorithm computing the limit
+     */
+    public ConcurrencyLimiter(String name, LimitAlgorithm algorithm) {
+        this.name = Objects.requireNonNull(name);
+        this.algorithm = Objects.requireNonNull(algorithm);
+        this.tags = Collections.singletonMap("channel", name);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.gauge("limit", Measurement.NONE, this::getLimit),
+                Measurement.gauge("in-flight", Measurement.NONE, this::getInflight),
+                Measurement.counter("untracked", Measurement.NONE, untracked)));
+    }
+
+    /**
+     * @return the name of the sink, generally the channel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the current limit
+     */
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    /**
+     * @return the number of messages dispatched to the sink and not acknowledged yet
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * @return the number of connector-specific messages dispatched to the sink whose acknowledgement cannot be
+     *         observed, as they do not carry an {@link IngressMetadata}
+     */
+    public long getUntracked() {
+        return untracked.sum();
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * Creates a processor limiting the messages of a stream sent to the sink. The processor accepts a single upstream
+     * and a single downstream.
+     *
+     * @return the processor
+     */
+    public Processor<Message<?>, Message<?>> processor() {
+        return new LimitingProcessor();
+    }
+
+    private void onCompletion(long start, boolean dropped) {
+        int count = inflight.getAndDecrement();
+        algorithm.onSample(System.nanoTime() - start, count, dropped);
+        // The capacity is shared, any of the streams can use it
+        processors.forEach(LimitingProcessor::drain);
+    }
+
+    /**
+     * @return the messages requested from the upstreams and not received yet
+     */
+    private long getPending() {
+        long pending = 0;
+        for (LimitingProcessor processor : processors) {
+            pending += processor.upstreamRequested - processor.received.get();
+        }
+        return pending;
+    }
+
+    private final class LimitingProcessor implements Processor<Message<?>, Message<?>>, Subscription {
+
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+        private final AtomicReference<Subscriber<? super Message<?>>> downstream = new AtomicReference<>();
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicLong received = new AtomicLong();
+
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable failure;
+
+        // Only written by the drain loop
+        private volatile long upstreamRequested;
+        private boolean terminated;
+
+        @Override
+        public void subscribe(Subscriber<? super Message<?>> subscriber) {
+            Objects.requireNonNull(subscriber);
+            if (downstream.compareAndSet(null, subscriber)) {
+                processors.add(this);
+                subscriber.onSubscribe(this);
+                drain();
+            } else {
+                Subscriptions.fail(subscriber, ex.illegalStateForConcurrencyLimiterSubscriber(name));
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (upstream.compareAndSet(null, subscription)) {
+                drain();
+            } else {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(Message<?> message) {
+            received.incrementAndGet();
+            Subscriber<? super Message<?>> subscriber = downstream.get();
+            if (MessageUtils.isGeneric(message)) {
+                inflight.incrementAndGet();
+                subscriber.onNext(new TrackedMessage<>(message, new Completion(System.nanoTime())));
+                return;
+            }
+            IngressMetadata ingress = message.getMetadata(IngressMetadata.class).orElse(null);
+            if (ingress != null) {
+                inflight.incrementAndGet();
+                Completion completion = new Completion(System.nanoTime());
+                subscriber.onNext(message);
+                ingress.whenAcknowledged().whenComplete((x, f) -> completion.complete(f != null));
+            } else {
+                untracked.increment();
+                subscriber.onNext(message);
+                // The message does not count against the limit, another one can be requested
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.get().onError(Subscriptions.getInvalidRequestException());
+                return;
+            }
+            Subscriptions.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                Subscription subscription = upstream.getAndSet(Subscriptions.CANCELLED);
+                if (subscription != null && subscription != Subscriptions.CANCELLED) {
+                    subscription.cancel();
+                }
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            do {
+                Subscriber<? super Message<?>> subscriber = downstream.get();
+                Subscription subscription = upstream.get();
+                if (subscriber != null && !cancelled && !terminated) {
+                    if (done) {
+                        // The terminal event is delivered once the downstream is known
+                        terminated = true;
+                        Throwable throwable = failure;
+                        if (throwable != null) {
+                            subscriber.onError(throwable);
+                        } else {
+                            subscriber.onComplete();
+                        }
+                    } else if (subscription != null) {
+                        // Each requested message is passed downstream, so the downstream demand not requested
+                        // upstream yet is the difference between the two counters
+                        long demand = requested.get() - upstreamRequested;
+                        long capacity = algorithm.getLimit() - inflight.get() - getPending();
+                        long n = Math.min(demand, capacity);
+                        if (n > 0) {
+                            upstreamRequested += n;
+                            subscription.request(n);
+                        }
+                    }
+                }
+                if (cancelled || terminated) {
+                    // The messages requested and not received do not count against the limit anymore
+                    processors.remove(this);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    /**
+     * Generic message recording the completion of its acknowledgement in the limiter.
+     * <p>
+     * The message is its own ack supplier and nack function, so the messages derived from it (using
+     * {@code withPayload}...) are tracked too.
+     *
+     * @param <T> the type of payload
+     */
+    private static final class TrackedMessage<T>
+            implements Message<T>, Supplier<CompletionStage<Void>>, Function<Throwable, CompletionStage<Void>>,
+            MessageUtils.GenericWrapper {
+
+        private final Message<T> delegate;
+        private final Completion completion;
+
+        private TrackedMessage(Message<T> delegate, Completion completion) {
+            this.delegate = delegate;
+            this.completion = completion;
+        }
+
+        @Override
+        public T getPayload() {
+            return delegate.getPayload();
+        }
+
+        @Override
+        public Metadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public Supplier<CompletionStage<Void>> getAck() {
+            return this;
+        }
+
+        @Override
+        public Function<Throwable, CompletionStage<Void>> getNack() {
+            return this;
+        }
+
+        @Override
+        public CompletionStage<Void> ack() {
+            return get();
+        }
+
+        @Override
+        public CompletionStage<Void> nack(Throwable reason) {
+            if (reason == null) {
+                throw new IllegalArgumentException("The reason must not be `null`");
+            }
+            return apply(reason);
+        }
+
+        @Override
+        public <C> C unwrap(Class<C> unwrapType) {
+            if (unwrapType != null && unwrapType.isInstance(this)) {
+                return unwrapType.cast(this);
+            }
+            return delegate.unwrap(unwrapType);
+        }
+
+        @Override
+        public CompletionStage<Void> get() {
+            return delegate.ack().whenComplete((x, f) -> completion.complete(f != null));
+        }
+
+        @Override
+        public CompletionStage<Void> apply(Throwable reason) {
+            return delegate.nack(reason).whenComplete((x, f) -> completion.complete(true));
+        }
+    }
+
+    /**
+     * Records the completion of a tracked message, only once, as a message can be acknowledged several times.
+     */
+    @SuppressWarnings("serial")
+    private final class Completion extends AtomicBoolean {
+        private final long start;
+
+        private Completion(long start) {
+            this.start = start;
+        }
+
+        private void complete(boolean dropped) {
+            if (compareAndSet(false, true)) {
+                onCompletion(start, dropped);
+            }
+        }
+    }
+}
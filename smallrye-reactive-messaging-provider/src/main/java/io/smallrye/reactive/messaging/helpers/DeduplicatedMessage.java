@@ -0,0 +1,131 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+/**
+ * Message reporting the outcome of its processing to the {@link Deduplicator} of its channel: its identifier is
+ * remembered once its acknowledgement succeeds, and forgotten if it is nacked, so it can be redelivered. The copies
+ * received while it is processed are held by the message, and completed with its outcome.
+ * <p>
+ * The message is its own ack supplier and nack function, so the messages derived from it (using {@code withPayload}...)
+ * report their outcome too.
+ *
+ * @param <T> the type of payload
+ */
+final class DeduplicatedMessage<T>
+        implements Message<T>, Supplier<CompletionStage<Void>>, Function<Throwable, CompletionStage<Void>> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<DeduplicatedMessage> DONE = AtomicIntegerFieldUpdater
+            .newUpdater(DeduplicatedMessage.class, "done");
+
+    private final Message<T> delegate;
+    private final Deduplicator deduplicator;
+    private final long hash;
+    private volatile int done;
+
+    // Guarded by the deduplicator
+    private List<Message<?>> duplicates;
+
+    DeduplicatedMessage(Message<T> delegate, Deduplicator deduplicator, long hash) {
+        this.delegate = delegate;
+        this.deduplicator = deduplicator;
+        this.hash = hash;
+    }
+
+    @Override
+    public T getPayload() {
+        return delegate.getPayload();
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public Supplier<CompletionStage<Void>> getAck() {
+        return this;
+    }
+
+    @Override
+    public Function<Throwable, CompletionStage<Void>> getNack() {
+        return this;
+    }
+
+    @Override
+    public CompletionStage<Void> ack() {
+        return get();
+    }
+
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        if (reason == null) {
+            throw new IllegalArgumentException("The reason must not be `null`");
+        }
+        return apply(reason);
+    }
+
+    @Override
+    public <C> C unwrap(Class<C> unwrapType) {
+        if (unwrapType != null && unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        return delegate.unwrap(unwrapType);
+    }
+
+    /**
+     * Acknowledges the message, and records its identifier once the acknowledgement succeeds.
+     */
+    @Override
+    public CompletionStage<Void> get() {
+        if (DONE.compareAndSet(this, 0, 1)) {
+            return delegate.ack().whenComplete((x, failure) -> deduplicator.onProcessed(this, hash, failure));
+        }
+        return delegate.ack();
+    }
+
+    /**
+     * Acknowledges the message negatively. The identifier is forgotten before the nack is passed to the connector, so
+     * the redelivered message is not dropped.
+     */
+    @Override
+    public CompletionStage<Void> apply(Throwable reason) {
+        if (DONE.compareAndSet(this, 0, 1)) {
+            deduplicator.onProcessed(this, hash, reason);
+        }
+        return delegate.nack(reason);
+    }
+
+    /**
+     * Holds a copy of the message received while it is processed. Called by the deduplicator, with its lock.
+     *
+     * @param duplicate the copy
+     */
+    void hold(Message<?> duplicate) {
+        if (duplicates == null) {
+            duplicates = new ArrayList<>(1);
+        }
+        duplicates.add(duplicate);
+    }
+
+    /**
+     * Releases the copies held until the outcome of the message is known. Called by the deduplicator, with its lock.
+     *
+     * @return the copies, to complete with the outcome of the message
+     */
+    List<Message<?>> release() {
+        List<Message<?>> held = duplicates;
+        duplicates = null;
+        return held == null ? Collections.emptyList() : held;
+    }
+}
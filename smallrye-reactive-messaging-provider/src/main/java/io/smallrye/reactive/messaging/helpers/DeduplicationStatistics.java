@@ -0,0 +1,100 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of a deduplicated channel.
+ * <p>
+ * The <em>evictions</em> are the identifiers removed before the end of the window because the maximum number of entries
+ * has been reached. The duplicates of these identifiers are not detected, so a growing number of evictions indicates
+ * that the maximum number of entries is too low for the window.
+ */
+public class DeduplicationStatistics implements Statistics {
+
+    /**
+     * The type of the deduplication statistics, tagged with the {@code channel} name.
+     */
+    public static final String TYPE = "deduplication";
+
+    private final String name;
+    private final long window;
+    private final int maxEntries;
+    private final MessageIdStore store;
+
+    private final LongAdder duplicates = new LongAdder();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    DeduplicationStatistics(String name, long window, int maxEntries, MessageIdStore store) {
+        this.name = name;
+        this.window = window;
+        this.maxEntries = maxEntries;
+        this.store = store;
+        this.tags = Collections.singletonMap("channel", name);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.counter("duplicates", Measurement.NONE, duplicates),
+                Measurement.counter("evictions", Measurement.NONE, store.evictions())));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the channel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the duration, in milliseconds, during which the identifiers are remembered
+     */
+    public long getWindow() {
+        return window;
+    }
+
+    /**
+     * @return the maximum number of identifiers received during the window
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the number of duplicated messages dropped
+     */
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * @return the number of identifiers evicted before the end of the window
+     */
+    public long getEvictions() {
+        return store.evictions().sum();
+    }
+
+    void onDuplicate() {
+        duplicates.increment();
+    }
+}
@@ -0,0 +1,346 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.UniEmitter;
+
+/**
+ * Drops the messages of a channel whose identifier has already been received during a time window, for example the
+ * messages redelivered after a rebalance or a reconnection.
+ * <p>
+ * An identifier is only remembered once the acknowledgement of its message succeeds. Until then, it is kept in a
+ * fixed-capacity {@link InFlightTable} of in-flight identifiers, and the copies received while the message is
+ * processed are held until its outcome is known: they are acknowledged if its acknowledgement succeeds, and nacked with
+ * the same reason otherwise. If the message is nacked, the identifier is forgotten, so the redelivered message is
+ * processed again. The duplicates of the messages already processed are acknowledged immediately. The messages are
+ * wrapped, and the methods of the channel must not expect a connector-specific message class, but can still use
+ * {@link Message#unwrap(Class)}.
+ * <p>
+ * When the maximum number of messages in flight is reached, the next messages are not requested until a message is
+ * acknowledged, so they wait upstream. The identifiers of the messages that are never acknowledged leave the in-flight
+ * table at the end of the window.
+ * <p>
+ * The identifiers are hashed to 64 bits and stored in a fixed-size {@link MessageIdStore}, in the heap or in a
+ * memory-mapped file to survive restarts, with a capacity of twice the maximum number of entries. A new identifier is
+ * most often detected by a {@link BloomFilter} prefilter, made of two generations rotated at each window, so the lookup
+ * in the store stops at the first reusable slot. Checking a message is therefore O(1), and the memory used by the store
+ * is fixed: 32 to 64 bytes per entry for the store, depending on the rounding of its capacity to a power of 2, and 2.4
+ * bytes for the prefilter.
+ * <p>
+ * If more identifiers than the maximum number of entries are received during the window, the oldest ones may be
+ * evicted before the end of the window, and their duplicates not detected. The evictions are counted in the
+ * {@link DeduplicationStatistics}.
+ */
+public final class Deduplicator implements Closeable {
+
+    /**
+     * Marks the duplicates in the stream, before they are filtered out.
+     */
+    private static final Message<?> DUPLICATE = Message.of(Boolean.TRUE);
+
+    /**
+     * Marks the duplicates of the messages already processed, acknowledged outside of the lock.
+     */
+    private static final Message<?> PROCESSED = Message.of(Boolean.FALSE);
+
+    private final Function<Message<?>, String> idExtractor;
+    private final long window;
+    private final MessageIdStore store;
+    private final DeduplicationStatistics statistics;
+
+    // Guarded by this
+    private final InFlightTable inFlight;
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private boolean recheckScheduled;
+    private BloomFilter current;
+    private BloomFilter previous;
+    private long generationStart;
+
+    /**
+     * Creates a new deduplicator.
+     *
+     * @param name the channel name
+     * @param window the duration, in milliseconds, during which the identifiers are remembered, must be positive
+     * @param maxEntries the maximum number of identifiers received during the window, must be positive
+     * @param maxInFlight the maximum number of messages being processed, must be positive
+     * @param path the file storing the identifiers, {@code null} to store them in the heap
+     * @param idExtractor the function extracting the identifier of the messages, returning {@code null} for the
+     *        messages without identifier, which are never dropped
+     * @throws IOException if the file cannot be mapped
+     */
+    public Deduplicator(String name, long window, int maxEntries, int maxInFlight, Path path,
+            Function<Message<?>, String> idExtractor) throws IOException {
+        if (window <= 0 || maxEntries <= 0 || maxEntries > 1 << 29 || maxInFlight <= 0 || maxInFlight > 1 << 29) {
+            throw new IllegalArgumentException("The window must be positive and the maximum numbers of entries and of "
+                    + "messages in flight between 1 and 2^29");
+        }
+        this.idExtractor = Objects.requireNonNull(idExtractor);
+        this.window = window;
+        this.inFlight = new InFlightTable(maxInFlight);
+        int capacity = Integer.highestOneBit(maxEntries * 2 - 1) << 1;
+        this.store = path == null ? MessageIdStore.inMemory(capacity) : MessageIdStore.mapped(path, capacity);
+        this.current = new BloomFilter(maxEntries);
+        this.previous = new BloomFilter(maxEntries);
+        this.generationStart = System.currentTimeMillis();
+        // The identifiers of a persistent store must be known by the prefilter
+        store.forEach(generationStart, window, current::add);
+        this.statistics = new DeduplicationStatistics(name, window, maxEntries, store);
+    }
+
+    /**
+     * @return the statistics of the channel
+     */
+    public DeduplicationStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Drops the duplicated messages of the given stream. The other messages with an identifier are wrapped to record
+     * the identifier once they are acknowledged.
+     *
+     * @param upstream the stream
+     * @return the stream without duplicates
+     */
+    @SuppressWarnings("unchecked")
+    public Publisher<Message<?>> deduplicate(Publisher<? extends Message<?>> upstream) {
+        return MultiUtils.publisher((Publisher<Message<?>>) upstream)
+                .onItem().transformToUniAndConcatenate(message -> {
+                    String id = idExtractor.apply(message);
+                    if (id == null) {
+                        return Uni.createFrom().item(message);
+                    }
+                    long hash = hash(id);
+                    return Uni.createFrom().<Message<?>> emitter(emitter -> admit(new Waiter(message, hash, emitter)));
+                })
+                .transform().byFilteringItemsWith(message -> message != DUPLICATE);
+    }
+
+    /**
+     * Checks the given message, or queues it if the in-flight table is full. The messages are checked in order, so a
+     * message waits while earlier messages are queued.
+     */
+    private void admit(Waiter waiter) {
+        Message<?> result;
+        synchronized (this) {
+            result = waiters.isEmpty() ? check(waiter.message, waiter.hash) : null;
+            if (result == null) {
+                waiters.add(waiter);
+                waiter.emitter.onTermination(() -> onCancellation(waiter));
+                return;
+            }
+        }
+        waiter.emit(result);
+    }
+
+    /**
+     * Checks whether the given message is a duplicate, and adds its identifier to the in-flight identifiers if not.
+     * Must be called with the lock.
+     *
+     * @param message the message
+     * @param hash the hash of its identifier
+     * @return the message to emit, {@link #DUPLICATE} if the message is held until the outcome of its first delivery,
+     *         {@link #PROCESSED} if the first delivery has been processed, {@code null} if the in-flight table is full
+     */
+    private Message<?> check(Message<?> message, long hash) {
+        long now = System.currentTimeMillis();
+        rotate(now);
+        DeduplicatedMessage<?> original = inFlight.get(hash, now, window);
+        if (original != null) {
+            statistics.onDuplicate();
+            original.hold(message);
+            return DUPLICATE;
+        }
+        if ((current.mightContain(hash) || previous.mightContain(hash)) && store.contains(hash, now, window)) {
+            statistics.onDuplicate();
+            return PROCESSED;
+        }
+        DeduplicatedMessage<?> tracked = new DeduplicatedMessage<>(message, this, hash);
+        if (inFlight.put(hash, now, tracked)) {
+            return tracked;
+        }
+        // Forget the messages that will never be acknowledged
+        long oldest = inFlight.expire(now, window);
+        if (inFlight.put(hash, now, tracked)) {
+            return tracked;
+        }
+        if (!recheckScheduled) {
+            // No message may be acknowledged until the oldest one leaves the table at the end of the window
+            recheckScheduled = true;
+            Infrastructure.getDefaultWorkerPool().schedule(this::recheck, oldest + window - now,
+                    TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the given message is being processed or has been processed during the window. If not, its
+     * identifier is added to the in-flight identifiers.
+     *
+     * @param message the message
+     * @param hash the hash of its identifier
+     * @return the message reporting the outcome of the processing, {@code null} if the message is a duplicate
+     * @throws IllegalStateException if the in-flight table is full
+     */
+    synchronized DeduplicatedMessage<?> track(Message<?> message, long hash) {
+        Message<?> result = check(message, hash);
+        if (result == null) {
+            throw new IllegalStateException("The maximum number of messages in flight has been reached");
+        }
+        return result instanceof DeduplicatedMessage ? (DeduplicatedMessage<?>) result : null;
+    }
+
+    /**
+     * Removes the given message from the in-flight messages, records its identifier if it has been acknowledged
+     * successfully, and completes the duplicates held until its outcome.
+     *
+     * @param message the message
+     * @param hash the hash of its identifier
+     * @param failure {@code null} if the message has been acknowledged, the reason of the nack or the failure of the
+     *        acknowledgement otherwise
+     */
+    void onProcessed(DeduplicatedMessage<?> message, long hash, Throwable failure) {
+        List<Message<?>> duplicates;
+        List<Waiter> ready;
+        synchronized (this) {
+            inFlight.remove(hash, message);
+            duplicates = message.release();
+            if (failure == null) {
+                long now = System.currentTimeMillis();
+                rotate(now);
+                boolean mayBePresent = current.mightContain(hash) || previous.mightContain(hash);
+                store.add(hash, now, window, mayBePresent);
+                current.add(hash);
+            }
+            ready = admitWaiters();
+        }
+        for (Message<?> duplicate : duplicates) {
+            if (failure == null) {
+                duplicate.ack();
+            } else {
+                duplicate.nack(failure);
+            }
+        }
+        ready.forEach(Waiter::emitChecked);
+    }
+
+    private void recheck() {
+        List<Waiter> ready;
+        synchronized (this) {
+            recheckScheduled = false;
+            ready = admitWaiters();
+        }
+        ready.forEach(Waiter::emitChecked);
+    }
+
+    private synchronized void onCancellation(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    /**
+     * Checks the queued messages while the in-flight table is not full. Must be called with the lock.
+     *
+     * @return the checked messages, to emit outside of the lock
+     */
+    private List<Waiter> admitWaiters() {
+        if (waiters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Waiter> ready = new ArrayList<>();
+        Waiter waiter;
+        while ((waiter = waiters.peek()) != null) {
+            Message<?> result = check(waiter.message, waiter.hash);
+            if (result == null) {
+                break;
+            }
+            waiters.poll();
+            waiter.result = result;
+            ready.add(waiter);
+        }
+        return ready;
+    }
+
+    /**
+     * Rotates the generations of the prefilter, so an identifier stays in the prefilter for at least a window.
+     */
+    private void rotate(long now) {
+        long elapsed = now - generationStart;
+        if (elapsed >= 2 * window) {
+            current.clear();
+            previous.clear();
+            generationStart = now;
+        } else if (elapsed >= window) {
+            BloomFilter filter = previous;
+            filter.clear();
+            previous = current;
+            current = filter;
+            generationStart = now;
+        }
+    }
+
+    /**
+     * Hashes the identifier using FNV-1a, followed by the MurmurHash3 finalizer to spread the bits. 0 is reserved for
+     * the empty slots of the store.
+     */
+    static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        store.close();
+    }
+
+    /**
+     * A message waiting to be checked, because the in-flight table is full.
+     */
+    private static final class Waiter {
+        private final Message<?> message;
+        private final long hash;
+        private final UniEmitter<? super Message<?>> emitter;
+        private Message<?> result;
+
+        private Waiter(Message<?> message, long hash, UniEmitter<? super Message<?>> emitter) {
+            this.message = message;
+            this.hash = hash;
+            this.emitter = emitter;
+        }
+
+        private void emitChecked() {
+            emit(result);
+        }
+
+        private void emit(Message<?> result) {
+            if (result == PROCESSED) {
+                message.ack();
+                emitter.complete(DUPLICATE);
+            } else {
+                emitter.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.mutiny.helpers.queues.SpscArrayQueue;
+
+/**
+ * Merges several publishers, taking, in turn, up to {@code weight} items from each of them.
+ * <p>
+ * Each source has a bounded queue filled with up to {@code prefetch} items requested in advance. When the downstream
+ * requests items, the sources are visited in a round-robin order, and each visited source emits up to its weight in
+ * items before the next one with queued items gets its turn. The sources without queued items are skipped, so, under
+ * load, each source gets a share of the downstream demand proportional to its weight, and an item of a low-rate
+ * source waits for at most the sum of the weights of the other sources. With the Mutiny merge, it can wait for all the
+ * items already queued by a high-rate source.
+ * <p>
+ * The queues are only read by the thread winning the {@code wip} counter, the sources only enqueue items. A failure of
+ * one source cancels the others and is propagated immediately.
+ *
+ * @param <T> the type of item
+ */
+public final class FairMerge<T> implements Publisher<T> {
+
+    private final List<Publisher<? extends T>> sources;
+    private final int[] weights;
+    private final int prefetch;
+
+    /**
+     * Creates a new merged stream.
+     *
+     * @param sources the sources, must not be empty
+     * @param weights the weight of each source, {@code null} to give the same weight to all sources (round-robin)
+     * @param prefetch the number of items requested in advance from each source, must be positive
+     */
+    public FairMerge(List<? extends Publisher<? extends T>> sources, int[] weights, int prefetch) {
+        this.sources = new ArrayList<>(sources);
+        this.weights = new int[this.sources.size()];
+        for (int i = 0; i < this.weights.length; i++) {
+            this.weights[i] = weights == null ? 1 : Math.max(weights[i], 1);
+        }
+        this.prefetch = Math.max(prefetch, 1);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        MergeSubscription subscription = new MergeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        for (int i = 0; i < sources.size() && !subscription.cancelled; i++) {
+            sources.get(i).subscribe(subscription.inners[i]);
+        }
+        // The drain loop starts once all the sources are subscribed, otherwise a synchronous source could emit all its
+        // items before the next sources get a turn
+        subscription.drainLoop();
+    }
+
+    @SuppressWarnings("unchecked")
+    private class MergeSubscription implements Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final Inner[] inners;
+
+        // Owned by the subscribing thread until all the sources are subscribed
+        private final AtomicInteger wip = new AtomicInteger(1);
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger remaining;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        // Only accessed by the drain loop
+        private long emitted;
+        private int current;
+        private int credit;
+        private boolean terminated;
+
+        private MergeSubscription(Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+            this.inners = (Inner[]) new FairMerge.Inner[sources.size()];
+            for (int i = 0; i < inners.length; i++) {
+                inners[i] = new Inner(this, i);
+            }
+            this.remaining = new AtomicInteger(inners.length);
+            this.credit = weights.length == 0 ? 0 : weights[0];
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(Subscriptions.getInvalidRequestException());
+                return;
+            }
+            Subscriptions.add(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelSources();
+                if (wip.getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+
+        private void cancelSources() {
+            for (Inner inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        private void clear() {
+            for (Inner inner : inners) {
+                inner.queue.clear();
+            }
+        }
+
+        private void onFailure(Throwable throwable) {
+            if (failure.compareAndSet(null, throwable)) {
+                cancelSources();
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            do {
+                if (terminated || cancelled) {
+                    clear();
+                    return;
+                }
+                long r = requested.get();
+                long e = emitted;
+                while (e != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    if (failure.get() != null) {
+                        break;
+                    }
+                    T item = next();
+                    if (item == null) {
+                        break;
+                    }
+                    downstream.onNext(item);
+                    e++;
+                }
+                emitted = e;
+
+                Throwable throwable = failure.get();
+                if (throwable != null) {
+                    terminated = true;
+                    clear();
+                    downstream.onError(throwable);
+                    return;
+                }
+                // Read the completions before checking the queues, so no item can be enqueued in between
+                if (remaining.get() == 0 && isEmpty()) {
+                    terminated = true;
+                    downstream.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Polls the next item: from the current source if it has credit left, otherwise from the next source, in the
+         * round-robin order, having queued items.
+         */
+        private T next() {
+            int n = inners.length;
+            T item = credit > 0 ? inners[current].poll() : null;
+            if (item == null) {
+                int index = current;
+                for (int k = 0; k < n; k++) {
+                    index = index + 1 == n ? 0 : index + 1;
+                    item = inners[index].poll();
+                    if (item != null) {
+                        current = index;
+                        credit = weights[index];
+                        break;
+                    }
+                }
+            }
+            if (item != null) {
+                credit--;
+            }
+            return item;
+        }
+
+        private boolean isEmpty() {
+            for (Inner inner : inners) {
+                if (!inner.queue.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private class Inner implements Subscriber<T> {
+
+        private final MergeSubscription parent;
+        private final int index;
+        private final Queue<T> queue = new SpscArrayQueue<>(prefetch);
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+        private final int limit = Math.max(prefetch - (prefetch >> 2), 1);
+
+        // Only accessed by the drain loop
+        private int consumed;
+
+        private Inner(MergeSubscription parent, int index) {
+            this.parent = parent;
+            this.index = index;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (upstream.compareAndSet(null, subscription)) {
+                subscription.request(prefetch);
+            } else {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (!queue.offer(item)) {
+                onError(ex.illegalStateForMergeOverflow(index));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            parent.onFailure(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.remaining.decrementAndGet();
+            parent.drain();
+        }
+
+        private T poll() {
+            T item = queue.poll();
+            if (item != null && ++consumed == limit) {
+                consumed = 0;
+                upstream.get().request(limit);
+            }
+            return item;
+        }
+
+        private void cancel() {
+            Subscription subscription = upstream.getAndSet(Subscriptions.CANCELLED);
+            if (subscription != null && subscription != Subscriptions.CANCELLED) {
+                subscription.cancel();
+            }
+        }
+    }
+}
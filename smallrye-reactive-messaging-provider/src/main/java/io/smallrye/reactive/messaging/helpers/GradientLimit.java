@@ -0,0 +1,67 @@
+package io.smallrye.reactive.messaging.helpers;
+
+/**
+ * Limit following the gradient between the long-term average latency and the latency of the last messages.
+ * <p>
+ * The new limit is {@code limit * gradient + sqrt(limit)}, where the gradient is the ratio between the long-term
+ * latency (with a tolerance) and the short-term latency, between 0.5 and 1. The square root allows a small queue in
+ * the sink, so the limit keeps growing until the latency increases. The limit is then smoothed to absorb the noise of
+ * the samples.
+ */
+class GradientLimit implements LimitAlgorithm {
+
+    static final double TOLERANCE = 1.5;
+    static final double SMOOTHING = 0.2;
+    static final int SHORT_WINDOW = 10;
+    static final int LONG_WINDOW = 600;
+
+    private final int min;
+    private final int max;
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private double shortRtt;
+    private double longRtt;
+
+    GradientLimit(int initial, int min, int max) {
+        this.min = min;
+        this.max = max;
+        this.estimate = Math.min(Math.max(initial, min), max);
+        this.limit = (int) estimate;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rtt, int inflight, boolean dropped) {
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+        }
+
+        // After a sustained latency increase, let the long-term average recover faster, so the limit does not stay
+        // low once the sink is back to normal
+        if (longRtt / shortRtt > 2) {
+            longRtt = longRtt * 0.95;
+        }
+
+        // Only adjust the limit when it is used, otherwise the latency says nothing about the capacity of the sink
+        if (!dropped && inflight * 2 < estimate) {
+            return;
+        }
+
+        double gradient = dropped ? 0.5
+                : Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / Math.max(shortRtt, 1)));
+        double target = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.min(max, Math.max(min, estimate * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimate;
+    }
+}
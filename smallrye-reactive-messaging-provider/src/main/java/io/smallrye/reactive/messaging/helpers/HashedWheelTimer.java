@@ -0,0 +1,265 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A timer optimized for a large number of short-lived timeouts, such as the delays between the retries of failed
+ * invocations.
+ * <p>
+ * The timeouts are hashed into a wheel of buckets, each bucket covering a tick. A single periodic task advances the
+ * wheel at each tick and runs the expired timeouts, so scheduling or cancelling a timeout is O(1) and does not
+ * schedule a task per timeout. The timeouts expire at the first tick following their deadline, so the precision is the
+ * tick duration. Timeouts longer than a rotation of the wheel stay in their bucket for several rotations.
+ * <p>
+ * The periodic task only runs while there are pending timeouts. The expired timeouts are run on the given executor,
+ * so slow tasks do not delay the other timeouts.
+ */
+public final class HashedWheelTimer {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final ScheduledExecutorService scheduler;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long start = System.nanoTime();
+
+    /**
+     * The timeouts scheduled since the last tick, moved into the wheel by the next tick.
+     */
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean ticking = new AtomicBoolean();
+    private volatile ScheduledFuture<?> ticker;
+    private volatile boolean stopped;
+
+    // Guarded by the lock of the wheel, only accessed by the ticks
+    private long tick = -1;
+    private int inWheel;
+
+    /**
+     * Creates a new timer.
+     *
+     * @param tickDuration the duration of a tick, must be positive
+     * @param unit the unit of the tick duration
+     * @param ticksPerWheel the number of buckets of the wheel, rounded to the next power of 2
+     * @param scheduler the scheduler running the ticks and the expired timeouts
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel, ScheduledExecutorService scheduler) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("The tick duration and the number of ticks per wheel must be positive");
+        }
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs the given task once the delay has elapsed.
+     *
+     * @param task the task
+     * @param delay the delay, 0 or negative to run the task at the next tick
+     * @param unit the unit of the delay
+     * @return the timeout, which can be cancelled
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task);
+        if (stopped) {
+            throw new IllegalStateException("The timer has been stopped");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - start + Math.max(0, unit.toNanos(delay)));
+        pending.incrementAndGet();
+        added.add(timeout);
+        startTicking();
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts which are neither expired nor cancelled
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the timer, the pending timeouts never expire.
+     */
+    public void stop() {
+        stopped = true;
+        ScheduledFuture<?> future = ticker;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private void startTicking() {
+        if (!stopped && ticking.compareAndSet(false, true)) {
+            ticker = scheduler.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void tick() {
+        synchronized (wheel) {
+            long now = (System.nanoTime() - start) / tickNanos;
+            if (inWheel == 0) {
+                // Skip the empty rotations after an idle period
+                tick = Math.max(tick, now - 1);
+            }
+            while (tick < now) {
+                tick++;
+                transferAddedTimeouts();
+                expire(wheel[(int) (tick & mask)]);
+            }
+            if (inWheel > 0 && pending.get() == 0) {
+                // Only cancelled timeouts are left, drop them so the next ticks skip the idle period
+                for (Bucket bucket : wheel) {
+                    bucket.head = null;
+                    bucket.tail = null;
+                }
+                inWheel = 0;
+            }
+        }
+        ScheduledFuture<?> future = ticker;
+        if (pending.get() == 0 && future != null) {
+            // Stop ticking when idle, and restart if a timeout has been scheduled concurrently
+            ticking.set(false);
+            future.cancel(false);
+            if (pending.get() > 0) {
+                startTicking();
+            }
+        }
+    }
+
+    private void transferAddedTimeouts() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+            // Rounded up, so the timeout never expires before its deadline
+            long expiration = Math.max(tick, (timeout.deadline + tickNanos - 1) / tickNanos);
+            timeout.rounds = (expiration - tick) / wheel.length;
+            wheel[(int) (expiration & mask)].add(timeout);
+            inWheel++;
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state.get() != PENDING) {
+                bucket.remove(timeout);
+                inWheel--;
+            } else if (timeout.rounds <= 0) {
+                bucket.remove(timeout);
+                inWheel--;
+                if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                    pending.decrementAndGet();
+                    scheduler.execute(timeout.task);
+                }
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * A timeout scheduled in the timer.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // Only accessed by the ticks
+        private long rounds;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, the task is not run if it has not expired yet.
+         *
+         * @return {@code true} if the timeout has been cancelled, {@code false} if it has already expired or been
+         *         cancelled
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                // Removed from the wheel by the next tick reaching its bucket
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return {@code true} if the timeout has been cancelled
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * @return {@code true} if the timeout has expired, the task has been run or is about to run
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    /**
+     * The doubly linked list of the timeouts of a tick.
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+}
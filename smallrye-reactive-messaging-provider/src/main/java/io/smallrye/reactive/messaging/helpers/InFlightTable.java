@@ -0,0 +1,151 @@
+package io.smallrye.reactive.messaging.helpers;
+
+/**
+ * A fixed-capacity hash table of the message id hashes being processed, with the time at which they have been received
+ * and the message tracking their processing.
+ * <p>
+ * The table uses open addressing with linear probing in primitive arrays, at most half full, so looking up, adding
+ * and removing a hash costs O(1) without boxing. The entries are removed by shifting the following entries of their
+ * run backward, so no tombstone is left. When the table holds the maximum number of entries, no entry can be added
+ * until one is removed, or until the entries older than the window are expired by {@link #expire(long, long)}.
+ * <p>
+ * The table is not thread-safe.
+ */
+final class InFlightTable {
+
+    private final long[] hashes;
+    private final long[] times;
+    private final DeduplicatedMessage<?>[] messages;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+
+    /**
+     * Creates a new table.
+     *
+     * @param maxSize the maximum number of entries, must be positive
+     */
+    InFlightTable(int maxSize) {
+        int capacity = Integer.highestOneBit(maxSize * 2 - 1) << 1;
+        this.hashes = new long[capacity];
+        this.times = new long[capacity];
+        this.messages = new DeduplicatedMessage<?>[capacity];
+        this.mask = capacity - 1;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the message being processed for the given hash.
+     *
+     * @param hash the hash of the message id, not 0
+     * @param now the current time, in milliseconds
+     * @param window the duration of the window, in milliseconds
+     * @return the message, {@code null} if the hash is absent or has been received before the window
+     */
+    DeduplicatedMessage<?> get(long hash, long now, long window) {
+        int slot = indexOf(hash);
+        return slot >= 0 && now - times[slot] < window ? messages[slot] : null;
+    }
+
+    /**
+     * Adds the given hash, or replaces its entry if it is present.
+     *
+     * @param hash the hash of the message id, not 0
+     * @param now the current time, in milliseconds
+     * @param message the message tracking the processing
+     * @return {@code false} if the table is full
+     */
+    boolean put(long hash, long now, DeduplicatedMessage<?> message) {
+        int slot = indexOf(hash);
+        if (slot < 0) {
+            if (size == maxSize) {
+                return false;
+            }
+            slot = -slot - 1;
+            hashes[slot] = hash;
+            size++;
+        }
+        times[slot] = now;
+        messages[slot] = message;
+        return true;
+    }
+
+    /**
+     * Removes the given hash, if its entry is still associated with the given message. The entry may have been
+     * replaced by a redelivery received after the window.
+     *
+     * @param hash the hash of the message id, not 0
+     * @param message the message tracking the processing
+     */
+    void remove(long hash, DeduplicatedMessage<?> message) {
+        int slot = indexOf(hash);
+        if (slot >= 0 && messages[slot] == message) {
+            delete(slot);
+        }
+    }
+
+    /**
+     * Removes the entries received before the window, whose messages are considered as never acknowledged.
+     *
+     * @param now the current time, in milliseconds
+     * @param window the duration of the window, in milliseconds
+     * @return the time at which the oldest remaining entry has been received, {@link Long#MAX_VALUE} if the table is
+     *         empty
+     */
+    long expire(long now, long window) {
+        long oldest = Long.MAX_VALUE;
+        int slot = 0;
+        while (slot < hashes.length) {
+            if (hashes[slot] != 0 && now - times[slot] >= window) {
+                // The slot receives the next entry of the run, if any, which is examined in turn
+                delete(slot);
+                continue;
+            }
+            if (hashes[slot] != 0) {
+                oldest = Math.min(oldest, times[slot]);
+            }
+            slot++;
+        }
+        return oldest;
+    }
+
+    /**
+     * @return the slot of the given hash, or {@code -(slot + 1)} with the empty slot ending its run if it is absent
+     */
+    private int indexOf(long hash) {
+        int slot = (int) hash & mask;
+        while (hashes[slot] != 0) {
+            if (hashes[slot] == hash) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -(slot + 1);
+    }
+
+    private void delete(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (hashes[next] != 0) {
+            int home = (int) hashes[next] & mask;
+            // The entry can fill the hole if the hole is between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                hashes[hole] = hashes[next];
+                times[hole] = times[next];
+                messages[hole] = messages[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        hashes[hole] = 0;
+        messages[hole] = null;
+        size--;
+    }
+}
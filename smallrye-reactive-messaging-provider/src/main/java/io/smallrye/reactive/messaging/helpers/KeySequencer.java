@@ -0,0 +1,54 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Sequences asynchronous actions per key: an action only starts once the previous action submitted with the same key
+ * has completed (successfully or not, or has been cancelled). Actions with different keys are not sequenced.
+ * <p>
+ * The order is the subscription order of the returned {@link Uni Unis}. Only the last action of each key is tracked,
+ * and the entry is removed once it completes, so the memory used is bounded by the number of keys being processed.
+ */
+public class KeySequencer {
+
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a {@link Uni} executing the given action once the actions previously submitted with the same key have
+     * completed.
+     *
+     * @param key the key, must not be {@code null}
+     * @param action the action, called at most once
+     * @param <T> the type of result
+     * @return the {@link Uni} executing the action when subscribed
+     */
+    public <T> Uni<T> sequence(Object key, Supplier<Uni<T>> action) {
+        return Uni.createFrom().deferred(() -> {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture<Void> previous = tails.put(key, done);
+            Uni<T> uni;
+            if (previous == null || previous.isDone()) {
+                uni = action.get();
+            } else {
+                // The previous futures always complete successfully.
+                uni = Uni.createFrom().completionStage(previous).onItem().transformToUni(x -> action.get());
+            }
+            return uni.onTermination().invoke(() -> {
+                tails.remove(key, done);
+                done.complete(null);
+            });
+        });
+    }
+
+    /**
+     * @return the number of keys having an action pending or in progress
+     */
+    public int size() {
+        return tails.size();
+    }
+}
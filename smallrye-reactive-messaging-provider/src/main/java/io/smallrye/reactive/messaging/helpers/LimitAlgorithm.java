@@ -0,0 +1,52 @@
+package io.smallrye.reactive.messaging.helpers;
+
+/**
+ * Computes the concurrency limit of a {@link ConcurrencyLimiter} from the latency of the messages sent to a sink.
+ * <p>
+ * Implementations must be thread-safe, as the samples are reported by the threads completing the acknowledgements.
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * @return the current limit, i.e. the number of messages the sink can process concurrently
+     */
+    int getLimit();
+
+    /**
+     * Records the completion of a message and adjusts the limit.
+     *
+     * @param rtt the time between the dispatch of the message to the sink and its acknowledgement, in nanoseconds
+     * @param inflight the number of messages in flight when the message completed, including the message itself
+     * @param dropped {@code true} if the message has been nacked
+     */
+    void onSample(long rtt, int inflight, boolean dropped);
+
+    /**
+     * Creates an additive-increase / multiplicative-decrease algorithm: the limit is increased by one for each message
+     * acknowledged within the timeout while the limit is used, and is reduced by 10% for each message nacked or
+     * acknowledged after the timeout.
+     *
+     * @param initial the initial limit
+     * @param min the minimum limit
+     * @param max the maximum limit
+     * @param timeout the latency above which the sink is considered overloaded, in nanoseconds
+     * @return the algorithm
+     */
+    static LimitAlgorithm aimd(int initial, int min, int max, long timeout) {
+        return new AimdLimit(initial, min, max, timeout);
+    }
+
+    /**
+     * Creates an algorithm following the gradient between the long-term average latency and the latency of the last
+     * messages: while the latency does not increase, the limit grows by the square root of the limit, and it shrinks
+     * proportionally to the increase of the latency.
+     *
+     * @param initial the initial limit
+     * @param min the minimum limit
+     * @param max the maximum limit
+     * @return the algorithm
+     */
+    static LimitAlgorithm gradient(int initial, int min, int max) {
+        return new GradientLimit(initial, min, max);
+    }
+}
@@ -0,0 +1,192 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * A fixed-size hash table of message id hashes and of the time at which they have been received, stored either in
+ * the heap or in a memory-mapped file.
+ * <p>
+ * Each slot stores a 64-bit hash (0 meaning empty) and a timestamp in milliseconds. A hash is looked up in a bounded
+ * number of consecutive slots, the entries older than the window being considered as absent and reused. When all these
+ * slots hold entries of the window, the oldest one is evicted. So adding an id costs O(1), and the memory is fixed:
+ * 16 bytes per slot.
+ * <p>
+ * The timestamps use the wall clock, so a memory-mapped store can be reopened after a restart. The store is not
+ * thread-safe.
+ */
+final class MessageIdStore implements Closeable {
+
+    private static final long MAGIC = 0x736d7267_64656475L;
+    private static final int HEADER = 2;
+    private static final int PROBES = 8;
+
+    private final LongBuffer slots;
+    private final int mask;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+
+    private final LongAdder evictions = new LongAdder();
+
+    private MessageIdStore(LongBuffer slots, int capacity, FileChannel channel, MappedByteBuffer mapped) {
+        this.slots = slots;
+        this.mask = capacity - 1;
+        this.channel = channel;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Creates a store in the heap.
+     *
+     * @param capacity the number of slots, must be a power of 2
+     * @return the store
+     */
+    static MessageIdStore inMemory(int capacity) {
+        return new MessageIdStore(LongBuffer.allocate(HEADER + capacity * 2), capacity, null, null);
+    }
+
+    /**
+     * Opens, or creates, a store in a memory-mapped file. The file is reset if it has not been created with the same
+     * capacity.
+     *
+     * @param path the file
+     * @param capacity the number of slots, must be a power of 2
+     * @return the store
+     * @throws IOException if the file cannot be mapped
+     */
+    static MessageIdStore mapped(Path path, int capacity) throws IOException {
+        long size = (HEADER + capacity * 2L) * Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The deduplication store cannot exceed 2 GB, found " + size + " bytes");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            LongBuffer slots = mapped.asLongBuffer();
+            if (slots.get(0) != MAGIC || slots.get(1) != capacity) {
+                for (int i = 0; i < slots.capacity(); i++) {
+                    slots.put(i, 0L);
+                }
+                slots.put(0, MAGIC);
+                slots.put(1, capacity);
+            }
+            return new MessageIdStore(slots, capacity, channel, mapped);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the given hash, unless it has been added during the window.
+     *
+     * @param hash the hash of the message id, not 0
+     * @param now the current time, in milliseconds
+     * @param window the duration of the window, in milliseconds
+     * @param mayBePresent {@code false} if the hash is known to be absent, the lookup then stops at the first reusable
+     *        slot
+     * @return {@code true} if the hash has been added, {@code false} if it was already present
+     */
+    boolean add(long hash, long now, long window, boolean mayBePresent) {
+        int start = (int) (hash >>> 32) & mask;
+        int target = -1;
+        int oldest = -1;
+        long oldestTime = Long.MAX_VALUE;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long current = slots.get(HEADER + slot * 2);
+            if (current == 0) {
+                // The entries are never removed, so the following slots do not contain the hash
+                if (target == -1) {
+                    target = slot;
+                }
+                break;
+            }
+            long time = slots.get(HEADER + slot * 2 + 1);
+            boolean expired = now - time >= window;
+            if (current == hash && !expired) {
+                return false;
+            }
+            if (expired) {
+                if (target == -1) {
+                    target = slot;
+                    if (!mayBePresent) {
+                        break;
+                    }
+                }
+            } else if (time < oldestTime) {
+                oldestTime = time;
+                oldest = slot;
+            }
+        }
+        if (target == -1) {
+            evictions.increment();
+            target = oldest;
+        }
+        slots.put(HEADER + target * 2, hash);
+        slots.put(HEADER + target * 2 + 1, now);
+        return true;
+    }
+
+    /**
+     * Checks whether the given hash has been added during the window.
+     *
+     * @param hash the hash of the message id, not 0
+     * @param now the current time, in milliseconds
+     * @param window the duration of the window, in milliseconds
+     * @return {@code true} if the hash is present
+     */
+    boolean contains(long hash, long now, long window) {
+        int start = (int) (hash >>> 32) & mask;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long current = slots.get(HEADER + slot * 2);
+            if (current == 0) {
+                return false;
+            }
+            if (current == hash && now - slots.get(HEADER + slot * 2 + 1) < window) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes the hashes added during the window to the given consumer.
+     *
+     * @param now the current time, in milliseconds
+     * @param window the duration of the window, in milliseconds
+     * @param consumer the consumer
+     */
+    void forEach(long now, long window, LongConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            long hash = slots.get(HEADER + slot * 2);
+            if (hash != 0 && now - slots.get(HEADER + slot * 2 + 1) < window) {
+                consumer.accept(hash);
+            }
+        }
+    }
+
+    /**
+     * @return the counter of the entries evicted before the end of the window because the store was full
+     */
+    LongAdder evictions() {
+        return evictions;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            mapped.force();
+            channel.close();
+        }
+    }
+}
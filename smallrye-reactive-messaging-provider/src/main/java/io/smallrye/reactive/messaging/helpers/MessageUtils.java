@@ -0,0 +1,73 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.reactive.messaging.IngressMetadata;
+
+public class MessageUtils {
+
+    /**
+     * The class of the messages created by {@link Message#of(Object)}. The lambda expression of this method is
+     * compiled to a single class, shared by all the messages it creates.
+     */
+    private static final Class<?> PAYLOAD_MESSAGE = Message.of(Boolean.TRUE).getClass();
+
+    private static final ClassValue<Boolean> GENERIC = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            // The other Message.of variants, also used to derive messages, create anonymous classes of Message
+            return type == PAYLOAD_MESSAGE
+                    || (type.isAnonymousClass() && type.getEnclosingClass() == Message.class)
+                    || GenericWrapper.class.isAssignableFrom(type);
+        }
+    };
+
+    private MessageUtils() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * Checks whether the given message is a generic message, created using {@link Message#of(Object)} and its
+     * variants, or derived from such a message. Unlike connector-specific messages, generic messages can be replaced
+     * by another generic message without breaking the code expecting a specific message type.
+     *
+     * @param message the message, must not be {@code null}
+     * @return {@code true} if the message is a generic message
+     */
+    public static boolean isGeneric(Message<?> message) {
+        return GENERIC.get(message.getClass());
+    }
+
+    /**
+     * Attaches an {@link IngressMetadata} stamped with the current time to the given message, if it is a generic
+     * message not carrying one yet. The returned message notifies the metadata once its acknowledgement, positive or
+     * negative, completes.
+     * <p>
+     * This method is meant for the connectors creating generic messages, which should call it when they receive the
+     * messages. The framework also calls it for the messages emitted by the connectors not supporting the
+     * {@code ingress-timestamp} attribute. Connector-specific messages are returned as they are, as they cannot be
+     * replaced: the connectors must attach the metadata themselves.
+     *
+     * @param message the incoming message, must not be {@code null}
+     * @param channel the name of the incoming channel, must not be {@code null}
+     * @return the message carrying the ingress metadata
+     */
+    public static Message<?> withIngressMetadata(Message<?> message, String channel) {
+        if (!isGeneric(message) || message.getMetadata(IngressMetadata.class).isPresent()) {
+            return message;
+        }
+        IngressMetadata ingress = IngressMetadata.now(channel);
+        Metadata metadata = message.getMetadata().with(ingress);
+        return Message.of(message.getPayload(), metadata,
+                () -> message.ack().whenComplete((x, f) -> ingress.acknowledged()),
+                reason -> message.nack(reason).whenComplete((x, f) -> ingress.nacked(reason)));
+    }
+
+    /**
+     * Marks the messages created by the framework to wrap generic messages, such as the messages tracking their
+     * acknowledgement for the metrics. They are generic messages too.
+     */
+    public interface GenericWrapper {
+    }
+}
@@ -0,0 +1,482 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.operators.spi.Stage;
+import org.eclipse.microprofile.reactive.streams.operators.spi.ToGraphable;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.Multi;
+
+/**
+ * Bridges between the MicroProfile Reactive Streams Operators types, used at the SPI boundary (connectors, channel
+ * registry, decorators), and the {@link Multi} pipelines assembled by the mediators.
+ * <p>
+ * The conversions avoid stacking adapters: a {@link PublisherBuilder} created from a {@link Multi} (using
+ * {@link #toPublisherBuilder(Multi)} or {@link ReactiveStreams#fromPublisher(Publisher)}) is unwrapped to that
+ * {@link Multi}, and its {@code map}, {@code peek} and {@code filter} operators are applied as {@link Multi} operators,
+ * instead of being materialized by the Reactive Streams Operators engine.
+ */
+public class MultiUtils {
+
+    private MultiUtils() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * Gets a {@link Multi} from the given publisher, the publisher is returned as-is if it's already a {@link Multi}.
+     *
+     * @param publisher the publisher, must not be {@code null}
+     * @param <T> the type of item
+     * @return the multi
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Multi<T> publisher(Publisher<T> publisher) {
+        if (publisher instanceof Multi) {
+            return (Multi<T>) publisher;
+        }
+        return Multi.createFrom().publisher(publisher);
+    }
+
+    /**
+     * Gets a {@link Multi} from the given builder. If the builder wraps a publisher, optionally followed by
+     * {@code map}, {@code peek} and {@code filter} operators, the wrapped publisher is used directly and the operators
+     * are applied as {@link Multi} operators. Otherwise, the builder is materialized using the Reactive Streams
+     * Operators engine.
+     *
+     * @param builder the builder, must not be {@code null}
+     * @param <T> the type of item
+     * @return the multi
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static <T> Multi<T> fromPublisherBuilder(PublisherBuilder<T> builder) {
+        Objects.requireNonNull(builder);
+        if (builder instanceof ToGraphable) {
+            Collection<Stage> stages = ((ToGraphable) builder).toGraph().getStages();
+            Iterator<Stage> iterator = stages.iterator();
+            Stage first = iterator.hasNext() ? iterator.next() : null;
+            if (first instanceof Stage.PublisherStage && stages.stream().skip(1).allMatch(MultiUtils::isMultiOperator)) {
+                Multi multi = publisher(((Stage.PublisherStage) first).getRsPublisher());
+                while (iterator.hasNext()) {
+                    Stage stage = iterator.next();
+                    if (stage instanceof Stage.Map) {
+                        multi = multi.map(((Stage.Map) stage).getMapper());
+                    } else if (stage instanceof Stage.Peek) {
+                        multi = multi.onItem().invoke(((Stage.Peek) stage).getConsumer());
+                    } else {
+                        multi = multi.transform().byFilteringItemsWith(((Stage.Filter) stage).getPredicate());
+                    }
+                }
+                return (Multi<T>) multi;
+            }
+        }
+        return publisher(builder.buildRs());
+    }
+
+    private static boolean isMultiOperator(Stage stage) {
+        return stage instanceof Stage.Map || stage instanceof Stage.Peek || stage instanceof Stage.Filter;
+    }
+
+    /**
+     * Wraps the given {@link Multi} into a {@link PublisherBuilder}, to be passed to the SPI.
+     *
+     * @param multi the multi
+     * @param <T> the type of item
+     * @return the builder, unwrapped by {@link #fromPublisherBuilder(PublisherBuilder)}
+     */
+    public static <T> PublisherBuilder<T> toPublisherBuilder(Multi<T> multi) {
+        return ReactiveStreams.fromPublisher(multi);
+    }
+
+    /**
+     * Creates an infinite stream of items provided by the given supplier, called for each requested item.
+     * It's the {@link Multi} counterpart of {@link ReactiveStreams#generate(Supplier)}: a failure or a {@code null}
+     * item terminates the stream with a failure. The supplier is not called ahead of the requests.
+     *
+     * @param supplier the supplier
+     * @param <T> the type of item
+     * @return the multi
+     */
+    public static <T> Multi<T> generate(Supplier<T> supplier) {
+        // Unlike Stream.generate, the iterator does not call the supplier in hasNext
+        return Multi.createFrom().iterable(() -> new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public T next() {
+                return supplier.get();
+            }
+        });
+    }
+
+    /**
+     * Passes the items emitted by the given {@link Multi} through the given {@link Processor}. The upstream is
+     * subscribed to the processor once the processor has received the subscriber of the resulting stream.
+     * <p>
+     * As a processor is subscribed to a single upstream, the resulting stream supports a single subscription. The
+     * following subscribers receive an {@link IllegalStateException}, and the processor is not subscribed again.
+     *
+     * @param upstream the upstream
+     * @param processor the processor
+     * @param <I> the type of item consumed by the processor
+     * @param <O> the type of item emitted by the processor
+     * @return the stream of items emitted by the processor
+     */
+    public static <I, O> Multi<O> via(Multi<I> upstream, Processor<? super I, O> processor) {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        return Multi.createFrom().publisher(downstream -> {
+            if (!subscribed.compareAndSet(false, true)) {
+                Multi.createFrom().<O> failure(new IllegalStateException(
+                        "The stream passing through the processor " + processor + " has already been subscribed"))
+                        .subscribe(downstream);
+                return;
+            }
+            // The processor gets its subscriber before receiving the upstream subscription.
+            processor.subscribe(downstream);
+            upstream.subscribe(processor);
+        });
+    }
+
+    /**
+     * Gets a {@link Processor} applying the given function to the stream of items it receives. The function is
+     * applied when the processor gets its downstream subscriber. The upstream subscription is passed to the resulting
+     * stream without additional buffering, so the back-pressure protocol is preserved.
+     * <p>
+     * The processor supports a single upstream and a single downstream subscriber.
+     *
+     * @param function the function, must not be {@code null}
+     * @param <I> the type of item received by the processor
+     * @param <O> the type of item emitted by the processor
+     * @return the processor
+     */
+    public static <I, O> Processor<I, O> processor(Function<Multi<I>, ? extends Multi<? extends O>> function) {
+        return new FunctionProcessor<>(Objects.requireNonNull(function));
+    }
+
+    /**
+     * Groups the items emitted by the given {@link Multi} into lists. A list is emitted when it contains {@code size}
+     * items, or when {@code maxWait} has elapsed since the reception of its first item. Empty lists are never emitted.
+     * <p>
+     * The upstream is requested {@code size} items upfront, and is requested more items when a list is emitted
+     * downstream, so at most {@code size} items are buffered. On completion or failure, the pending items are emitted
+     * before the terminal event.
+     *
+     * @param upstream the upstream
+     * @param size the maximum size of the lists, must be greater than 0
+     * @param maxWait the maximum time to wait for a list to be complete, must be positive
+     * @param timer the executor used to emit the incomplete lists
+     * @param <T> the type of item
+     * @return the stream of lists
+     */
+    public static <T> Multi<List<T>> batch(Multi<T> upstream, int size, Duration maxWait,
+            ScheduledExecutorService timer) {
+        return batch(upstream, size, maxWait, timer, () -> null);
+    }
+
+    /**
+     * Groups the items emitted by the given {@link Multi} into lists, as {@link #batch(Multi, int, Duration,
+     * ScheduledExecutorService)}, emitting the incomplete lists on the executor captured when their first item is
+     * received, such as the event loop context of the upstream.
+     *
+     * @param upstream the upstream
+     * @param size the maximum size of the lists, must be greater than 0
+     * @param maxWait the maximum time to wait for a list to be complete, must be positive
+     * @param timer the executor used to wait for the incomplete lists
+     * @param context called on the thread receiving the first item of a list, returns the executor emitting the list
+     *        if it is incomplete after {@code maxWait}, {@code null} to emit it from the timer
+     * @param <T> the type of item
+     * @return the stream of lists
+     */
+    public static <T> Multi<List<T>> batch(Multi<T> upstream, int size, Duration maxWait,
+            ScheduledExecutorService timer, Supplier<Executor> context) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The size must be greater than 0");
+        }
+        Objects.requireNonNull(maxWait);
+        Objects.requireNonNull(timer);
+        Objects.requireNonNull(context);
+        return Multi.createFrom().publisher(downstream -> upstream
+                .subscribe(new BatchSubscriber<>(downstream, size, maxWait.toMillis(), timer, context)));
+    }
+
+    private static final class BatchSubscriber<T> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super List<T>> downstream;
+        private final int size;
+        private final long maxWait;
+        private final ScheduledExecutorService timer;
+        private final Supplier<Executor> context;
+
+        private final Queue<List<T>> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private Throwable failure;
+
+        // Guarded by this
+        private List<T> current;
+        private ScheduledFuture<?> timeout;
+
+        private BatchSubscriber(Subscriber<? super List<T>> downstream, int size, long maxWait,
+                ScheduledExecutorService timer, Supplier<Executor> context) {
+            this.downstream = downstream;
+            this.size = size;
+            this.maxWait = maxWait;
+            this.timer = timer;
+            this.context = context;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(size);
+        }
+
+        @Override
+        public void onNext(T item) {
+            synchronized (this) {
+                if (current == null) {
+                    List<T> batch = new ArrayList<>(size);
+                    current = batch;
+                    if (size > 1) {
+                        Executor executor = context.get();
+                        timeout = timer.schedule(() -> {
+                            if (executor != null) {
+                                executor.execute(() -> flush(batch));
+                            } else {
+                                flush(batch);
+                            }
+                        }, maxWait, TimeUnit.MILLISECONDS);
+                    }
+                }
+                current.add(item);
+                if (current.size() == size) {
+                    flushCurrent();
+                }
+            }
+            drain();
+        }
+
+        private void flush(List<T> batch) {
+            synchronized (this) {
+                if (current != batch) {
+                    // Already flushed
+                    return;
+                }
+                flushCurrent();
+            }
+            drain();
+        }
+
+        // Must be called while holding the lock
+        private void flushCurrent() {
+            if (timeout != null) {
+                timeout.cancel(false);
+                timeout = null;
+            }
+            if (current != null) {
+                ready.add(current);
+                current = null;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                flushCurrent();
+            }
+            failure = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                flushCurrent();
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("Invalid request: " + n));
+                return;
+            }
+            requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            synchronized (this) {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                    timeout = null;
+                }
+                current = null;
+            }
+            ready.clear();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!cancelled && requested.get() > 0) {
+                    List<T> batch = ready.poll();
+                    if (batch == null) {
+                        break;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    downstream.onNext(batch);
+                    if (!done) {
+                        // Replace the items that have been emitted
+                        upstream.request(batch.size());
+                    }
+                }
+                if (!cancelled && done && ready.isEmpty()) {
+                    cancelled = true;
+                    if (failure != null) {
+                        downstream.onError(failure);
+                    } else {
+                        downstream.onComplete();
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    private static final class FunctionProcessor<I, O> implements Processor<I, O> {
+
+        private final Function<Multi<I>, ? extends Multi<? extends O>> function;
+
+        /**
+         * The subscription received from upstream, it may arrive before the downstream subscriber.
+         */
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+        /**
+         * The subscriber of the stream passed to the function.
+         */
+        private final AtomicReference<Subscriber<? super I>> inner = new AtomicReference<>();
+        private final AtomicBoolean connected = new AtomicBoolean();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        /**
+         * Set once the inner subscriber has received the subscription, terminal events can then be forwarded.
+         */
+        private volatile boolean ready;
+        private volatile boolean done;
+        private volatile Throwable failure;
+
+        private FunctionProcessor(Function<Multi<I>, ? extends Multi<? extends O>> function) {
+            this.function = function;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super O> downstream) {
+            Publisher<I> items = subscriber -> {
+                if (!inner.compareAndSet(null, subscriber)) {
+                    Multi.createFrom().<I> failure(new IllegalStateException("Only one subscriber allowed"))
+                            .subscribe(subscriber);
+                    return;
+                }
+                connectIfReady();
+            };
+            function.apply(Multi.createFrom().publisher(items)).subscribe(downstream);
+        }
+
+        private void connectIfReady() {
+            Subscriber<? super I> subscriber = inner.get();
+            Subscription subscription = upstream.get();
+            if (subscriber != null && subscription != null && connected.compareAndSet(false, true)) {
+                subscriber.onSubscribe(subscription);
+                ready = true;
+                if (done) {
+                    terminate(subscriber);
+                }
+            }
+        }
+
+        private void terminate(Subscriber<? super I> subscriber) {
+            if (terminated.compareAndSet(false, true)) {
+                Throwable t = failure;
+                if (t != null) {
+                    subscriber.onError(t);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (!upstream.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+            connectIfReady();
+        }
+
+        @Override
+        public void onNext(I item) {
+            // Items are only emitted after a request, so the inner subscriber is connected.
+            inner.get().onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            done = true;
+            if (ready) {
+                terminate(inner.get());
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            if (ready) {
+                terminate(inner.get());
+            }
+        }
+    }
+}
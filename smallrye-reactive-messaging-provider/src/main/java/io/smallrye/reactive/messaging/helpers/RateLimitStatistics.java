@@ -0,0 +1,113 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.smallrye.reactive.messaging.helpers.RateLimiter.Policy;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of a rate-limited channel.
+ * <p>
+ * The <em>throttled time</em> is the time during which the downstream requested messages but the rate limit delayed
+ * them. It only increases with the {@link Policy#BLOCK} policy, with the {@link Policy#DROP} policy, the messages
+ * exceeding the rate limit are counted as <em>dropped</em> instead.
+ */
+public class RateLimitStatistics implements Statistics {
+
+    /**
+     * The type of the rate limit statistics, tagged with the {@code channel} name.
+     */
+    public static final String TYPE = "rate-limit";
+
+    private final String name;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Policy policy;
+
+    private final LongAdder throttledTime = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    RateLimitStatistics(String name, double permitsPerSecond, int burst, Policy policy) {
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.policy = policy;
+        this.tags = Collections.singletonMap("channel", name);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.counter("throttled-time", Measurement.NANOSECONDS, throttledTime),
+                Measurement.counter("dropped", Measurement.NONE, dropped)));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the channel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of messages allowed per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @return the number of messages allowed in a burst
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return the policy applied to the messages exceeding the rate limit
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the total time during which the messages have been delayed, in nanoseconds
+     */
+    public long getThrottledTime() {
+        return throttledTime.sum();
+    }
+
+    /**
+     * @return the number of messages dropped because they exceeded the rate limit
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    void onThrottled(long nanos) {
+        throttledTime.add(nanos);
+    }
+
+    void onDropped() {
+        dropped.increment();
+    }
+}
@@ -0,0 +1,247 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.helpers.Subscriptions;
+
+/**
+ * Limits the rate of the messages of a channel using a {@link TokenBucket}.
+ * <p>
+ * The streams limited by the same limiter share its bucket, so the rate applies to the channel, even if several
+ * methods produce its messages. Two policies are available:
+ * <ul>
+ * <li>{@link Policy#BLOCK}: the messages are only requested from the upstream when permits are available. When the
+ * bucket is empty, the requests are delayed until the next permit, without blocking the thread.</li>
+ * <li>{@link Policy#DROP}: the requests are passed to the upstream as they are, and the messages received when the
+ * bucket is empty are nacked and dropped.</li>
+ * </ul>
+ * The messages are passed as they are, and the permits are acquired in batches, so limiting the rate does not allocate
+ * per message. With the {@code BLOCK} policy, a task is scheduled each time the bucket is empty.
+ */
+public final class RateLimiter {
+
+    /**
+     * The policy applied to the messages exceeding the rate limit.
+     */
+    public enum Policy {
+        /**
+         * The messages are delayed until permits are available.
+         */
+        BLOCK,
+        /**
+         * The messages are nacked and dropped.
+         */
+        DROP
+    }
+
+    private final TokenBucket bucket;
+    private final Policy policy;
+    private final ScheduledExecutorService scheduler;
+    private final RateLimitStatistics statistics;
+    private final Throwable exceeded;
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param name the channel name
+     * @param permitsPerSecond the number of messages allowed per second, must be positive
+     * @param burst the number of messages allowed in a burst, must be positive
+     * @param policy the policy applied to the messages exceeding the rate limit
+     * @param scheduler the scheduler used to delay the requests with the {@code BLOCK} policy
+     */
+    public RateLimiter(String name, double permitsPerSecond, int burst, Policy policy,
+            ScheduledExecutorService scheduler) {
+        this.bucket = new TokenBucket(permitsPerSecond, burst);
+        this.policy = Objects.requireNonNull(policy);
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.statistics = new RateLimitStatistics(name, permitsPerSecond, burst, policy);
+        // Shared by the dropped messages, to not allocate a failure per message
+        this.exceeded = ex.illegalStateForRateLimitExceeded(name);
+    }
+
+    /**
+     * @return the statistics of the channel
+     */
+    public RateLimitStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Limits the rate of the given stream.
+     *
+     * @param upstream the stream
+     * @return the rate-limited stream
+     */
+    public Publisher<Message<?>> limit(Publisher<? extends Message<?>> upstream) {
+        Objects.requireNonNull(upstream);
+        return subscriber -> {
+            Objects.requireNonNull(subscriber);
+            upstream.subscribe(policy == Policy.BLOCK ? new Delaying(subscriber) : new Dropping(subscriber));
+        };
+    }
+
+    private abstract static class Operator implements Subscriber<Message<?>>, Subscription {
+
+        final Subscriber<? super Message<?>> downstream;
+        final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+        Operator(Subscriber<? super Message<?>> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (upstream.compareAndSet(null, subscription)) {
+                downstream.onSubscribe(this);
+            } else {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            Subscription subscription = upstream.getAndSet(Subscriptions.CANCELLED);
+            if (subscription != null && subscription != Subscriptions.CANCELLED) {
+                subscription.cancel();
+            }
+        }
+
+        boolean isInvalid(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(Subscriptions.getInvalidRequestException());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Requests the messages from the upstream as the permits are acquired.
+     */
+    private final class Delaying extends Operator implements Runnable {
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean scheduled;
+
+        // Only accessed by the drain loop
+        private long forwarded;
+        private long throttledSince = -1;
+
+        Delaying(Subscriber<? super Message<?>> downstream) {
+            super(downstream);
+        }
+
+        @Override
+        public void onNext(Message<?> message) {
+            downstream.onNext(message);
+        }
+
+        @Override
+        public void request(long n) {
+            if (isInvalid(n)) {
+                return;
+            }
+            Subscriptions.add(requested, n);
+            drain();
+        }
+
+        /**
+         * Called by the scheduler when the next permit is available.
+         */
+        @Override
+        public void run() {
+            scheduled = false;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            do {
+                Subscription subscription = upstream.get();
+                if (subscription == Subscriptions.CANCELLED) {
+                    return;
+                }
+                long demand = requested.get() - forwarded;
+                if (demand > 0) {
+                    long acquired = bucket.tryAcquire(demand);
+                    if (acquired > 0) {
+                        if (throttledSince != -1) {
+                            statistics.onThrottled(System.nanoTime() - throttledSince);
+                            throttledSince = -1;
+                        }
+                        forwarded += acquired;
+                        subscription.request(acquired);
+                    }
+                    if (acquired < demand && !scheduled) {
+                        if (throttledSince == -1) {
+                            throttledSince = System.nanoTime();
+                        }
+                        scheduled = true;
+                        scheduler.schedule(this, bucket.getTimeToNextPermit(), TimeUnit.NANOSECONDS);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    /**
+     * Drops the messages received when the bucket is empty.
+     */
+    private final class Dropping extends Operator {
+
+        Dropping(Subscriber<? super Message<?>> downstream) {
+            super(downstream);
+        }
+
+        @Override
+        public void onNext(Message<?> message) {
+            if (bucket.tryAcquire(1) == 1) {
+                downstream.onNext(message);
+            } else {
+                statistics.onDropped();
+                message.nack(exceeded);
+                // The downstream did not get the message, request another one
+                upstream.get().request(1);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (isInvalid(n)) {
+                return;
+            }
+            upstream.get().request(n);
+        }
+    }
+}
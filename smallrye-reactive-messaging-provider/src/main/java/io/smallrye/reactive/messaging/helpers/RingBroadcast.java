@@ -0,0 +1,316 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.helpers.Subscriptions;
+import io.smallrye.reactive.messaging.annotations.Broadcast.SlowSubscriberPolicy;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+/**
+ * Broadcasts the items of a publisher to several subscribers, each of them consuming a shared ring buffer at its own
+ * pace.
+ * <p>
+ * The items received from the upstream are stored once in the ring, and every subscriber has its own cursor in it.
+ * The items are requested from the upstream as long as the ring has room:
+ * <ul>
+ * <li>with the {@link SlowSubscriberPolicy#BLOCK} policy, the slowest subscriber sets the pace, as with the Mutiny
+ * broadcast, but the faster subscribers can be up to a whole ring ahead,</li>
+ * <li>with the other policies, the fastest subscriber sets the pace. When the upstream overruns the cursor of a slower
+ * subscriber, the oldest item it has not received is dropped ({@link SlowSubscriberPolicy#DROP_OLDEST}), or it
+ * receives a failure ({@link SlowSubscriberPolicy#DETACH}).</li>
+ * </ul>
+ * <p>
+ * The upstream is subscribed once the expected number of subscribers is reached. The subscribers joining afterwards
+ * only receive the items received from this point. The ring, the cursors and the deliveries are only accessed by the
+ * thread winning the {@code wip} counter, other threads only enqueue items, requests and new subscribers.
+ *
+ * @param <T> the type of item
+ */
+final class RingBroadcast<T> implements Publisher<T> {
+
+    private final Publisher<? extends T> upstream;
+    private final String name;
+    private final int numberOfSubscriberBeforeConnecting;
+    private final SlowSubscriberPolicy policy;
+    private final Iterable<StatisticsListener> listeners;
+
+    private final Object[] ring;
+    private final int mask;
+    private final int requestThreshold;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+    /**
+     * The items received from the upstream and not yet stored in the ring.
+     */
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<RingSubscription> joining = new ConcurrentLinkedQueue<>();
+
+    // Only accessed by the drain loop
+    private final List<RingSubscription> active = new ArrayList<>();
+    private long requested;
+
+    /**
+     * The sequence of the next item stored in the ring. Only written by the drain loop, read to compute the lag.
+     */
+    private volatile long tail;
+
+    private Throwable failure;
+    private volatile boolean done;
+
+    RingBroadcast(Publisher<? extends T> upstream, String name, int numberOfSubscriberBeforeConnecting,
+            int bufferSize, SlowSubscriberPolicy policy, Iterable<StatisticsListener> listeners) {
+        if (bufferSize <= 0 || bufferSize > 1 << 30) {
+            throw ex.illegalArgumentForBroadcastConfigValue(name, bufferSize, "buffer-size");
+        }
+        this.upstream = upstream;
+        this.name = name;
+        this.numberOfSubscriberBeforeConnecting = Math.max(numberOfSubscriberBeforeConnecting, 1);
+        this.policy = policy == null ? SlowSubscriberPolicy.BLOCK : policy;
+        this.listeners = listeners;
+        int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.ring = new Object[capacity];
+        this.mask = capacity - 1;
+        this.requestThreshold = Math.max(capacity >> 2, 1);
+    }
+
+    int capacity() {
+        return ring.length;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        int index = subscribers.getAndIncrement();
+        RingSubscription subscription = new RingSubscription(subscriber, index);
+        subscriber.onSubscribe(subscription);
+        if (listeners != null) {
+            for (StatisticsListener listener : listeners) {
+                listener.onStatistics(subscription.statistics);
+            }
+        }
+        joining.offer(subscription);
+        drain();
+
+        if (index + 1 >= numberOfSubscriberBeforeConnecting && connected.compareAndSet(false, true)) {
+            upstream.subscribe(new Upstream());
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            RingSubscription subscription;
+            while ((subscription = joining.poll()) != null) {
+                // Late subscribers do not receive the items already in the ring
+                subscription.cursor = tail;
+                active.add(subscription);
+            }
+            active.removeIf(s -> s.cancelled || s.terminated);
+
+            // Read before storing the pending items, so no item is pending when the completion is propagated
+            boolean completed = done;
+            T item;
+            while ((item = pending.peek()) != null && store(item)) {
+                pending.poll();
+            }
+            completed = completed && pending.isEmpty();
+
+            long t = tail;
+            for (RingSubscription s : active) {
+                s.deliver(t, completed);
+            }
+
+            requestUpstream();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Stores an item in the ring, applying the policy to the subscribers whose next item is overwritten.
+     *
+     * @param item the item
+     * @return {@code false} if the item cannot be stored without overrunning a blocking subscriber
+     */
+    private boolean store(T item) {
+        long t = tail;
+        for (RingSubscription s : active) {
+            if (s.terminated || s.cancelled || t - s.cursor < ring.length) {
+                continue;
+            }
+            switch (policy) {
+                case DROP_OLDEST:
+                    s.cursor++;
+                    s.statistics.onDropped();
+                    break;
+                case DETACH:
+                    s.detach(ring.length);
+                    break;
+                default:
+                    // Only happens if the upstream does not respect the requests, wait for the subscriber
+                    return false;
+            }
+        }
+        ring[(int) t & mask] = item;
+        tail = t + 1;
+        return true;
+    }
+
+    private void requestUpstream() {
+        Subscription upstream = subscription.get();
+        if (upstream == null || done) {
+            return;
+        }
+        long bound = -1;
+        for (RingSubscription s : active) {
+            if (s.terminated || s.cancelled) {
+                continue;
+            }
+            if (bound == -1) {
+                bound = s.cursor;
+            } else if (policy == SlowSubscriberPolicy.BLOCK) {
+                bound = Math.min(bound, s.cursor);
+            } else {
+                bound = Math.max(bound, s.cursor);
+            }
+        }
+        if (bound == -1) {
+            // No subscriber, do not request items nobody would receive
+            return;
+        }
+        long free = ring.length - (requested - bound);
+        if (free >= requestThreshold) {
+            requested += free;
+            upstream.request(free);
+        }
+    }
+
+    private class Upstream implements Subscriber<T> {
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (subscription.compareAndSet(null, s)) {
+                drain();
+            } else {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            pending.offer(item);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+    }
+
+    private class RingSubscription implements Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final BroadcastStatistics statistics;
+        private final AtomicLong requests = new AtomicLong();
+
+        // Only accessed by the drain loop, except the cursor, read to compute the lag
+        private volatile long cursor = -1;
+        private long emitted;
+        private boolean terminated;
+
+        private volatile boolean cancelled;
+
+        private RingSubscription(Subscriber<? super T> downstream, int index) {
+            this.downstream = downstream;
+            this.statistics = new BroadcastStatistics(name, index, policy, this::lag);
+        }
+
+        private long lag() {
+            long c = cursor;
+            if (c < 0 || cancelled || terminated) {
+                return 0;
+            }
+            return Math.max(tail - c, 0);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(Subscriptions.getInvalidRequestException());
+                return;
+            }
+            Subscriptions.add(requests, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliver(long tail, boolean completed) {
+            if (terminated) {
+                return;
+            }
+            long r = requests.get();
+            long e = emitted;
+            long c = cursor;
+            while (e != r && c != tail) {
+                if (cancelled) {
+                    return;
+                }
+                T item = (T) ring[(int) c & mask];
+                cursor = ++c;
+                downstream.onNext(item);
+                e++;
+            }
+            emitted = e;
+            if (completed && c == tail && !cancelled) {
+                terminated = true;
+                if (failure != null) {
+                    downstream.onError(failure);
+                } else {
+                    downstream.onComplete();
+                }
+            }
+        }
+
+        private void detach(int lag) {
+            terminated = true;
+            statistics.onDetached();
+            downstream.onError(ex.illegalStateForSlowSubscriber(statistics.getSubscriber(), name, lag));
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+/**
+ * A FIFO queue of messages whose payloads are stored in memory-mapped, append-only segment files, used by the emitters
+ * to overflow their in-memory buffer.
+ * <p>
+ * The payloads are encoded (byte arrays and strings as is, other payloads using the Java serialization) and appended
+ * to the last segment, a new segment being created when it is full. The metadata which can be serialized, and whose
+ * class is allowed, is written with the payload. A segment is deleted once all its messages have been read and
+ * acknowledged (positively or negatively).
+ * <p>
+ * The acknowledgement functions and the other metadata of the messages cannot be written. They stay in memory, and are
+ * attached again to the messages when they are read, for at most a given number of messages, so the heap does not grow
+ * with the number of spilled messages. Beyond this number, the messages are acknowledged once written, as they
+ * survive a crash of the application from then on, and their metadata which cannot be written is dropped.
+ * <p>
+ * The segments left by a previous run, for example when the application stopped before the downstream consumed all
+ * the messages, are read first. Their messages only have the written metadata, and their acknowledgement only deletes
+ * the segment. As the segments are deleted once all their messages are acknowledged, some of these messages may have
+ * already been processed.
+ * <p>
+ * The files are flushed when the queue is closed, and otherwise written back by the operating system, so the messages
+ * survive a crash of the application, but not of the machine.
+ * <p>
+ * The directory is locked while the queue is open, so two applications cannot use the same directory. Only the classes
+ * of an allow-list can be deserialized: the boxed primitive types, {@code String}, {@code BigInteger},
+ * {@code BigDecimal}, {@code Enum}, and the classes matching the given patterns.
+ */
+public final class SpillQueue implements Closeable {
+
+    /**
+     * The default maximum number of spilled messages whose acknowledgement functions are kept in memory.
+     */
+    public static final int DEFAULT_MAX_IN_MEMORY = 10_000;
+
+    private static final String SUFFIX = ".seg";
+    private static final String LOCK = "spill.lock";
+    private static final byte IN_MEMORY = 1;
+    private static final int RECORD_HEADER = Byte.BYTES + Integer.BYTES;
+    private static final byte BYTES = 0;
+    private static final byte STRING = 1;
+    private static final byte SERIALIZED = 2;
+
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+            Boolean.class.getName(), Byte.class.getName(), Character.class.getName(), Short.class.getName(),
+            Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName(),
+            Number.class.getName(), String.class.getName(), Enum.class.getName(), BigInteger.class.getName(),
+            BigDecimal.class.getName()));
+
+    private final String name;
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final int maxInMemory;
+    private final SpillStatistics statistics;
+    private final Collection<String> allowedClasses;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    // Guarded by this
+    private final List<SpillSegment> segments = new ArrayList<>();
+    private final Deque<SpillSegment> unread = new ArrayDeque<>();
+    private final Deque<Envelope> envelopes = new ArrayDeque<>();
+    private SpillSegment tail;
+    private long sequence;
+
+    // Written under the lock, read by the metrics
+    private volatile long diskUsage;
+    private volatile long pending;
+
+    /**
+     * Opens a queue, reading the segments left in the directory by a previous run.
+     *
+     * @param name the channel name
+     * @param directory the directory of the segments, created if it does not exist
+     * @param segmentSize the size of the segments, in bytes, a larger segment being created for the messages which
+     *        do not fit
+     * @param maxSize the maximum size of the segments, in bytes, must be greater than or equal to the segment size
+     * @throws IOException if the directory cannot be created or listed, or is used by another queue
+     */
+    public SpillQueue(String name, Path directory, int segmentSize, long maxSize) throws IOException {
+        this(name, directory, segmentSize, maxSize, Collections.emptyList(), DEFAULT_MAX_IN_MEMORY);
+    }
+
+    /**
+     * Opens a queue, reading the segments left in the directory by a previous run.
+     *
+     * @param name the channel name
+     * @param directory the directory of the segments, created if it does not exist
+     * @param segmentSize the size of the segments, in bytes, a larger segment being created for the messages which
+     *        do not fit
+     * @param maxSize the maximum size of the segments, in bytes, must be greater than or equal to the segment size
+     * @param allowedClasses the classes, in addition to the default ones, which can be deserialized, see
+     *        {@link #SpillQueue(String, Path, int, long, Collection, int)}
+     * @throws IOException if the directory cannot be created or listed, or is used by another queue
+     */
+    public SpillQueue(String name, Path directory, int segmentSize, long maxSize, Collection<String> allowedClasses)
+            throws IOException {
+        this(name, directory, segmentSize, maxSize, allowedClasses, DEFAULT_MAX_IN_MEMORY);
+    }
+
+    /**
+     * Opens a queue, reading the segments left in the directory by a previous run.
+     *
+     * @param name the channel name
+     * @param directory the directory of the segments, created if it does not exist
+     * @param segmentSize the size of the segments, in bytes, a larger segment being created for the messages which
+     *        do not fit
+     * @param maxSize the maximum size of the segments, in bytes, must be greater than or equal to the segment size
+     * @param allowedClasses the classes, in addition to the default ones, which can be deserialized: a class name, a
+     *        package followed by {@code .*} for the classes of the package, or by {@code .**} for the classes of the
+     *        package and of its sub-packages
+     * @param maxInMemory the maximum number of spilled messages whose acknowledgement functions and metadata which
+     *        cannot be written are kept in memory, the next messages being acknowledged once written
+     * @throws IOException if the directory cannot be created or listed, or is used by another queue
+     */
+    public SpillQueue(String name, Path directory, int segmentSize, long maxSize, Collection<String> allowedClasses,
+            int maxInMemory) throws IOException {
+        if (segmentSize <= SpillSegment.HEADER + SpillSegment.RECORD_HEADER + RECORD_HEADER || maxSize < segmentSize) {
+            throw new IllegalArgumentException("The segment size must be greater than "
+                    + (SpillSegment.HEADER + SpillSegment.RECORD_HEADER + RECORD_HEADER)
+                    + " bytes and the maximum size greater than or equal to the segment size");
+        }
+        if (maxInMemory < 0) {
+            throw new IllegalArgumentException("The maximum number of messages kept in memory must be positive or 0");
+        }
+        this.name = name;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        this.maxInMemory = maxInMemory;
+        this.statistics = new SpillStatistics(name, this);
+        this.allowedClasses = allowedClasses;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException("The spill directory " + directory + " is used by another application");
+        }
+        this.lock = acquired;
+        try {
+            recover();
+        } catch (IOException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            try {
+                sequence = Math.max(sequence, Long.parseLong(fileName.substring(0, fileName.length() - SUFFIX.length())) + 1);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            SpillSegment segment;
+            try {
+                segment = SpillSegment.recover(file);
+            } catch (IOException e) {
+                log.unableToReadSpilledMessage(name, e);
+                continue;
+            }
+            if (!segment.hasUnread()) {
+                delete(segment);
+                continue;
+            }
+            segments.add(segment);
+            unread.add(segment);
+            diskUsage += segment.size();
+            pending += segment.getUnread();
+        }
+        if (pending > 0) {
+            log.recoveredSpilledMessages(pending, name);
+        }
+    }
+
+    /**
+     * @return the statistics of the queue
+     */
+    public SpillStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return whether all the spilled messages have been read
+     */
+    public boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /**
+     * Appends a message. If the maximum number of messages kept in memory is reached, the message is acknowledged once
+     * written, outside of the lock of the queue.
+     *
+     * @param message the message
+     * @throws IllegalStateException if the payload cannot be encoded, the segments would exceed the maximum size, or
+     *         the segment cannot be written
+     */
+    public void append(Message<?> message) {
+        boolean written;
+        synchronized (this) {
+            written = write(message);
+        }
+        if (written) {
+            message.ack();
+        }
+    }
+
+    /**
+     * @return {@code true} if the message is not kept in memory, and must be acknowledged
+     */
+    private boolean write(Message<?> message) {
+        boolean inMemory = envelopes.size() < maxInMemory;
+        List<Object> unwritten = new ArrayList<>();
+        byte[] record = encode(message, inMemory, unwritten);
+        long now = System.currentTimeMillis();
+        if (tail == null || !tail.append(record, now)) {
+            if (tail != null) {
+                seal(tail);
+            }
+            int size = Math.max(segmentSize, SpillSegment.HEADER + SpillSegment.RECORD_HEADER + record.length);
+            if (diskUsage + size > maxSize) {
+                tail = null;
+                // Same failure as when the buffer of the BUFFER strategy is full
+                throw ex.illegalStateInsufficientDownstreamRequests();
+            }
+            try {
+                tail = SpillSegment.create(directory.resolve(String.format("%020d%s", sequence++, SUFFIX)), size);
+            } catch (IOException e) {
+                tail = null;
+                throw ex.illegalStateUnableToSpill(name, e);
+            }
+            segments.add(tail);
+            unread.add(tail);
+            diskUsage += size;
+            tail.append(record, now);
+        }
+        if (inMemory) {
+            envelopes.add(new Envelope(message, unwritten));
+        }
+        pending++;
+        statistics.onSpilled();
+        if (!inMemory) {
+            statistics.onAcknowledgedOnSpill();
+        }
+        return !inMemory;
+    }
+
+    /**
+     * Reads the oldest message. The messages which cannot be decoded are dropped, after being negatively acknowledged.
+     *
+     * @return the message, {@code null} if the queue is empty
+     */
+    public synchronized Message<?> poll() {
+        SpillSegment segment;
+        while ((segment = unread.peek()) != null) {
+            byte[] record = segment.read();
+            pending--;
+            Envelope envelope = segment.isRecovered() || record[0] != IN_MEMORY ? null : envelopes.poll();
+            if (!segment.hasUnread()) {
+                // Fully read, seal it so it is deleted once acknowledged
+                unread.poll();
+                if (segment == tail) {
+                    tail = null;
+                }
+                segment.seal();
+            }
+            Release release = new Release(segment);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                int length = buffer.getInt(Byte.BYTES);
+                Object decoded = decode(record, RECORD_HEADER, length);
+                List<Object> metadata = decodeMetadata(buffer, RECORD_HEADER + length);
+                if (envelope == null) {
+                    return Message.of(decoded, Metadata.from(metadata), release.ack(null), release.nack(null));
+                }
+                metadata.addAll(envelope.metadata);
+                return Message.of(decoded, Metadata.from(metadata), release.ack(envelope.ack),
+                        release.nack(envelope.nack));
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                log.unableToReadSpilledMessage(name, e);
+                release.run();
+                if (envelope != null) {
+                    envelope.nack.apply(e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private synchronized void release(SpillSegment segment) {
+        segment.release();
+        if (segment.isDone()) {
+            delete(segment);
+        }
+    }
+
+    private void seal(SpillSegment segment) {
+        segment.seal();
+        if (segment.isDone()) {
+            delete(segment);
+        }
+    }
+
+    private void delete(SpillSegment segment) {
+        if (segments.remove(segment)) {
+            diskUsage -= segment.size();
+        }
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.unableToDeleteSpillSegment(segment.getPath().toString(), e);
+        }
+    }
+
+    /**
+     * @return the number of messages spilled and not read yet
+     */
+    long getPending() {
+        return pending;
+    }
+
+    /**
+     * @return the size of the segments, in bytes
+     */
+    long getDiskUsage() {
+        return diskUsage;
+    }
+
+    /**
+     * @return the number of spilled messages not read yet whose acknowledgement functions are kept in memory
+     */
+    synchronized int getInMemory() {
+        return envelopes.size();
+    }
+
+    /**
+     * @return the time since the oldest message not read yet has been spilled, in milliseconds, 0 if none
+     */
+    synchronized long getLag() {
+        SpillSegment segment = unread.peek();
+        if (segment == null) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - segment.peekTimestamp());
+    }
+
+    /**
+     * Flushes and closes the segments, and unlocks the directory. The segments which still contain messages not read,
+     * or not acknowledged, are kept, and read again by the next queue opened on the same directory.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (SpillSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            failure = e;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Encodes a record: a flag indicating whether the message is kept in memory, the length of the encoded payload, the
+     * encoded payload, and the written metadata, each preceded by its length.
+     *
+     * @param message the message
+     * @param inMemory whether the message is kept in memory
+     * @param unwritten receives the metadata which cannot be written
+     * @return the record
+     */
+    private byte[] encode(Message<?> message, boolean inMemory, List<Object> unwritten) {
+        byte[] payload = encode(message.getPayload());
+        List<byte[]> written = new ArrayList<>();
+        int size = RECORD_HEADER + payload.length;
+        for (Object metadata : message.getMetadata()) {
+            byte[] serialized = serialize(metadata);
+            if (serialized == null) {
+                unwritten.add(metadata);
+            } else {
+                written.add(serialized);
+                size += Integer.BYTES + serialized.length;
+            }
+        }
+        ByteBuffer record = ByteBuffer.allocate(size);
+        record.put(inMemory ? IN_MEMORY : 0).putInt(payload.length).put(payload);
+        for (byte[] serialized : written) {
+            record.putInt(serialized.length).put(serialized);
+        }
+        return record.array();
+    }
+
+    /**
+     * @return the serialized metadata, {@code null} if it cannot be serialized or its class is not allowed
+     */
+    private byte[] serialize(Object metadata) {
+        if (!(metadata instanceof Serializable) || !isAllowed(metadata.getClass().getName())) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+            stream.writeObject(metadata);
+        } catch (IOException e) {
+            // For example, a field is not serializable
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    private List<Object> decodeMetadata(ByteBuffer record, int position) {
+        List<Object> metadata = new ArrayList<>();
+        while (position < record.capacity()) {
+            int length = record.getInt(position);
+            position += Integer.BYTES;
+            try (ObjectInputStream stream = new AllowListObjectInputStream(
+                    new ByteArrayInputStream(record.array(), position, length))) {
+                metadata.add(stream.readObject());
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                log.unableToReadSpilledMetadata(name, e);
+            }
+            position += length;
+        }
+        return metadata;
+    }
+
+    private byte[] encode(Object payload) {
+        if (payload instanceof byte[]) {
+            byte[] bytes = (byte[]) payload;
+            byte[] encoded = new byte[bytes.length + 1];
+            encoded[0] = BYTES;
+            System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+            return encoded;
+        }
+        if (payload instanceof String) {
+            byte[] bytes = ((String) payload).getBytes(StandardCharsets.UTF_8);
+            byte[] encoded = new byte[bytes.length + 1];
+            encoded[0] = STRING;
+            System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+            return encoded;
+        }
+        if (payload instanceof Serializable) {
+            if (!isAllowed(payload.getClass().getName())) {
+                // Would not be read back
+                throw ex.illegalStateUnableToSpill(name,
+                        new InvalidClassException(payload.getClass().getName(), "Not allowed to be deserialized"));
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(SERIALIZED);
+            try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+                stream.writeObject(payload);
+            } catch (IOException e) {
+                throw ex.illegalStateUnableToSpill(name, e);
+            }
+            return out.toByteArray();
+        }
+        throw ex.illegalStateUnableToSpill(name, new NotSerializableException(payload.getClass().getName()));
+    }
+
+    /**
+     * Checks whether the given class can be deserialized.
+     *
+     * @param className the class name, as returned by {@link Class#getName()}
+     * @return {@code true} if the class is allowed
+     */
+    boolean isAllowed(String className) {
+        String element = className;
+        while (element.startsWith("[")) {
+            element = element.substring(1);
+        }
+        if (element.length() == 1) {
+            // Array of primitive types
+            return true;
+        }
+        if (element.startsWith("L") && element.endsWith(";")) {
+            element = element.substring(1, element.length() - 1);
+        }
+        if (ALLOWED_CLASSES.contains(element)) {
+            return true;
+        }
+        int separator = element.lastIndexOf('.');
+        String pkg = separator == -1 ? "" : element.substring(0, separator);
+        for (String pattern : allowedClasses) {
+            if (pattern.endsWith(".**")) {
+                String prefix = pattern.substring(0, pattern.length() - 3);
+                if (pkg.equals(prefix) || pkg.startsWith(prefix + ".")) {
+                    return true;
+                }
+            } else if (pattern.endsWith(".*")) {
+                if (pkg.equals(pattern.substring(0, pattern.length() - 2))) {
+                    return true;
+                }
+            } else if (pattern.equals(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object decode(byte[] record, int offset, int length) throws IOException, ClassNotFoundException {
+        switch (record[offset]) {
+            case BYTES:
+                return Arrays.copyOfRange(record, offset + 1, offset + length);
+            case STRING:
+                return new String(record, offset + 1, length - 1, StandardCharsets.UTF_8);
+            case SERIALIZED:
+                try (ObjectInputStream stream = new AllowListObjectInputStream(
+                        new ByteArrayInputStream(record, offset + 1, length - 1))) {
+                    return stream.readObject();
+                }
+            default:
+                throw new IOException("Unknown spilled payload encoding: " + record[offset]);
+        }
+    }
+
+    /**
+     * The part of a spilled message kept in memory: the acknowledgement functions and the metadata which cannot be
+     * written.
+     */
+    private static final class Envelope {
+        private final List<Object> metadata;
+        private final Supplier<CompletionStage<Void>> ack;
+        private final Function<Throwable, CompletionStage<Void>> nack;
+
+        private Envelope(Message<?> message, List<Object> metadata) {
+            this.metadata = metadata;
+            this.ack = message.getAck();
+            this.nack = message.getNack();
+        }
+    }
+
+    /**
+     * Releases the segment of a message once, when it is acknowledged or negatively acknowledged.
+     */
+    private final class Release extends AtomicBoolean implements Runnable {
+        private final SpillSegment segment;
+
+        private Release(SpillSegment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public void run() {
+            if (compareAndSet(false, true)) {
+                release(segment);
+            }
+        }
+
+        Supplier<CompletionStage<Void>> ack(Supplier<CompletionStage<Void>> ack) {
+            return () -> {
+                run();
+                return ack == null ? CompletableFuture.completedFuture(null) : ack.get();
+            };
+        }
+
+        Function<Throwable, CompletionStage<Void>> nack(Function<Throwable, CompletionStage<Void>> nack) {
+            return reason -> {
+                run();
+                return nack == null ? CompletableFuture.completedFuture(null) : nack.apply(reason);
+            };
+        }
+    }
+
+    /**
+     * Rejects the classes which are not allowed before loading them, and resolves the classes of the deserialized
+     * payloads using the thread context class loader, if any.
+     */
+    private final class AllowListObjectInputStream extends ObjectInputStream {
+
+        private AllowListObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException(Arrays.toString(interfaces), "Proxies are not allowed to be deserialized");
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Not allowed to be deserialized");
+            }
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, loader);
+                } catch (ClassNotFoundException e) {
+                    // Fall back to the default resolution
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only file of spilled messages, mapped in memory.
+ * <p>
+ * The file starts with a magic number, followed by the records: the length of the encoded message (strictly positive),
+ * the time at which it has been spilled, in milliseconds, and the encoded message. The length is written last, and the
+ * unwritten part of the file is filled with zeros, so the records written before a crash can be recovered.
+ * <p>
+ * A segment counts the records written, read, and released (acknowledged). Once sealed, no more records are written,
+ * and the segment can be deleted when all its records have been released. The segment is not thread-safe.
+ */
+final class SpillSegment {
+
+    static final int MAGIC = 0x736d7371;
+    static final int HEADER = Integer.BYTES;
+    static final int RECORD_HEADER = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer writer;
+    private final ByteBuffer reader;
+    private final boolean recovered;
+
+    private int writePosition = HEADER;
+    private int readPosition = HEADER;
+    private int written;
+    private int read;
+    private int released;
+    private boolean sealed;
+
+    private SpillSegment(Path path, FileChannel channel, MappedByteBuffer buffer, boolean recovered) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        // The casts keep the Java 8 signatures, ByteBuffer and MappedByteBuffer override these methods since Java 9
+        this.writer = ((ByteBuffer) buffer).duplicate();
+        this.reader = ((ByteBuffer) buffer).duplicate();
+        this.recovered = recovered;
+    }
+
+    /**
+     * Creates a new segment.
+     *
+     * @param path the file, must not exist
+     * @param size the size of the file
+     * @return the segment
+     * @throws IOException if the file cannot be created or mapped
+     */
+    static SpillSegment create(Path path, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            return new SpillSegment(path, channel, buffer, false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a segment written by a previous run. The segment is sealed, its records are available for reading.
+     *
+     * @param path the file
+     * @return the segment
+     * @throws IOException if the file cannot be mapped, or is not a segment
+     */
+    static SpillSegment recover(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < HEADER || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid spill segment " + path + ", found " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Invalid spill segment " + path + ", the magic number does not match");
+            }
+            SpillSegment segment = new SpillSegment(path, channel, buffer, true);
+            segment.scan();
+            segment.sealed = true;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void scan() {
+        int position = HEADER;
+        while (buffer.capacity() - position >= RECORD_HEADER) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER) {
+                break;
+            }
+            position += RECORD_HEADER + length;
+            written++;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param payload the encoded message, must not be empty
+     * @param timestamp the current time, in milliseconds
+     * @return {@code false} if the segment is sealed or does not have enough room left
+     */
+    boolean append(byte[] payload, long timestamp) {
+        if (sealed || buffer.capacity() - writePosition < RECORD_HEADER + payload.length) {
+            return false;
+        }
+        ((Buffer) writer).position(writePosition + RECORD_HEADER);
+        writer.put(payload);
+        buffer.putLong(writePosition + Integer.BYTES, timestamp);
+        // Written last, so a partially written record is ignored on recovery
+        buffer.putInt(writePosition, payload.length);
+        writePosition += RECORD_HEADER + payload.length;
+        written++;
+        return true;
+    }
+
+    /**
+     * @return whether some records have not been read yet
+     */
+    boolean hasUnread() {
+        return read < written;
+    }
+
+    /**
+     * @return the number of records not read yet
+     */
+    int getUnread() {
+        return written - read;
+    }
+
+    /**
+     * @return the time at which the next record to read has been spilled, must only be called if
+     *         {@link #hasUnread()} returns {@code true}
+     */
+    long peekTimestamp() {
+        return buffer.getLong(readPosition + Integer.BYTES);
+    }
+
+    /**
+     * Reads the next record, must only be called if {@link #hasUnread()} returns {@code true}.
+     *
+     * @return the encoded message
+     */
+    byte[] read() {
+        int length = buffer.getInt(readPosition);
+        byte[] payload = new byte[length];
+        ((Buffer) reader).position(readPosition + RECORD_HEADER);
+        reader.get(payload);
+        readPosition += RECORD_HEADER + length;
+        read++;
+        return payload;
+    }
+
+    /**
+     * Records that a record read from this segment has been acknowledged.
+     */
+    void release() {
+        released++;
+    }
+
+    /**
+     * Prevents more records from being written.
+     */
+    void seal() {
+        sealed = true;
+    }
+
+    /**
+     * @return whether the segment is sealed and all its records have been released, so it can be deleted
+     */
+    boolean isDone() {
+        return sealed && released == written;
+    }
+
+    /**
+     * @return whether the segment has been written by a previous run
+     */
+    boolean isRecovered() {
+        return recovered;
+    }
+
+    /**
+     * @return the size of the file, in bytes
+     */
+    long size() {
+        return buffer.capacity();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flushes and closes the file. The records can still be read, as the mapping stays valid until the segment is
+     * garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    void close() throws IOException {
+        if (channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Closes and deletes the file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+}
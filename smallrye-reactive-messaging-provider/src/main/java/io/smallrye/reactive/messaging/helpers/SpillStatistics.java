@@ -0,0 +1,123 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of an emitter using the {@code SPILL} overflow strategy.
+ * <p>
+ * The <em>pending</em> messages are the messages written to the spill directory and not sent downstream yet, and the
+ * <em>lag</em> is the time since the oldest of them has been spilled. The <em>disk usage</em> also includes the
+ * segments whose messages have been sent downstream but not all acknowledged yet. The messages <em>in memory</em> are
+ * the pending messages whose acknowledgement functions are kept in memory, the next messages being
+ * <em>acknowledged on spill</em>.
+ */
+public class SpillStatistics implements Statistics {
+
+    /**
+     * The type of the spill statistics, tagged with the {@code channel} name.
+     */
+    public static final String TYPE = "spill";
+
+    private final String name;
+    private final SpillQueue queue;
+
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder acknowledgedOnSpill = new LongAdder();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    SpillStatistics(String name, SpillQueue queue) {
+        this.name = name;
+        this.queue = queue;
+        this.tags = Collections.singletonMap("channel", name);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.counter("spilled", Measurement.NONE, spilled),
+                Measurement.counter("acknowledged-on-spill", Measurement.NONE, acknowledgedOnSpill),
+                Measurement.gauge("in-memory", Measurement.NONE, this::getInMemory),
+                Measurement.gauge("disk-usage", Measurement.BYTES, this::getDiskUsage),
+                Measurement.gauge("pending", Measurement.NONE, this::getPending),
+                Measurement.gauge("lag", Measurement.MILLISECONDS, this::getLag)));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the channel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of messages spilled since the emitter has been created
+     */
+    public long getSpilled() {
+        return spilled.sum();
+    }
+
+    /**
+     * @return the number of messages acknowledged when spilled, as the maximum number of messages kept in memory was
+     *         reached
+     */
+    public long getAcknowledgedOnSpill() {
+        return acknowledgedOnSpill.sum();
+    }
+
+    /**
+     * @return the number of pending messages whose acknowledgement functions are kept in memory
+     */
+    public long getInMemory() {
+        return queue.getInMemory();
+    }
+
+    /**
+     * @return the number of spilled messages not sent downstream yet
+     */
+    public long getPending() {
+        return queue.getPending();
+    }
+
+    /**
+     * @return the time since the oldest pending message has been spilled, in milliseconds, 0 if there are no pending
+     *         messages
+     */
+    public long getLag() {
+        return queue.getLag();
+    }
+
+    /**
+     * @return the size of the segment files, in bytes
+     */
+    public long getDiskUsage() {
+        return queue.getDiskUsage();
+    }
+
+    void onSpilled() {
+        spilled.increment();
+    }
+
+    void onAcknowledgedOnSpill() {
+        acknowledgedOnSpill.increment();
+    }
+}
@@ -0,0 +1,65 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, refilled with {@code permitsPerSecond} permits per second and holding at most {@code burst}
+ * permits.
+ * <p>
+ * Instead of a number of tokens updated by a refill task, the bucket only stores the (virtual) time at which it was
+ * empty: the number of available permits is the time elapsed since then divided by the interval between two permits,
+ * capped to the burst. So acquiring permits is a single compare-and-set, without allocation.
+ */
+public final class TokenBucket {
+
+    private final long interval;
+    private final long capacity;
+
+    /**
+     * The time at which the bucket was empty, in {@link System#nanoTime()} units.
+     */
+    private final AtomicLong empty;
+
+    /**
+     * Creates a new bucket, initially full.
+     *
+     * @param permitsPerSecond the number of permits added per second, must be positive
+     * @param burst the maximum number of permits in the bucket, must be positive
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacity = interval * burst;
+        this.empty = new AtomicLong(System.nanoTime() - capacity);
+    }
+
+    /**
+     * Acquires up to {@code max} permits, without waiting.
+     *
+     * @param max the maximum number of permits to acquire
+     * @return the number of permits acquired, {@code 0} if the bucket is empty
+     */
+    public long tryAcquire(long max) {
+        for (;;) {
+            long now = System.nanoTime();
+            long current = empty.get();
+            // Do not accumulate more than the burst
+            long base = Math.max(current, now - capacity);
+            long available = (now - base) / interval;
+            if (available <= 0) {
+                return 0;
+            }
+            long acquired = Math.min(available, max);
+            if (empty.compareAndSet(current, base + acquired * interval)) {
+                return acquired;
+            }
+        }
+    }
+
+    /**
+     * @return the time until the next permit is available, in nanoseconds, {@code 0} if a permit is available
+     */
+    public long getTimeToNextPermit() {
+        return Math.max(0, empty.get() + interval - System.nanoTime());
+    }
+}
@@ -0,0 +1,113 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded concurrent cache of the results computed on a pair of types.
+ * <p>
+ * The pairs are compared with {@code equals}, as reflection creates new generic type instances for each copy of a
+ * member, so the beans of a large application declaring the same signatures share their entries. The hash of a pair
+ * is computed once, when the key is created, and the types are compared by identity before calling {@code equals},
+ * which is recursive for the generic types.
+ * <p>
+ * When the cache is full, an arbitrary entry is evicted before storing the new one, so a burst of new pairs does not
+ * discard the whole cache. The number of distinct pairs of an application is usually far below the limit, so the
+ * eviction only guards against unbounded growth (for example, types created dynamically).
+ *
+ * @param <V> the type of the cached values, must not be {@code null}
+ */
+final class TypeCache<V> {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<Key, V> entries;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of entries, {@code 0} to disable the cache
+     */
+    TypeCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(Math.max(maxSize, 0), 256));
+    }
+
+    /**
+     * Gets the value associated with the given pair of types, computing it if needed.
+     *
+     * @param from the first type, must not be {@code null}
+     * @param to the second type, must not be {@code null}
+     * @param function the function computing the value, called outside of any lock, so possibly concurrently
+     * @return the value
+     */
+    V get(Type from, Type to, BiFunction<Type, Type, V> function) {
+        if (maxSize <= 0) {
+            return function.apply(from, to);
+        }
+        Key key = new Key(from, to);
+        V value = entries.get(key);
+        if (value == null) {
+            // Not using computeIfAbsent, as the function may use the cache recursively
+            value = function.apply(from, to);
+            if (entries.size() >= maxSize) {
+                evict();
+            }
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    private void evict() {
+        Iterator<Key> iterator = entries.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private static final class Key {
+        private final Type from;
+        private final Type to;
+        private final int hash;
+
+        private Key(Type from, Type to) {
+            this.from = from;
+            this.to = to;
+            this.hash = 31 * from.hashCode() + to.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && (from == other.from || from.equals(other.from))
+                    && (to == other.to || to.equals(other.to));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return from + " -> " + to;
+        }
+    }
+}
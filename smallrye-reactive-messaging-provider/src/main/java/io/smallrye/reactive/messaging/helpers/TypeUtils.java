@@ -14,6 +14,23 @@ import java.util.*;
  */
 public class TypeUtils {
 
+    /**
+     * System property configuring the maximum number of entries of the assignability and type argument caches.
+     * {@code 0} disables the caches.
+     */
+    public static final String CACHE_SIZE_PROPERTY = "smallrye-messaging-type-cache-size";
+
+    private static final int CACHE_SIZE = Integer.getInteger(CACHE_SIZE_PROPERTY, 4096);
+
+    private static final TypeCache<Boolean> ASSIGNABLE = new TypeCache<>(CACHE_SIZE);
+
+    private static final TypeCache<Map<TypeVariable<?>, Type>> TYPE_ARGUMENTS = new TypeCache<>(CACHE_SIZE);
+
+    /**
+     * Marks the pairs of types for which there are no type arguments, as the cache does not support {@code null}.
+     */
+    private static final Map<TypeVariable<?>, Type> NOT_ASSIGNABLE = Collections.unmodifiableMap(new HashMap<>());
+
     private TypeUtils() {
         // Avoid direct instantiation.
     }
@@ -22,13 +39,32 @@ public class TypeUtils {
      * <p>
      * Checks if the subject type may be implicitly cast to the target type
      * following the Java generics rules.
+     * </p>
+     * <p>
+     * The result is cached, so this method can be called on the message path (for example, by the message converters).
+     * </p>
      *
      * @param type the subject type to be assigned to the target type
      * @param toType the target type
      * @return {@code true} if {@code type} is assignable to {@code toType}.
      */
     public static boolean isAssignable(final Type type, final Type toType) {
-        return isAssignable(type, toType, null);
+        if (type == null || toType == null || type == toType) {
+            return isAssignable(type, toType, null);
+        }
+        return ASSIGNABLE.get(type, toType, (from, to) -> isAssignable(from, to, null));
+    }
+
+    /**
+     * Clears the assignability and type argument caches, releasing the references to the cached types.
+     */
+    public static void clearCache() {
+        ASSIGNABLE.clear();
+        TYPE_ARGUMENTS.clear();
+    }
+
+    static int cacheSize() {
+        return ASSIGNABLE.size() + TYPE_ARGUMENTS.size();
     }
 
     /**
@@ -164,7 +200,7 @@ public class TypeUtils {
         final Class<?> toClass = getRawType(toParameterizedType);
         // get the subject type's type arguments including owner type arguments
         // and supertype arguments up to and including the target class.
-        final Map<TypeVariable<?>, Type> fromTypeVarAssigns = getTypeArguments(type, toClass, null);
+        final Map<TypeVariable<?>, Type> fromTypeVarAssigns = getTypeArguments(type, toClass);
 
         // null means the two types are not compatible
         if (fromTypeVarAssigns == null) {
@@ -509,10 +545,18 @@ public class TypeUtils {
      *        on the subtype {@code type}
      * @return a {@code Map} of the type assignments for the type variables in
      *         each type in the inheritance hierarchy from {@code type} to
-     *         {@code toClass} inclusive.
+     *         {@code toClass} inclusive. The returned map is cached, and so
+     *         cannot be modified.
      */
     static Map<TypeVariable<?>, Type> getTypeArguments(final Type type, final Class<?> toClass) {
-        return getTypeArguments(type, toClass, null);
+        if (type == null || toClass == null) {
+            return getTypeArguments(type, toClass, null);
+        }
+        Map<TypeVariable<?>, Type> arguments = TYPE_ARGUMENTS.get(type, toClass, (from, to) -> {
+            Map<TypeVariable<?>, Type> computed = getTypeArguments(from, (Class<?>) to, null);
+            return computed == null ? NOT_ASSIGNABLE : Collections.unmodifiableMap(computed);
+        });
+        return arguments == NOT_ASSIGNABLE ? null : arguments;
     }
 
     /**
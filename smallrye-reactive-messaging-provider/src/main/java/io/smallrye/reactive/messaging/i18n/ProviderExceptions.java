@@ -5,6 +5,7 @@ import java.lang.reflect.Type;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.enterprise.inject.spi.DefinitionException;
 import javax.enterprise.inject.spi.DeploymentException;
@@ -161,7 +162,7 @@ public interface ProviderExceptions {
     @Message(id = 44, value = "Invalid channel configuration -  the `channel-name` attribute cannot be used in configuration (channel `%s`)")
     IllegalArgumentException illegalArgumentInvalidChannelConfiguration(String name);
 
-    @Message(id = 45, value = "Cannot find attribute `%s` for channel `%s`. Has been tried: % and %s")
+    @Message(id = 45, value = "Cannot find attribute `%s` for channel `%s`. Has been tried: %s and %s")
     NoSuchElementException noSuchElementForAttribute(String propertyName, String name, String channelKey, String connectorKey);
 
     @Message(id = 46, value = "%ss must contain a non-empty array of %s")
@@ -251,4 +252,88 @@ public interface ProviderExceptions {
 
     @Message(id = 74, value = "Unable to retrieve the config")
     IllegalStateException illegalStateRetieveConfig();
+
+    @Message(id = 75, value = "Invalid method annotated with %s: %s - The maximum concurrency must be greater than 0, found %d")
+    DefinitionException definitionMaxConcurrencyValue(String annotation, String methodAsString, int value);
+
+    @Message(id = 76, value = "Invalid method annotated with %s: %s - The @MaxConcurrency annotation is only supported for @Incoming methods consuming individual Message or payload and not producing messages, unless annotated with @OrderedByKey")
+    DefinitionException definitionMaxConcurrencyOnlyIndividual(String annotation, String methodAsString);
+
+    @Message(id = 77, value = "Invalid maximum concurrency for method %s, it must be greater than 0, found %d")
+    IllegalArgumentException illegalArgumentForMaxConcurrency(String methodAsString, int value);
+
+    @Message(id = 78, value = "Invalid method annotated with %s: %s - The @OrderedByKey annotation is only supported for @Blocking methods annotated with @Incoming")
+    DefinitionException definitionOrderedByKeyOnlyBlockingIncoming(String annotation, String methodAsString);
+
+    @Message(id = 79, value = "Unable to create the key extractor %s for method %s")
+    IllegalStateException illegalStateUnableToCreateKeyExtractor(String className, String methodAsString,
+            @Cause Throwable cause);
+
+    @Message(id = 80, value = "Invalid method annotated with %s: %s - The @Batch annotation is only supported for methods annotated with @Incoming and not producing messages")
+    DefinitionException definitionBatchOnlySubscriber(String annotation, String methodAsString);
+
+    @Message(id = 81, value = "Invalid method annotated with %s: %s - The method must have a single parameter of type List<T> or List<Message<T>>, and return void, a CompletionStage or a Uni")
+    DefinitionException definitionBatchSignature(String annotation, String methodAsString);
+
+    @Message(id = 82, value = "Invalid method annotated with %s: %s - The batch size and maximum waiting time must be greater than 0, found %d and %d")
+    DefinitionException definitionBatchValue(String annotation, String methodAsString, int size, long maxWait);
+
+    @Message(id = 83, value = "Invalid maximum concurrency for worker pool %s, it must be greater than 0, found %d")
+    IllegalArgumentException illegalArgumentForWorkerConcurrency(String workerName, int value);
+
+    @Message(id = 84, value = "The worker pool %s rejected the execution, %d executions are already pending")
+    RejectedExecutionException rejectedWorkerExecution(String workerName, int pending);
+
+    @Message(id = 85, value = "Invalid configuration for worker pool %s - `%s` is not a valid value for %s")
+    IllegalArgumentException illegalArgumentForWorkerConfigValue(String workerName, Object value, String key);
+
+    @Message(id = 86, value = "The subscriber %d of the broadcast stream %s has been detached, it lagged behind by %d messages")
+    IllegalStateException illegalStateForSlowSubscriber(int subscriber, String name, int lag);
+
+    @Message(id = 87, value = "Invalid broadcast configuration for %s - `%s` is not a valid value for %s")
+    IllegalArgumentException illegalArgumentForBroadcastConfigValue(String name, Object value, String key);
+
+    @Message(id = 88, value = "Invalid method annotated with %s: %s - `%s` is not a valid weight or prefetch, the weights must use the `channel=weight` format with one of the incoming channels and a positive weight, and the prefetch must be positive")
+    DefinitionException definitionMergeValue(String annotation, String methodAsString, String value);
+
+    @Message(id = 89, value = "The source %d of the merged stream emitted more items than requested")
+    IllegalStateException illegalStateForMergeOverflow(int source);
+
+    @Message(id = 90, value = "The concurrency limiter of the channel %s only supports a single subscriber")
+    IllegalStateException illegalStateForConcurrencyLimiterSubscriber(String name);
+
+    @Message(id = 91, value = "Invalid concurrency limit configuration for %s - `%s` is not a valid value for %s")
+    IllegalArgumentException illegalArgumentForConcurrencyLimitConfigValue(String name, Object value, String key);
+
+    @Message(id = 92, value = "Invalid rate limit configuration for %s - `%s` is not a valid value for %s")
+    IllegalArgumentException illegalArgumentForRateLimitConfigValue(String name, Object value, String key);
+
+    @Message(id = 93, value = "The message has been dropped, it exceeded the rate limit of the channel %s")
+    IllegalStateException illegalStateForRateLimitExceeded(String name);
+
+    @Message(id = 94, value = "Invalid method annotated with %s: %s - The maximum number of attempts must be greater than 0, the delay positive and lower than or equal to the maximum delay, the multiplier greater than or equal to 1 and the jitter between 0 and 1")
+    DefinitionException definitionDelayedRetryValue(String annotation, String methodAsString);
+
+    @Message(id = 95, value = "Invalid method annotated with %s: %s - The @DelayedRetry annotation is only supported for @Incoming methods consuming individual Message, payloads or batches and not producing streams")
+    DefinitionException definitionDelayedRetryOnlyIndividual(String annotation, String methodAsString);
+
+    @Message(id = 96, value = "Invalid deduplication configuration for %s - `%s` is not a valid value for %s")
+    IllegalArgumentException illegalArgumentForDeduplicationConfigValue(String name, Object value, String key);
+
+    @Message(id = 97, value = "Unable to open the deduplication store %s of the channel %s")
+    IllegalStateException illegalStateUnableToOpenDeduplicationStore(String path, String name, @Cause Throwable cause);
+
+    @Message(id = 98, value = "Unable to create the message id extractor %s for the channel %s")
+    IllegalStateException illegalStateUnableToCreateMessageIdExtractor(String className, String name,
+            @Cause Throwable cause);
+
+    @Message(id = 99, value = "Unable to spill the messages of the emitter %s")
+    IllegalStateException illegalStateUnableToSpill(String name, @Cause Throwable cause);
+
+    @Message(id = 100, value = "The emitter %s uses the SPILL overflow strategy, but the spill directory is not configured, set it using the `%s` property")
+    IllegalStateException illegalStateSpillDirectoryNotSet(String name, String property);
+
+    @Message(id = 102, value = "Unable to expose the statistics as metrics, the metric %s is already registered")
+    IllegalStateException illegalStateMetricAlreadyRegistered(String id);
+
 }
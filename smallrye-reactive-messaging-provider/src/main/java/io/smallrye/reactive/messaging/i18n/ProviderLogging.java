@@ -160,4 +160,56 @@ public interface ProviderLogging extends BasicLogger {
     @Message(id = 234, value = "Failed to emit a Message to the channel")
     void failureEmittingMessage(@Cause Throwable t);
 
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 235, value = "Unable to create a method handle for `%s`, the method is invoked using reflection")
+    void unableToCreateMethodHandle(String method, @Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 236, value = "Virtual threads are not supported by the JVM, the worker pool %s uses platform threads")
+    void virtualThreadsNotSupported(String workerName);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 237, value = "Created virtual thread worker pool named %s with concurrency of %d")
+    void virtualWorkerPoolCreated(String workerName, int count);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 240, value = "The invocation of `%s` failed, retrying in %d ms (attempt %d of %d)")
+    void retryingInvocation(String method, long delay, int attempt, int maxAttempts);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 241, value = "Unable to close the deduplication store of the channel %s")
+    void unableToCloseDeduplicationStore(String name, @Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 242, value = "Recovered %d spilled messages of the emitter %s")
+    void recoveredSpilledMessages(long count, String name);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 243, value = "Unable to read a spilled message of the emitter %s, the message is dropped")
+    void unableToReadSpilledMessage(String name, @Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 244, value = "Unable to delete the spill segment %s")
+    void unableToDeleteSpillSegment(String path, @Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 245, value = "Unable to close the spill directory of the emitter %s")
+    void unableToCloseSpillDirectory(String name, @Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 246, value = "Loaded the mediator index `%s` (%d methods)")
+    void mediatorIndexLoaded(String location, int size);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 247, value = "Unable to read the mediator index `%s`, the mediators are analyzed at runtime")
+    void unableToReadMediatorIndex(String location, @Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 248, value = "Unable to nack a message which could not be delivered by the emitter")
+    void unableToNackEmittedMessage(@Cause Throwable t);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 249, value = "Unable to read the metadata of a spilled message of the emitter %s, the metadata is dropped")
+    void unableToReadSpilledMetadata(String name, @Cause Throwable t);
+
 }
@@ -87,4 +87,7 @@ public interface ProviderMessages {
 
     @Message(id = 124, value = "'bean' must be set")
     String beanMustBeSet();
+
+    @Message(id = 125, value = "Retry timer not initialized")
+    String retryTimerNotInitialized();
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package io.smallrye.reactive.messaging.impl;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.MessageIdExtractor;
+import io.smallrye.reactive.messaging.ce.IncomingCloudEventMetadata;
+
+/**
+ * Uses the id of the incoming Cloud Event as message identifier, combined with its source as the id is only unique for
+ * a given source. It has a higher priority than the connector-specific extractors, as the id identifies the event even
+ * if it has been sent several times.
+ */
+@ApplicationScoped
+public class CloudEventMessageIdExtractor implements MessageIdExtractor {
+
+    @Override
+    public String extractId(Message<?> message) {
+        return message.getMetadata(IncomingCloudEventMetadata.class)
+                .map(metadata -> metadata.getSource() + "/" + metadata.getId())
+                .orElse(null);
+    }
+
+    @Override
+    public int getPriority() {
+        return MESSAGE_ID_EXTRACTOR_DEFAULT_PRIORITY + 100;
+    }
+}
@@ -6,8 +6,11 @@ import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -20,12 +23,23 @@ import javax.inject.Inject;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.spi.*;
+import org.eclipse.microprofile.reactive.streams.operators.CompletionSubscriber;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.spi.Graph;
+import org.eclipse.microprofile.reactive.streams.operators.spi.ReactiveStreamsEngine;
+import org.eclipse.microprofile.reactive.streams.operators.spi.ToGraphable;
 
 import io.smallrye.reactive.messaging.ChannelRegistar;
 import io.smallrye.reactive.messaging.ChannelRegistry;
 import io.smallrye.reactive.messaging.PublisherDecorator;
+import io.smallrye.reactive.messaging.annotations.Broadcast.SlowSubscriberPolicy;
+import io.smallrye.reactive.messaging.helpers.BroadcastHelper;
+import io.smallrye.reactive.messaging.helpers.ConcurrencyLimiter;
+import io.smallrye.reactive.messaging.helpers.LimitAlgorithm;
+import io.smallrye.reactive.messaging.helpers.MessageUtils;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 
 /**
  * Look for stream factories and get instances.
@@ -42,6 +56,9 @@ public class ConfiguredChannelFactory implements ChannelRegistar {
     @Inject
     private Instance<PublisherDecorator> publisherDecoratorInstance;
 
+    @Inject
+    private Instance<StatisticsListener> statisticsListeners;
+
     // CDI requirement for normal scoped beans
     protected ConfiguredChannelFactory() {
         this.incomingConnectorFactories = null;
@@ -187,13 +204,35 @@ public class ConfiguredChannelFactory implements ChannelRegistar {
 
         PublisherBuilder<? extends Message<?>> publisher = mySourceFactory.getPublisherBuilder(config);
 
+        if (config.getOptionalValue(ConnectorConfig.INGRESS_TIMESTAMP_PROPERTY, Boolean.TYPE).orElse(false)) {
+            // Fallback for the connectors not stamping the messages when they receive them
+            publisher = publisher.map(m -> MessageUtils.withIngressMetadata(m, name));
+        }
+
         for (PublisherDecorator decorator : publisherDecoratorInstance) {
             publisher = decorator.decorate(publisher, name);
         }
 
+        int bufferSize = config.getOptionalValue(ConnectorConfig.BROADCAST_BUFFER_SIZE_PROPERTY, Integer.class).orElse(0);
+        if (bufferSize != 0) {
+            publisher = BroadcastHelper.broadcastPublisher(publisher.buildRs(), name, 0, bufferSize,
+                    getSlowSubscriberPolicy(name, config), statisticsListeners);
+        }
+
         return publisher;
     }
 
+    private static SlowSubscriberPolicy getSlowSubscriberPolicy(String name, Config config) {
+        String value = config.getOptionalValue(ConnectorConfig.BROADCAST_POLICY_PROPERTY, String.class)
+                .orElse("block");
+        try {
+            return SlowSubscriberPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw ex.illegalArgumentForBroadcastConfigValue(name, value, ConnectorConfig.BROADCAST_POLICY_PROPERTY);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     private SubscriberBuilder<? extends Message<?>, Void> createSubscriberBuilder(String name, Config config) {
         // Extract the type and throw an exception if missing
         String connector = getConnectorAttribute(config);
@@ -202,6 +241,80 @@ public class ConfiguredChannelFactory implements ChannelRegistar {
         OutgoingConnectorFactory mySinkFactory = outgoingConnectorFactories.select(ConnectorLiteral.of(connector))
                 .stream().findFirst().orElseThrow(() -> ex.illegalArgumentUnknownConnector(name));
 
-        return mySinkFactory.getSubscriberBuilder(config);
+        SubscriberBuilder<? extends Message<?>, Void> subscriber = mySinkFactory.getSubscriberBuilder(config);
+
+        Optional<String> algorithm = config.getOptionalValue(ConnectorConfig.CONCURRENCY_LIMIT_PROPERTY, String.class);
+        if (algorithm.isPresent()) {
+            ConcurrencyLimiter limiter = new ConcurrencyLimiter(name, getLimitAlgorithm(name, config, algorithm.get()));
+            for (StatisticsListener listener : statisticsListeners) {
+                listener.onStatistics(limiter);
+            }
+            subscriber = new LimitedSubscriberBuilder(limiter, (SubscriberBuilder<Message<?>, Void>) subscriber);
+        }
+
+        return subscriber;
+    }
+
+    /**
+     * Passes the messages sent to a sink through a {@link ConcurrencyLimiter}. The builder of a sink is materialized
+     * once per stream feeding the channel, so a new limiting processor is created each time the builder is attached to
+     * a stream or built. The processors share the limiter of the channel, and so its limit.
+     */
+    private static final class LimitedSubscriberBuilder implements SubscriberBuilder<Message<?>, Void>, ToGraphable {
+        private final ConcurrencyLimiter limiter;
+        private final SubscriberBuilder<Message<?>, Void> sink;
+
+        private LimitedSubscriberBuilder(ConcurrencyLimiter limiter, SubscriberBuilder<Message<?>, Void> sink) {
+            this.limiter = limiter;
+            this.sink = sink;
+        }
+
+        private SubscriberBuilder<Message<?>, Void> newBuilder() {
+            return ReactiveStreams.<Message<?>> builder()
+                    .via(limiter.processor())
+                    .to(sink);
+        }
+
+        @Override
+        public CompletionSubscriber<Message<?>, Void> build() {
+            return newBuilder().build();
+        }
+
+        @Override
+        public CompletionSubscriber<Message<?>, Void> build(ReactiveStreamsEngine engine) {
+            return newBuilder().build(engine);
+        }
+
+        @Override
+        public Graph toGraph() {
+            return ((ToGraphable) newBuilder()).toGraph();
+        }
+    }
+
+    private static LimitAlgorithm getLimitAlgorithm(String name, Config config, String algorithm) {
+        int initial = getPositiveInt(name, config, ConnectorConfig.CONCURRENCY_LIMIT_INITIAL_PROPERTY, 20);
+        int min = getPositiveInt(name, config, ConnectorConfig.CONCURRENCY_LIMIT_MIN_PROPERTY, 1);
+        int max = getPositiveInt(name, config, ConnectorConfig.CONCURRENCY_LIMIT_MAX_PROPERTY, 1000);
+        if (max < min) {
+            throw ex.illegalArgumentForConcurrencyLimitConfigValue(name, max, ConnectorConfig.CONCURRENCY_LIMIT_MAX_PROPERTY);
+        }
+        switch (algorithm.trim().toLowerCase(Locale.ROOT)) {
+            case "aimd":
+                int timeout = getPositiveInt(name, config, ConnectorConfig.CONCURRENCY_LIMIT_TIMEOUT_PROPERTY, 5000);
+                return LimitAlgorithm.aimd(initial, min, max, TimeUnit.MILLISECONDS.toNanos(timeout));
+            case "gradient":
+                return LimitAlgorithm.gradient(initial, min, max);
+            default:
+                throw ex.illegalArgumentForConcurrencyLimitConfigValue(name, algorithm,
+                        ConnectorConfig.CONCURRENCY_LIMIT_PROPERTY);
+        }
+    }
+
+    private static int getPositiveInt(String name, Config config, String key, int defaultValue) {
+        int value = config.getOptionalValue(key, Integer.class).orElse(defaultValue);
+        if (value <= 0) {
+            throw ex.illegalArgumentForConcurrencyLimitConfigValue(name, value, key);
+        }
+        return value;
     }
 }
@@ -5,14 +5,23 @@ import static io.smallrye.reactive.messaging.i18n.ProviderMessages.msg;
 import static org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 
+import io.smallrye.reactive.messaging.RefreshableConfig;
+
 /**
  * Implementation of config used to configured the different messaging provider / connector.
+ * <p>
+ * The attributes of the channel and of its connector are read when the channel is created, and then served from an
+ * immutable snapshot, so the connectors can read their configuration on the message path. The MicroProfile Config API
+ * does not expose the converters, so the values of the other types are converted by the underlying configuration on
+ * first access, and kept in the snapshot. The attributes which are not listed by the configuration sources are
+ * resolved on first access too. If the underlying configuration is dynamic, {@link #refresh()} takes a new snapshot.
  */
-public class ConnectorConfig implements Config {
+public class ConnectorConfig implements RefreshableConfig {
 
     /**
      * Name of the attribute checking if the channel is enabled (default) or disabled.
@@ -20,21 +29,134 @@ public class ConnectorConfig implements Config {
      */
     public static final String CHANNEL_ENABLED_PROPERTY = "enabled";
 
+    /**
+     * Name of the attribute checking if the incoming messages must carry an
+     * {@link io.smallrye.reactive.messaging.IngressMetadata}. The value must be either `true` or `false` (default).
+     */
+    public static final String INGRESS_TIMESTAMP_PROPERTY = "ingress-timestamp";
+
+    /**
+     * Name of the attribute configuring the size of the ring buffer used to broadcast the incoming messages to the
+     * subscribers of the channel, each of them consuming the messages at its own pace. The value must be a positive
+     * integer, or {@code 0} (default) to not use a ring buffer.
+     */
+    public static final String BROADCAST_BUFFER_SIZE_PROPERTY = "broadcast.buffer-size";
+
+    /**
+     * Name of the attribute configuring what happens when a subscriber lags behind by the size of the broadcast ring
+     * buffer. The value must be either `block` (default), `drop-oldest` or `detach`.
+     */
+    public static final String BROADCAST_POLICY_PROPERTY = "broadcast.slow-subscriber-policy";
+
+    /**
+     * Name of the attribute enabling an adaptive limit of the number of messages in flight in the sink of an outgoing
+     * channel. The value must be either `aimd` or `gradient`. The limit is not used if the attribute is not set.
+     */
+    public static final String CONCURRENCY_LIMIT_PROPERTY = "concurrency-limit";
+
+    /**
+     * Name of the attribute configuring the initial concurrency limit. The value must be a positive integer, 20 by
+     * default.
+     */
+    public static final String CONCURRENCY_LIMIT_INITIAL_PROPERTY = "concurrency-limit.initial";
+
+    /**
+     * Name of the attribute configuring the minimum concurrency limit. The value must be a positive integer, 1 by
+     * default.
+     */
+    public static final String CONCURRENCY_LIMIT_MIN_PROPERTY = "concurrency-limit.min";
+
+    /**
+     * Name of the attribute configuring the maximum concurrency limit. The value must be a positive integer, 1000 by
+     * default.
+     */
+    public static final String CONCURRENCY_LIMIT_MAX_PROPERTY = "concurrency-limit.max";
+
+    /**
+     * Name of the attribute configuring the latency, in milliseconds, above which the `aimd` concurrency limit is
+     * decreased. The value must be a positive integer, 5000 by default.
+     */
+    public static final String CONCURRENCY_LIMIT_TIMEOUT_PROPERTY = "concurrency-limit.timeout";
+
+    /**
+     * Name of the attribute limiting the rate of the messages of the channel, in messages per second. The value must
+     * be a positive number. The rate is not limited if the attribute is not set.
+     */
+    public static final String RATE_LIMIT_PERMITS_PROPERTY = "rate-limit.permits-per-second";
+
+    /**
+     * Name of the attribute configuring the number of messages allowed in a burst by the rate limit. The value must be
+     * a positive integer, by default the number of messages allowed per second (and at least 1).
+     */
+    public static final String RATE_LIMIT_BURST_PROPERTY = "rate-limit.burst";
+
+    /**
+     * Name of the attribute configuring what happens to the messages exceeding the rate limit. The value must be
+     * either `block` (default) to delay them, or `drop` to nack and drop them.
+     */
+    public static final String RATE_LIMIT_POLICY_PROPERTY = "rate-limit.policy";
+
+    /**
+     * Name of the attribute enabling the deduplication of the messages of an incoming channel. The messages whose
+     * identifier has already been received during the deduplication window are acknowledged and dropped. `false` by
+     * default.
+     */
+    public static final String DEDUPLICATION_ENABLED_PROPERTY = "deduplication.enabled";
+
+    /**
+     * Name of the attribute configuring how long, in milliseconds, the identifiers of the messages are remembered. The
+     * value must be a positive integer, 600000 (10 minutes) by default.
+     */
+    public static final String DEDUPLICATION_WINDOW_PROPERTY = "deduplication.window";
+
+    /**
+     * Name of the attribute configuring the maximum number of identifiers remembered during the deduplication window,
+     * which determines the memory used. The value must be a positive integer, 100000 by default.
+     */
+    public static final String DEDUPLICATION_MAX_ENTRIES_PROPERTY = "deduplication.max-entries";
+
+    /**
+     * Name of the attribute configuring the maximum number of messages of a deduplicated channel being processed, i.e.
+     * received and not acknowledged yet. The next messages are requested once a message is acknowledged. The value
+     * must be a positive integer, 1024 by default.
+     */
+    public static final String DEDUPLICATION_MAX_IN_FLIGHT_PROPERTY = "deduplication.max-in-flight";
+
+    /**
+     * Name of the attribute configuring the file in which the identifiers are stored, so they survive restarts. The
+     * identifiers are stored in memory if the attribute is not set.
+     */
+    public static final String DEDUPLICATION_STORE_PROPERTY = "deduplication.store";
+
+    /**
+     * Name of the attribute configuring the class of the
+     * {@link io.smallrye.reactive.messaging.MessageIdExtractor MessageIdExtractor} extracting the identifiers of the
+     * messages. By default, the {@code MessageIdExtractor} beans are used.
+     */
+    public static final String DEDUPLICATION_ID_EXTRACTOR_PROPERTY = "deduplication.id-extractor";
+
     private final String prefix;
     private final Config overall;
 
     private final String name;
     private final String connector;
 
+    private final String channelPrefix;
+    private final String connectorPrefix;
+
+    private volatile Snapshot snapshot;
+
     protected ConnectorConfig(String prefix, Config overall, String channel) {
         this.prefix = Objects.requireNonNull(prefix, msg.prefixMustNotBeSet());
         this.overall = Objects.requireNonNull(overall, msg.configMustNotBeSet());
         this.name = Objects.requireNonNull(channel, msg.channelMustNotBeSet());
+        this.channelPrefix = name.contains(".") ? prefix + "\"" + name + "\"." : prefix + name + ".";
 
         Optional<String> value = overall.getOptionalValue(channelKey(CONNECTOR_ATTRIBUTE), String.class);
         this.connector = value
                 .orElseGet(() -> overall.getOptionalValue(channelKey("type"), String.class) // Legacy
                         .orElseThrow(() -> ex.illegalArgumentChannelConnectorConfiguration(name)));
+        this.connectorPrefix = CONNECTOR_PREFIX + connector + ".";
 
         // Detect invalid channel-name attribute
         for (String key : overall.getPropertyNames()) {
@@ -42,14 +164,20 @@ public class ConnectorConfig implements Config {
                 throw ex.illegalArgumentInvalidChannelConfiguration(name);
             }
         }
+        this.snapshot = new Snapshot();
     }
 
     private String channelKey(String keyName) {
-        return name.contains(".") ? prefix + "\"" + name + "\"." + keyName : prefix + name + "." + keyName;
+        return channelPrefix + keyName;
     }
 
     private String connectorKey(String keyName) {
-        return CONNECTOR_PREFIX + connector + "." + keyName;
+        return connectorPrefix + keyName;
+    }
+
+    @Override
+    public void refresh() {
+        snapshot = new Snapshot();
     }
 
     @SuppressWarnings("unchecked")
@@ -62,19 +190,10 @@ public class ConnectorConfig implements Config {
             return (T) connector;
         }
 
-        // First check if the channel configuration contains the desired attribute.
-        try {
-            return overall.getValue(channelKey(propertyName), propertyType);
-        } catch (NoSuchElementException e) {
-            // If not, check the connector configuration
-            try {
-                return overall.getValue(connectorKey(propertyName), propertyType);
-            } catch (NoSuchElementException e2) {
-                // Catch the exception to provide a more meaningful error messages.
-                throw ex.noSuchElementForAttribute(propertyName, name, channelKey(propertyName),
-                        connectorKey(propertyName));
-            }
-        }
+        return snapshot.get(propertyName, propertyType)
+                // Provide a more meaningful error message than the one from the underlying config
+                .orElseThrow(() -> ex.noSuchElementForAttribute(propertyName, name, channelKey(propertyName),
+                        connectorKey(propertyName)));
     }
 
     @SuppressWarnings("unchecked")
@@ -87,10 +206,14 @@ public class ConnectorConfig implements Config {
             return Optional.of((T) connector);
         }
 
+        return snapshot.get(propertyName, propertyType);
+    }
+
+    private <T> Optional<T> lookup(String propertyName, Class<T> propertyType) {
         // First check if the channel configuration contains the desired attribute.
+        // If not, check the connector configuration
         Optional<T> maybe = overall.getOptionalValue(channelKey(propertyName), propertyType);
-        return maybe.isPresent() ? maybe
-                : overall.getOptionalValue(connectorKey(propertyName), propertyType);
+        return maybe.isPresent() ? maybe : overall.getOptionalValue(connectorKey(propertyName), propertyType);
     }
 
     /**
@@ -102,9 +225,8 @@ public class ConnectorConfig implements Config {
      */
     @Override
     public Iterable<String> getPropertyNames() {
-        String connectorPrefix = CONNECTOR_PREFIX + connector + ".";
-        String prefix = this.prefix + name + ".";
-        String prefixFromEnv = toEnv(prefix);
+        String prefix = channelPrefix;
+        String prefixFromEnv = toEnv(this.prefix + name + ".");
         String connectorPrefixFromEnv = toEnv(connectorPrefix);
 
         Set<String> names = new HashSet<>();
@@ -149,4 +271,48 @@ public class ConnectorConfig implements Config {
     public Iterable<ConfigSource> getConfigSources() {
         return overall.getConfigSources();
     }
+
+    /**
+     * The attributes of the channel and of its connector, read when the snapshot is taken.
+     */
+    private final class Snapshot {
+
+        /**
+         * The attributes listed by the configuration sources, as strings.
+         */
+        private final Map<String, Optional<String>> attributes;
+
+        /**
+         * The values of the other types, and of the attributes not listed by the configuration sources, per type and
+         * then per attribute name. Absent attributes are stored as empty optionals.
+         */
+        private final Map<Class<?>, Map<String, Optional<?>>> resolved = new ConcurrentHashMap<>();
+
+        private Snapshot() {
+            Map<String, Optional<String>> map = new HashMap<>();
+            for (String attribute : getPropertyNames()) {
+                if (!CHANNEL_NAME_ATTRIBUTE.equals(attribute)) {
+                    map.put(attribute, lookup(attribute, String.class));
+                }
+            }
+            this.attributes = Collections.unmodifiableMap(map);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Optional<T> get(String propertyName, Class<T> propertyType) {
+            if (propertyType == String.class) {
+                Optional<String> value = attributes.get(propertyName);
+                if (value != null) {
+                    return (Optional<T>) value;
+                }
+            }
+            Map<String, Optional<?>> values = resolved.computeIfAbsent(propertyType, k -> new ConcurrentHashMap<>());
+            Optional<?> value = values.get(propertyName);
+            if (value == null) {
+                value = lookup(propertyName, propertyType);
+                values.put(propertyName, value);
+            }
+            return (Optional<T>) value;
+        }
+    }
 }
@@ -0,0 +1,165 @@
+package io.smallrye.reactive.messaging.impl;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+import static io.smallrye.reactive.messaging.i18n.ProviderLogging.log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+
+import io.smallrye.reactive.messaging.MessageIdExtractor;
+import io.smallrye.reactive.messaging.PublisherDecorator;
+import io.smallrye.reactive.messaging.helpers.Deduplicator;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+/**
+ * Drops the duplicated messages of the incoming channels configured with {@code deduplication.enabled=true}, such as
+ * {@code mp.messaging.incoming.orders.deduplication.enabled=true}. The identifiers of the messages are extracted by the
+ * {@link MessageIdExtractor} beans, or by the extractor configured with the {@code deduplication.id-extractor}
+ * attribute.
+ * <p>
+ * The stores of the channels are closed when the application stops.
+ */
+@ApplicationScoped
+public class DeduplicationDecorator implements PublisherDecorator {
+
+    static final long DEFAULT_WINDOW = 600_000;
+    static final int DEFAULT_MAX_ENTRIES = 100_000;
+    static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+    /**
+     * The deduplicators per channel, channels without deduplication map to an empty optional.
+     */
+    private final Map<String, Optional<Deduplicator>> deduplicators = new ConcurrentHashMap<>();
+
+    @Inject
+    private Instance<Config> config;
+
+    @Inject
+    private Instance<MessageIdExtractor> extractors;
+
+    @Inject
+    private Instance<StatisticsListener> listeners;
+
+    @Override
+    public PublisherBuilder<? extends Message<?>> decorate(PublisherBuilder<? extends Message<?>> publisher,
+            String channelName) {
+        if (channelName == null || config.isUnsatisfied()) {
+            return publisher;
+        }
+        Optional<Deduplicator> deduplicator = deduplicators.computeIfAbsent(channelName, this::createDeduplicator);
+        if (deduplicator.isPresent()) {
+            return MultiUtils.toPublisherBuilder(
+                    MultiUtils.publisher(deduplicator.get().deduplicate(MultiUtils.fromPublisherBuilder(publisher))));
+        }
+        return publisher;
+    }
+
+    @PreDestroy
+    void close() {
+        deduplicators.forEach((channel, deduplicator) -> deduplicator.ifPresent(d -> {
+            try {
+                d.close();
+            } catch (IOException e) {
+                log.unableToCloseDeduplicationStore(channel, e);
+            }
+        }));
+        deduplicators.clear();
+    }
+
+    private Optional<Deduplicator> createDeduplicator(String channel) {
+        Config root = config.get();
+        String prefix = channel.contains(".") ? ConnectorFactory.INCOMING_PREFIX + "\"" + channel + "\"."
+                : ConnectorFactory.INCOMING_PREFIX + channel + ".";
+        if (!root.getOptionalValue(prefix + ConnectorConfig.DEDUPLICATION_ENABLED_PROPERTY, Boolean.class)
+                .orElse(false)) {
+            return Optional.empty();
+        }
+        long window = root.getOptionalValue(prefix + ConnectorConfig.DEDUPLICATION_WINDOW_PROPERTY, Long.class)
+                .orElse(DEFAULT_WINDOW);
+        if (window <= 0) {
+            throw ex.illegalArgumentForDeduplicationConfigValue(channel, window,
+                    ConnectorConfig.DEDUPLICATION_WINDOW_PROPERTY);
+        }
+        int maxEntries = root.getOptionalValue(prefix + ConnectorConfig.DEDUPLICATION_MAX_ENTRIES_PROPERTY, Integer.class)
+                .orElse(DEFAULT_MAX_ENTRIES);
+        if (maxEntries <= 0 || maxEntries > 1 << 29) {
+            throw ex.illegalArgumentForDeduplicationConfigValue(channel, maxEntries,
+                    ConnectorConfig.DEDUPLICATION_MAX_ENTRIES_PROPERTY);
+        }
+        int maxInFlight = root
+                .getOptionalValue(prefix + ConnectorConfig.DEDUPLICATION_MAX_IN_FLIGHT_PROPERTY, Integer.class)
+                .orElse(DEFAULT_MAX_IN_FLIGHT);
+        if (maxInFlight <= 0 || maxInFlight > 1 << 29) {
+            throw ex.illegalArgumentForDeduplicationConfigValue(channel, maxInFlight,
+                    ConnectorConfig.DEDUPLICATION_MAX_IN_FLIGHT_PROPERTY);
+        }
+        Path path = root.getOptionalValue(prefix + ConnectorConfig.DEDUPLICATION_STORE_PROPERTY, String.class)
+                .map(Paths::get)
+                .orElse(null);
+        Function<Message<?>, String> extractor = createExtractor(channel,
+                root.getOptionalValue(prefix + ConnectorConfig.DEDUPLICATION_ID_EXTRACTOR_PROPERTY, String.class)
+                        .orElse(null));
+
+        Deduplicator deduplicator;
+        try {
+            deduplicator = new Deduplicator(channel, window, maxEntries, maxInFlight, path, extractor);
+        } catch (IOException e) {
+            throw ex.illegalStateUnableToOpenDeduplicationStore(String.valueOf(path), channel, e);
+        }
+        for (StatisticsListener listener : listeners) {
+            listener.onStatistics(deduplicator.getStatistics());
+        }
+        return Optional.of(deduplicator);
+    }
+
+    private Function<Message<?>, String> createExtractor(String channel, String className) {
+        if (className != null) {
+            MessageIdExtractor extractor;
+            try {
+                Class<? extends MessageIdExtractor> clazz = Thread.currentThread().getContextClassLoader()
+                        .loadClass(className).asSubclass(MessageIdExtractor.class);
+                if (extractors.select(clazz).isResolvable()) {
+                    extractor = extractors.select(clazz).get();
+                } else {
+                    extractor = clazz.getDeclaredConstructor().newInstance();
+                }
+            } catch (Exception e) {
+                throw ex.illegalStateUnableToCreateMessageIdExtractor(className, channel, e);
+            }
+            return extractor::extractId;
+        }
+        List<MessageIdExtractor> list = extractors.isUnsatisfied() ? Collections.emptyList()
+                : extractors.stream()
+                        .sorted(Comparator.comparingInt(MessageIdExtractor::getPriority).reversed())
+                        .collect(Collectors.toList());
+        return message -> {
+            for (MessageIdExtractor extractor : list) {
+                String id = extractor.extractId(message);
+                if (id != null) {
+                    return id;
+                }
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package io.smallrye.reactive.messaging.impl;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.reactive.messaging.PublisherDecorator;
+import io.smallrye.reactive.messaging.helpers.MultiUtils;
+import io.smallrye.reactive.messaging.helpers.RateLimiter;
+import io.smallrye.reactive.messaging.helpers.RateLimiter.Policy;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+/**
+ * Limits the rate of the channels configured with the {@code rate-limit.*} attributes, such as
+ * {@code mp.messaging.outgoing.prices.rate-limit.permits-per-second=100}.
+ * <p>
+ * A channel decorated several times, for example because several methods produce its messages, uses a single
+ * {@link RateLimiter}, so the rate applies to the channel as a whole.
+ */
+@ApplicationScoped
+public class RateLimitDecorator implements PublisherDecorator {
+
+    /**
+     * The limiters per channel, channels without rate limit map to an empty optional.
+     */
+    private final Map<String, Optional<RateLimiter>> limiters = new ConcurrentHashMap<>();
+
+    @Inject
+    private Instance<Config> config;
+
+    @Inject
+    private Instance<StatisticsListener> listeners;
+
+    @Override
+    public PublisherBuilder<? extends Message<?>> decorate(PublisherBuilder<? extends Message<?>> publisher,
+            String channelName) {
+        if (channelName == null || config.isUnsatisfied()) {
+            return publisher;
+        }
+        Optional<RateLimiter> limiter = limiters.computeIfAbsent(channelName, this::createLimiter);
+        if (limiter.isPresent()) {
+            return MultiUtils.toPublisherBuilder(
+                    MultiUtils.publisher(limiter.get().limit(MultiUtils.fromPublisherBuilder(publisher))));
+        }
+        return publisher;
+    }
+
+    private Optional<RateLimiter> createLimiter(String channel) {
+        Config root = config.get();
+        // A channel cannot be both incoming and outgoing
+        String prefix = getChannelPrefix(ConnectorFactory.INCOMING_PREFIX, channel);
+        if (!root.getOptionalValue(prefix + ConnectorConfig.RATE_LIMIT_PERMITS_PROPERTY, String.class).isPresent()) {
+            prefix = getChannelPrefix(ConnectorFactory.OUTGOING_PREFIX, channel);
+        }
+
+        Optional<Double> permits = root.getOptionalValue(prefix + ConnectorConfig.RATE_LIMIT_PERMITS_PROPERTY,
+                Double.class);
+        if (!permits.isPresent()) {
+            return Optional.empty();
+        }
+        double permitsPerSecond = permits.get();
+        if (!(permitsPerSecond > 0)) {
+            throw ex.illegalArgumentForRateLimitConfigValue(channel, permitsPerSecond,
+                    ConnectorConfig.RATE_LIMIT_PERMITS_PROPERTY);
+        }
+        int burst = root.getOptionalValue(prefix + ConnectorConfig.RATE_LIMIT_BURST_PROPERTY, Integer.class)
+                .orElse((int) Math.max(1, Math.ceil(permitsPerSecond)));
+        if (burst <= 0) {
+            throw ex.illegalArgumentForRateLimitConfigValue(channel, burst, ConnectorConfig.RATE_LIMIT_BURST_PROPERTY);
+        }
+        String value = root.getOptionalValue(prefix + ConnectorConfig.RATE_LIMIT_POLICY_PROPERTY, String.class)
+                .orElse("block");
+        Policy policy;
+        try {
+            policy = Policy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw ex.illegalArgumentForRateLimitConfigValue(channel, value, ConnectorConfig.RATE_LIMIT_POLICY_PROPERTY);
+        }
+
+        RateLimiter limiter = new RateLimiter(channel, permitsPerSecond, burst, policy,
+                Infrastructure.getDefaultWorkerPool());
+        for (StatisticsListener listener : listeners) {
+            listener.onStatistics(limiter.getStatistics());
+        }
+        return Optional.of(limiter);
+    }
+
+    private static String getChannelPrefix(String prefix, String channel) {
+        return channel.contains(".") ? prefix + "\"" + channel + "\"." : prefix + channel + ".";
+    }
+}
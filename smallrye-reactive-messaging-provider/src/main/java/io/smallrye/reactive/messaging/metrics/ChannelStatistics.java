@@ -0,0 +1,186 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.IngressMetadata;
+import io.smallrye.reactive.messaging.helpers.MessageUtils;
+import io.smallrye.reactive.messaging.statistics.LatencyHistogram;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+/**
+ * Runtime statistics of a channel.
+ * <p>
+ * A message is <em>in flight</em> from the moment it is emitted on the channel until it is acknowledged, positively or
+ * negatively. The acknowledgement latency is the time between these two events.
+ * <p>
+ * The acknowledgement of the generic messages, created using {@link Message#of(Object)} and its variants, is tracked by
+ * wrapping them. Connector-specific messages cannot be wrapped, as sinks and methods may expect their exact type: their
+ * acknowledgement is observed through their {@link IngressMetadata}, attached by the connectors when the
+ * {@code ingress-timestamp} attribute of the incoming channel is enabled. The other connector-specific messages are
+ * counted but not tracked.
+ * <p>
+ * The ingress latency is the time between the reception of the messages carrying an {@link IngressMetadata} for this
+ * channel and the completion of their acknowledgement. It covers the whole processing of the messages.
+ */
+public class ChannelStatistics implements Statistics {
+
+    /**
+     * The type of the channel statistics, tagged with the {@code channel} name.
+     */
+    public static final String TYPE = "channel";
+
+    private final String name;
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder nacked = new LongAdder();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+    private final LatencyHistogram ingressLatency = new LatencyHistogram();
+
+    private final Map<String, String> tags;
+    private final List<Measurement> measurements;
+
+    ChannelStatistics(String name) {
+        this.name = name;
+        this.tags = Collections.singletonMap("channel", name);
+        this.measurements = Collections.unmodifiableList(Arrays.asList(
+                Measurement.gauge("in-flight", Measurement.NONE, this::getInFlight),
+                Measurement.counter("acked", Measurement.NONE, acked),
+                Measurement.counter("nacked", Measurement.NONE, nacked),
+                Measurement.histogram("ack-latency", ackLatency),
+                Measurement.histogram("ingress-latency", ingressLatency)));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the name of the channel
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of messages emitted on the channel
+     */
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    /**
+     * @return the number of tracked messages emitted on the channel and not acknowledged yet
+     */
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @return the number of tracked messages acknowledged positively
+     */
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    /**
+     * @return the number of tracked messages acknowledged negatively
+     */
+    public long getNacked() {
+        return nacked.sum();
+    }
+
+    /**
+     * @return the time between the emission of the tracked messages and their acknowledgement, in nanoseconds
+     */
+    public LatencyHistogram getAckLatency() {
+        return ackLatency;
+    }
+
+    /**
+     * @return the time between the reception of the messages received on the channel and the completion of their
+     *         acknowledgement, in nanoseconds
+     */
+    public LatencyHistogram getIngressLatency() {
+        return ingressLatency;
+    }
+
+    /**
+     * Records the emission of a message on the channel.
+     *
+     * @param message the message
+     * @return the message to pass downstream, wrapped to track its acknowledgement if it is a generic message
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Message<?> onEmitted(Message<?> message) {
+        messages.increment();
+        IngressMetadata ingress = message.getMetadata(IngressMetadata.class).orElse(null);
+        boolean generic = MessageUtils.isGeneric(message);
+        if (ingress != null && (!generic || ingress.getChannel().equals(name))) {
+            observe(ingress, !generic);
+        }
+        if (!generic) {
+            return message;
+        }
+        inFlight.increment();
+        return new InstrumentedMessage(message, this, System.nanoTime());
+    }
+
+    /**
+     * Observes the completion of the acknowledgement of a received message, without replacing the message.
+     *
+     * @param ingress the ingress metadata of the message
+     * @param track whether the acknowledgement is tracked, for the messages which cannot be wrapped
+     */
+    private void observe(IngressMetadata ingress, boolean track) {
+        boolean received = ingress.getChannel().equals(name);
+        long emitted = System.nanoTime();
+        if (track) {
+            inFlight.increment();
+        }
+        ingress.whenAcknowledged().whenComplete((x, failure) -> {
+            long now = System.nanoTime();
+            if (received) {
+                ingressLatency.record(now - ingress.getTimestamp());
+            }
+            if (track) {
+                if (failure == null) {
+                    onAcked(now - emitted);
+                } else {
+                    onNacked(now - emitted);
+                }
+            }
+        });
+    }
+
+    void onAcked(long latency) {
+        inFlight.decrement();
+        acked.increment();
+        ackLatency.record(latency);
+    }
+
+    void onNacked(long latency) {
+        inFlight.decrement();
+        nacked.increment();
+        ackLatency.record(latency);
+    }
+}
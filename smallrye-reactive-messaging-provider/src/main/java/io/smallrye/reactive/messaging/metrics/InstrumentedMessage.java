@@ -0,0 +1,105 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.reactive.messaging.helpers.MessageUtils;
+
+/**
+ * Message recording its acknowledgement in the {@link ChannelStatistics} of the channel on which it has been emitted.
+ * <p>
+ * The message is its own ack supplier and nack function, so the messages derived from it (using {@code withPayload}...)
+ * are tracked too. Only the first acknowledgement, positive or negative, is recorded, when its completion stage
+ * completes.
+ *
+ * @param <T> the type of payload
+ */
+final class InstrumentedMessage<T>
+        implements Message<T>, Supplier<CompletionStage<Void>>, Function<Throwable, CompletionStage<Void>>,
+        MessageUtils.GenericWrapper {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<InstrumentedMessage> DONE = AtomicIntegerFieldUpdater
+            .newUpdater(InstrumentedMessage.class, "done");
+
+    private final Message<T> delegate;
+    private final ChannelStatistics statistics;
+    private final long emitted;
+    private volatile int done;
+
+    InstrumentedMessage(Message<T> delegate, ChannelStatistics statistics, long emitted) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+        this.emitted = emitted;
+    }
+
+    @Override
+    public T getPayload() {
+        return delegate.getPayload();
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public Supplier<CompletionStage<Void>> getAck() {
+        return this;
+    }
+
+    @Override
+    public Function<Throwable, CompletionStage<Void>> getNack() {
+        return this;
+    }
+
+    @Override
+    public CompletionStage<Void> ack() {
+        return get();
+    }
+
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        if (reason == null) {
+            throw new IllegalArgumentException("The reason must not be `null`");
+        }
+        return apply(reason);
+    }
+
+    @Override
+    public <C> C unwrap(Class<C> unwrapType) {
+        if (unwrapType != null && unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        return delegate.unwrap(unwrapType);
+    }
+
+    /**
+     * Acknowledges the message, the latency is recorded once the acknowledgement completes.
+     */
+    @Override
+    public CompletionStage<Void> get() {
+        CompletionStage<Void> stage = delegate.ack();
+        if (DONE.compareAndSet(this, 0, 1)) {
+            return stage.whenComplete((x, f) -> statistics.onAcked(System.nanoTime() - emitted));
+        }
+        return stage;
+    }
+
+    /**
+     * Acknowledges the message negatively, the latency is recorded once the negative acknowledgement completes.
+     */
+    @Override
+    public CompletionStage<Void> apply(Throwable reason) {
+        CompletionStage<Void> stage = delegate.nack(reason);
+        if (DONE.compareAndSet(this, 0, 1)) {
+            return stage.whenComplete((x, f) -> statistics.onNacked(System.nanoTime() - emitted));
+        }
+        return stage;
+    }
+}
@@ -1,6 +1,10 @@
 package io.smallrye.reactive.messaging.metrics;
 
-import java.util.function.Consumer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
@@ -15,12 +19,28 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 
 import io.smallrye.reactive.messaging.PublisherDecorator;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
 
+/**
+ * Counts the messages emitted on each channel and tracks their acknowledgement.
+ * <p>
+ * In addition to the {@code mp.messaging.message.count} counter, the {@link ChannelStatistics} of each channel are
+ * passed to the {@link StatisticsListener}s, which expose them with the {@link #PREFIX} prefix and tagged with the
+ * channel name: the in-flight messages as a gauge, the acknowledged messages as counters, and the latencies as
+ * histograms.
+ */
 @ApplicationScoped
 public class MetricDecorator implements PublisherDecorator {
 
+    public static final String PREFIX = "mp.messaging.channel.";
+
     private MetricRegistry registry;
 
+    private final Map<String, ChannelStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Inject
+    private Instance<StatisticsListener> listeners;
+
     @Inject
     private void setMetricRegistry(@RegistryType(type = Type.BASE) Instance<MetricRegistry> registryInstance) {
         if (registryInstance.isResolvable()) {
@@ -32,15 +52,42 @@ public class MetricDecorator implements PublisherDecorator {
     public PublisherBuilder<? extends Message<?>> decorate(PublisherBuilder<? extends Message<?>> publisher,
             String channelName) {
         if (registry != null) {
-            return publisher.peek(incrementCount(channelName));
+            return publisher.map(instrument(channelName));
         } else {
             return publisher;
         }
     }
 
-    private Consumer<Message<?>> incrementCount(String channelName) {
+    /**
+     * @param channelName the channel name
+     * @return the statistics of the channel, {@code null} if the channel is not instrumented
+     */
+    public ChannelStatistics getStatistics(String channelName) {
+        return statistics.get(channelName);
+    }
+
+    /**
+     * @return the statistics of the instrumented channels
+     */
+    public Collection<ChannelStatistics> getStatistics() {
+        return Collections.unmodifiableCollection(statistics.values());
+    }
+
+    private Function<Message<?>, Message<?>> instrument(String channelName) {
         Counter counter = registry.counter("mp.messaging.message.count", new Tag("channel", channelName));
-        return m -> counter.inc();
+        // The channel may be decorated several times, the listeners are only notified once
+        ChannelStatistics stats = statistics.computeIfAbsent(channelName, this::create);
+        return m -> {
+            counter.inc();
+            return stats.onEmitted(m);
+        };
     }
 
+    private ChannelStatistics create(String channelName) {
+        ChannelStatistics stats = new ChannelStatistics(channelName);
+        for (StatisticsListener listener : listeners) {
+            listener.onStatistics(stats);
+        }
+        return stats;
+    }
 }
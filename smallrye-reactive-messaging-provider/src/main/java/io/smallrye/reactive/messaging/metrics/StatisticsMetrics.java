@@ -0,0 +1,238 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static io.smallrye.reactive.messaging.i18n.ProviderExceptions.ex;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.Metric;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricRegistry.Type;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.Snapshot;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+import io.smallrye.reactive.messaging.statistics.LatencyHistogram;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+/**
+ * Exposes the {@link Statistics} of the components as metrics of the base registry, named
+ * {@code mp.messaging.<type>.<measurement>} and tagged with the tags of the statistics, so the hot paths only update
+ * striped counters and histograms.
+ * <p>
+ * The metrics are backed by the statistics: incrementing a counter, or updating a histogram, through the metrics API
+ * updates the statistics. When the metric is already registered by a previous deployment, it is switched to the new
+ * statistics. A metric with the same name and tags registered by another component is a conflict.
+ */
+@ApplicationScoped
+public class StatisticsMetrics implements StatisticsListener {
+
+    public static final String PREFIX = "mp.messaging.";
+
+    private MetricRegistry registry;
+
+    @Inject
+    private void setMetricRegistry(@RegistryType(type = Type.BASE) Instance<MetricRegistry> registryInstance) {
+        if (registryInstance.isResolvable()) {
+            registry = registryInstance.get();
+        }
+    }
+
+    @Override
+    public synchronized void onStatistics(Statistics statistics) {
+        if (registry == null) {
+            return;
+        }
+        Tag[] tags = statistics.getTags().entrySet().stream()
+                .map(entry -> new Tag(entry.getKey(), entry.getValue()))
+                .toArray(Tag[]::new);
+        for (Measurement measurement : statistics.getMeasurements()) {
+            register(PREFIX + statistics.getType() + "." + measurement.getName(), measurement, tags);
+        }
+    }
+
+    private void register(String name, Measurement measurement, Tag... tags) {
+        MetricID id = new MetricID(name, tags);
+        Metric existing = registry.getMetrics().get(id);
+        if (existing instanceof StatisticsMetric
+                && ((StatisticsMetric) existing).measurement.getKind() == measurement.getKind()) {
+            // Registered by a previous deployment, expose the current statistics
+            ((StatisticsMetric) existing).measurement = measurement;
+            return;
+        }
+        if (existing != null) {
+            throw ex.illegalStateMetricAlreadyRegistered(id.toString());
+        }
+
+        Metric metric;
+        MetricType type;
+        switch (measurement.getKind()) {
+            case GAUGE:
+                metric = new StatisticsGauge(measurement);
+                type = MetricType.GAUGE;
+                break;
+            case COUNTER:
+                metric = new StatisticsCounter(measurement);
+                type = MetricType.COUNTER;
+                break;
+            default:
+                metric = new StatisticsHistogram(measurement);
+                type = MetricType.HISTOGRAM;
+                break;
+        }
+        Metadata metadata = Metadata.builder()
+                .withName(name)
+                .withType(type)
+                .withUnit(measurement.getUnit())
+                .build();
+        registry.register(metadata, metric, tags);
+    }
+
+    /**
+     * A metric reading a measurement, which can be replaced when the component is deployed again.
+     */
+    private abstract static class StatisticsMetric {
+        volatile Measurement measurement;
+
+        StatisticsMetric(Measurement measurement) {
+            this.measurement = measurement;
+        }
+    }
+
+    private static final class StatisticsGauge extends StatisticsMetric implements Gauge<Long> {
+
+        private StatisticsGauge(Measurement measurement) {
+            super(measurement);
+        }
+
+        @Override
+        public Long getValue() {
+            return measurement.getValue();
+        }
+    }
+
+    private static final class StatisticsCounter extends StatisticsMetric implements Counter {
+
+        private StatisticsCounter(Measurement measurement) {
+            super(measurement);
+        }
+
+        @Override
+        public void inc() {
+            measurement.add(1);
+        }
+
+        @Override
+        public void inc(long n) {
+            measurement.add(n);
+        }
+
+        @Override
+        public long getCount() {
+            return measurement.getValue();
+        }
+    }
+
+    private static final class StatisticsHistogram extends StatisticsMetric implements Histogram {
+
+        private StatisticsHistogram(Measurement measurement) {
+            super(measurement);
+        }
+
+        @Override
+        public void update(int value) {
+            measurement.getHistogram().record(value);
+        }
+
+        @Override
+        public void update(long value) {
+            measurement.getHistogram().record(value);
+        }
+
+        @Override
+        public long getCount() {
+            return measurement.getHistogram().getCount();
+        }
+
+        // Part of the Histogram interface since MicroProfile Metrics 3.0
+        public long getSum() {
+            return measurement.getHistogram().getSum();
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return new HistogramSnapshot(measurement.getHistogram());
+        }
+    }
+
+    /**
+     * Snapshot computed from the buckets of the histogram, so the percentiles are approximated like
+     * {@link LatencyHistogram#getPercentile(double)}. The size is the number of recorded durations, the values are
+     * only the upper bounds of the non-empty buckets.
+     */
+    private static final class HistogramSnapshot extends Snapshot {
+        private final LatencyHistogram histogram;
+
+        private HistogramSnapshot(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getPercentile(quantile);
+        }
+
+        @Override
+        public long[] getValues() {
+            return histogram.getValues();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(histogram.getCount(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMax();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMin();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDev();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            for (long value : histogram.getValues()) {
+                writer.println(value);
+            }
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.smallrye.reactive.messaging.statistics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations, recorded in nanoseconds.
+ * <p>
+ * Values are counted in power-of-two buckets, so recording is a couple of {@link LongAdder} increments and percentiles
+ * are approximated by the upper bound of their bucket (at most twice the actual value, and never more than the
+ * maximum recorded value).
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final DoubleAdder sumOfSquares = new DoubleAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        // The bucket i contains the values having i significant bits, i.e. in [2^(i-1), 2^i - 1]
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        sum.add(value);
+        sumOfSquares.add((double) value * value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of the recorded durations in nanoseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the minimum recorded duration in nanoseconds, 0 if nothing has been recorded
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * @return the maximum recorded duration in nanoseconds, 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded durations in nanoseconds, 0 if nothing has been recorded
+     */
+    public double getMean() {
+        long c = count.sum();
+        return c == 0 ? 0 : (double) sum.sum() / c;
+    }
+
+    /**
+     * @return the standard deviation of the recorded durations in nanoseconds, 0 if nothing has been recorded
+     */
+    public double getStdDev() {
+        long c = count.sum();
+        if (c == 0) {
+            return 0;
+        }
+        double mean = (double) sum.sum() / c;
+        return Math.sqrt(Math.max(0, sumOfSquares.sum() / c - mean * mean));
+    }
+
+    /**
+     * Computes an approximation of the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 1 (for example 0.99)
+     * @return the approximated value in nanoseconds, 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.min(1.0, Math.max(0.0, percentile)) * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                long upperBound = (1L << i) - 1;
+                return Math.min(upperBound, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return the approximated recorded durations in nanoseconds, one per non-empty bucket, in ascending order
+     */
+    public long[] getValues() {
+        long[] values = new long[BUCKETS];
+        int size = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (buckets[i].sum() > 0) {
+                values[size++] = Math.min((1L << i) - 1, getMax());
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,148 @@
+package io.smallrye.reactive.messaging.statistics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A value measured by some {@link Statistics}.
+ * <p>
+ * A gauge reads the current value when needed, a counter is a {@link LongAdder} updated by the statistics, which only
+ * increases, and a histogram exposes the recorded durations.
+ */
+public final class Measurement {
+
+    /**
+     * Unit of the values without unit, such as a number of messages.
+     */
+    public static final String NONE = "none";
+
+    /**
+     * Unit of the sizes in bytes.
+     */
+    public static final String BYTES = "bytes";
+
+    /**
+     * Unit of the durations in milliseconds.
+     */
+    public static final String MILLISECONDS = "milliseconds";
+
+    /**
+     * Unit of the durations in nanoseconds.
+     */
+    public static final String NANOSECONDS = "nanoseconds";
+
+    /**
+     * The kind of value.
+     */
+    public enum Kind {
+        /**
+         * A value which can increase and decrease, read with {@link #getValue()}.
+         */
+        GAUGE,
+        /**
+         * A value which only increases, read with {@link #getValue()} and increased with {@link #add(long)}.
+         */
+        COUNTER,
+        /**
+         * A distribution of durations, read with {@link #getHistogram()}.
+         */
+        HISTOGRAM
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final String unit;
+    private final LongSupplier value;
+    private final LongAdder counter;
+    private final LatencyHistogram histogram;
+
+    private Measurement(String name, Kind kind, String unit, LongSupplier value, LongAdder counter,
+            LatencyHistogram histogram) {
+        this.name = Objects.requireNonNull(name);
+        this.kind = kind;
+        this.unit = Objects.requireNonNull(unit);
+        this.value = value;
+        this.counter = counter;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Creates a gauge.
+     *
+     * @param name the name, unique among the measurements of the statistics
+     * @param unit the unit, such as {@link #NONE}
+     * @param value reads the current value
+     * @return the measurement
+     */
+    public static Measurement gauge(String name, String unit, LongSupplier value) {
+        return new Measurement(name, Kind.GAUGE, unit, Objects.requireNonNull(value), null, null);
+    }
+
+    /**
+     * Creates a counter.
+     *
+     * @param name the name, unique among the measurements of the statistics
+     * @param unit the unit, such as {@link #NONE}
+     * @param counter the counter, only increased
+     * @return the measurement
+     */
+    public static Measurement counter(String name, String unit, LongAdder counter) {
+        Objects.requireNonNull(counter);
+        return new Measurement(name, Kind.COUNTER, unit, counter::sum, counter, null);
+    }
+
+    /**
+     * Creates a histogram of durations in nanoseconds.
+     *
+     * @param name the name, unique among the measurements of the statistics
+     * @param histogram the histogram
+     * @return the measurement
+     */
+    public static Measurement histogram(String name, LatencyHistogram histogram) {
+        return new Measurement(name, Kind.HISTOGRAM, NANOSECONDS, null, null, Objects.requireNonNull(histogram));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return the current value of a gauge or counter
+     * @throws IllegalStateException if the measurement is a histogram
+     */
+    public long getValue() {
+        if (value == null) {
+            throw new IllegalStateException("The measurement " + name + " is a histogram");
+        }
+        return value.getAsLong();
+    }
+
+    /**
+     * Increases a counter.
+     *
+     * @param n the increment, positive
+     * @throws IllegalStateException if the measurement is not a counter
+     */
+    public void add(long n) {
+        if (counter == null) {
+            throw new IllegalStateException("The measurement " + name + " is not a counter");
+        }
+        counter.add(n);
+    }
+
+    /**
+     * @return the histogram, {@code null} if the measurement is a gauge or counter
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,33 @@
+package io.smallrye.reactive.messaging.statistics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime statistics of a component, such as a channel, a mediator method or a worker pool.
+ * <p>
+ * The statistics are updated by the component as long as it runs, and describe their values as a list of
+ * {@link Measurement}s, so they can be exported without knowing the component.
+ *
+ * @see StatisticsListener
+ */
+public interface Statistics {
+
+    /**
+     * @return the type of component, such as {@code channel} or {@code worker}, identical for all the statistics of
+     *         the same class
+     */
+    String getType();
+
+    /**
+     * @return the tags identifying the component among the components of the same type, such as
+     *         {@code channel=orders}
+     */
+    Map<String, String> getTags();
+
+    /**
+     * @return the values measured for the component
+     */
+    List<Measurement> getMeasurements();
+
+}
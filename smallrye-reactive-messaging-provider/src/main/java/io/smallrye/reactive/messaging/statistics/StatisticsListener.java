@@ -0,0 +1,21 @@
+package io.smallrye.reactive.messaging.statistics;
+
+/**
+ * Beans implementing this interface are notified when a component starts collecting statistics, for example to export
+ * them as metrics.
+ * <p>
+ * The components notifying the listeners are the channels (when MicroProfile Metrics is available), the mediator
+ * methods, the named worker pools, the subscribers of the broadcast streams using a ring buffer, the adaptive
+ * concurrency limits, the rate-limited and deduplicated channels, and the emitters using the {@code SPILL} overflow
+ * strategy. A component can be notified several times if it is decorated several times, or after a redeployment.
+ */
+public interface StatisticsListener {
+
+    /**
+     * Called when a component starts collecting statistics.
+     *
+     * @param statistics the statistics of the component, updated until it stops
+     */
+    void onStatistics(Statistics statistics);
+
+}
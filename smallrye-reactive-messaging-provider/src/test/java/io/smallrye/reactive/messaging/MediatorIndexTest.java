@@ -0,0 +1,275 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Incomings;
+
+/**
+ * Checks that the index generated by {@link MediatorIndexGenerator} from the test classes matches the runtime
+ * analysis.
+ */
+public class MediatorIndexTest {
+
+    @Test
+    public void testThatTheIndexMatchesTheRuntimeAnalysis() throws ClassNotFoundException {
+        Map<String, MediatorIndex.Entry> index = MediatorIndex.index(MediatorIndexTest.class.getClassLoader());
+        assertThat(index).isNotEmpty();
+
+        int verified = 0;
+        for (Map.Entry<String, MediatorIndex.Entry> entry : index.entrySet()) {
+            String className = entry.getKey().substring(0, entry.getKey().indexOf('#'));
+            for (Method method : Class.forName(className).getDeclaredMethods()) {
+                if (MediatorIndex.key(method).equals(entry.getKey())) {
+                    Classification expected = reflection(method);
+                    assertThat(expected).as(entry.getKey()).isNotNull();
+                    assertThat(new Classification(method, entry.getValue())).as(entry.getKey()).isEqualTo(expected);
+                    verified++;
+                }
+            }
+        }
+        assertThat(verified).isEqualTo(index.size());
+    }
+
+    @Test
+    public void testThatTheRejectedMethodsAreNotIndexed() throws ClassNotFoundException {
+        Map<String, MediatorIndex.Entry> index = MediatorIndex.index(MediatorIndexTest.class.getClassLoader());
+        for (String className : index.keySet().stream().map(k -> k.substring(0, k.indexOf('#'))).distinct()
+                .toArray(String[]::new)) {
+            for (Method method : Class.forName(className).getDeclaredMethods()) {
+                if (isMediator(method) && !index.containsKey(MediatorIndex.key(method))) {
+                    assertThat(reflection(method)).as(MediatorIndex.key(method)).isNull();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLookup() throws NoSuchMethodException {
+        Method method = Signatures.class.getMethod("bounded", Message[].class, Signatures.Nested.class);
+        assertThat(MediatorIndex.key(method)).isEqualTo(
+                Signatures.class.getName() + "#bounded(" + Message.class.getName() + "[],"
+                        + Signatures.Nested.class.getName() + ")");
+        assertThat(MediatorIndex.lookup(method)).isNull();
+
+        MediatorIndex.Entry entry = MediatorIndex.lookup(Signatures.class.getMethod("variable", List.class));
+        assertThat(entry.getShape()).isEqualTo(Shape.PROCESSOR);
+        assertThat(entry.getProduction()).isEqualTo(MediatorConfiguration.Production.COMPLETION_STAGE_OF_MESSAGE);
+        assertThat(entry.getConsumption()).isEqualTo(MediatorConfiguration.Consumption.PAYLOAD);
+        assertThat(entry.getAcknowledgment()).isEqualTo(Acknowledgment.Strategy.POST_PROCESSING);
+        assertThat(entry.getPayloadTypeLocation()).isEqualTo(MediatorConfigurationSupport.PayloadTypeLocation.PARAMETER);
+
+        entry = MediatorIndex.lookup(Signatures.class.getMethod("wildcard", PublisherBuilder.class));
+        assertThat(entry.getShape()).isEqualTo(Shape.STREAM_TRANSFORMER);
+        assertThat(entry.getProduction()).isEqualTo(MediatorConfiguration.Production.STREAM_OF_PAYLOAD);
+        assertThat(entry.getConsumption()).isEqualTo(MediatorConfiguration.Consumption.STREAM_OF_PAYLOAD);
+        assertThat(entry.getUseBuilderTypes()).isTrue();
+        assertThat(entry.getAcknowledgment()).isEqualTo(Acknowledgment.Strategy.PRE_PROCESSING);
+
+        entry = MediatorIndex.lookup(Signatures.class.getMethod("batch", List.class));
+        assertThat(entry.getConsumption()).isEqualTo(MediatorConfiguration.Consumption.BATCH_MESSAGE);
+        assertThat(entry.getAcknowledgment()).isEqualTo(Acknowledgment.Strategy.NONE);
+        assertThat(entry.getPayloadTypeLocation())
+                .isEqualTo(MediatorConfigurationSupport.PayloadTypeLocation.PARAMETER_TYPE_NESTED_ARGUMENT);
+
+        entry = MediatorIndex.lookup(Signatures.class.getMethod("source"));
+        assertThat(entry.getShape()).isEqualTo(Shape.PUBLISHER);
+        assertThat(entry.getProduction()).isEqualTo(MediatorConfiguration.Production.STREAM_OF_MESSAGE);
+        assertThat(entry.getPayloadTypeLocation()).isEqualTo(MediatorConfigurationSupport.PayloadTypeLocation.NONE);
+
+        assertThat(MediatorIndex.lookup(Signatures.class.getMethod("blockingAck", Message.class))).isNull();
+        assertThat(MediatorIndex.lookup(Signatures.class.getMethod("notAnnotated"))).isNull();
+    }
+
+    @Test
+    public void testThatStaleEntriesAreIgnored() throws NoSuchMethodException {
+        Method method = Signatures.class.getMethod("variable", List.class);
+        MediatorIndex.Entry entry = MediatorIndex.lookup(method);
+        assertThat(entry.matches(method, true, true, null, false)).isTrue();
+        assertThat(entry.matches(method, true, false, null, false)).isFalse();
+        assertThat(entry.matches(method, true, true, Acknowledgment.Strategy.MANUAL, false)).isFalse();
+        assertThat(entry.matches(method, true, true, null, true)).isFalse();
+        assertThat(entry.matches(Signatures.class.getMethod("source"), true, true, null, false)).isFalse();
+    }
+
+    @Test
+    public void testThatEntriesComputedFromAnotherGenericSignatureAreIgnored() throws NoSuchMethodException {
+        Method method = Signatures.class.getMethod("batch", List.class);
+        String line = MediatorIndexGenerator.entry(method);
+        assertThat(line).isNotNull();
+        Map<String, MediatorIndex.Entry> entries = new HashMap<>();
+        MediatorIndex.parse(line, entries);
+        assertThat(entries.get(MediatorIndex.key(method)).matches(method, true, false,
+                Acknowledgment.Strategy.NONE, true)).isTrue();
+
+        // Same erasure, such as batch(List<String>), but another generic signature
+        entries.clear();
+        MediatorIndex.parse(line.replace(MediatorIndex.signature(method),
+                Integer.toHexString(method.toString().hashCode())), entries);
+        assertThat(entries.get(MediatorIndex.key(method)).matches(method, true, false,
+                Acknowledgment.Strategy.NONE, true)).isFalse();
+    }
+
+    private static boolean isMediator(Method method) {
+        return method.getAnnotation(Incoming.class) != null || method.getAnnotation(Incomings.class) != null
+                || method.getAnnotation(Outgoing.class) != null;
+    }
+
+    /**
+     * Classifies the method using reflection, like {@link DefaultMediatorConfiguration}.
+     *
+     * @return the classification, {@code null} if the method is rejected
+     */
+    private static Classification reflection(Method method) {
+        MediatorConfigurationSupport support = support(method);
+        List<String> incomings = method.getAnnotation(Incoming.class) != null
+                || method.getAnnotation(Incomings.class) != null ? Collections.singletonList("in")
+                        : Collections.emptyList();
+        String outgoing = method.getAnnotation(Outgoing.class) != null ? "out" : null;
+        try {
+            Acknowledgment.Strategy acknowledgment = support.processSuppliedAcknowledgement(incomings, () -> {
+                Acknowledgment annotation = method.getAnnotation(Acknowledgment.class);
+                return annotation != null ? annotation.value() : null;
+            });
+            Shape shape = support.determineShape(incomings, outgoing);
+            MediatorConfigurationSupport.ValidationOutput output = support.validate(shape, acknowledgment,
+                    method.getAnnotation(Batch.class) != null);
+            if (acknowledgment == null) {
+                acknowledgment = support.processDefaultAcknowledgement(shape, output.getConsumption(),
+                        output.getProduction());
+            }
+            return new Classification(shape, output.getProduction(), output.getConsumption(),
+                    output.getUseBuilderTypes(), acknowledgment, output.getIngestedPayloadType());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MediatorConfigurationSupport support(Method method) {
+        MediatorConfigurationSupport.GenericTypeAssignable returnType = new DefaultMediatorConfiguration.ReturnTypeGenericTypeAssignable(
+                method);
+        MediatorConfigurationSupport.GenericTypeAssignable firstParameter = method.getParameterCount() == 0
+                ? new DefaultMediatorConfiguration.AlwaysInvalidIndexGenericTypeAssignable()
+                : new DefaultMediatorConfiguration.MethodParamGenericTypeAssignable(method, 0);
+        return new MediatorConfigurationSupport(MediatorIndex.key(method), method.getReturnType(),
+                method.getParameterTypes(), returnType, firstParameter);
+    }
+
+    private static class Classification {
+        private final Shape shape;
+        private final MediatorConfiguration.Production production;
+        private final MediatorConfiguration.Consumption consumption;
+        private final boolean useBuilderTypes;
+        private final Acknowledgment.Strategy acknowledgment;
+        private final Type payloadType;
+
+        Classification(Shape shape, MediatorConfiguration.Production production,
+                MediatorConfiguration.Consumption consumption, boolean useBuilderTypes,
+                Acknowledgment.Strategy acknowledgment, Type payloadType) {
+            this.shape = shape;
+            this.production = production;
+            this.consumption = consumption;
+            this.useBuilderTypes = useBuilderTypes;
+            this.acknowledgment = acknowledgment;
+            this.payloadType = payloadType;
+        }
+
+        Classification(Method method, MediatorIndex.Entry entry) {
+            this(entry.getShape(), entry.getProduction(), entry.getConsumption(), entry.getUseBuilderTypes(),
+                    entry.getAcknowledgment(), support(method).resolvePayloadType(entry.getPayloadTypeLocation()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Classification)) {
+                return false;
+            }
+            Classification that = (Classification) o;
+            return shape == that.shape && production == that.production && consumption == that.consumption
+                    && useBuilderTypes == that.useBuilderTypes && acknowledgment == that.acknowledgment
+                    && Objects.equals(payloadType, that.payloadType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shape, production, consumption, useBuilderTypes, acknowledgment);
+        }
+
+        @Override
+        public String toString() {
+            return shape + "," + production + "," + consumption + "," + useBuilderTypes + "," + acknowledgment + ","
+                    + payloadType;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Signatures {
+
+        @Incoming("a")
+        public void bounded(Message<String>[] messages, Nested nested) {
+            // Not a valid signature, rejected at runtime
+        }
+
+        @Incoming("b")
+        @Outgoing("c")
+        public <T extends CharSequence & Message<String>> CompletionStage<T> variable(List<T> values) {
+            return null;
+        }
+
+        @Incoming("d")
+        @Outgoing("e")
+        public PublisherBuilder<? extends Message<String>> wildcard(PublisherBuilder<? extends Message<String>> stream) {
+            return null;
+        }
+
+        @Incoming("f")
+        @Batch
+        @Acknowledgment(Acknowledgment.Strategy.NONE)
+        public Uni<Void> batch(List<Message<String>> messages) {
+            return null;
+        }
+
+        @Incoming("g")
+        public void blockingAck(Message<String> message) {
+            // Rejected at runtime, as it forces a blocking acknowledgment
+        }
+
+        @Outgoing("h")
+        public Multi<Message<String>> source() {
+            return null;
+        }
+
+        @Incoming("i")
+        @Outgoing("j")
+        public Publisher<String> stream(Publisher<Message<String>> stream) {
+            return null;
+        }
+
+        public Multi<Message<String>> notAnnotated() {
+            return null;
+        }
+
+        public static class Nested {
+
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MethodHandleInvokerTest {
+
+    private final Target target = new Target();
+
+    private Invoker create(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Invoker invoker = MethodHandleInvoker.create(Target.class.getDeclaredMethod(name, parameterTypes), target, name);
+        assertThat(invoker).isNotNull();
+        return invoker;
+    }
+
+    @Test
+    public void testMethodWithoutParameter() throws NoSuchMethodException {
+        assertThat(create("produce").invoke()).isEqualTo("hello");
+    }
+
+    @Test
+    public void testMethodWithOneParameter() throws NoSuchMethodException {
+        assertThat(create("process", String.class).invoke("hello")).isEqualTo("HELLO");
+    }
+
+    @Test
+    public void testVoidMethods() throws NoSuchMethodException {
+        assertThat(create("consume", String.class).invoke("a")).isNull();
+        assertThat(create("tick").invoke()).isNull();
+        assertThat(target.received).containsExactly("a", "tick");
+    }
+
+    @Test
+    public void testPrimitiveTypes() throws NoSuchMethodException {
+        assertThat(create("increment", int.class).invoke(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void testMethodWithMultipleParameters() throws NoSuchMethodException {
+        assertThat(create("concat", String.class, String.class).invoke("a", "b")).isEqualTo("ab");
+    }
+
+    @Test
+    public void testStaticMethod() throws NoSuchMethodException {
+        assertThat(create("constant").invoke()).isEqualTo(42);
+    }
+
+    @Test
+    public void testExceptionsAreWrappedAsWithReflection() throws NoSuchMethodException {
+        Invoker invoker = create("fail", String.class);
+        assertThatThrownBy(() -> invoker.invoke("boom"))
+                .isInstanceOf(ProcessingException.class)
+                .hasCauseInstanceOf(InvocationTargetException.class)
+                .hasStackTraceContaining("boom");
+    }
+
+    // Package-private class and methods, like most application beans.
+    static class Target {
+
+        final List<String> received = new ArrayList<>();
+
+        String produce() {
+            return "hello";
+        }
+
+        String process(String payload) {
+            return payload.toUpperCase();
+        }
+
+        void consume(String payload) {
+            received.add(payload);
+        }
+
+        void tick() {
+            received.add("tick");
+        }
+
+        int increment(int value) {
+            return value + 1;
+        }
+
+        String concat(String a, String b) {
+            return a + b;
+        }
+
+        static int constant() {
+            return 42;
+        }
+
+        String fail(String payload) {
+            throw new IllegalArgumentException(payload);
+        }
+    }
+}
@@ -30,8 +30,12 @@ import io.smallrye.reactive.messaging.extension.MediatorManager;
 import io.smallrye.reactive.messaging.extension.ReactiveMessagingExtension;
 import io.smallrye.reactive.messaging.impl.ConfiguredChannelFactory;
 import io.smallrye.reactive.messaging.impl.InternalChannelRegistry;
+import io.smallrye.reactive.messaging.impl.CloudEventMessageIdExtractor;
+import io.smallrye.reactive.messaging.impl.DeduplicationDecorator;
+import io.smallrye.reactive.messaging.impl.RateLimitDecorator;
 import io.smallrye.reactive.messaging.impl.LegacyConfiguredChannelFactory;
 import io.smallrye.reactive.messaging.metrics.MetricDecorator;
+import io.smallrye.reactive.messaging.metrics.StatisticsMetrics;
 
 public class WeldTestBaseWithoutTails {
 
@@ -111,6 +115,10 @@ public class WeldTestBaseWithoutTails {
                 ConfiguredChannelFactory.class,
                 LegacyConfiguredChannelFactory.class,
                 MetricDecorator.class,
+                StatisticsMetrics.class,
+                RateLimitDecorator.class,
+                DeduplicationDecorator.class,
+                CloudEventMessageIdExtractor.class,
                 HealthCenter.class,
                 // Messaging provider
                 MyDummyConnector.class,
@@ -0,0 +1,220 @@
+package io.smallrye.reactive.messaging.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+
+public class BatchTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 25;
+
+    @Test
+    public void testBatchOfPayloads() {
+        addBeanClass(Source.class, PayloadBatchConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        PayloadBatchConsumer consumer = get(PayloadBatchConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+
+        // 10 + 10 + 5, the last batch being emitted on completion
+        assertThat(consumer.batches()).extracting(List::size).containsExactly(10, 10, 5);
+        assertThat(consumer.batches()).flatExtracting(l -> l).containsExactlyElementsOf(range());
+        assertThat(source.nacked()).isEmpty();
+    }
+
+    @Test
+    public void testBatchOfMessagesWithManualAcknowledgement() {
+        addBeanClass(Source.class, MessageBatchConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        MessageBatchConsumer consumer = get(MessageBatchConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.sizes()).containsExactly(10, 10, 5);
+    }
+
+    @Test
+    public void testFailedBatchesAreNacked() {
+        addBeanClass(Source.class, FailingBatchConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        await().until(() -> source.acked().size() + source.nacked().size() == COUNT);
+        // The second batch fails
+        assertThat(source.nacked()).containsExactlyElementsOf(range().subList(10, 20));
+        assertThat(source.acked()).hasSize(15);
+    }
+
+    @Test
+    public void testIncompleteBatchesAreEmittedAfterMaxWait() {
+        addBeanClass(SlowSource.class, BlockingBatchConsumer.class);
+        initialize();
+
+        BlockingBatchConsumer consumer = get(BlockingBatchConsumer.class);
+        await().until(() -> consumer.batches().size() == 1);
+        assertThat(consumer.batches().get(0)).containsExactly(0, 1, 2);
+        assertThat(consumer.threads()).allMatch(name -> name.startsWith("vert.x-worker-thread-"));
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testBatchRequiresAList() {
+        addBeanClass(Source.class, InvalidBatchConsumer.class);
+        initialize();
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testBatchOnProcessor() {
+        addBeanClass(Source.class, InvalidBatchProcessor.class);
+        initialize();
+    }
+
+    private static List<Integer> range() {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+        private final List<Integer> nacked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Publisher<Message<Integer>> source() {
+            return Multi.createFrom().range(0, COUNT)
+                    .map(i -> Message.of(i, () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }, t -> {
+                        nacked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+
+        public List<Integer> nacked() {
+            return nacked;
+        }
+    }
+
+    @ApplicationScoped
+    public static class SlowSource {
+        @Outgoing("in")
+        public Publisher<Integer> source() {
+            // 3 items, then nothing
+            return Multi.createBy().concatenating().streams(Multi.createFrom().range(0, 3), Multi.createFrom().nothing());
+        }
+    }
+
+    @ApplicationScoped
+    public static class PayloadBatchConsumer {
+        private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Batch(size = 10, maxWait = 10000)
+        public void consume(List<Integer> payloads) {
+            batches.add(payloads);
+        }
+
+        public List<List<Integer>> batches() {
+            return batches;
+        }
+    }
+
+    @ApplicationScoped
+    public static class MessageBatchConsumer {
+        private final List<Integer> sizes = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Batch(size = 10, maxWait = 10000)
+        public CompletionStage<Void> consume(List<Message<Integer>> messages) {
+            sizes.add(messages.size());
+            CompletableFuture<?>[] acks = messages.stream().map(m -> m.ack().toCompletableFuture())
+                    .toArray(CompletableFuture[]::new);
+            return CompletableFuture.allOf(acks);
+        }
+
+        public List<Integer> sizes() {
+            return sizes;
+        }
+    }
+
+    @ApplicationScoped
+    public static class FailingBatchConsumer {
+        @Incoming("in")
+        @Batch(size = 10, maxWait = 10000)
+        public Uni<Void> consume(List<Integer> payloads) {
+            if (payloads.contains(10)) {
+                return Uni.createFrom().failure(new IllegalArgumentException("boom"));
+            }
+            return Uni.createFrom().voidItem();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingBatchConsumer {
+        private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Blocking
+        @Batch(size = 10, maxWait = 100)
+        public void consume(List<Integer> payloads) {
+            threads.add(Thread.currentThread().getName());
+            batches.add(payloads);
+        }
+
+        public List<List<Integer>> batches() {
+            return batches;
+        }
+
+        public List<String> threads() {
+            return threads;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBatchConsumer {
+        @Incoming("in")
+        @Batch
+        public void consume(int payload) {
+            // Never called
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBatchProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        @Batch
+        public int process(List<Integer> payloads) {
+            return payloads.size();
+        }
+    }
+}
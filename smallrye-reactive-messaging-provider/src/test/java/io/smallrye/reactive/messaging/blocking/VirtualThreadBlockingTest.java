@@ -0,0 +1,165 @@
+package io.smallrye.reactive.messaging.blocking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.annotations.MaxConcurrency;
+
+public class VirtualThreadBlockingTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 20;
+
+    @After
+    public void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testVirtualPool() {
+        addBeanClass(Source.class, VirtualConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        VirtualConsumer consumer = get(VirtualConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertThat(consumer.threads()).doesNotContain(Thread.currentThread().getName())
+                .noneMatch(name -> name.startsWith("vert.x-worker-thread-"));
+        assertThat(consumer.max()).isGreaterThan(1).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void testVirtualPoolConcurrencyIsBounded() {
+        installConfig(new MapBasedConfig(
+                singleton("smallrye.messaging.worker." + Blocking.VIRTUAL_THREAD_POOL + ".max-concurrency", 2)));
+        addBeanClass(Source.class, VirtualConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        VirtualConsumer consumer = get(VirtualConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertThat(consumer.max()).isGreaterThan(0).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testNamedPoolConfiguredAsVirtual() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("smallrye.messaging.worker.io-pool.virtual", true);
+        map.put("smallrye.messaging.worker.io-pool.max-concurrency", 3);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(Source.class, NamedPoolConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        NamedPoolConsumer consumer = get(NamedPoolConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertThat(consumer.threads()).noneMatch(name -> name.startsWith("vert.x-worker-thread-"));
+        assertThat(consumer.max()).isGreaterThan(0).isLessThanOrEqualTo(3);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testInvalidVirtualPoolConcurrency() {
+        installConfig(new MapBasedConfig(
+                singleton("smallrye.messaging.worker." + Blocking.VIRTUAL_THREAD_POOL + ".max-concurrency", 0)));
+        addBeanClass(Source.class, VirtualConsumer.class);
+        initialize();
+    }
+
+    private static Map<String, Object> singleton(String key, Object value) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Publisher<Message<Integer>> source() {
+            return Multi.createFrom().range(0, COUNT)
+                    .map(i -> Message.of(i, () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+    }
+
+    /**
+     * Tracks the threads and the number of concurrent invocations.
+     */
+    public abstract static class TrackingConsumer {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        void track(int i) throws InterruptedException {
+            received.add(i);
+            threads.add(Thread.currentThread().getName());
+            int current = inflight.incrementAndGet();
+            max.accumulateAndGet(current, Math::max);
+            Thread.sleep(10);
+            inflight.decrementAndGet();
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+
+        public List<String> threads() {
+            return threads;
+        }
+
+        public int max() {
+            return max.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class VirtualConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @Blocking(Blocking.VIRTUAL_THREAD_POOL)
+        @MaxConcurrency(8)
+        public void consume(int i) throws InterruptedException {
+            track(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class NamedPoolConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @Blocking("io-pool")
+        @MaxConcurrency(8)
+        public void consume(int i) throws InterruptedException {
+            track(i);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.smallrye.reactive.messaging.broadcast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.Broadcast.SlowSubscriberPolicy;
+import io.smallrye.reactive.messaging.helpers.BroadcastStatistics;
+import io.smallrye.reactive.messaging.metrics.StatisticsMetrics;
+
+public class RingBroadcastTest extends WeldTestBaseWithoutTails {
+
+    private static final String PREFIX = StatisticsMetrics.PREFIX + BroadcastStatistics.TYPE + ".";
+
+    @AfterClass
+    public static void clear() {
+        releaseConfig();
+    }
+
+    private static final int COUNT = 100;
+
+    @Test
+    public void testThatASlowSubscriberDoesNotSlowDownTheOthers() {
+        addBeanClass(RingBean.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        RingBean bean = get(RingBean.class);
+        await().until(() -> bean.fast().size() == COUNT);
+        assertThat(bean.fast()).startsWith(0, 1, 2).endsWith(COUNT - 1);
+        assertThat(bean.slow()).containsExactly(0);
+
+        long lag = gauge("lag", "ring-broadcast", "0").getValue() + gauge("lag", "ring-broadcast", "1").getValue();
+        long dropped = counter("dropped", "ring-broadcast", "0").getCount()
+                + counter("dropped", "ring-broadcast", "1").getCount();
+        assertThat(lag).isEqualTo(4);
+        assertThat(dropped).isEqualTo(COUNT - 5);
+
+        bean.release();
+        await().until(() -> bean.slow().size() == 5);
+        assertThat(bean.slow()).containsExactly(0, COUNT - 4, COUNT - 3, COUNT - 2, COUNT - 1);
+    }
+
+    @Test
+    public void testRingBroadcastOfIncomingChannel() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.ring-dummy.connector", "dummy");
+        map.put("mp.messaging.incoming.ring-dummy.broadcast.buffer-size", 2);
+        map.put("mp.messaging.incoming.ring-dummy.broadcast.slow-subscriber-policy", "drop-oldest");
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(RingConsumers.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        RingConsumers consumers = get(RingConsumers.class);
+        // The upstream is connected when the first subscriber subscribes, the second one may miss the items
+        await().until(() -> consumers.first().size() == 3 || consumers.second().size() == 3);
+        assertThat(consumers.first().size() == 3 ? consumers.first() : consumers.second()).containsExactly(2, 3, 4);
+        assertThat(counter("dropped", "ring-dummy", "0").getCount()).isZero();
+        assertThat(counter("dropped", "ring-dummy", "1").getCount()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Gauge<Long> gauge(String name, String channel, String subscriber) {
+        return (Gauge<Long>) registry().getGauges().get(id(name, channel, subscriber));
+    }
+
+    private Counter counter(String name, String channel, String subscriber) {
+        return registry().getCounters().get(id(name, channel, subscriber));
+    }
+
+    private MetricRegistry registry() {
+        return container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+    }
+
+    private static MetricID id(String name, String channel, String subscriber) {
+        return new MetricID(PREFIX + name, new Tag("channel", channel),
+                new Tag("subscriber", subscriber));
+    }
+
+    @ApplicationScoped
+    public static class RingBean {
+        private final List<Integer> fast = new CopyOnWriteArrayList<>();
+        private final List<Integer> slow = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> gate = new CompletableFuture<>();
+
+        @Outgoing("ring-source")
+        public Multi<Integer> source() {
+            return Multi.createFrom().range(0, COUNT);
+        }
+
+        @Incoming("ring-source")
+        @Outgoing("ring-broadcast")
+        @Broadcast(value = 2, bufferSize = 4, onSlowSubscriber = SlowSubscriberPolicy.DROP_OLDEST)
+        public int process(int i) {
+            return i;
+        }
+
+        @Incoming("ring-broadcast")
+        public void fast(int i) {
+            fast.add(i);
+        }
+
+        @Incoming("ring-broadcast")
+        public CompletionStage<Void> slow(int i) {
+            slow.add(i);
+            return gate;
+        }
+
+        List<Integer> fast() {
+            return fast;
+        }
+
+        List<Integer> slow() {
+            return slow;
+        }
+
+        void release() {
+            gate.complete(null);
+        }
+    }
+
+    @ApplicationScoped
+    public static class RingConsumers {
+        private final List<Integer> first = new CopyOnWriteArrayList<>();
+        private final List<Integer> second = new CopyOnWriteArrayList<>();
+
+        @Incoming("ring-dummy")
+        public void first(int i) {
+            first.add(i);
+        }
+
+        @Incoming("ring-dummy")
+        public void second(int i) {
+            second.add(i);
+        }
+
+        List<Integer> first() {
+            return first;
+        }
+
+        List<Integer> second() {
+            return second;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+
+        static final RegistryTypeLiteral BASE = new RegistryTypeLiteral();
+
+        @Override
+        public MetricRegistry.Type type() {
+            return MetricRegistry.Type.BASE;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.smallrye.reactive.messaging.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.annotations.MaxConcurrency;
+import io.smallrye.reactive.messaging.connectors.MyDummyConnector;
+
+public class MaxConcurrencyTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 20;
+
+    @After
+    public void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testSequentialByDefault() {
+        addBeanClass(Source.class, SequentialConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        SequentialConsumer consumer = get(SequentialConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertThat(consumer.max()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWithAnnotation() {
+        addBeanClass(Source.class, ConcurrentConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        ConcurrentConsumer consumer = get(ConcurrentConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertThat(consumer.max()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void testWithMethodConfiguration() {
+        installConfig(new MapBasedConfig(Collections.singletonMap(
+                "smallrye.messaging.mediator." + SequentialConsumer.class.getName() + ".consume.max-concurrency", 3)));
+        addBeanClass(Source.class, SequentialConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        SequentialConsumer consumer = get(SequentialConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.max()).isGreaterThan(1).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void testConfigurationOverridesAnnotation() {
+        installConfig(new MapBasedConfig(Collections.singletonMap(
+                "smallrye.messaging.mediator." + ConcurrentConsumer.class.getName() + ".consume.max-concurrency", 1)));
+        addBeanClass(Source.class, ConcurrentConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        ConcurrentConsumer consumer = get(ConcurrentConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.max()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWithChannelConfiguration() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.in.connector", "dummy");
+        map.put("mp.messaging.incoming.in.max-concurrency", 3);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(MyDummyConnector.class, SequentialConsumer.class);
+        initialize();
+
+        // The dummy connector emits 3 messages at once
+        SequentialConsumer consumer = get(SequentialConsumer.class);
+        await().until(() -> consumer.received().size() == 3);
+        assertThat(consumer.max()).isEqualTo(3);
+    }
+
+    @Test
+    public void testBlockingWithAnnotation() {
+        addBeanClass(Source.class, BlockingConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        BlockingConsumer consumer = get(BlockingConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertThat(consumer.max()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void testFailuresAreNacked() {
+        addBeanClass(Source.class, FailingConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        await().until(() -> source.acked().size() + source.nacked().size() == COUNT);
+        assertThat(source.nacked()).hasSize(COUNT / 2).allMatch(i -> i % 2 == 0);
+        assertThat(source.acked()).hasSize(COUNT / 2).allMatch(i -> i % 2 == 1);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testInvalidValue() {
+        addBeanClass(Source.class, InvalidValueConsumer.class);
+        initialize();
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testUnsupportedOnProcessors() {
+        addBeanClass(Source.class, InvalidProcessor.class);
+        initialize();
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+        private final List<Integer> nacked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Publisher<Message<Integer>> source() {
+            return Multi.createFrom().range(0, COUNT)
+                    .map(i -> Message.of(i, () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }, t -> {
+                        nacked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+
+        public List<Integer> nacked() {
+            return nacked;
+        }
+    }
+
+    /**
+     * Tracks the number of concurrent invocations.
+     */
+    public abstract static class TrackingConsumer {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        void enter(int i) {
+            received.add(i);
+            int current = inflight.incrementAndGet();
+            max.accumulateAndGet(current, Math::max);
+        }
+
+        void exit() {
+            inflight.decrementAndGet();
+        }
+
+        Uni<Void> delayed() {
+            return Uni.createFrom().voidItem()
+                    .onItem().delayIt().by(Duration.ofMillis(10))
+                    .onItem().invoke(x -> exit());
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+
+        public int max() {
+            return max.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class SequentialConsumer extends TrackingConsumer {
+        @Incoming("in")
+        public CompletionStage<Void> consume(int i) {
+            enter(i);
+            return delayed().subscribeAsCompletionStage();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConcurrentConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @MaxConcurrency(4)
+        public Uni<Void> consume(int i) {
+            enter(i);
+            return delayed();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @Blocking
+        @MaxConcurrency(4)
+        public void consume(int i) throws InterruptedException {
+            enter(i);
+            Thread.sleep(10);
+            exit();
+        }
+    }
+
+    @ApplicationScoped
+    public static class FailingConsumer {
+        @Incoming("in")
+        @MaxConcurrency(4)
+        public Uni<Void> consume(int i) {
+            return Uni.createFrom().voidItem()
+                    .onItem().delayIt().by(Duration.ofMillis(5))
+                    .onItem().invoke(x -> {
+                        if (i % 2 == 0) {
+                            throw new IllegalArgumentException("boom " + i);
+                        }
+                    });
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidValueConsumer {
+        @Incoming("in")
+        @MaxConcurrency(0)
+        public void consume(int i) {
+            // Never called
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        @MaxConcurrency(2)
+        public int process(int i) {
+            return i;
+        }
+    }
+}
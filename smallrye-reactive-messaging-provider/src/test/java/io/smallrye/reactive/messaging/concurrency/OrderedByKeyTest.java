@@ -0,0 +1,261 @@
+package io.smallrye.reactive.messaging.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.KeyExtractor;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.annotations.DelayedRetry;
+import io.smallrye.reactive.messaging.annotations.OrderedByKey;
+
+public class OrderedByKeyTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 60;
+    private static final int KEYS = 3;
+
+    @Test
+    public void testSubscriberOrderedByKey() {
+        addBeanClass(Source.class, KeyMetadataExtractor.class, KeyOrderedConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        KeyOrderedConsumer consumer = get(KeyOrderedConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+
+        assertThat(consumer.tracker().received()).hasSize(COUNT);
+        assertOrderedPerKey(consumer.tracker().received());
+        assertThat(consumer.tracker().maxPerKey()).isEqualTo(1);
+        assertThat(consumer.tracker().max()).isGreaterThan(1).isLessThanOrEqualTo(KEYS);
+    }
+
+    @Test
+    public void testProcessorOrderedByKeyWithCustomExtractor() {
+        addBeanClass(Source.class, KeyOrderedProcessor.class, Sink.class);
+        initialize();
+
+        Source source = get(Source.class);
+        KeyOrderedProcessor processor = get(KeyOrderedProcessor.class);
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.received().size() == COUNT);
+
+        assertOrderedPerKey(sink.received());
+        assertThat(processor.tracker().maxPerKey()).isEqualTo(1);
+        assertThat(processor.tracker().max()).isGreaterThan(1);
+        await().until(() -> source.acked().size() == COUNT);
+    }
+
+    @Test
+    public void testRetriesKeepTheOrderPerKey() {
+        addBeanClass(Source.class, KeyOrderedRetryingConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        KeyOrderedRetryingConsumer consumer = get(KeyOrderedRetryingConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+
+        // The first attempt for 0 fails, the next messages with the same key wait for its retry
+        List<Integer> invocations = consumer.invocations();
+        assertThat(invocations.stream().filter(i -> i % KEYS == 0)).startsWith(0, 0, 3, 6).hasSize(COUNT / KEYS + 1);
+        assertThat(consumer.received()).hasSize(COUNT);
+        assertOrderedPerKey(consumer.received());
+        // The other keys are processed during the retry
+        assertThat(invocations.indexOf(1)).isLessThan(invocations.lastIndexOf(0));
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testOrderedByKeyRequiresBlocking() {
+        addBeanClass(Source.class, InvalidConsumer.class);
+        initialize();
+    }
+
+    private static void assertOrderedPerKey(List<Integer> received) {
+        Map<Integer, List<Integer>> perKey = received.stream().collect(Collectors.groupingBy(i -> i % KEYS));
+        assertThat(perKey).hasSize(KEYS);
+        perKey.values().forEach(list -> assertThat(list).isSorted());
+    }
+
+    public static class KeyMetadata {
+        private final int key;
+
+        KeyMetadata(int key) {
+            this.key = key;
+        }
+
+        public int getKey() {
+            return key;
+        }
+    }
+
+    @ApplicationScoped
+    public static class KeyMetadataExtractor implements KeyExtractor {
+        @Override
+        public Object extractKey(Message<?> message) {
+            return message.getMetadata(KeyMetadata.class).map(KeyMetadata::getKey).orElse(null);
+        }
+    }
+
+    public static class PayloadExtractor implements KeyExtractor {
+        @Override
+        public Object extractKey(Message<?> message) {
+            return (Integer) message.getPayload() % KEYS;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Publisher<Message<Integer>> source() {
+            return Multi.createFrom().range(0, COUNT)
+                    .map(i -> Message.of(i, Metadata.of(new KeyMetadata(i % KEYS)), () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+    }
+
+    /**
+     * Tracks the number of concurrent invocations, globally and per key.
+     */
+    static class Tracker {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+        private final Map<Integer, AtomicInteger> inflightPerKey = new ConcurrentHashMap<>();
+        private final AtomicInteger maxPerKey = new AtomicInteger();
+
+        void track(int i) {
+            AtomicInteger perKey = inflightPerKey.computeIfAbsent(i % KEYS, k -> new AtomicInteger());
+            max.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+            maxPerKey.accumulateAndGet(perKey.incrementAndGet(), Math::max);
+            received.add(i);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            perKey.decrementAndGet();
+            inflight.decrementAndGet();
+        }
+
+        List<Integer> received() {
+            return received;
+        }
+
+        int max() {
+            return max.get();
+        }
+
+        int maxPerKey() {
+            return maxPerKey.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class KeyOrderedConsumer {
+        private final Tracker tracker = new Tracker();
+
+        public Tracker tracker() {
+            return tracker;
+        }
+
+        @Incoming("in")
+        @Blocking
+        @OrderedByKey
+        public void consume(int i) {
+            tracker.track(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class KeyOrderedProcessor {
+        private final Tracker tracker = new Tracker();
+
+        public Tracker tracker() {
+            return tracker;
+        }
+
+        @Incoming("in")
+        @Outgoing("out")
+        @Blocking
+        @OrderedByKey(PayloadExtractor.class)
+        public int process(int i) {
+            tracker.track(i);
+            return i;
+        }
+    }
+
+    @ApplicationScoped
+    public static class KeyOrderedRetryingConsumer {
+        private final List<Integer> invocations = new CopyOnWriteArrayList<>();
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        public List<Integer> invocations() {
+            return invocations;
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+
+        @Incoming("in")
+        @Blocking
+        @OrderedByKey(PayloadExtractor.class)
+        @DelayedRetry(delay = 100, jitter = 0)
+        public void consume(int i) {
+            invocations.add(i);
+            if (i == 0 && invocations.indexOf(0) == invocations.size() - 1) {
+                throw new IllegalStateException("boom");
+            }
+            received.add(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("out")
+        public void consume(int i) {
+            received.add(i);
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidConsumer {
+        @Incoming("in")
+        @OrderedByKey
+        public void consume(int i) {
+            // Never called
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorLiteral;
+import org.eclipse.microprofile.reactive.messaging.spi.OutgoingConnectorFactory;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.helpers.ConcurrencyLimiter;
+import io.smallrye.reactive.messaging.metrics.StatisticsMetrics;
+
+public class ConcurrencyLimitTest extends WeldTestBaseWithoutTails {
+
+    private static final String PREFIX = StatisticsMetrics.PREFIX + ConcurrencyLimiter.TYPE + ".";
+
+    @AfterClass
+    public static void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testThatTheSinkIsProtected() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.outgoing.limited-sink.connector", "holding");
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit", "aimd");
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit.initial", 4);
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit.max", 6);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(HoldingConnector.class, Source.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        HoldingConnector connector = container.select(HoldingConnector.class, ConnectorLiteral.of("holding")).get();
+        await().until(() -> connector.received().size() == 4);
+        assertThat(gauge("limit").getValue()).isEqualTo(4);
+        assertThat(gauge("in-flight").getValue()).isEqualTo(4);
+
+        // The sink keeps up: the limit grows up to the maximum
+        connector.release();
+        await().until(() -> connector.received().size() == 100);
+        assertThat(connector.maxInflight()).isLessThanOrEqualTo(6);
+        assertThat(gauge("limit").getValue()).isEqualTo(6);
+    }
+
+    @Test
+    public void testThatTheLimitIsSharedByTheProducersOfTheChannel() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.outgoing.limited-sink.connector", "holding");
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit", "aimd");
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit.initial", 4);
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit.max", 6);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(HoldingConnector.class, Source.class, OtherSource.class);
+        initialize();
+
+        HoldingConnector connector = container.select(HoldingConnector.class, ConnectorLiteral.of("holding")).get();
+        await().until(() -> connector.received().size() == 4);
+        assertThat(connector.maxInflight()).isEqualTo(4);
+
+        connector.release();
+        await().until(() -> connector.received().size() == 200);
+        assertThat(connector.maxInflight()).isLessThanOrEqualTo(6);
+        assertThat(connector.received()).extracting(m -> (Integer) m.getPayload())
+                .containsAll(Arrays.asList(0, 99, 100, 199));
+    }
+
+    @Test
+    public void testInvalidAlgorithm() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.outgoing.limited-sink.connector", "holding");
+        map.put("mp.messaging.outgoing.limited-sink.concurrency-limit", "unknown");
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(HoldingConnector.class, Source.class);
+
+        assertThatThrownBy(this::initialize).hasStackTraceContaining("SRMSG00091")
+                .hasStackTraceContaining("unknown");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Gauge<Long> gauge(String name) {
+        MetricRegistry registry = container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+        return (Gauge<Long>) registry.getGauges().get(new MetricID(PREFIX + name,
+                new Tag("channel", "limited-sink")));
+    }
+
+    @ApplicationScoped
+    public static class Source {
+
+        @Outgoing("limited-sink")
+        public Multi<Message<Integer>> source() {
+            return Multi.createFrom().range(0, 100).map(Message::of);
+        }
+    }
+
+    @ApplicationScoped
+    public static class OtherSource {
+
+        @Outgoing("limited-sink")
+        public Multi<Message<Integer>> source() {
+            return Multi.createFrom().range(100, 200).map(Message::of);
+        }
+    }
+
+    /**
+     * Acknowledges the messages when released, then as soon as they are received.
+     */
+    @ApplicationScoped
+    @Connector("holding")
+    public static class HoldingConnector implements OutgoingConnectorFactory {
+        private final List<Message<?>> received = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger maxInflight = new AtomicInteger();
+        private volatile boolean released;
+
+        @Override
+        public SubscriberBuilder<? extends Message<?>, Void> getSubscriberBuilder(Config config) {
+            return ReactiveStreams.<Message<?>> builder()
+                    .forEach(m -> {
+                        maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+                        received.add(m);
+                        if (released) {
+                            ack(m);
+                        }
+                    });
+        }
+
+        private void ack(Message<?> message) {
+            inflight.decrementAndGet();
+            message.ack();
+        }
+
+        void release() {
+            released = true;
+            received.forEach(this::ack);
+        }
+
+        List<Message<?>> received() {
+            return received;
+        }
+
+        int maxInflight() {
+            return maxInflight.get();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+
+        static final RegistryTypeLiteral BASE = new RegistryTypeLiteral();
+
+        @Override
+        public MetricRegistry.Type type() {
+            return MetricRegistry.Type.BASE;
+        }
+    }
+}
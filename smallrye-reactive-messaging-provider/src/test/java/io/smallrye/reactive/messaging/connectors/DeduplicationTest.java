@@ -0,0 +1,175 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorLiteral;
+import org.eclipse.microprofile.reactive.messaging.spi.IncomingConnectorFactory;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.MessageIdExtractor;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.ce.impl.DefaultIncomingCloudEventMetadata;
+import io.smallrye.reactive.messaging.helpers.DeduplicationStatistics;
+import io.smallrye.reactive.messaging.metrics.StatisticsMetrics;
+
+public class DeduplicationTest extends WeldTestBaseWithoutTails {
+
+    private static final String PREFIX = StatisticsMetrics.PREFIX + DeduplicationStatistics.TYPE + ".";
+
+    @AfterClass
+    public static void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testThatTheRedeliveredCloudEventsAreDropped() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.deduplicated-events.connector", "redelivering");
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.enabled", true);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(RedeliveringConnector.class, Consumer.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        Consumer consumer = get(Consumer.class);
+        RedeliveringConnector connector = container
+                .select(RedeliveringConnector.class, ConnectorLiteral.of("redelivering")).get();
+        await().until(() -> connector.acked().size() == 8);
+        assertThat(consumer.list()).containsExactly(0, 1, 2, 3, 4);
+        assertThat(counter("duplicates", "deduplicated-events").getCount()).isEqualTo(3);
+        assertThat(counter("evictions", "deduplicated-events").getCount()).isZero();
+    }
+
+    @Test
+    public void testWithAConfiguredExtractor() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.deduplicated-events.connector", "redelivering");
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.enabled", true);
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.id-extractor",
+                ParityExtractor.class.getName());
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(RedeliveringConnector.class, Consumer.class);
+        initialize();
+
+        Consumer consumer = get(Consumer.class);
+        await().until(() -> consumer.list().size() == 2);
+        assertThat(consumer.list()).containsExactly(0, 1);
+    }
+
+    @Test
+    public void testInvalidWindow() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.deduplicated-events.connector", "redelivering");
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.enabled", true);
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.window", -1);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(RedeliveringConnector.class, Consumer.class);
+
+        assertThatThrownBy(this::initialize).hasStackTraceContaining("SRMSG00096")
+                .hasStackTraceContaining("deduplication.window");
+    }
+
+    @Test
+    public void testInvalidMaxInFlight() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.deduplicated-events.connector", "redelivering");
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.enabled", true);
+        map.put("mp.messaging.incoming.deduplicated-events.deduplication.max-in-flight", 0);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(RedeliveringConnector.class, Consumer.class);
+
+        assertThatThrownBy(this::initialize).hasStackTraceContaining("SRMSG00096")
+                .hasStackTraceContaining("deduplication.max-in-flight");
+    }
+
+    private Counter counter(String name, String channel) {
+        MetricRegistry registry = container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+        return registry.getCounters().get(new MetricID(PREFIX + name,
+                new Tag("channel", channel)));
+    }
+
+    @ApplicationScoped
+    public static class Consumer {
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("deduplicated-events")
+        public void consume(int i) {
+            list.add(i);
+        }
+
+        List<Integer> list() {
+            return list;
+        }
+    }
+
+    /**
+     * Emits 5 Cloud Events, then redelivers 3 of them.
+     */
+    @ApplicationScoped
+    @Connector("redelivering")
+    public static class RedeliveringConnector implements IncomingConnectorFactory {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+
+        @Override
+        public PublisherBuilder<? extends Message<?>> getPublisherBuilder(Config config) {
+            return ReactiveStreams.fromPublisher(Multi.createFrom().items(0, 1, 2, 3, 4, 1, 3, 4)
+                    .map(i -> Message.of(i, () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }).addMetadata(new DefaultIncomingCloudEventMetadata<>("1.0", "event-" + i,
+                            URI.create("/test"), "test", null, null, null, null, null, i))));
+        }
+
+        List<Integer> acked() {
+            return acked;
+        }
+    }
+
+    /**
+     * Not a bean, instantiated from the configuration.
+     */
+    public static class ParityExtractor implements MessageIdExtractor {
+        @Override
+        public String extractId(Message<?> message) {
+            return Integer.toString((Integer) message.getPayload() % 2);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+
+        static final RegistryTypeLiteral BASE = new RegistryTypeLiteral();
+
+        @Override
+        public MetricRegistry.Type type() {
+            return MetricRegistry.Type.BASE;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.helpers.RateLimitStatistics;
+import io.smallrye.reactive.messaging.metrics.StatisticsMetrics;
+
+public class RateLimitTest extends WeldTestBaseWithoutTails {
+
+    private static final String PREFIX = StatisticsMetrics.PREFIX + RateLimitStatistics.TYPE + ".";
+
+    @AfterClass
+    public static void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testRateLimitOfIncomingAndOutgoingChannels() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.limited-source.connector", "dummy");
+        map.put("mp.messaging.incoming.limited-source.rate-limit.permits-per-second", 10);
+        map.put("mp.messaging.incoming.limited-source.rate-limit.burst", 1);
+        map.put("mp.messaging.outgoing.limited-output.connector", "dummy");
+        map.put("mp.messaging.outgoing.limited-output.rate-limit.permits-per-second", 1);
+        map.put("mp.messaging.outgoing.limited-output.rate-limit.burst", 2);
+        map.put("mp.messaging.outgoing.limited-output.rate-limit.policy", "drop");
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(Consumer.class, Producer.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        Consumer consumer = get(Consumer.class);
+        await().until(() -> consumer.list().size() == 3);
+        assertThat(consumer.list()).containsExactly(2, 3, 4);
+        // The 2 last messages have been delayed by 100 ms each
+        assertThat(counter("throttled-time", "limited-source").getCount()).isGreaterThan(0);
+        assertThat(counter("dropped", "limited-source").getCount()).isZero();
+
+        // Only the burst went through
+        assertThat(counter("dropped", "limited-output").getCount()).isEqualTo(8);
+    }
+
+    @Test
+    public void testInvalidPolicy() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.incoming.limited-source.connector", "dummy");
+        map.put("mp.messaging.incoming.limited-source.rate-limit.permits-per-second", 10);
+        map.put("mp.messaging.incoming.limited-source.rate-limit.policy", "wait");
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(Consumer.class);
+
+        assertThatThrownBy(this::initialize).hasStackTraceContaining("SRMSG00092")
+                .hasStackTraceContaining("wait");
+    }
+
+    private Counter counter(String name, String channel) {
+        MetricRegistry registry = container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+        return registry.getCounters().get(new MetricID(PREFIX + name,
+                new Tag("channel", channel)));
+    }
+
+    @ApplicationScoped
+    public static class Consumer {
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("limited-source")
+        public void consume(int i) {
+            list.add(i);
+        }
+
+        List<Integer> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Producer {
+
+        @Outgoing("limited-output")
+        public Multi<Integer> produce() {
+            return Multi.createFrom().range(0, 10);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+
+        static final RegistryTypeLiteral BASE = new RegistryTypeLiteral();
+
+        @Override
+        public MetricRegistry.Type type() {
+            return MetricRegistry.Type.BASE;
+        }
+    }
+}
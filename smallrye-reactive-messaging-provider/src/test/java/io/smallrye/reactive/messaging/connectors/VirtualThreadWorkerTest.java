@@ -0,0 +1,114 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+public class VirtualThreadWorkerTest {
+
+    private VirtualThreadWorker worker;
+
+    @After
+    public void cleanup() {
+        if (worker != null) {
+            worker.close();
+        }
+    }
+
+    @Test
+    public void testExecution() {
+        worker = new VirtualThreadWorker("test", 4);
+        assertThat(worker.isVirtual()).isEqualTo(VirtualThreadWorker.isVirtualThreadSupported());
+        String result = worker.<String> executeBlocking(p -> p.complete(Thread.currentThread().getName()), false)
+                .await().indefinitely();
+        assertThat(result).isNotEqualTo(Thread.currentThread().getName());
+        assertThat(worker.active()).isEqualTo(0);
+    }
+
+    @Test
+    public void testFailures() {
+        worker = new VirtualThreadWorker("test", 4);
+        assertThatThrownBy(() -> worker.executeBlocking(p -> p.fail(new IllegalStateException("boom")), false)
+                .await().indefinitely()).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThatThrownBy(() -> worker.executeBlocking(p -> {
+            throw new IllegalArgumentException("bam");
+        }, false).await().indefinitely()).isInstanceOf(IllegalArgumentException.class).hasMessage("bam");
+        assertThat(worker.active()).isEqualTo(0);
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() {
+        worker = new VirtualThreadWorker("test", 3);
+        AtomicInteger inflight = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        List<Integer> results = Multi.createFrom().range(0, 30)
+                .onItem().transformToUni(i -> worker.<Integer> executeBlocking(p -> {
+                    max.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+                    sleep(5);
+                    inflight.decrementAndGet();
+                    p.complete(i);
+                }, false)).merge(30)
+                .collectItems().asList().await().indefinitely();
+        assertThat(results).hasSize(30);
+        assertThat(max.get()).isGreaterThan(1).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void testPlatformThreadsAreBounded() {
+        worker = new VirtualThreadWorker("test", 3);
+        Assume.assumeFalse(worker.isVirtual());
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Integer> results = Multi.createFrom().range(0, 30)
+                .onItem().transformToUni(i -> worker.<Integer> executeBlocking(p -> {
+                    threads.add(Thread.currentThread().getName());
+                    sleep(5);
+                    p.complete(i);
+                }, false)).merge(30)
+                .collectItems().asList().await().indefinitely();
+        assertThat(results).hasSize(30);
+        assertThat(threads).hasSizeBetween(1, 3);
+    }
+
+    @Test
+    public void testOrderedExecutions() throws InterruptedException {
+        worker = new VirtualThreadWorker("test", 8);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(10);
+        List<Uni<Integer>> unis = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            unis.add(worker.executeBlocking(p -> {
+                // The first executions are the slowest
+                sleep(10 - value);
+                order.add(value);
+                p.complete(value);
+            }, true));
+        }
+        unis.forEach(uni -> uni.subscribe().with(x -> latch.countDown()));
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
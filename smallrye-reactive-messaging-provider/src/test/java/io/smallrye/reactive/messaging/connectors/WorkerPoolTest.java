@@ -0,0 +1,142 @@
+package io.smallrye.reactive.messaging.connectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Handler;
+import io.vertx.mutiny.core.Promise;
+
+public class WorkerPoolTest {
+
+    private final VirtualThreadWorker worker = new VirtualThreadWorker("test", 2);
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    private final WorkerPool.BlockingExecutor executor = new WorkerPool.BlockingExecutor() {
+        @Override
+        public <T> Uni<T> executeBlocking(Handler<Promise<T>> blockingCodeHandler, boolean ordered) {
+            submitted.incrementAndGet();
+            return worker.executeBlocking(blockingCodeHandler, ordered);
+        }
+    };
+
+    @After
+    public void cleanup() {
+        latch.countDown();
+        worker.close();
+    }
+
+    @Test
+    public void testStatistics() {
+        WorkerPool pool = new WorkerPool("test", executor, 2, -1, WorkerPool.RejectionPolicy.BACKPRESSURE);
+        List<Integer> results = Multi.createFrom().range(0, 10)
+                .onItem().transformToUni(i -> pool.<Integer> executeBlocking(p -> {
+                    if (i == 5) {
+                        p.fail(new IllegalStateException("boom"));
+                    } else {
+                        p.complete(i);
+                    }
+                }, false).onFailure().recoverWithItem(-1)).merge(4)
+                .collectItems().asList().await().indefinitely();
+
+        assertThat(results).hasSize(10).contains(-1);
+        WorkerPoolStatistics statistics = pool.statistics();
+        assertThat(statistics.getName()).isEqualTo("test");
+        assertThat(statistics.getCompleted()).isEqualTo(10);
+        assertThat(statistics.getFailed()).isEqualTo(1);
+        assertThat(statistics.getRejected()).isEqualTo(0);
+        assertThat(statistics.getQueued()).isEqualTo(0);
+        assertThat(statistics.getActive()).isEqualTo(0);
+        assertThat(statistics.getQueueWait().getCount()).isEqualTo(10);
+        assertThat(statistics.getExecutionTime().getCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void testBoundedQueueBackPressuresTheCaller() throws InterruptedException {
+        WorkerPool pool = new WorkerPool("test", executor, 2, 1, WorkerPool.RejectionPolicy.BACKPRESSURE);
+        TestSubscriber<Integer> subscriber = Multi.createFrom().range(0, 10)
+                .onItem().transformToUni(i -> pool.<Integer> executeBlocking(p -> {
+                    block(latch);
+                    p.complete(i);
+                }, false)).merge(10)
+                .subscribe().withSubscriber(new TestSubscriber<>(10));
+
+        WorkerPoolStatistics statistics = pool.statistics();
+        await().until(() -> statistics.getActive() == 2);
+        // Only concurrency + max-queue-size executions have been handed to the executor
+        assertThat(submitted).hasValue(3);
+        assertThat(statistics.getQueued()).isEqualTo(8);
+
+        latch.countDown();
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        subscriber.assertValueCount(10).assertComplete();
+        assertThat(submitted).hasValue(10);
+        assertThat(statistics.getRejected()).isEqualTo(0);
+        assertThat(statistics.getQueued()).isEqualTo(0);
+    }
+
+    @Test
+    public void testBoundedQueueRejectsExecutions() {
+        WorkerPool pool = new WorkerPool("test", executor, 2, 1, WorkerPool.RejectionPolicy.FAIL);
+        AtomicInteger rejected = new AtomicInteger();
+        TestSubscriber<Integer> subscriber = Multi.createFrom().range(0, 10)
+                .onItem().transformToUni(i -> pool.<Integer> executeBlocking(p -> {
+                    block(latch);
+                    p.complete(i);
+                }, false).onFailure(RejectedExecutionException.class).recoverWithItem(() -> {
+                    rejected.incrementAndGet();
+                    return -1;
+                })).merge(10)
+                .subscribe().withSubscriber(new TestSubscriber<>(10));
+
+        await().until(() -> rejected.get() == 7);
+        latch.countDown();
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        subscriber.assertValueCount(10).assertComplete();
+        assertThat(pool.statistics().getRejected()).isEqualTo(7);
+        assertThat(pool.statistics().getCompleted()).isEqualTo(3);
+        assertThat(submitted).hasValue(3);
+    }
+
+    @Test
+    public void testCancelledWaitingExecutions() {
+        WorkerPool pool = new WorkerPool("test", executor, 1, 0, WorkerPool.RejectionPolicy.BACKPRESSURE);
+        pool.executeBlocking(p -> {
+            block(latch);
+            p.complete();
+        }, false).subscribe().with(x -> {
+        });
+        await().until(() -> pool.statistics().getActive() == 1);
+
+        pool.executeBlocking(p -> p.complete(), false).subscribe().with(x -> {
+        }).cancel();
+        assertThat(pool.statistics().getQueued()).isEqualTo(0);
+
+        latch.countDown();
+        await().until(() -> pool.statistics().getCompleted() == 1);
+        // The cancelled execution never runs, and its slot is available
+        assertThat(pool.<String> executeBlocking(p -> p.complete("ok"), false).await().indefinitely())
+                .isEqualTo("ok");
+        assertThat(submitted).hasValue(2);
+    }
+
+    private static void block(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.smallrye.reactive.messaging.converters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MessageConverter;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+
+public class MixedPayloadConverterTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testConvertersAreResolvedOncePerPayloadClass() {
+        addBeanClass(Source.class, Sink.class, StringToPersonConverter.class, IntegerToPersonConverter.class);
+        initialize();
+        Sink sink = get(Sink.class);
+
+        assertThat(sink.list().stream().map(p -> p.name).collect(Collectors.toList()))
+                .containsExactly("luke", "#1", "leia", "#2", "neo", "trinity", "#3", "morpheus");
+
+        // Each converter is asked once for String and once for Integer, at most, whatever the number of messages
+        StringToPersonConverter strings = get(StringToPersonConverter.class);
+        IntegerToPersonConverter integers = get(IntegerToPersonConverter.class);
+        assertThat(strings.checks() + integers.checks()).isLessThanOrEqualTo(4);
+        assertThat(strings.conversions()).isEqualTo(4);
+        assertThat(integers.conversions()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPayloadsWithoutConverterArePassedAsTheyAre() {
+        addBeanClass(Source.class, RawSink.class, StringToPersonConverter.class);
+        initialize();
+        RawSink sink = get(RawSink.class);
+
+        assertThat(sink.list()).hasSize(8);
+        assertThat(sink.list()).filteredOn(o -> o instanceof Integer).containsExactly(1, 2, 3);
+        assertThat(sink.list()).filteredOn(o -> o instanceof Person).hasSize(5);
+        assertThat(sink.list()).filteredOn(o -> o instanceof Person && ((Person) o).name.equals("trinity")).hasSize(1);
+        // The negative result for Integer is cached too
+        assertThat(get(StringToPersonConverter.class).checks()).isLessThanOrEqualTo(2);
+    }
+
+    abstract static class CountingConverter implements MessageConverter {
+        private final AtomicInteger checks = new AtomicInteger();
+        private final AtomicInteger conversions = new AtomicInteger();
+
+        abstract Class<?> source();
+
+        @Override
+        public boolean canConvert(Message<?> in, Type target) {
+            checks.incrementAndGet();
+            return target == Person.class && in.getPayload().getClass() == source();
+        }
+
+        @Override
+        public Message<?> convert(Message<?> in, Type target) {
+            conversions.incrementAndGet();
+            return in.withPayload(toPerson(in.getPayload()));
+        }
+
+        abstract Person toPerson(Object payload);
+
+        public int checks() {
+            return checks.get();
+        }
+
+        public int conversions() {
+            return conversions.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class StringToPersonConverter extends CountingConverter {
+        @Override
+        Class<?> source() {
+            return String.class;
+        }
+
+        @Override
+        Person toPerson(Object payload) {
+            return new Person((String) payload);
+        }
+    }
+
+    @ApplicationScoped
+    public static class IntegerToPersonConverter extends CountingConverter {
+        @Override
+        Class<?> source() {
+            return Integer.class;
+        }
+
+        @Override
+        Person toPerson(Object payload) {
+            return new Person("#" + payload);
+        }
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        @Outgoing("in")
+        public Multi<Object> source() {
+            return Multi.createFrom().items("luke", 1, "leia", 2, "neo", new Person("trinity"), 3, "morpheus");
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<Person> list = new ArrayList<>();
+
+        @Incoming("in")
+        public void sink(Person p) {
+            list.add(p);
+        }
+
+        public List<Person> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class RawSink {
+        private final List<Object> list = new ArrayList<>();
+
+        @Incoming("in")
+        public CompletionStage<Void> sink(Message<Person> message) {
+            // Not all the payloads are persons, avoid the implicit cast
+            Message<?> raw = message;
+            list.add(raw.getPayload());
+            return message.ack();
+        }
+
+        public List<Object> list() {
+            return list;
+        }
+    }
+
+    public static class Person {
+        public final String name;
+
+        Person(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.smallrye.reactive.messaging.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class SpillSupportTest {
+
+    @Test
+    public void testThatTheDirectoryNamesAreDistinct() {
+        assertThat(SpillSupport.encode("prices")).isEqualTo("prices");
+        assertThat(SpillSupport.encode("my-channel_2.v1")).isEqualTo("my-channel_2.v1");
+        assertThat(SpillSupport.encode("a/b")).isEqualTo("a%2Fb");
+        assertThat(SpillSupport.encode("a:b")).isEqualTo("a%3Ab");
+        assertThat(SpillSupport.encode("\u00e9")).isEqualTo("%C3%A9");
+
+        List<String> names = Arrays.asList("a/b", "a:b", "a_b", "a%2Fb", "a b", ".", "..", ".hidden", "%2E");
+        List<String> encoded = names.stream().map(SpillSupport::encode).collect(Collectors.toList());
+        assertThat(encoded).doesNotHaveDuplicates().doesNotContain(".", "..").allSatisfy(
+                name -> assertThat(name).doesNotStartWith(".").doesNotContain("/", "\\", ":", " "));
+    }
+}
@@ -0,0 +1,96 @@
+package io.smallrye.reactive.messaging.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+
+public class WeavingTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testChainAndDiamondAreConnectedWhateverTheDeclarationOrder() {
+        addBeanClass(Sink.class, Diamond.class, Chain.class, Source.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.list().size() == 6);
+        assertThat(sink.list()).containsExactlyInAnyOrder(4, 5, 6, 14, 15, 16);
+        assertThat(get(MediatorManager.class).isInitialized()).isTrue();
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("out")
+        public void consume(int i) {
+            list.add(i);
+        }
+
+        public List<Integer> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Diamond {
+        @Incoming("left")
+        @Incoming("right")
+        @Outgoing("out")
+        public int join(int i) {
+            return i;
+        }
+
+        @Incoming("c3")
+        @Outgoing("left")
+        public int left(int i) {
+            return i;
+        }
+
+        @Incoming("c3")
+        @Outgoing("right")
+        public int right(int i) {
+            return i + 10;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Chain {
+        @Incoming("c2")
+        @Outgoing("c3")
+        public int third(int i) {
+            return i + 1;
+        }
+
+        @Incoming("c1")
+        @Outgoing("c2")
+        public int second(int i) {
+            return i + 1;
+        }
+
+        @Incoming("source")
+        @Outgoing("c1")
+        public int first(int i) {
+            return i + 1;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        @Outgoing("source")
+        public Publisher<Integer> source() {
+            return Multi.createFrom().range(1, 4);
+        }
+    }
+}
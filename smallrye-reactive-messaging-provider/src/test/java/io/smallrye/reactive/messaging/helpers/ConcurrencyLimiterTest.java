@@ -0,0 +1,239 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.junit.Test;
+import org.reactivestreams.Processor;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.IngressMetadata;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    private static Processor<Message<?>, Message<?>> processor(ConcurrencyLimiter limiter, int count) {
+        Processor<Message<?>, Message<?>> processor = limiter.processor();
+        Multi.createFrom().range(0, count).map(Message::of).subscribe(processor);
+        return processor;
+    }
+
+    private static void ackAll(TestSubscriber<Message<?>> subscriber) {
+        // The acknowledgement dispatches the next messages
+        new ArrayList<>(subscriber.values()).forEach(Message::ack);
+    }
+
+    @Test
+    public void testThatTheInflightMessagesAreLimited() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(3, 1, 3, TIMEOUT));
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        processor(limiter, 10).subscribe(subscriber);
+
+        subscriber.assertValueCount(3).assertNotComplete();
+        assertThat(limiter.getInflight()).isEqualTo(3);
+
+        subscriber.values().get(0).ack();
+        subscriber.assertValueCount(4);
+        assertThat(limiter.getInflight()).isEqualTo(3);
+
+        // A message acknowledged twice is only counted once
+        subscriber.values().get(0).ack();
+        subscriber.assertValueCount(4);
+
+        ackAll(subscriber);
+        subscriber.assertValueCount(7);
+        ackAll(subscriber);
+        subscriber.assertValueCount(10).assertComplete();
+        ackAll(subscriber);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    public void testThatTheDownstreamDemandIsRespected() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(5, 1, 5, TIMEOUT));
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(2);
+        processor(limiter, 10).subscribe(subscriber);
+
+        subscriber.assertValueCount(2);
+        ackAll(subscriber);
+        subscriber.assertValueCount(2);
+        subscriber.request(8);
+        subscriber.assertValueCount(7);
+    }
+
+    @Test
+    public void testThatTheStreamsOfASinkShareTheLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(3, 1, 3, TIMEOUT));
+        TestSubscriber<Message<?>> first = TestSubscriber.create(Long.MAX_VALUE);
+        processor(limiter, 5).subscribe(first);
+        TestSubscriber<Message<?>> second = TestSubscriber.create(Long.MAX_VALUE);
+        processor(limiter, 5).subscribe(second);
+
+        first.assertValueCount(3);
+        second.assertValueCount(0);
+        assertThat(limiter.getInflight()).isEqualTo(3);
+
+        // The capacity released by a stream can be used by the other one
+        first.cancel();
+        ackAll(first);
+        second.assertValueCount(3);
+        assertThat(limiter.getInflight()).isEqualTo(3);
+
+        ackAll(second);
+        ackAll(second);
+        second.assertValueCount(5).assertComplete();
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    public void testThatAProcessorAcceptsASingleSubscriber() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(3, 1, 3, TIMEOUT));
+        Processor<Message<?>, Message<?>> processor = processor(limiter, 5);
+        processor.subscribe(TestSubscriber.create(Long.MAX_VALUE));
+        TestSubscriber<Message<?>> second = TestSubscriber.create(Long.MAX_VALUE);
+        processor.subscribe(second);
+        second.assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void testThatTheGenericMessagesAreNotRebuilt() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(1, 1, 1, TIMEOUT));
+        Processor<Message<?>, Message<?>> processor = limiter.processor();
+        Metadata metadata = Metadata.of(IngressMetadata.now("in"));
+        Multi.createFrom().items(Message.of("a", metadata)).subscribe(processor);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        Message<?> message = subscriber.values().get(0);
+        assertThat(MessageUtils.isGeneric(message)).isTrue();
+        assertThat(message.getMetadata()).isSameAs(metadata);
+        assertThat(limiter.getInflight()).isEqualTo(1);
+
+        // Derived messages keep tracking the acknowledgement
+        message.withPayload("b").nack(new Exception("boom"));
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    public void testThatTheConnectorSpecificMessagesAreTrackedThroughTheIngressMetadata() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(1, 1, 1, TIMEOUT));
+        Processor<Message<?>, Message<?>> processor = limiter.processor();
+        List<IngressMetadata> ingresses = new ArrayList<>();
+        Multi.createFrom().range(0, 3).map(i -> {
+            IngressMetadata ingress = IngressMetadata.now("in");
+            ingresses.add(ingress);
+            return (Message<?>) new SpecificMessage(i, Metadata.of(ingress));
+        }).subscribe(processor);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        subscriber.assertValueCount(1);
+        assertThat(subscriber.values()).allMatch(m -> m instanceof SpecificMessage);
+        assertThat(limiter.getInflight()).isEqualTo(1);
+
+        ingresses.get(0).acknowledged();
+        subscriber.assertValueCount(2);
+        ingresses.get(1).nacked(new Exception("boom"));
+        subscriber.assertValueCount(3).assertComplete();
+        ingresses.get(2).acknowledged();
+        assertThat(limiter.getInflight()).isZero();
+        assertThat(limiter.getUntracked()).isZero();
+    }
+
+    @Test
+    public void testThatTheConnectorSpecificMessagesWithoutIngressMetadataAreNotTracked() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(1, 1, 1, TIMEOUT));
+        Processor<Message<?>, Message<?>> processor = limiter.processor();
+        Multi.createFrom().range(0, 5).map(i -> (Message<?>) new SpecificMessage(i, Metadata.empty()))
+                .subscribe(processor);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        subscriber.assertValueCount(5).assertComplete();
+        assertThat(subscriber.values()).allMatch(m -> m instanceof SpecificMessage);
+        assertThat(limiter.getInflight()).isZero();
+        assertThat(limiter.getUntracked()).isEqualTo(5);
+    }
+
+    @Test
+    public void testThatAFailureIsPropagated() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", LimitAlgorithm.aimd(1, 1, 1, TIMEOUT));
+        Processor<Message<?>, Message<?>> processor = limiter.processor();
+        Multi.createFrom().<Message<?>> failure(new IllegalArgumentException("boom")).subscribe(processor);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        subscriber.assertErrorMessage("boom");
+    }
+
+    @Test
+    public void testAimd() {
+        LimitAlgorithm algorithm = LimitAlgorithm.aimd(10, 2, 12, TIMEOUT);
+        // Not used enough to grow
+        algorithm.onSample(10, 4, false);
+        assertThat(algorithm.getLimit()).isEqualTo(10);
+
+        algorithm.onSample(10, 5, false);
+        algorithm.onSample(10, 10, false);
+        algorithm.onSample(10, 10, false);
+        assertThat(algorithm.getLimit()).isEqualTo(12);
+
+        algorithm.onSample(10, 10, true);
+        assertThat(algorithm.getLimit()).isEqualTo(10);
+        algorithm.onSample(TIMEOUT + 1, 10, false);
+        assertThat(algorithm.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 100; i++) {
+            algorithm.onSample(10, 10, true);
+        }
+        assertThat(algorithm.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGradient() {
+        LimitAlgorithm algorithm = LimitAlgorithm.gradient(10, 1, 100);
+        // Stable latency: the limit grows
+        for (int i = 0; i < 50; i++) {
+            algorithm.onSample(1000, algorithm.getLimit(), false);
+        }
+        int grown = algorithm.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        // Not used: the limit does not change
+        algorithm.onSample(100_000, 1, false);
+        assertThat(algorithm.getLimit()).isEqualTo(grown);
+
+        // The latency increases: the limit shrinks
+        for (int i = 0; i < 20; i++) {
+            algorithm.onSample(10_000, algorithm.getLimit(), false);
+        }
+        assertThat(algorithm.getLimit()).isLessThan(grown);
+    }
+
+    private static class SpecificMessage implements Message<Integer> {
+        private final int payload;
+        private final Metadata metadata;
+
+        private SpecificMessage(int payload, Metadata metadata) {
+            this.payload = payload;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Integer getPayload() {
+            return payload;
+        }
+
+        @Override
+        public Metadata getMetadata() {
+            return metadata;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+
+public class DeduplicatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThatTheDuplicatesAreAckedAndDropped() throws IOException {
+        Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, null, this::id);
+        List<Integer> acked = new CopyOnWriteArrayList<>();
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        deduplicator.deduplicate(Multi.createFrom().items(1, 2, 3, 2, 4, 1, -1, -1)
+                .map(i -> Message.of(i, () -> {
+                    acked.add(i);
+                    return CompletableFuture.completedFuture(null);
+                })))
+                .subscribe(subscriber);
+
+        subscriber.assertComplete();
+        // The negative payloads have no identifier
+        assertThat(subscriber.values()).extracting(m -> (Object) m.getPayload()).containsExactly(1, 2, 3, 4, -1, -1);
+        // The duplicates are held until the first deliveries are acknowledged
+        assertThat(acked).isEmpty();
+        ackAll(subscriber);
+        assertThat(acked).containsExactly(1, 1, 2, 2, 3, 4, -1, -1);
+        assertThat(deduplicator.getStatistics().getDuplicates()).isEqualTo(2);
+        assertThat(deduplicator.getStatistics().getEvictions()).isZero();
+    }
+
+    @Test
+    public void testThatTheNackedMessagesAreProcessedWhenRedelivered() throws IOException {
+        Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, null, this::id);
+        List<Integer> acked = new CopyOnWriteArrayList<>();
+        List<Integer> nacked = new CopyOnWriteArrayList<>();
+        UnicastProcessor<Message<?>> connector = UnicastProcessor.create();
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        deduplicator.deduplicate(connector).subscribe(subscriber);
+
+        connector.onNext(message(1, acked, nacked));
+        // Received while the first delivery is processed, held until its outcome
+        connector.onNext(message(1, acked, nacked));
+        subscriber.assertValueCount(1);
+        assertThat(acked).isEmpty();
+
+        subscriber.values().get(0).nack(new Exception("boom"));
+        assertThat(nacked).containsExactly(1, 1);
+
+        // Redelivered after the nack
+        connector.onNext(message(1, acked, nacked));
+        subscriber.assertValueCount(2);
+        connector.onNext(message(1, acked, nacked));
+        assertThat(acked).isEmpty();
+        subscriber.values().get(1).ack();
+        assertThat(acked).containsExactly(1, 1);
+
+        // Redelivered after the ack
+        connector.onNext(message(1, acked, nacked));
+        subscriber.assertValueCount(2);
+        assertThat(acked).containsExactly(1, 1, 1);
+        assertThat(deduplicator.getStatistics().getDuplicates()).isEqualTo(3);
+    }
+
+    @Test
+    public void testThatTheMessagesInFlightAreLimited() throws IOException {
+        Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 2, null, this::id);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        deduplicator.deduplicate(Multi.createFrom().items(1, 2, 3, 2, 4, -1).map(Message::of)).subscribe(subscriber);
+
+        // 3 waits until a message is acknowledged
+        subscriber.assertValueCount(2).assertNotComplete();
+        subscriber.values().get(0).ack();
+        subscriber.assertValueCount(3);
+        // The copy of 2 is held, and 4 waits until 2 is acknowledged
+        subscriber.values().get(1).ack();
+        subscriber.assertValueCount(5).assertComplete();
+        assertThat(subscriber.values()).extracting(m -> (Object) m.getPayload()).containsExactly(1, 2, 3, 4, -1);
+    }
+
+    @Test
+    public void testThatTheIdsAreRecordedWhenTheAckSucceeds() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("dedup.db");
+        try (Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, path, this::id)) {
+            TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+            deduplicator.deduplicate(Multi.createFrom().items(1, 2, 3).map(Message::of)).subscribe(subscriber);
+            subscriber.values().get(0).ack();
+            // The processing of 2 fails, and the application stops before 3 is acknowledged
+            subscriber.values().get(1).withPayload("derived").nack(new Exception("boom"));
+        }
+        try (Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, path, this::id)) {
+            TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+            deduplicator.deduplicate(Multi.createFrom().items(1, 2, 3).map(Message::of)).subscribe(subscriber);
+            assertThat(subscriber.values()).extracting(m -> (Object) m.getPayload()).containsExactly(2, 3);
+        }
+    }
+
+    @Test
+    public void testThatTheDownstreamDemandIsRespected() throws IOException {
+        Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, null, this::id);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(2);
+        deduplicator.deduplicate(Multi.createFrom().items(1, 1, 1, 2, 3).map(Message::of)).subscribe(subscriber);
+
+        subscriber.assertValueCount(2).assertNotComplete();
+        subscriber.request(1);
+        subscriber.assertValueCount(3).assertComplete();
+    }
+
+    @Test
+    public void testThatTheIdsExpireAfterTheWindow() throws Exception {
+        Deduplicator deduplicator = new Deduplicator("test", 200, 100, 100, null, this::id);
+        assertThat(receive(deduplicator, "a")).isFalse();
+        assertThat(receive(deduplicator, "a")).isTrue();
+        Thread.sleep(120);
+        assertThat(receive(deduplicator, "b")).isFalse();
+        Thread.sleep(120);
+        // The prefilter has been rotated, b is still detected
+        assertThat(receive(deduplicator, "b")).isTrue();
+        assertThat(receive(deduplicator, "a")).isFalse();
+    }
+
+    @Test
+    public void testThatTheMemoryIsBounded() throws IOException {
+        Deduplicator deduplicator = new Deduplicator("test", 60_000, 4, 100, null, this::id);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(receive(deduplicator, "id-" + i)).isFalse();
+        }
+        // The 8 slots have been reused, the most recent ids are still detected
+        assertThat(deduplicator.getStatistics().getEvictions()).isGreaterThan(900);
+        assertThat(receive(deduplicator, "id-999")).isTrue();
+    }
+
+    @Test
+    public void testThatTheMappedStoreSurvivesRestarts() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("dedup.db");
+        try (Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, path, this::id)) {
+            assertThat(receive(deduplicator, "a")).isFalse();
+            assertThat(receive(deduplicator, "b")).isFalse();
+        }
+        try (Deduplicator deduplicator = new Deduplicator("test", 60_000, 100, 100, path, this::id)) {
+            assertThat(receive(deduplicator, "a")).isTrue();
+            assertThat(receive(deduplicator, "b")).isTrue();
+            assertThat(receive(deduplicator, "c")).isFalse();
+        }
+        // A different capacity resets the store
+        try (Deduplicator deduplicator = new Deduplicator("test", 60_000, 1000, 100, path, this::id)) {
+            assertThat(receive(deduplicator, "a")).isFalse();
+        }
+    }
+
+    @Test
+    public void testBloomFilter() {
+        BloomFilter filter = new BloomFilter(1000);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(Deduplicator.hash("in-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain(Deduplicator.hash("in-" + i))).isTrue();
+            if (filter.mightContain(Deduplicator.hash("out-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(50);
+        filter.clear();
+        assertThat(filter.mightContain(Deduplicator.hash("in-0"))).isFalse();
+    }
+
+    private static boolean receive(Deduplicator deduplicator, String id) {
+        DeduplicatedMessage<?> message = deduplicator.track(Message.of(id), Deduplicator.hash(id));
+        if (message == null) {
+            return true;
+        }
+        message.ack();
+        return false;
+    }
+
+    private static void ackAll(TestSubscriber<Message<?>> subscriber) {
+        subscriber.values().forEach(Message::ack);
+    }
+
+    private static Message<Integer> message(int payload, List<Integer> acked, List<Integer> nacked) {
+        return Message.of(payload, () -> {
+            acked.add(payload);
+            return CompletableFuture.completedFuture(null);
+        }, reason -> {
+            nacked.add(payload);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private String id(Message<?> message) {
+        int payload = (Integer) message.getPayload();
+        return payload < 0 ? null : Integer.toString(payload);
+    }
+}
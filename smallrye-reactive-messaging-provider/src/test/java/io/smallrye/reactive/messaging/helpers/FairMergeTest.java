@@ -0,0 +1,103 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+
+public class FairMergeTest {
+
+    private static Multi<String> source(String prefix, int count) {
+        return Multi.createFrom().range(0, count).map(i -> prefix + i);
+    }
+
+    @SafeVarargs
+    private static FairMerge<String> merge(int[] weights, int prefetch, Publisher<String>... sources) {
+        return new FairMerge<>(Arrays.asList(sources), weights, prefetch);
+    }
+
+    @Test
+    public void testRoundRobin() {
+        FairMerge<String> merge = merge(null, 4, source("a", 4), source("b", 2), source("c", 3));
+        TestSubscriber<String> subscriber = TestSubscriber.create(0);
+        merge.subscribe(subscriber);
+        subscriber.assertNoValues();
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValues("a0", "b0", "c0", "a1", "b1", "c1", "a2", "c2", "a3").assertComplete();
+    }
+
+    @Test
+    public void testWeighted() {
+        FairMerge<String> merge = merge(new int[] { 1, 3 }, 16, source("a", 4), source("b", 7));
+        TestSubscriber<String> subscriber = TestSubscriber.create(0);
+        merge.subscribe(subscriber);
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValues("a0", "b0", "b1", "b2", "a1", "b3", "b4", "b5", "a2", "b6", "a3")
+                .assertComplete();
+    }
+
+    @Test
+    public void testThatALowRateSourceIsNotStarved() {
+        UnicastProcessor<String> low = UnicastProcessor.create();
+        FairMerge<String> merge = merge(new int[] { 1, 2 }, 8, source("high", 1000), low);
+        TestSubscriber<String> subscriber = TestSubscriber.create(5);
+        merge.subscribe(subscriber);
+        subscriber.assertValueCount(5);
+
+        // The high-rate source has 8 items queued, the low-rate one waits for its turn only
+        low.onNext("low0");
+        low.onNext("low1");
+        subscriber.request(3);
+        assertThat(subscriber.values()).containsSubsequence("low0", "low1").hasSize(8);
+
+        low.onComplete();
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValueCount(1002).assertComplete();
+    }
+
+    @Test
+    public void testThatTheItemsAreReplenished() {
+        FairMerge<String> merge = merge(null, 4, source("a", 100), source("b", 100));
+        TestSubscriber<String> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        merge.subscribe(subscriber);
+        subscriber.assertValueCount(200).assertComplete();
+    }
+
+    @Test
+    public void testThatAFailureCancelsTheOtherSources() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Multi<String> infinite = Multi.createFrom().<String> emitter(e -> {
+            // Never emits
+        }).onCancellation().invoke(() -> cancelled.set(true));
+        Multi<String> failing = Multi.createFrom().failure(new IllegalArgumentException("boom"));
+        FairMerge<String> merge = merge(null, 4, infinite, failing);
+        TestSubscriber<String> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        merge.subscribe(subscriber);
+
+        subscriber.assertErrorMessage("boom");
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    public void testCancellation() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        FairMerge<String> merge = merge(null, 4,
+                source("a", 100).onCancellation().invoke(() -> cancelled.set(true)), source("b", 100));
+        TestSubscriber<String> subscriber = TestSubscriber.create(0);
+        merge.subscribe(subscriber);
+        subscriber.request(3);
+        subscriber.cancel();
+
+        subscriber.assertValues("a0", "b0", "a1").assertNotComplete();
+        assertThat(cancelled).isTrue();
+    }
+}
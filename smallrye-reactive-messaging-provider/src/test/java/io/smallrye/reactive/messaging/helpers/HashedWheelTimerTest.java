@@ -0,0 +1,94 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testThatTheTimeoutsExpireInOrder() {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 16, scheduler);
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+        timer.schedule(() -> expired.add(3), 150, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> expired.add(1), 20, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> expired.add(2), 60, TimeUnit.MILLISECONDS);
+        assertThat(timer.getPending()).isEqualTo(3);
+
+        await().until(() -> expired.size() == 3);
+        assertThat(expired).containsExactly(1, 2, 3);
+        // The timeouts never expire before their deadline
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+        assertThat(timer.getPending()).isZero();
+    }
+
+    @Test
+    public void testTimeoutsLongerThanARotation() {
+        // A rotation lasts 4 ticks of 5 ms
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 3, scheduler);
+        List<Long> expired = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+        timer.schedule(() -> expired.add(System.nanoTime() - start), 100, TimeUnit.MILLISECONDS);
+
+        await().until(() -> expired.size() == 1);
+        assertThat(expired.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testCancellation() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 16, scheduler);
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        HashedWheelTimer.Timeout cancelled = timer.schedule(() -> expired.add(1), 30, TimeUnit.MILLISECONDS);
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> expired.add(2), 60, TimeUnit.MILLISECONDS);
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(timer.getPending()).isEqualTo(1);
+
+        await().until(() -> expired.size() == 1);
+        Thread.sleep(50);
+        assertThat(expired).containsExactly(2);
+        assertThat(cancelled.isCancelled()).isTrue();
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+    }
+
+    @Test
+    public void testThatTheTimerRestartsAfterAnIdlePeriod() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 16, scheduler);
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        timer.schedule(() -> expired.add(1), 10, TimeUnit.MILLISECONDS);
+        await().until(() -> expired.size() == 1);
+
+        // Idle for several rotations
+        Thread.sleep(200);
+        long start = System.nanoTime();
+        timer.schedule(() -> expired.add(2), 20, TimeUnit.MILLISECONDS);
+        await().until(() -> expired.size() == 2);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testStop() {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 16, scheduler);
+        timer.stop();
+        assertThatThrownBy(() -> timer.schedule(() -> {
+        }, 10, TimeUnit.MILLISECONDS)).isInstanceOf(IllegalStateException.class);
+    }
+}
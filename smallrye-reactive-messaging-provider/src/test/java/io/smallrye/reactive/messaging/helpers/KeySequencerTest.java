@@ -0,0 +1,111 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniSubscriber;
+import io.smallrye.mutiny.subscription.UniSubscription;
+
+public class KeySequencerTest {
+
+    private final KeySequencer sequencer = new KeySequencer();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private Uni<String> action(String name, CompletableFuture<String> future) {
+        return sequencer.sequence(name.substring(0, 1), () -> {
+            events.add("start-" + name);
+            return Uni.createFrom().completionStage(future);
+        });
+    }
+
+    @Test
+    public void testActionsWithTheSameKeyAreSequenced() {
+        CompletableFuture<String> a1 = new CompletableFuture<>();
+        CompletableFuture<String> a2 = new CompletableFuture<>();
+        CompletableFuture<String> a3 = new CompletableFuture<>();
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        action("a1", a1).subscribe().with(results::add);
+        action("a2", a2).subscribe().with(results::add);
+        action("a3", a3).subscribe().with(results::add);
+        assertThat(events).containsExactly("start-a1");
+
+        a1.complete("a1");
+        assertThat(events).containsExactly("start-a1", "start-a2");
+        a2.complete("a2");
+        a3.complete("a3");
+        assertThat(events).containsExactly("start-a1", "start-a2", "start-a3");
+        assertThat(results).containsExactly("a1", "a2", "a3");
+        assertThat(sequencer.size()).isZero();
+    }
+
+    @Test
+    public void testActionsWithDifferentKeysAreNotSequenced() {
+        CompletableFuture<String> a1 = new CompletableFuture<>();
+        CompletableFuture<String> b1 = new CompletableFuture<>();
+
+        action("a1", a1).subscribe().with(x -> {
+        });
+        action("b1", b1).subscribe().with(x -> {
+        });
+        assertThat(events).containsExactly("start-a1", "start-b1");
+        assertThat(sequencer.size()).isEqualTo(2);
+
+        b1.complete("b1");
+        assertThat(sequencer.size()).isEqualTo(1);
+        a1.complete("a1");
+        assertThat(sequencer.size()).isZero();
+    }
+
+    @Test
+    public void testFailureReleasesTheNextAction() {
+        CompletableFuture<String> a1 = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        action("a1", a1).subscribe().with(results::add, t -> failures.incrementAndGet());
+        action("a2", CompletableFuture.completedFuture("a2")).subscribe().with(results::add);
+        assertThat(results).isEmpty();
+
+        a1.completeExceptionally(new IllegalStateException("boom"));
+        assertThat(failures).hasValue(1);
+        assertThat(results).containsExactly("a2");
+    }
+
+    @Test
+    public void testCancellationReleasesTheNextAction() {
+        CompletableFuture<String> a1 = new CompletableFuture<>();
+        List<String> results = new CopyOnWriteArrayList<>();
+        UniSubscription[] subscription = new UniSubscription[1];
+
+        action("a1", a1).subscribe().withSubscriber(new UniSubscriber<String>() {
+            @Override
+            public void onSubscribe(UniSubscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onItem(String item) {
+                results.add(item);
+            }
+
+            @Override
+            public void onFailure(Throwable failure) {
+                // Ignored
+            }
+        });
+        action("a2", CompletableFuture.completedFuture("a2")).subscribe().with(results::add);
+        assertThat(results).isEmpty();
+
+        subscription[0].cancel();
+        assertThat(results).containsExactly("a2");
+        assertThat(sequencer.size()).isZero();
+    }
+}
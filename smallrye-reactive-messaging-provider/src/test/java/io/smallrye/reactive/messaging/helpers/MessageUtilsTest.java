@@ -0,0 +1,101 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.IngressMetadata;
+
+public class MessageUtilsTest {
+
+    @Test
+    public void testThatTheMessagesCreatedWithMessageOfAreGeneric() {
+        assertThat(MessageUtils.isGeneric(Message.of("a"))).isTrue();
+        assertThat(MessageUtils.isGeneric(Message.of("a", Metadata.empty()))).isTrue();
+        assertThat(MessageUtils.isGeneric(Message.of("a", Collections.emptyList()))).isTrue();
+        assertThat(MessageUtils.isGeneric(Message.of("a", () -> CompletableFuture.completedFuture(null)))).isTrue();
+        assertThat(MessageUtils.isGeneric(Message.of("a", () -> CompletableFuture.completedFuture(null),
+                reason -> CompletableFuture.completedFuture(null)))).isTrue();
+    }
+
+    @Test
+    public void testThatTheDerivedMessagesAreGeneric() {
+        Message<String> message = Message.of("a");
+        assertThat(MessageUtils.isGeneric(message.withPayload("b"))).isTrue();
+        assertThat(MessageUtils.isGeneric(message.addMetadata(new Object()))).isTrue();
+        assertThat(MessageUtils.isGeneric(message.withAck(() -> CompletableFuture.completedFuture(null)))).isTrue();
+    }
+
+    @Test
+    public void testThatOtherMessagesAreNotGeneric() {
+        Message<String> lambda = () -> "a";
+        assertThat(MessageUtils.isGeneric(lambda)).isFalse();
+        assertThat(MessageUtils.isGeneric(new CustomMessage())).isFalse();
+        Message<String> anonymous = new Message<String>() {
+            @Override
+            public String getPayload() {
+                return "a";
+            }
+        };
+        assertThat(MessageUtils.isGeneric(anonymous)).isFalse();
+        // Derived messages are generic, even if created from a custom message
+        assertThat(MessageUtils.isGeneric(new CustomMessage().withPayload("b"))).isTrue();
+    }
+
+    @Test
+    public void testIngressMetadataIsAttachedToGenericMessages() {
+        AtomicInteger acks = new AtomicInteger();
+        Message<String> message = Message.of("hello", () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        Message<?> stamped = MessageUtils.withIngressMetadata(message, "name");
+        IngressMetadata ingress = IngressMetadata.fromMessage(stamped).orElseThrow(AssertionError::new);
+        assertThat(ingress.getChannel()).isEqualTo("name");
+        assertThat(stamped.getPayload()).isEqualTo("hello");
+
+        AtomicReference<String> outcome = new AtomicReference<>();
+        ingress.whenAcknowledged().whenComplete((x, f) -> outcome.set(f == null ? "acked" : "nacked"));
+        stamped.ack().toCompletableFuture().join();
+        assertThat(acks).hasValue(1);
+        assertThat(outcome).hasValue("acked");
+
+        // Already stamped
+        assertThat(MessageUtils.withIngressMetadata(stamped, "name")).isSameAs(stamped);
+    }
+
+    @Test
+    public void testIngressMetadataIsNotifiedOfNegativeAcknowledgements() {
+        Message<?> stamped = MessageUtils.withIngressMetadata(Message.of("hello"), "name");
+        IngressMetadata ingress = IngressMetadata.fromMessage(stamped).orElseThrow(AssertionError::new);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Several observers
+        ingress.whenAcknowledged().whenComplete((x, f) -> failure.set(f));
+        CompletableFuture<Void> other = ingress.whenAcknowledged().toCompletableFuture();
+
+        Exception boom = new Exception("boom");
+        stamped.nack(boom).toCompletableFuture().join();
+        assertThat(failure.get()).hasCause(boom);
+        assertThat(other).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testIngressMetadataIsNotAttachedToSpecificMessages() {
+        CustomMessage message = new CustomMessage();
+        assertThat(MessageUtils.withIngressMetadata(message, "name")).isSameAs(message);
+    }
+
+    private static class CustomMessage implements Message<String> {
+        @Override
+        public String getPayload() {
+            return "a";
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Processor;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+
+public class MultiUtilsTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void cleanup() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void testThatMultiAreNotWrapped() {
+        Multi<Integer> multi = Multi.createFrom().range(0, 10);
+        assertThat(MultiUtils.publisher(multi)).isSameAs(multi);
+        assertThat(MultiUtils.fromPublisherBuilder(MultiUtils.toPublisherBuilder(multi))).isSameAs(multi);
+        assertThat(MultiUtils.fromPublisherBuilder(ReactiveStreams.fromPublisher(multi))).isSameAs(multi);
+    }
+
+    @Test
+    public void testBuilderWithOperators() {
+        PublisherBuilder<Integer> builder = ReactiveStreams.of(1, 2, 3).map(i -> i * 2);
+        List<Integer> list = MultiUtils.fromPublisherBuilder(builder).collectItems().asList().await().indefinitely();
+        assertThat(list).containsExactly(2, 4, 6);
+    }
+
+    @Test
+    public void testGenerate() {
+        AtomicInteger counter = new AtomicInteger();
+        TestSubscriber<Integer> subscriber = MultiUtils.generate(counter::incrementAndGet)
+                .subscribe().withSubscriber(new TestSubscriber<>(3));
+        subscriber.assertValues(1, 2, 3).assertNotTerminated();
+        assertThat(counter).hasValue(3);
+        subscriber.requestMore(2).assertValues(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void testGenerateWithFailure() {
+        MultiUtils.generate(() -> {
+            throw new IllegalStateException("boom");
+        }).subscribe().withSubscriber(new TestSubscriber<>(1))
+                .assertError(IllegalStateException.class)
+                .assertErrorMessage("boom");
+    }
+
+    @Test
+    public void testThatMapPeekAndFilterAreAppliedOnTheMulti() {
+        List<Integer> peeked = new ArrayList<>();
+        Multi<Integer> multi = Multi.createFrom().range(0, 6);
+        PublisherBuilder<String> builder = MultiUtils.toPublisherBuilder(multi)
+                .map(i -> i * 2)
+                .peek(peeked::add)
+                .filter(i -> i % 4 == 0)
+                .map(i -> "v" + i);
+        Multi<String> result = MultiUtils.fromPublisherBuilder(builder);
+        assertThat(result.collectItems().asList().await().indefinitely()).containsExactly("v0", "v4", "v8");
+        assertThat(peeked).containsExactly(0, 2, 4, 6, 8, 10);
+    }
+
+    @Test
+    public void testThatOtherOperatorsUseTheEngine() {
+        PublisherBuilder<Integer> builder = MultiUtils.toPublisherBuilder(Multi.createFrom().range(0, 6))
+                .map(i -> i * 2)
+                .limit(2);
+        List<Integer> list = MultiUtils.fromPublisherBuilder(builder).collectItems().asList().await().indefinitely();
+        assertThat(list).containsExactly(0, 2);
+    }
+
+    @Test
+    public void testThatMapperFailuresArePropagated() {
+        PublisherBuilder<Integer> builder = MultiUtils.toPublisherBuilder(Multi.createFrom().range(0, 6))
+                .map(i -> {
+                    if (i == 2) {
+                        throw new IllegalArgumentException("boom");
+                    }
+                    return i;
+                });
+        TestSubscriber<Integer> subscriber = TestSubscriber.create(10);
+        MultiUtils.fromPublisherBuilder(builder).subscribe(subscriber);
+        subscriber.assertValues(0, 1).assertError(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testVia() {
+        Processor<Integer, Integer> processor = ReactiveStreams.<Integer> builder().map(i -> i + 1).buildRs();
+        List<Integer> list = MultiUtils.via(Multi.createFrom().range(0, 5), processor)
+                .collectItems().asList().await().indefinitely();
+        assertThat(list).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void testThatViaSupportsASingleSubscription() {
+        Processor<Integer, Integer> processor = ReactiveStreams.<Integer> builder().map(i -> i + 1).buildRs();
+        Multi<Integer> multi = MultiUtils.via(Multi.createFrom().range(0, 5), processor);
+        assertThat(multi.collectItems().asList().await().indefinitely()).containsExactly(1, 2, 3, 4, 5);
+
+        TestSubscriber<Integer> second = TestSubscriber.create(10);
+        multi.subscribe(second);
+        second.assertNoValues().assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void testProcessorPreservesBackPressure() {
+        Processor<Integer, String> processor = MultiUtils.processor(multi -> multi.onItem().transform(i -> "v" + i));
+        TestSubscriber<String> subscriber = new TestSubscriber<>(2);
+        processor.subscribe(subscriber);
+        Multi.createFrom().range(0, 10).subscribe(processor);
+
+        subscriber.assertValues("v0", "v1").assertNotTerminated();
+        subscriber.requestMore(8).assertValues("v0", "v1", "v2", "v3", "v4", "v5", "v6", "v7", "v8", "v9")
+                .assertComplete();
+    }
+
+    @Test
+    public void testProcessorSubscribedUpstreamFirst() {
+        Processor<Integer, String> processor = MultiUtils.processor(multi -> multi.onItem().transform(i -> "v" + i));
+        Multi.createFrom().range(0, 3).subscribe(processor);
+        TestSubscriber<String> subscriber = new TestSubscriber<>(10);
+        processor.subscribe(subscriber);
+
+        subscriber.assertValues("v0", "v1", "v2").assertComplete();
+    }
+
+    @Test
+    public void testProcessorWithEmptyUpstream() {
+        Processor<Integer, String> processor = MultiUtils.processor(multi -> multi.onItem().transform(i -> "v" + i));
+        Multi.createFrom().<Integer> empty().subscribe(processor);
+        TestSubscriber<String> subscriber = new TestSubscriber<>(10);
+        processor.subscribe(subscriber);
+
+        subscriber.assertNoValues().assertComplete();
+    }
+
+    @Test
+    public void testBatchBySize() {
+        List<List<Integer>> list = MultiUtils.batch(Multi.createFrom().range(0, 7), 3, Duration.ofSeconds(10), timer)
+                .collectItems().asList().await().indefinitely();
+        assertThat(list).containsExactly(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Collections.singletonList(6));
+    }
+
+    @Test
+    public void testBatchByTime() {
+        UnicastProcessor<Integer> processor = UnicastProcessor.create();
+        TestSubscriber<List<Integer>> subscriber = MultiUtils.batch(processor, 10, Duration.ofMillis(50), timer)
+                .subscribe().withSubscriber(new TestSubscriber<>(10));
+        processor.onNext(1);
+        processor.onNext(2);
+        await().until(() -> subscriber.values().size() == 1);
+        processor.onNext(3);
+        await().until(() -> subscriber.values().size() == 2);
+        processor.onComplete();
+        subscriber.awaitTerminalEvent();
+        subscriber.assertValues(Arrays.asList(1, 2), Collections.singletonList(3)).assertComplete();
+    }
+
+    @Test
+    public void testIncompleteBatchesAreEmittedOnTheCapturedExecutor() {
+        ExecutorService context = Executors.newSingleThreadExecutor(r -> new Thread(r, "context"));
+        try {
+            UnicastProcessor<Integer> processor = UnicastProcessor.create();
+            List<String> threads = new CopyOnWriteArrayList<>();
+            TestSubscriber<List<Integer>> subscriber = MultiUtils.batch(processor, 10, Duration.ofMillis(50), timer,
+                    () -> context)
+                    .onItem().invoke(batch -> threads.add(Thread.currentThread().getName()))
+                    .subscribe().withSubscriber(new TestSubscriber<>(10));
+            processor.onNext(1);
+            await().until(() -> subscriber.values().size() == 1);
+            assertThat(threads).containsExactly("context");
+        } finally {
+            context.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatchFlushedBeforeFailure() {
+        UnicastProcessor<Integer> processor = UnicastProcessor.create();
+        TestSubscriber<List<Integer>> subscriber = MultiUtils.batch(processor, 10, Duration.ofSeconds(10), timer)
+                .subscribe().withSubscriber(new TestSubscriber<>(10));
+        processor.onNext(1);
+        processor.onError(new IllegalStateException("boom"));
+        subscriber.assertValues(Collections.singletonList(1)).assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void testBatchBackPressure() {
+        AtomicInteger requested = new AtomicInteger();
+        TestSubscriber<List<Integer>> subscriber = MultiUtils.batch(
+                Multi.createFrom().range(0, 100).on().request(n -> requested.addAndGet((int) n)),
+                4, Duration.ofSeconds(10), timer)
+                .subscribe().withSubscriber(new TestSubscriber<>(0));
+        // Only one batch is requested upfront
+        assertThat(requested).hasValue(4);
+        subscriber.assertNoValues();
+
+        subscriber.requestMore(2);
+        subscriber.assertValues(Arrays.asList(0, 1, 2, 3), Arrays.asList(4, 5, 6, 7));
+        assertThat(requested).hasValue(12);
+    }
+}
@@ -0,0 +1,100 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.After;
+import org.junit.Test;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.helpers.RateLimiter.Policy;
+
+public class RateLimiterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        assertThat(bucket.tryAcquire(2)).isEqualTo(2);
+        assertThat(bucket.tryAcquire(5)).isEqualTo(1);
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.getTimeToNextPermit()).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testThatTheMessagesAreDelayed() {
+        RateLimiter limiter = new RateLimiter("test", 20, 2, Policy.BLOCK, scheduler);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        long start = System.nanoTime();
+        limiter.limit(Multi.createFrom().range(0, 10).map(Message::of)).subscribe(subscriber);
+
+        // The burst is emitted immediately
+        subscriber.assertValueCount(2);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertValueCount(10).assertComplete();
+
+        // 8 messages at 20 per second
+        long elapsed = System.nanoTime() - start;
+        assertThat(elapsed).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(350));
+        assertThat(limiter.getStatistics().getThrottledTime()).isPositive()
+                .isLessThanOrEqualTo(elapsed);
+        assertThat(limiter.getStatistics().getDropped()).isZero();
+    }
+
+    @Test
+    public void testThatTheDownstreamDemandIsRespected() {
+        RateLimiter limiter = new RateLimiter("test", 1000, 5, Policy.BLOCK, scheduler);
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(1);
+        limiter.limit(Multi.createFrom().range(0, 10).map(Message::of)).subscribe(subscriber);
+
+        subscriber.assertValueCount(1);
+        subscriber.request(2);
+        subscriber.assertValueCount(3);
+    }
+
+    @Test
+    public void testThatTheStreamsShareTheLimit() {
+        RateLimiter limiter = new RateLimiter("test", 0.1, 3, Policy.BLOCK, scheduler);
+        TestSubscriber<Message<?>> first = TestSubscriber.create(Long.MAX_VALUE);
+        TestSubscriber<Message<?>> second = TestSubscriber.create(Long.MAX_VALUE);
+        limiter.limit(Multi.createFrom().range(0, 10).map(Message::of)).subscribe(first);
+        limiter.limit(Multi.createFrom().range(0, 10).map(Message::of)).subscribe(second);
+
+        first.assertValueCount(3);
+        second.assertNoValues();
+        first.cancel();
+        second.cancel();
+    }
+
+    @Test
+    public void testThatTheMessagesAreDropped() {
+        RateLimiter limiter = new RateLimiter("test", 0.1, 3, Policy.DROP, scheduler);
+        List<Throwable> nacked = new CopyOnWriteArrayList<>();
+        TestSubscriber<Message<?>> subscriber = TestSubscriber.create(Long.MAX_VALUE);
+        limiter.limit(Multi.createFrom().range(0, 10)
+                .map(i -> Message.of(i).withNack(t -> {
+                    nacked.add(t);
+                    return Message.of(i).nack(t);
+                })))
+                .subscribe(subscriber);
+
+        subscriber.assertValueCount(3).assertComplete();
+        assertThat(subscriber.values()).extracting(m -> (Object) m.getPayload()).containsExactly(0, 1, 2);
+        assertThat(nacked).hasSize(7).allSatisfy(t -> assertThat(t).hasMessageContaining("SRMSG00093"));
+        assertThat(limiter.getStatistics().getDropped()).isEqualTo(7);
+        assertThat(limiter.getStatistics().getThrottledTime()).isZero();
+    }
+}
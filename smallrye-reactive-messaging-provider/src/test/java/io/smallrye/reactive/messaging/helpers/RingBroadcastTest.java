@@ -0,0 +1,147 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.annotations.Broadcast.SlowSubscriberPolicy;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+public class RingBroadcastTest {
+
+    private final List<BroadcastStatistics> statistics = new CopyOnWriteArrayList<>();
+    private final AtomicLong requested = new AtomicLong();
+
+    private RingBroadcast<Integer> broadcast(int count, int subscribers, SlowSubscriberPolicy policy) {
+        Multi<Integer> upstream = Multi.createFrom().range(0, count).onRequest().invoke(requested::addAndGet);
+        StatisticsListener listener = s -> statistics.add((BroadcastStatistics) s);
+        return new RingBroadcast<>(upstream, "ring", subscribers, 4, policy, Collections.singletonList(listener));
+    }
+
+    @Test
+    public void testTheCapacityIsRoundedUpToAPowerOfTwo() {
+        Multi<Integer> upstream = Multi.createFrom().empty();
+        assertThat(new RingBroadcast<>(upstream, "ring", 0, 1, null, null).capacity()).isEqualTo(1);
+        assertThat(new RingBroadcast<>(upstream, "ring", 0, 5, null, null).capacity()).isEqualTo(8);
+        assertThat(new RingBroadcast<>(upstream, "ring", 0, 256, null, null).capacity()).isEqualTo(256);
+        assertThatThrownBy(() -> new RingBroadcast<>(upstream, "ring", 0, -1, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testThatTheSlowestSubscriberSetsThePaceWhenBlocking() {
+        RingBroadcast<Integer> broadcast = broadcast(20, 2, SlowSubscriberPolicy.BLOCK);
+        TestSubscriber<Integer> fast = TestSubscriber.create(Long.MAX_VALUE);
+        TestSubscriber<Integer> slow = TestSubscriber.create(0);
+        broadcast.subscribe(fast);
+        broadcast.subscribe(slow);
+
+        // The fast subscriber can be a whole ring ahead
+        fast.assertValues(0, 1, 2, 3).assertNotComplete();
+        assertThat(statistics.get(1).getLag()).isEqualTo(4);
+        assertThat(requested.get()).isEqualTo(4);
+
+        slow.request(2);
+        slow.assertValues(0, 1);
+        // The ring is refilled as the slow subscriber consumes it
+        fast.assertValueCount(6);
+        assertThat(statistics.get(1).getLag()).isEqualTo(4);
+
+        slow.request(Long.MAX_VALUE);
+        fast.assertValueCount(20).assertComplete();
+        slow.assertValueCount(20).assertComplete();
+        assertThat(statistics).allSatisfy(s -> {
+            assertThat(s.getDropped()).isZero();
+            assertThat(s.isDetached()).isFalse();
+        });
+    }
+
+    @Test
+    public void testThatTheOldestItemsAreDroppedForTheSlowSubscriber() {
+        RingBroadcast<Integer> broadcast = broadcast(20, 2, SlowSubscriberPolicy.DROP_OLDEST);
+        TestSubscriber<Integer> fast = TestSubscriber.create(Long.MAX_VALUE);
+        TestSubscriber<Integer> slow = TestSubscriber.create(1);
+        broadcast.subscribe(fast);
+        broadcast.subscribe(slow);
+
+        fast.assertValueCount(20).assertComplete();
+        slow.assertValues(0).assertNotComplete();
+        assertThat(statistics.get(1).getLag()).isEqualTo(4);
+        assertThat(statistics.get(1).getDropped()).isEqualTo(15);
+
+        slow.request(10);
+        slow.assertValues(0, 16, 17, 18, 19).assertComplete();
+        assertThat(statistics.get(0).getDropped()).isZero();
+        assertThat(statistics.get(1).getLag()).isZero();
+    }
+
+    @Test
+    public void testThatTheSlowSubscriberIsDetached() {
+        RingBroadcast<Integer> broadcast = broadcast(20, 2, SlowSubscriberPolicy.DETACH);
+        TestSubscriber<Integer> fast = TestSubscriber.create(Long.MAX_VALUE);
+        TestSubscriber<Integer> slow = TestSubscriber.create(1);
+        broadcast.subscribe(fast);
+        broadcast.subscribe(slow);
+
+        fast.assertValueCount(20).assertComplete();
+        slow.assertValues(0).assertError(IllegalStateException.class);
+        assertThat(statistics.get(1).isDetached()).isTrue();
+        assertThat(statistics.get(0).isDetached()).isFalse();
+    }
+
+    @Test
+    public void testThatTheUpstreamIsSubscribedOnceEnoughSubscribersJoined() {
+        RingBroadcast<Integer> broadcast = broadcast(3, 2, SlowSubscriberPolicy.BLOCK);
+        TestSubscriber<Integer> first = TestSubscriber.create(Long.MAX_VALUE);
+        broadcast.subscribe(first);
+        first.assertNoValues();
+        assertThat(requested.get()).isZero();
+
+        TestSubscriber<Integer> second = TestSubscriber.create(Long.MAX_VALUE);
+        broadcast.subscribe(second);
+        first.assertValues(0, 1, 2).assertComplete();
+        second.assertValues(0, 1, 2).assertComplete();
+
+        // Late subscribers only get the completion
+        TestSubscriber<Integer> late = TestSubscriber.create(Long.MAX_VALUE);
+        broadcast.subscribe(late);
+        late.assertNoValues().assertComplete();
+    }
+
+    @Test
+    public void testThatNothingIsRequestedWithoutSubscribers() {
+        RingBroadcast<Integer> broadcast = broadcast(20, 1, SlowSubscriberPolicy.DROP_OLDEST);
+        TestSubscriber<Integer> first = TestSubscriber.create(2);
+        broadcast.subscribe(first);
+        first.assertValues(0, 1);
+        assertThat(requested.get()).isEqualTo(6);
+        first.cancel();
+        assertThat(requested.get()).isEqualTo(6);
+
+        // The items stored in the ring before subscribing are not replayed
+        TestSubscriber<Integer> second = TestSubscriber.create(Long.MAX_VALUE);
+        broadcast.subscribe(second);
+        second.assertValueCount(14).assertComplete();
+        assertThat(second.values()).startsWith(6, 7);
+    }
+
+    @Test
+    public void testThatFailuresArePropagatedAfterTheStoredItems() {
+        Multi<Integer> upstream = Multi.createFrom().range(0, 2)
+                .onCompletion().failWith(() -> new IllegalArgumentException("boom"));
+        RingBroadcast<Integer> broadcast = new RingBroadcast<>(upstream, "ring", 0, 4, SlowSubscriberPolicy.BLOCK, null);
+        TestSubscriber<Integer> subscriber = TestSubscriber.create(1);
+        broadcast.subscribe(subscriber);
+        subscriber.assertValues(0).assertNoErrors();
+        subscriber.request(1);
+        subscriber.assertValues(0, 1).assertErrorMessage("boom");
+    }
+}
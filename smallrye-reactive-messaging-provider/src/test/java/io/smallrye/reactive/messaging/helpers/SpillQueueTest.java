@@ -0,0 +1,333 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void init() {
+        directory = folder.getRoot().toPath().resolve("spill");
+    }
+
+    @Test
+    public void testThatTheMessagesAreReadInOrderAcrossSegments() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 64, 1024 * 1024);
+        List<Integer> acked = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            queue.append(Message.of("message-" + i, Metadata.of(new Index(i)), () -> {
+                acked.add(index);
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+        assertThat(queue.isEmpty()).isFalse();
+        assertThat(queue.getStatistics().getPending()).isEqualTo(100);
+        assertThat(queue.getStatistics().getSpilled()).isEqualTo(100);
+        assertThat(segments()).hasSizeGreaterThan(10);
+
+        List<Message<?>> messages = new ArrayList<>();
+        Message<?> message;
+        while ((message = queue.poll()) != null) {
+            messages.add(message);
+        }
+        assertThat(messages).extracting(m -> (Object) m.getPayload()).hasSize(100).startsWith("message-0", "message-1")
+                .endsWith("message-99");
+        assertThat(messages.get(42).getMetadata(Index.class)).hasValueSatisfying(i -> assertThat(i.value).isEqualTo(42));
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.getStatistics().getPending()).isZero();
+        assertThat(queue.getStatistics().getLag()).isZero();
+
+        // The segments are deleted once acknowledged
+        assertThat(queue.getStatistics().getDiskUsage()).isPositive();
+        messages.forEach(Message::ack);
+        assertThat(acked).hasSize(100);
+        assertThat(queue.getStatistics().getDiskUsage()).isZero();
+        assertThat(segments()).isEmpty();
+    }
+
+    @Test
+    public void testThatASegmentIsKeptUntilAllItsMessagesAreAcknowledged() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        queue.append(Message.of("a"));
+        queue.append(Message.of("b"));
+        Message<?> a = queue.poll();
+        Message<?> b = queue.poll();
+        assertThat(segments()).hasSize(1);
+
+        b.ack();
+        // Acknowledging twice does not release the segment twice
+        b.ack();
+        assertThat(segments()).hasSize(1);
+        a.nack(new Exception("boom"));
+        assertThat(segments()).isEmpty();
+
+        // A new segment is created for the next messages
+        queue.append(Message.of("c"));
+        assertThat(segments()).hasSize(1);
+        assertThat(queue.poll().getPayload()).isEqualTo("c");
+    }
+
+    @Test
+    public void testThatTheDiskUsageIsBounded() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 64, 128);
+        int spilled = 0;
+        try {
+            for (int i = 0; i < 100; i++) {
+                queue.append(Message.of("message-" + i));
+                spilled++;
+            }
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessageContaining("SRMSG00034");
+        }
+        assertThat(spilled).isBetween(2, 10);
+        assertThat(queue.getStatistics().getDiskUsage()).isEqualTo(128);
+
+        // Reading and acknowledging the messages frees the disk
+        Message<?> message;
+        while ((message = queue.poll()) != null) {
+            message.ack();
+        }
+        assertThat(queue.getStatistics().getDiskUsage()).isZero();
+        queue.append(Message.of("again"));
+        assertThat(queue.poll().getPayload()).isEqualTo("again");
+    }
+
+    @Test
+    public void testThatTheMessagesAreRecoveredAfterARestart() throws IOException {
+        try (SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024)) {
+            for (int i = 0; i < 10; i++) {
+                queue.append(Message.of("message-" + i, Metadata.of(new Index(i))));
+            }
+            // Processed, but their segment still holds unacknowledged messages
+            queue.poll().ack();
+            queue.poll().ack();
+        }
+
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        assertThat(queue.getStatistics().getPending()).isEqualTo(10);
+        List<Message<?>> messages = new ArrayList<>();
+        Message<?> message;
+        while ((message = queue.poll()) != null) {
+            messages.add(message);
+        }
+        assertThat(messages).extracting(m -> (Object) m.getPayload()).hasSize(10).startsWith("message-0")
+                .endsWith("message-9");
+        assertThat(messages.get(0).getMetadata()).isEmpty();
+
+        // The new messages are written in a new segment
+        queue.append(Message.of("new"));
+        assertThat(segments()).hasSize(2);
+        messages.forEach(Message::ack);
+        assertThat(segments()).hasSize(1);
+        assertThat(queue.poll().getPayload()).isEqualTo("new");
+    }
+
+    @Test
+    public void testThatTheMessagesBeyondTheInMemoryLimitAreAcknowledgedOnSpill() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024, Collections.emptyList(), 2);
+        List<Integer> acked = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            queue.append(Message.of("message-" + i, Metadata.of(new Index(i)), () -> {
+                acked.add(index);
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+        // Written, so acknowledged, and their metadata which cannot be written is dropped
+        assertThat(acked).containsExactly(2, 3, 4);
+        assertThat(queue.getStatistics().getInMemory()).isEqualTo(2);
+        assertThat(queue.getStatistics().getAcknowledgedOnSpill()).isEqualTo(3);
+
+        List<Message<?>> messages = new ArrayList<>();
+        Message<?> message;
+        while ((message = queue.poll()) != null) {
+            messages.add(message);
+        }
+        assertThat(messages).extracting(m -> (Object) m.getPayload()).containsExactly("message-0", "message-1",
+                "message-2", "message-3", "message-4");
+        assertThat(messages.get(1).getMetadata(Index.class)).isPresent();
+        assertThat(messages.get(2).getMetadata()).isEmpty();
+        assertThat(queue.getStatistics().getInMemory()).isZero();
+
+        messages.forEach(Message::ack);
+        assertThat(acked).containsExactly(2, 3, 4, 0, 1);
+        assertThat(segments()).isEmpty();
+
+        // Room is available again
+        queue.append(Message.of("again", () -> {
+            acked.add(5);
+            return CompletableFuture.completedFuture(null);
+        }));
+        assertThat(acked).hasSize(5);
+    }
+
+    @Test
+    public void testThatTheSerializableMetadataIsWritten() throws IOException {
+        List<String> allowed = Collections.singletonList(SpillQueueTest.class.getPackage().getName() + ".*");
+        try (SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024, allowed)) {
+            queue.append(Message.of("a", Metadata.of(new Stamp("first"), new Index(1))));
+            queue.append(Message.of("b", Metadata.of(new Stamp("second"))));
+            Message<?> message = queue.poll();
+            assertThat(message.getMetadata(Stamp.class)).hasValueSatisfying(s -> assertThat(s.value).isEqualTo("first"));
+            assertThat(message.getMetadata(Index.class)).isPresent();
+        }
+
+        // Only the written metadata is recovered
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024, allowed);
+        Message<?> message = queue.poll();
+        assertThat(message.getPayload()).isEqualTo("a");
+        assertThat(message.getMetadata(Stamp.class)).hasValueSatisfying(s -> assertThat(s.value).isEqualTo("first"));
+        assertThat(message.getMetadata(Index.class)).isEmpty();
+        assertThat(queue.poll().getMetadata(Stamp.class))
+                .hasValueSatisfying(s -> assertThat(s.value).isEqualTo("second"));
+        queue.close();
+
+        // Restarted without allowing the metadata class, the metadata is dropped, not the message
+        queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        message = queue.poll();
+        assertThat(message.getPayload()).isEqualTo("a");
+        assertThat(message.getMetadata()).isEmpty();
+    }
+
+    @Test
+    public void testPayloadTypes() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024,
+                Collections.singletonList(ArrayList.class.getName()));
+        queue.append(Message.of(new byte[] { 1, 2, 3 }));
+        queue.append(Message.of(""));
+        queue.append(Message.of(new ArrayList<>(Arrays.asList("a", "b"))));
+        queue.append(Message.of(42L));
+        assertThat(queue.poll().getPayload()).isEqualTo(new byte[] { 1, 2, 3 });
+        assertThat(queue.poll().getPayload()).isEqualTo("");
+        assertThat(queue.poll().getPayload()).isEqualTo(Arrays.asList("a", "b"));
+        assertThat(queue.poll().getPayload()).isEqualTo(42L);
+
+        assertThatThrownBy(() -> queue.append(Message.of(new Object())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SRMSG00099")
+                .hasCauseInstanceOf(NotSerializableException.class);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testThatOnlyTheAllowedClassesAreSpilled() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        assertThatThrownBy(() -> queue.append(Message.of(new Date())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SRMSG00099")
+                .hasCauseInstanceOf(InvalidClassException.class);
+        assertThat(queue.isEmpty()).isTrue();
+
+        assertThat(queue.isAllowed("java.lang.Integer")).isTrue();
+        assertThat(queue.isAllowed("[[I")).isTrue();
+        assertThat(queue.isAllowed("[Ljava.lang.String;")).isTrue();
+        assertThat(queue.isAllowed("java.util.Date")).isFalse();
+
+        SpillQueue patterns = new SpillQueue("patterns", folder.getRoot().toPath().resolve("patterns"), 1024, 1024,
+                Arrays.asList("org.acme.Price", "org.acme.model.*", "org.acme.events.**"));
+        assertThat(patterns.isAllowed("org.acme.Price")).isTrue();
+        assertThat(patterns.isAllowed("[Lorg.acme.Price;")).isTrue();
+        assertThat(patterns.isAllowed("org.acme.Other")).isFalse();
+        assertThat(patterns.isAllowed("org.acme.model.Order")).isTrue();
+        assertThat(patterns.isAllowed("org.acme.model.sub.Order")).isFalse();
+        assertThat(patterns.isAllowed("org.acme.events.Created")).isTrue();
+        assertThat(patterns.isAllowed("org.acme.events.order.Created")).isTrue();
+        assertThat(patterns.isAllowed("org.acme.eventsX.Created")).isFalse();
+    }
+
+    @Test
+    public void testThatTheClassesNotAllowedAreNotDeserialized() throws IOException {
+        try (SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024,
+                Collections.singletonList("java.util.*"))) {
+            queue.append(Message.of(new Date()));
+            queue.append(Message.of("after"));
+        }
+
+        // Restarted with a narrower allow-list, the payload is dropped instead of being deserialized
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        assertThat(queue.getStatistics().getPending()).isEqualTo(2);
+        Message<?> message = queue.poll();
+        assertThat(message.getPayload()).isEqualTo("after");
+        assertThat(queue.poll()).isNull();
+        message.ack();
+        assertThat(segments()).isEmpty();
+    }
+
+    @Test
+    public void testThatTheDirectoryIsLocked() throws IOException {
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        assertThatThrownBy(() -> new SpillQueue("other", directory, 1024, 1024 * 1024))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("used by another application");
+
+        queue.close();
+        new SpillQueue("other", directory, 1024, 1024 * 1024).close();
+    }
+
+    @Test
+    public void testLag() throws Exception {
+        SpillQueue queue = new SpillQueue("test", directory, 1024, 1024 * 1024);
+        // Warm up
+        queue.append(Message.of("warm-up"));
+        queue.poll();
+        queue.append(Message.of("a"));
+        Thread.sleep(200);
+        queue.append(Message.of("b"));
+        assertThat(queue.getStatistics().getLag()).isGreaterThanOrEqualTo(200);
+        queue.poll();
+        assertThat(queue.getStatistics().getLag()).isLessThan(200);
+        queue.poll();
+        assertThat(queue.getStatistics().getLag()).isZero();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> list = Files.list(directory)) {
+            return list.filter(path -> path.toString().endsWith(".seg")).collect(Collectors.toList());
+        }
+    }
+
+    private static class Index {
+        private final int value;
+
+        private Index(int value) {
+            this.value = value;
+        }
+    }
+
+    private static class Stamp implements Serializable {
+        private final String value;
+
+        private Stamp(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.smallrye.reactive.messaging.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TypeCacheTest {
+
+    @Test
+    public void testThatValuesAreComputedOnce() {
+        TypeCache<String> cache = new TypeCache<>(10);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.get(String.class, Object.class, (from, to) -> {
+                calls.incrementAndGet();
+                return from.getTypeName() + "->" + to.getTypeName();
+            })).isEqualTo("java.lang.String->java.lang.Object");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+
+        // The order of the types matters
+        cache.get(Object.class, String.class, (from, to) -> "reversed");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testThatTheCacheIsBounded() {
+        TypeCache<Boolean> cache = new TypeCache<>(2);
+        cache.get(String.class, Object.class, (from, to) -> true);
+        cache.get(Integer.class, Object.class, (from, to) -> true);
+        assertThat(cache.size()).isEqualTo(2);
+        // A single entry is evicted to store the new one
+        cache.get(Long.class, Object.class, (from, to) -> true);
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(List.class, Map.class, (from, to) -> false);
+        assertThat(cache.size()).isEqualTo(2);
+        AtomicInteger calls = new AtomicInteger();
+        assertThat(cache.get(List.class, Map.class, (from, to) -> calls.incrementAndGet() > 0)).isFalse();
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    public void testThatEqualTypesShareTheirEntry() throws NoSuchMethodException {
+        // Each copy of a method creates its own generic types
+        Type first = getClass().getMethod("generic").getGenericReturnType();
+        Type second = getClass().getMethod("generic").getGenericReturnType();
+        assertThat(first).isNotSameAs(second).isEqualTo(second);
+
+        TypeCache<Boolean> cache = new TypeCache<>(10);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(first, List.class, (from, to) -> calls.incrementAndGet() > 0);
+        cache.get(second, List.class, (from, to) -> calls.incrementAndGet() > 0);
+        assertThat(calls).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatTheCacheCanBeDisabled() {
+        TypeCache<Boolean> cache = new TypeCache<>(0);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(String.class, Object.class, (from, to) -> calls.incrementAndGet() > 0);
+        cache.get(String.class, Object.class, (from, to) -> calls.incrementAndGet() > 0);
+        assertThat(calls).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    public List<Map<String, ? extends Number>> generic() {
+        return null;
+    }
+}
@@ -449,6 +449,36 @@ public class TypeUtilsTest<B> {
     public static <T extends Comparable<? extends T>> T stub3() {
         return null;
     }
+
+    @Test
+    public void testThatResultsAreCached() throws NoSuchFieldException {
+        TypeUtils.clearCache();
+        assertEquals(0, TypeUtils.cacheSize());
+
+        final Type datType = getClass().getField("dat").getGenericType();
+        final Type disType = getClass().getField("dis").getGenericType();
+        final Type daType = getClass().getField("da").getGenericType();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(TypeUtils.isAssignable(datType, disType));
+            assertFalse(TypeUtils.isAssignable(daType, disType));
+        }
+        int size = TypeUtils.cacheSize();
+        assertTrue(size > 0);
+        assertTrue(TypeUtils.isAssignable(datType, disType));
+        assertEquals(size, TypeUtils.cacheSize());
+
+        TypeUtils.clearCache();
+        assertEquals(0, TypeUtils.cacheSize());
+        assertTrue(TypeUtils.isAssignable(datType, disType));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testThatCachedTypeArgumentsCannotBeModified() throws NoSuchFieldException {
+        final Type dClassType = AClass.class.getField("dClass").getGenericType();
+        Map<TypeVariable<?>, Type> arguments = TypeUtils.getTypeArguments(dClassType, AClass.CClass.class);
+        assertSame(arguments, TypeUtils.getTypeArguments(dClassType, AClass.CClass.class));
+        arguments.clear();
+    }
 }
 
 @SuppressWarnings("ALL")
@@ -1,9 +1,11 @@
 package io.smallrye.reactive.messaging.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,7 @@ import org.junitpioneer.jupiter.SetEnvironmentVariable;
 
 import io.smallrye.config.SmallRyeConfig;
 import io.smallrye.config.SmallRyeConfigBuilder;
+import io.smallrye.reactive.messaging.RefreshableConfig;
 
 public class ConnectorConfigTest {
 
@@ -72,4 +75,56 @@ public class ConnectorConfigTest {
         assertThat(result.getOptionalValue("ATTR3", String.class)).hasValue("used");
     }
 
+    @Test
+    public void testThatTheSnapshotIsTakenAtCreationUntilRefreshed() {
+        Map<String, String> cfg = new HashMap<>();
+        cfg.put("mp.messaging.incoming.foo.connector", "some-connector");
+        cfg.put("mp.messaging.incoming.foo.attr", "value");
+        cfg.put("mp.messaging.connector.some-connector.port", "1234");
+        cfg.put("mp.messaging.incoming.foo.unread", "initial");
+
+        SmallRyeConfig c = new SmallRyeConfigBuilder()
+                .withSources(new ConfigSource() {
+                    @Override
+                    public Map<String, String> getProperties() {
+                        return cfg;
+                    }
+
+                    @Override
+                    public String getValue(String s) {
+                        return cfg.get(s);
+                    }
+
+                    @Override
+                    public String getName() {
+                        return "dynamic";
+                    }
+                })
+                .build();
+
+        ConnectorConfig config = new ConnectorConfig("mp.messaging.incoming.", c, "foo");
+        assertThat(config.getValue("attr", String.class)).isEqualTo("value");
+        assertThat(config.getValue("port", Integer.class)).isEqualTo(1234);
+        assertThat(config.getOptionalValue("port", String.class)).hasValue("1234");
+        assertThat(config.getOptionalValue("missing", String.class)).isEmpty();
+
+        cfg.put("mp.messaging.incoming.foo.attr", "updated");
+        cfg.put("mp.messaging.incoming.foo.port", "5678");
+        cfg.put("mp.messaging.incoming.foo.missing", "added");
+        cfg.put("mp.messaging.incoming.foo.unread", "updated");
+        // The snapshot is taken when the channel is created, not on first access
+        assertThat(config.getValue("unread", String.class)).isEqualTo("initial");
+        assertThat(config.getValue("attr", String.class)).isEqualTo("value");
+        assertThat(config.getValue("port", Integer.class)).isEqualTo(1234);
+        assertThat(config.getOptionalValue("missing", String.class)).isEmpty();
+
+        ((RefreshableConfig) config).refresh();
+        assertThat(config.getValue("attr", String.class)).isEqualTo("updated");
+        assertThat(config.getValue("unread", String.class)).isEqualTo("updated");
+        assertThat(config.getValue("port", Integer.class)).isEqualTo(5678);
+        assertThat(config.getOptionalValue("missing", String.class)).hasValue("added");
+        assertThatThrownBy(() -> config.getValue("unknown", String.class))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
 }
@@ -0,0 +1,165 @@
+package io.smallrye.reactive.messaging.inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.extension.EmitterConfiguration;
+import io.smallrye.reactive.messaging.extension.EmitterImpl;
+import io.smallrye.reactive.messaging.extension.MutinyEmitterImpl;
+
+public class EmitterBatchTest {
+
+    @Test
+    public void testSendAllCompletesWhenAllMessagesAreAcknowledged() {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(null, -1), 128);
+        List<Message<? extends String>> received = new CopyOnWriteArrayList<>();
+        Multi.createFrom().publisher(emitter.getPublisher()).subscribe().with(received::add);
+
+        CompletableFuture<Void> future = emitter.sendAll(Arrays.asList("a", "b", "c")).toCompletableFuture();
+        assertThat(received.stream().<String> map(Message::getPayload).collect(Collectors.toList()))
+                .containsExactly("a", "b", "c");
+
+        received.get(0).ack();
+        received.get(2).ack();
+        assertThat(future).isNotDone();
+        received.get(1).ack();
+        assertThat(future).isCompleted();
+    }
+
+    @Test
+    public void testSendAllFailsOnTheFirstNegativeAcknowledgement() {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(null, -1), 128);
+        List<Message<? extends String>> received = new CopyOnWriteArrayList<>();
+        Multi.createFrom().publisher(emitter.getPublisher()).subscribe().with(received::add);
+
+        CompletableFuture<Void> future = emitter.sendAll(Arrays.asList("a", "b", "c")).toCompletableFuture();
+        received.get(0).ack();
+        received.get(1).nack(new IllegalArgumentException("boom"));
+        received.get(2).nack(new IllegalStateException("ignored"));
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testSendAllWithoutPayloads() {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(null, -1), 128);
+        Multi.createFrom().publisher(emitter.getPublisher()).subscribe().with(m -> {
+        });
+        CompletionStage<Void> stage = emitter.sendAll(Collections.emptyList());
+        assertThat(stage.toCompletableFuture()).isCompleted();
+    }
+
+    @Test
+    public void testInvalidBatches() {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(null, -1), 128);
+        Multi.createFrom().publisher(emitter.getPublisher()).subscribe().with(m -> {
+        });
+        assertThatThrownBy(() -> emitter.sendAll(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> emitter.sendAll(Arrays.asList("a", null))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> emitter.sendMessages(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> emitter.sendMessages(Arrays.asList(Message.of("a"), null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testSendMessages() {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(null, -1), 128);
+        List<String> received = new CopyOnWriteArrayList<>();
+        Multi.createFrom().publisher(emitter.getPublisher()).subscribe().with(m -> received.add(m.getPayload()));
+
+        List<Message<String>> messages = new ArrayList<>();
+        messages.add(Message.of("a"));
+        messages.add(Message.of("b"));
+        emitter.sendMessages(messages);
+        emitter.send("c");
+        assertThat(received).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void testBatchesAreNotPartiallySentOnOverflow() {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(OnOverflow.Strategy.BUFFER, 3), 128);
+        List<Message<? extends String>> received = new CopyOnWriteArrayList<>();
+        emitter.getPublisher().subscribe(new Subscriber<Message<? extends String>>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                // Do not request, only the buffer can be used
+            }
+
+            @Override
+            public void onNext(Message<? extends String> message) {
+                received.add(message);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // Ignored
+            }
+
+            @Override
+            public void onComplete() {
+                // Ignored
+            }
+        });
+
+        emitter.sendAll(Arrays.asList("a", "b"));
+        assertThatThrownBy(() -> emitter.sendAll(Arrays.asList("c", "d"))).isInstanceOf(IllegalStateException.class);
+        // The failed batch did not consume the remaining slot
+        emitter.send("e");
+        assertThatThrownBy(() -> emitter.send("f")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testMutinySendAll() {
+        MutinyEmitterImpl<String> emitter = new MutinyEmitterImpl<>(configuration(null, -1), 128);
+        List<Message<? extends String>> received = new CopyOnWriteArrayList<>();
+        Multi.createFrom().publisher(emitter.getPublisher()).subscribe().with(received::add);
+
+        Uni<Void> uni = emitter.sendAll(Arrays.asList("a", "b"));
+        // Nothing is sent until subscription
+        assertThat(received).isEmpty();
+
+        AtomicBoolean acked = new AtomicBoolean();
+        uni.subscribe().with(x -> acked.set(true));
+        assertThat(received).hasSize(2);
+        received.forEach(Message::ack);
+        await().untilTrue(acked);
+
+        AtomicBoolean empty = new AtomicBoolean();
+        emitter.sendAll(Collections.emptyList()).subscribe().with(x -> empty.set(true));
+        assertThat(empty).isTrue();
+
+        emitter.sendMessages(Arrays.asList(Message.of("c"), Message.of("d")));
+        assertThat(received.stream().<String> map(Message::getPayload).collect(Collectors.toList()))
+                .containsExactly("a", "b", "c", "d");
+    }
+
+    private static EmitterConfiguration configuration(OnOverflow.Strategy strategy, long bufferSize) {
+        EmitterConfiguration configuration = new EmitterConfiguration();
+        configuration.name = "my-channel";
+        configuration.overflowBufferStrategy = strategy;
+        configuration.overflowBufferSize = bufferSize;
+        configuration.numberOfSubscriberBeforeConnecting = -1;
+        return configuration;
+    }
+}
@@ -0,0 +1,246 @@
+package io.smallrye.reactive.messaging.inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.extension.EmitterConfiguration;
+import io.smallrye.reactive.messaging.extension.EmitterImpl;
+
+public class EmitterConcurrencyTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int MESSAGES = 1000;
+    // The size of the queue of the emitters, AbstractEmitter.MAX_PENDING
+    private static final int MAX_PENDING = 1024;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentProducersWithDefaultStrategy() throws InterruptedException {
+        verifyAllMessagesAreDelivered(configuration(null, -1));
+    }
+
+    @Test
+    public void testConcurrentProducersWithUnboundedBuffer() throws InterruptedException {
+        verifyAllMessagesAreDelivered(configuration(OnOverflow.Strategy.UNBOUNDED_BUFFER, -1));
+    }
+
+    @Test
+    public void testConcurrentProducersWithBuffer() throws InterruptedException {
+        verifyAllMessagesAreDelivered(configuration(OnOverflow.Strategy.BUFFER, PRODUCERS * MESSAGES));
+    }
+
+    @Test
+    public void testOverflowIsReportedToTheProducers() throws InterruptedException {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(OnOverflow.Strategy.BUFFER, 100), 128);
+        List<Message<? extends String>> received = new CopyOnWriteArrayList<>();
+        // No request, only the buffer can be used
+        emitter.getPublisher().subscribe(new Subscriber<Message<? extends String>>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                // Do not request
+            }
+
+            @Override
+            public void onNext(Message<? extends String> message) {
+                received.add(message);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // Ignored
+            }
+
+            @Override
+            public void onComplete() {
+                // Ignored
+            }
+        });
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        run(() -> {
+            for (int i = 0; i < 50; i++) {
+                try {
+                    emitter.send("hello");
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(PRODUCERS * 50 - 100);
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    public void testCompletionAfterConcurrentSends() throws InterruptedException {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(null, -1), 128);
+        AtomicInteger count = new AtomicInteger();
+        AtomicBoolean completed = new AtomicBoolean();
+        Multi.createFrom().publisher(emitter.getPublisher())
+                .subscribe().with(m -> count.incrementAndGet(), () -> completed.set(true));
+
+        run(() -> {
+            for (int i = 0; i < MESSAGES; i++) {
+                emitter.send("hello");
+            }
+        });
+        emitter.complete();
+
+        await().untilTrue(completed);
+        assertThat(count.get()).isEqualTo(PRODUCERS * MESSAGES);
+    }
+
+    @Test
+    public void testConcurrentBatchesAreNotInterleaved() throws InterruptedException {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(OnOverflow.Strategy.UNBOUNDED_BUFFER, -1), 128);
+        List<String> received = new CopyOnWriteArrayList<>();
+        Multi.createFrom().publisher(emitter.getPublisher())
+                .subscribe().with(m -> received.add(m.getPayload()));
+
+        AtomicInteger producers = new AtomicInteger();
+        run(() -> {
+            String producer = Integer.toString(producers.getAndIncrement());
+            for (int i = 0; i < 100; i++) {
+                List<String> batch = new ArrayList<>();
+                for (int j = 0; j < 10; j++) {
+                    batch.add(producer + "-" + j);
+                }
+                emitter.sendAll(batch);
+            }
+        });
+
+        await().until(() -> received.size() == PRODUCERS * 100 * 10);
+        for (int i = 0; i < received.size(); i += 10) {
+            String producer = received.get(i).split("-")[0];
+            for (int j = 0; j < 10; j++) {
+                assertThat(received.get(i + j)).isEqualTo(producer + "-" + j);
+            }
+        }
+    }
+
+    @Test
+    public void testProducersWaitWhenTooManyMessagesArePending() throws InterruptedException {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration(OnOverflow.Strategy.UNBOUNDED_BUFFER, -1), 128);
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        Multi.createFrom().publisher(emitter.getPublisher())
+                .subscribe().with(m -> {
+                    if (count.getAndIncrement() == 0) {
+                        delivering.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+
+        // The first producer delivers its message, and is blocked by the subscriber
+        executor.execute(() -> emitter.send("first"));
+        assertThat(delivering.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The messages of the second producer are enqueued, until the queue is full
+        AtomicInteger sent = new AtomicInteger();
+        executor.execute(() -> {
+            for (int i = 0; i < MAX_PENDING + 10; i++) {
+                emitter.send("hello");
+                sent.incrementAndGet();
+            }
+        });
+        await().until(() -> sent.get() == MAX_PENDING);
+        Thread.sleep(100);
+        assertThat(sent.get()).isEqualTo(MAX_PENDING);
+
+        release.countDown();
+        await().until(() -> count.get() == MAX_PENDING + 11);
+        assertThat(sent.get()).isEqualTo(MAX_PENDING + 10);
+    }
+
+    private void verifyAllMessagesAreDelivered(EmitterConfiguration configuration) throws InterruptedException {
+        EmitterImpl<String> emitter = new EmitterImpl<>(configuration, 128);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        AtomicInteger count = new AtomicInteger();
+        Multi.createFrom().publisher(emitter.getPublisher())
+                .subscribe().with(m -> {
+                    String[] segments = m.getPayload().split("-");
+                    received.computeIfAbsent(segments[0], k -> new ArrayList<>()).add(Integer.parseInt(segments[1]));
+                    count.incrementAndGet();
+                });
+
+        AtomicInteger producers = new AtomicInteger();
+        run(() -> {
+            String producer = Integer.toString(producers.getAndIncrement());
+            for (int i = 0; i < MESSAGES; i++) {
+                emitter.send(producer + "-" + i);
+            }
+        });
+
+        await().until(() -> count.get() == PRODUCERS * MESSAGES);
+        assertThat(received).hasSize(PRODUCERS);
+        // The messages sent by a producer are delivered in order
+        received.values().forEach(list -> {
+            assertThat(list).hasSize(MESSAGES);
+            for (int i = 0; i < MESSAGES; i++) {
+                assertThat(list.get(i)).isEqualTo(i);
+            }
+        });
+    }
+
+    private void run(Runnable producer) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        for (int i = 0; i < PRODUCERS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    producer.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static EmitterConfiguration configuration(OnOverflow.Strategy strategy, long bufferSize) {
+        EmitterConfiguration configuration = new EmitterConfiguration();
+        configuration.name = "my-channel";
+        configuration.overflowBufferStrategy = strategy;
+        configuration.overflowBufferSize = bufferSize;
+        configuration.numberOfSubscriberBeforeConnecting = -1;
+        return configuration;
+    }
+}
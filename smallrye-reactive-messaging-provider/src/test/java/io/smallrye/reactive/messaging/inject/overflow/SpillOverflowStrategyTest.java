@@ -0,0 +1,290 @@
+package io.smallrye.reactive.messaging.inject.overflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+import javax.enterprise.util.AnnotationLiteral;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.*;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.helpers.SpillStatistics;
+import io.smallrye.reactive.messaging.metrics.StatisticsMetrics;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+import io.smallrye.reactive.messaging.statistics.StatisticsListener;
+
+public class SpillOverflowStrategyTest extends WeldTestBaseWithoutTails {
+
+    private static final String PREFIX = StatisticsMetrics.PREFIX + SpillStatistics.TYPE + ".";
+
+    private static ExecutorService executor;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @BeforeClass
+    public static void init() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        executor.shutdown();
+    }
+
+    private void configure(long maxSize) {
+        directory = folder.getRoot().toPath();
+        Map<String, Object> map = new HashMap<>();
+        map.put("mp.messaging.emitter.spill.directory", directory.toString());
+        map.put("mp.messaging.emitter.spill.segment-size", 1024);
+        map.put("mp.messaging.emitter.spill.max-size", maxSize);
+        installConfig(new MapBasedConfig(map));
+    }
+
+    @After
+    public void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testThatTheOverflowIsSpilledAndReplayedInOrder() throws IOException {
+        configure(1024 * 1024);
+        addBeanClass(StatisticsCollector.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        BeanUsingSpillOverflowStrategy bean = installInitializeAndGet(BeanUsingSpillOverflowStrategy.class);
+        bean.emitALotOfItems();
+
+        await().until(() -> bean.output().size() == 999);
+        assertThat(bean.output()).containsExactlyElementsOf(
+                IntStream.range(1, 1000).mapToObj(Integer::toString).collect(Collectors.toList()));
+        assertThat(bean.exception()).isNull();
+        assertThat(bean.failure()).isNull();
+
+        SpillStatistics statistics = get(StatisticsCollector.class).statistics("spilled");
+        assertThat(statistics.getSpilled()).isPositive();
+        assertThat(statistics.getPending()).isZero();
+        // The segments are deleted once all their messages are acknowledged
+        await().until(() -> statistics.getDiskUsage() == 0);
+        assertThat(segments()).isEmpty();
+
+        MetricRegistry registry = container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+        assertThat(registry.getGauges().get(new MetricID(PREFIX + "disk-usage", new Tag("channel", "spilled")))
+                .getValue()).isEqualTo(0L);
+        assertThat(registry.getGauges().get(new MetricID(PREFIX + "pending", new Tag("channel", "spilled")))
+                .getValue()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testThatTheSendFailsWhenTheSpillDirectoryIsFull() throws IOException {
+        configure(4096);
+        BeanBlockingTheDownstream bean = installInitializeAndGet(BeanBlockingTheDownstream.class);
+        bean.emitALotOfItems();
+
+        assertThat(bean.exception()).isInstanceOf(IllegalStateException.class);
+        assertThat(bean.sent()).isBetween(100, 999);
+        assertThat(segments()).hasSize(4);
+
+        // Once requested, the messages are sent in order
+        bean.request(Long.MAX_VALUE);
+        await().until(() -> bean.output().size() == bean.sent());
+        assertThat(bean.output()).startsWith("1", "2", "3").endsWith(Integer.toString(bean.sent()));
+    }
+
+    @Test
+    public void testThatTheSpillDirectoryMustBeConfigured() {
+        installConfig(new MapBasedConfig(new HashMap<>()));
+        assertThatThrownBy(() -> installInitializeAndGet(BeanBlockingTheDownstream.class))
+                .isInstanceOf(DeploymentException.class)
+                .hasStackTraceContaining("SRMSG00100");
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).collect(Collectors.toList());
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+
+        static final RegistryTypeLiteral BASE = new RegistryTypeLiteral();
+
+        @Override
+        public MetricRegistry.Type type() {
+            return MetricRegistry.Type.BASE;
+        }
+    }
+
+    @ApplicationScoped
+    public static class StatisticsCollector implements StatisticsListener {
+        private final Map<String, SpillStatistics> statistics = new HashMap<>();
+
+        @Override
+        public void onStatistics(Statistics statistics) {
+            if (statistics instanceof SpillStatistics) {
+                SpillStatistics spill = (SpillStatistics) statistics;
+                this.statistics.put(spill.getName(), spill);
+            }
+        }
+
+        SpillStatistics statistics(String name) {
+            return statistics.get(name);
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanUsingSpillOverflowStrategy {
+
+        @Inject
+        @Channel("spilled")
+        @OnOverflow(value = OnOverflow.Strategy.SPILL, bufferSize = 10)
+        Emitter<String> emitter;
+
+        private final List<String> output = new CopyOnWriteArrayList<>();
+
+        private volatile Throwable downstreamFailure;
+        private volatile Exception callerException;
+
+        public List<String> output() {
+            return output;
+        }
+
+        public Throwable failure() {
+            return downstreamFailure;
+        }
+
+        public Exception exception() {
+            return callerException;
+        }
+
+        public void emitALotOfItems() {
+            new Thread(() -> {
+                try {
+                    for (int i = 1; i < 1000; i++) {
+                        emitter.send("" + i);
+                    }
+                } catch (Exception e) {
+                    callerException = e;
+                }
+            }).start();
+        }
+
+        @Incoming("spilled")
+        @Outgoing("out")
+        public Flowable<String> consume(Flowable<String> values) {
+            Scheduler scheduler = Schedulers.from(executor);
+            return values
+                    .observeOn(scheduler)
+                    .delay(1, TimeUnit.MILLISECONDS, scheduler)
+                    .doOnError(err -> downstreamFailure = err);
+        }
+
+        @Incoming("out")
+        public void out(String s) {
+            output.add(s);
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanBlockingTheDownstream {
+
+        @Inject
+        @Channel("blocked")
+        @OnOverflow(value = OnOverflow.Strategy.SPILL, bufferSize = 10)
+        Emitter<String> emitter;
+
+        private final List<String> output = new CopyOnWriteArrayList<>();
+        private volatile Subscription subscription;
+        private volatile Exception callerException;
+        private volatile int sent;
+
+        public void emitALotOfItems() {
+            try {
+                for (int i = 1; i < 1000; i++) {
+                    emitter.send("" + i);
+                    sent = i;
+                }
+            } catch (Exception e) {
+                callerException = e;
+            }
+        }
+
+        public Exception exception() {
+            return callerException;
+        }
+
+        public int sent() {
+            return sent;
+        }
+
+        public List<String> output() {
+            return output;
+        }
+
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Incoming("blocked")
+        public Subscriber<String> consume() {
+            return new Subscriber<String>() {
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription = s;
+                }
+
+                @Override
+                public void onNext(String s) {
+                    output.add(s);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    // Ignored
+                }
+
+                @Override
+                public void onComplete() {
+                    // Ignored
+                }
+            };
+        }
+    }
+}
@@ -48,6 +48,15 @@ public class InvalidConfigurationTest extends WeldTestBaseWithoutTails {
         initialize();
     }
 
+    @Test(expected = DeploymentException.class)
+    public void testCycleWithStrictMode() {
+        tearDown();
+        System.setProperty(STRICT_MODE_PROPERTY, "true");
+        setUp();
+        addBeanClass(CycleBean.class);
+        initialize();
+    }
+
     @Test
     public void testEmptyGraphWithStrictMode() {
         tearDown();
@@ -87,4 +96,18 @@ public class InvalidConfigurationTest extends WeldTestBaseWithoutTails {
         }
     }
 
+    @ApplicationScoped
+    public static class CycleBean {
+        @Incoming("a")
+        @Outgoing("b")
+        public String first(String x) {
+            return x;
+        }
+
+        @Incoming("b")
+        @Outgoing("a")
+        public String second(String x) {
+            return x;
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package io.smallrye.reactive.messaging.merge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Merge;
+
+public class WeightedMergeTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testWeightedMergeOfSeveralChannels() {
+        addBeanClass(Sources.class, WeightedSink.class);
+        initialize();
+
+        WeightedSink sink = get(WeightedSink.class);
+        await().until(() -> sink.list().size() == 110);
+        assertThat(sink.list()).filteredOn(s -> s.startsWith("h")).hasSize(100);
+        assertThat(sink.list()).filteredOn(s -> s.startsWith("l")).hasSize(10);
+        // The low-rate channel is not delayed by the 100 items of the other one
+        assertThat(sink.list().indexOf("l9")).isLessThan(40);
+    }
+
+    @Test
+    public void testRoundRobinMergeOfTheSameChannel() {
+        addBeanClass(Sources.class, RoundRobinSink.class);
+        initialize();
+
+        RoundRobinSink sink = get(RoundRobinSink.class);
+        await().until(() -> sink.list().size() == 20);
+        assertThat(sink.list()).containsOnly("x", "y");
+    }
+
+    @Test
+    public void testInvalidWeights() {
+        addBeanClass(Sources.class, InvalidSink.class);
+        assertThatThrownBy(this::initialize).hasStackTraceContaining("SRMSG00088")
+                .hasStackTraceContaining("unknown=2");
+    }
+
+    @ApplicationScoped
+    public static class Sources {
+
+        @Outgoing("weighted-high")
+        public Multi<String> high() {
+            return Multi.createFrom().range(0, 100).map(i -> "h" + i);
+        }
+
+        @Outgoing("weighted-low")
+        public Multi<String> low() {
+            return Multi.createFrom().range(0, 10).map(i -> "l" + i);
+        }
+
+        @Outgoing("weighted-same")
+        public Multi<String> x() {
+            return Multi.createFrom().range(0, 10).map(i -> "x");
+        }
+
+        @Outgoing("weighted-same")
+        public Multi<String> y() {
+            return Multi.createFrom().range(0, 10).map(i -> "y");
+        }
+    }
+
+    @ApplicationScoped
+    public static class WeightedSink {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("weighted-high")
+        @Incoming("weighted-low")
+        @Merge(value = Merge.Mode.WEIGHTED, weights = "weighted-low=4", prefetch = 4)
+        public void sink(String payload) {
+            list.add(payload);
+        }
+
+        List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class RoundRobinSink {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("weighted-same")
+        @Merge(Merge.Mode.ROUND_ROBIN)
+        public void sink(String payload) {
+            list.add(payload);
+        }
+
+        List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidSink {
+
+        @Incoming("weighted-high")
+        @Incoming("weighted-low")
+        @Merge(value = Merge.Mode.WEIGHTED, weights = "unknown=2")
+        public void sink(String payload) {
+            // Never called
+        }
+    }
+}
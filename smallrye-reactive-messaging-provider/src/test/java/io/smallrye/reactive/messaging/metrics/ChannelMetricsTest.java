@@ -0,0 +1,211 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.extension.MediatorStatistics;
+import io.smallrye.reactive.messaging.statistics.Measurement;
+import io.smallrye.reactive.messaging.statistics.Statistics;
+
+public class ChannelMetricsTest extends WeldTestBaseWithoutTails {
+
+    private static final String METHOD_PREFIX = StatisticsMetrics.PREFIX + MediatorStatistics.TYPE + ".";
+
+    private static final String TEST_PREFIX = StatisticsMetrics.PREFIX + "test.";
+
+    private static final int COUNT = 10;
+
+    @Test
+    public void testChannelAndMethodMetrics() {
+        addBeanClass(Source.class, Processor.class, Sink.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.received().size() == COUNT);
+
+        ChannelStatistics numbers = get(MetricDecorator.class).getStatistics("numbers");
+        ChannelStatistics incremented = get(MetricDecorator.class).getStatistics("incremented");
+        assertThat(numbers.getMessages()).isEqualTo(COUNT);
+        assertThat(incremented.getMessages()).isEqualTo(COUNT);
+        // The sink acks the even numbers and nacks the others, the processor propagates the acknowledgement
+        await().until(() -> incremented.getInFlight() == 0);
+        assertThat(incremented.getAcked()).isEqualTo(COUNT / 2);
+        assertThat(incremented.getNacked()).isEqualTo(COUNT / 2);
+        assertThat(numbers.getAcked()).isEqualTo(COUNT / 2);
+        assertThat(numbers.getNacked()).isEqualTo(COUNT / 2);
+        assertThat(incremented.getAckLatency().getCount()).isEqualTo(COUNT);
+
+        assertThat(counter(MetricDecorator.PREFIX + "acked", "channel", "incremented").getCount()).isEqualTo(COUNT / 2);
+        assertThat(counter(MetricDecorator.PREFIX + "nacked", "channel", "incremented").getCount()).isEqualTo(COUNT / 2);
+        assertThat(gauge(MetricDecorator.PREFIX + "in-flight", "channel", "incremented").getValue()).isEqualTo(0L);
+        Histogram ackLatency = histogram(MetricDecorator.PREFIX + "ack-latency", "channel", "incremented");
+        assertThat(ackLatency.getCount()).isEqualTo(COUNT);
+        assertThat(ackLatency.getSnapshot().size()).isEqualTo(COUNT);
+        assertThat(ackLatency.getSnapshot().getMax()).isGreaterThan(0L);
+
+        String method = Processor.class.getName() + "#process";
+        assertThat(counter(METHOD_PREFIX + "invocations", "method", method).getCount()).isEqualTo(COUNT);
+        assertThat(counter(METHOD_PREFIX + "failures", "method", method).getCount()).isEqualTo(0);
+        Histogram processingTime = histogram(METHOD_PREFIX + "processing-time", "method", method);
+        assertThat(processingTime.getCount()).isEqualTo(COUNT);
+        assertThat(processingTime.getSnapshot().getMax()).isGreaterThan(0L);
+    }
+
+    @Test
+    public void testThatTheMetricsAreBackedByTheStatistics() {
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        TestStatistics statistics = new TestStatistics("backed");
+        get(StatisticsMetrics.class).onStatistics(statistics);
+        Counter counter = counter(TEST_PREFIX + "count", "test", "backed");
+        counter.inc();
+        counter.inc(2);
+        statistics.count.increment();
+        assertThat(counter.getCount()).isEqualTo(4);
+        assertThat(statistics.count.sum()).isEqualTo(4);
+
+        // Notified again, for example after a redeployment
+        TestStatistics redeployed = new TestStatistics("backed");
+        get(StatisticsMetrics.class).onStatistics(redeployed);
+        assertThat(counter(TEST_PREFIX + "count", "test", "backed").getCount()).isZero();
+    }
+
+    @Test
+    public void testThatTheMetricsRegisteredByAnotherComponentAreKept() {
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        MetricID id = new MetricID(TEST_PREFIX + "count", new Tag("test", "conflict"));
+        Counter other = registry().counter(id);
+        other.inc();
+        try {
+            assertThatThrownBy(() -> get(StatisticsMetrics.class).onStatistics(new TestStatistics("conflict")))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(registry().getCounters().get(id)).isSameAs(other);
+            assertThat(other.getCount()).isEqualTo(1);
+        } finally {
+            registry().remove(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Gauge<Long> gauge(String name, String tag, String value) {
+        return (Gauge<Long>) registry().getGauges().get(new MetricID(name, new Tag(tag, value)));
+    }
+
+    private Counter counter(String name, String tag, String value) {
+        return registry().getCounters().get(new MetricID(name, new Tag(tag, value)));
+    }
+
+    private Histogram histogram(String name, String tag, String value) {
+        return registry().getHistograms().get(new MetricID(name, new Tag(tag, value)));
+    }
+
+    private MetricRegistry registry() {
+        return container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+    }
+
+    private static class TestStatistics implements Statistics {
+        private final LongAdder count = new LongAdder();
+        private final Map<String, String> tags;
+
+        private TestStatistics(String name) {
+            this.tags = Collections.singletonMap("test", name);
+        }
+
+        @Override
+        public String getType() {
+            return "test";
+        }
+
+        @Override
+        public Map<String, String> getTags() {
+            return tags;
+        }
+
+        @Override
+        public List<Measurement> getMeasurements() {
+            return Collections.singletonList(Measurement.counter("count", Measurement.NONE, count));
+        }
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Multi.createFrom().range(0, COUNT);
+        }
+    }
+
+    @ApplicationScoped
+    public static class Processor {
+        @Incoming("numbers")
+        @Outgoing("incremented")
+        public int process(int i) {
+            return i + 1;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("incremented")
+        public CompletionStage<Void> consume(Message<Integer> message) {
+            received.add(message.getPayload());
+            if (message.getPayload() % 2 == 0) {
+                return message.ack();
+            }
+            return message.nack(new Exception("odd"));
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+        public static final RegistryTypeLiteral BASE = new RegistryTypeLiteral(MetricRegistry.Type.BASE);
+
+        private final MetricRegistry.Type registryType;
+
+        public RegistryTypeLiteral(MetricRegistry.Type registryType) {
+            this.registryType = registryType;
+        }
+
+        @Override
+        public MetricRegistry.Type type() {
+            return registryType;
+        }
+    }
+}
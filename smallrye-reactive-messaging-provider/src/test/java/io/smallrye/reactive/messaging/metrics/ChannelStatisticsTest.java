@@ -0,0 +1,159 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.IngressMetadata;
+
+public class ChannelStatisticsTest {
+
+    @Test
+    public void testAcknowledgementIsRecordedOnce() {
+        ChannelStatistics statistics = new ChannelStatistics("channel");
+        AtomicInteger acks = new AtomicInteger();
+        Message<?> message = statistics.onEmitted(Message.of("a", () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }));
+        assertThat(statistics.getMessages()).isEqualTo(1);
+        assertThat(statistics.getInFlight()).isEqualTo(1);
+        assertThat(message.getPayload()).isEqualTo("a");
+
+        message.ack();
+        message.ack();
+        message.nack(new Exception("boom"));
+        assertThat(acks).hasValue(2);
+        assertThat(statistics.getInFlight()).isEqualTo(0);
+        assertThat(statistics.getAcked()).isEqualTo(1);
+        assertThat(statistics.getNacked()).isEqualTo(0);
+        assertThat(statistics.getAckLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAcknowledgementIsRecordedOnCompletion() {
+        ChannelStatistics statistics = new ChannelStatistics("channel");
+        CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+        Message<?> message = statistics.onEmitted(Message.of("a", () -> acknowledgement));
+
+        message.ack();
+        assertThat(statistics.getInFlight()).isEqualTo(1);
+        assertThat(statistics.getAcked()).isEqualTo(0);
+        assertThat(statistics.getAckLatency().getCount()).isEqualTo(0);
+
+        acknowledgement.complete(null);
+        assertThat(statistics.getInFlight()).isEqualTo(0);
+        assertThat(statistics.getAcked()).isEqualTo(1);
+        assertThat(statistics.getAckLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNegativeAcknowledgement() {
+        ChannelStatistics statistics = new ChannelStatistics("channel");
+        Message<?> message = statistics.onEmitted(Message.of("a"));
+        message.nack(new Exception("boom"));
+        assertThat(statistics.getInFlight()).isEqualTo(0);
+        assertThat(statistics.getAcked()).isEqualTo(0);
+        assertThat(statistics.getNacked()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDerivedMessagesAreTracked() {
+        ChannelStatistics first = new ChannelStatistics("first");
+        ChannelStatistics second = new ChannelStatistics("second");
+        Message<?> message = first.onEmitted(Message.of("a"));
+        Message<?> derived = second.onEmitted(message.withPayload("A"));
+        // Passed as it is to another channel
+        Message<?> forwarded = second.onEmitted(message);
+
+        derived.ack();
+        assertThat(first.getAcked()).isEqualTo(1);
+        assertThat(second.getAcked()).isEqualTo(1);
+        forwarded.ack();
+        assertThat(first.getAcked()).isEqualTo(1);
+        assertThat(second.getAcked()).isEqualTo(2);
+        assertThat(second.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void testSpecificMessagesAreNotWrapped() {
+        ChannelStatistics statistics = new ChannelStatistics("channel");
+        MyMessage message = new MyMessage();
+        assertThat(statistics.onEmitted(message)).isSameAs(message);
+        assertThat(statistics.getMessages()).isEqualTo(1);
+        assertThat(statistics.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void testSpecificMessagesAreTrackedThroughTheIngressMetadata() {
+        ChannelStatistics ingress = new ChannelStatistics("ingress");
+        ChannelStatistics other = new ChannelStatistics("other");
+        IngressMetadata metadata = IngressMetadata.now("ingress");
+        MyMessage message = new MyMessage(Metadata.of(metadata));
+        assertThat(ingress.onEmitted(message)).isSameAs(message);
+        assertThat(other.onEmitted(message)).isSameAs(message);
+        assertThat(ingress.getInFlight()).isEqualTo(1);
+        assertThat(other.getInFlight()).isEqualTo(1);
+
+        // Called by the connector when the negative acknowledgement completes
+        metadata.nacked(new Exception("boom"));
+        assertThat(ingress.getInFlight()).isEqualTo(0);
+        assertThat(ingress.getNacked()).isEqualTo(1);
+        assertThat(ingress.getAckLatency().getCount()).isEqualTo(1);
+        assertThat(ingress.getIngressLatency().getCount()).isEqualTo(1);
+        assertThat(other.getInFlight()).isEqualTo(0);
+        assertThat(other.getNacked()).isEqualTo(1);
+        assertThat(other.getIngressLatency().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testIngressLatency() {
+        ChannelStatistics ingress = new ChannelStatistics("ingress");
+        ChannelStatistics other = new ChannelStatistics("other");
+        IngressMetadata metadata = IngressMetadata.now("ingress");
+        Message<?> message = ingress.onEmitted(Message.of("a", Metadata.of(metadata)));
+        Message<?> derived = other.onEmitted(message.withPayload("A"));
+
+        derived.ack();
+        assertThat(ingress.getIngressLatency().getCount()).isEqualTo(0);
+        // Called by the connector when the acknowledgement completes
+        metadata.acknowledged();
+        metadata.acknowledged();
+        assertThat(ingress.getIngressLatency().getCount()).isEqualTo(1);
+        assertThat(other.getIngressLatency().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testUnwrap() {
+        ChannelStatistics statistics = new ChannelStatistics("channel");
+        Message<?> message = statistics.onEmitted(Message.of("a"));
+        assertThat(message.unwrap(Message.class)).isSameAs(message);
+    }
+
+    private static class MyMessage implements Message<String> {
+        private final Metadata metadata;
+
+        MyMessage() {
+            this(Metadata.empty());
+        }
+
+        MyMessage(Metadata metadata) {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public String getPayload() {
+            return "hello";
+        }
+
+        @Override
+        public Metadata getMetadata() {
+            return metadata;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.metrics.setup.MetricCdiInjectionExtension;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.MapBasedConfig;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.connectors.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.connectors.WorkerPoolStatistics;
+
+public class WorkerPoolMetricsTest extends WeldTestBaseWithoutTails {
+
+    private static final String PREFIX = StatisticsMetrics.PREFIX + WorkerPoolStatistics.TYPE + ".";
+
+    private static final int COUNT = 10;
+
+    @After
+    public void clear() {
+        releaseConfig();
+    }
+
+    @Test
+    public void testWorkerPoolMetrics() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("smallrye.messaging.worker.my-pool.max-concurrency", 2);
+        map.put("smallrye.messaging.worker.my-pool.max-queue-size", 1);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(Source.class, BlockingConsumer.class);
+        addExtensionClass(MetricCdiInjectionExtension.class);
+        initialize();
+
+        BlockingConsumer consumer = get(BlockingConsumer.class);
+        await().until(() -> consumer.received().size() == COUNT);
+
+        WorkerPoolStatistics statistics = get(WorkerPoolRegistry.class).getStatistics("my-pool");
+        assertThat(statistics).isNotNull();
+        assertThat(statistics.getConcurrency()).isEqualTo(2);
+        assertThat(statistics.getMaxQueueSize()).isEqualTo(1);
+        await().until(() -> statistics.getCompleted() == COUNT);
+        assertThat(statistics.getRejected()).isEqualTo(0);
+        assertThat(get(WorkerPoolRegistry.class).getStatistics()).containsExactly(statistics);
+
+        assertThat(counter("completed").getCount()).isEqualTo(COUNT);
+        assertThat(counter("rejected").getCount()).isEqualTo(0);
+        assertThat(gauge("active").getValue()).isEqualTo(0L);
+        assertThat(gauge("queued").getValue()).isEqualTo(0L);
+        Histogram executionTime = histogram("execution-time");
+        assertThat(executionTime.getCount()).isEqualTo(COUNT);
+        assertThat(executionTime.getSnapshot().getMin()).isGreaterThan(0L);
+        assertThat(executionTime.getSnapshot().getMax()).isGreaterThanOrEqualTo(executionTime.getSnapshot().getMin());
+        assertThat(histogram("queue-wait").getCount()).isEqualTo(COUNT);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testInvalidRejectionPolicy() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("smallrye.messaging.worker.my-pool.max-concurrency", 2);
+        map.put("smallrye.messaging.worker.my-pool.rejection-policy", "drop");
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(Source.class, BlockingConsumer.class);
+        initialize();
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testInvalidQueueSize() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("smallrye.messaging.worker.my-pool.max-concurrency", 2);
+        map.put("smallrye.messaging.worker.my-pool.max-queue-size", -2);
+        installConfig(new MapBasedConfig(map));
+        addBeanClass(Source.class, BlockingConsumer.class);
+        initialize();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Gauge<Long> gauge(String name) {
+        return (Gauge<Long>) registry().getGauges().get(id(name));
+    }
+
+    private Counter counter(String name) {
+        return registry().getCounters().get(id(name));
+    }
+
+    private Histogram histogram(String name) {
+        return registry().getHistograms().get(id(name));
+    }
+
+    private MetricRegistry registry() {
+        return container.select(MetricRegistry.class, RegistryTypeLiteral.BASE).get();
+    }
+
+    private static MetricID id(String name) {
+        return new MetricID(PREFIX + name, new Tag("pool", "my-pool"));
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        @Outgoing("in")
+        public Publisher<Integer> source() {
+            return Multi.createFrom().range(0, COUNT);
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingConsumer {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("in")
+        @Blocking("my-pool")
+        public void consume(int i) throws InterruptedException {
+            Thread.sleep(5);
+            received.add(i);
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class RegistryTypeLiteral extends AnnotationLiteral<RegistryType> implements RegistryType {
+        public static final RegistryTypeLiteral BASE = new RegistryTypeLiteral(MetricRegistry.Type.BASE);
+
+        private final MetricRegistry.Type registryType;
+
+        public RegistryTypeLiteral(MetricRegistry.Type registryType) {
+            this.registryType = registryType;
+        }
+
+        @Override
+        public MetricRegistry.Type type() {
+            return registryType;
+        }
+    }
+}
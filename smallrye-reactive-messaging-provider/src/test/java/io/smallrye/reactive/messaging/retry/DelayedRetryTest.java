@@ -0,0 +1,307 @@
+package io.smallrye.reactive.messaging.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.annotations.DelayedRetry;
+import io.smallrye.reactive.messaging.annotations.MaxConcurrency;
+
+public class DelayedRetryTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 10;
+
+    @Test
+    public void testThatTheFailedInvocationsAreRetried() {
+        addBeanClass(Source.class, RecoveringConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        RecoveringConsumer consumer = get(RecoveringConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(source.nacked()).isEmpty();
+        // Each message fails twice before succeeding, the order is preserved with a concurrency of 1
+        assertThat(consumer.received()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(consumer.attempts()).hasSize(COUNT).allSatisfy((i, attempts) -> assertThat(attempts).hasValue(3));
+    }
+
+    @Test
+    public void testThatTheMessagesAreNackedOnceTheAttemptsAreExhausted() {
+        addBeanClass(Source.class, FailingBlockingConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        FailingBlockingConsumer consumer = get(FailingBlockingConsumer.class);
+        await().until(() -> source.acked().size() + source.nacked().size() == COUNT);
+        assertThat(source.nacked()).containsExactlyInAnyOrder(0, 2, 4, 6, 8);
+        assertThat(source.acked()).containsExactlyInAnyOrder(1, 3, 5, 7, 9);
+        assertThat(consumer.attempts().get(0)).hasValue(4);
+        assertThat(consumer.attempts().get(1)).hasValue(1);
+    }
+
+    @Test
+    public void testThatTheOtherMessagesAreProcessedDuringTheRetries() {
+        addBeanClass(Source.class, ConcurrentConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        ConcurrentConsumer consumer = get(ConcurrentConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        // The first message is retried after the others have been processed
+        assertThat(consumer.received()).hasSize(COUNT).endsWith(0);
+    }
+
+    @Test
+    public void testThatTheOtherMessagesAreProcessedDuringTheRetriesByDefault() {
+        addBeanClass(Source.class, DefaultConcurrencyConsumer.class);
+        initialize();
+
+        Source source = get(Source.class);
+        DefaultConcurrencyConsumer consumer = get(DefaultConcurrencyConsumer.class);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(consumer.received()).hasSize(COUNT).endsWith(0);
+    }
+
+    @Test
+    public void testProcessorRetry() {
+        addBeanClass(Source.class, RecoveringProcessor.class, Sink.class);
+        initialize();
+
+        Source source = get(Source.class);
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.received().size() == COUNT);
+        assertThat(sink.received()).containsExactlyInAnyOrder(0, 10, 20, 30, 40, 50, 60, 70, 80, 90);
+        await().until(() -> source.acked().size() == COUNT);
+        assertThat(source.nacked()).isEmpty();
+    }
+
+    @Test
+    public void testNonBlockingProcessorRetry() {
+        addBeanClass(Source.class, NonBlockingProcessor.class, Sink.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.received().size() == COUNT);
+        // The results are emitted in completion order
+        assertThat(sink.received()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 0);
+    }
+
+    @Test
+    public void testOrderedProcessorRetry() {
+        addBeanClass(Source.class, OrderedProcessor.class, Sink.class);
+        initialize();
+
+        Sink sink = get(Sink.class);
+        await().until(() -> sink.received().size() == COUNT);
+        assertThat(sink.received()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testInvalidValue() {
+        addBeanClass(Source.class, InvalidValueConsumer.class);
+        initialize();
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testUnsupportedOnStreams() {
+        addBeanClass(Source.class, InvalidProcessor.class, Sink.class);
+        initialize();
+    }
+
+    @ApplicationScoped
+    public static class Source {
+        private final List<Integer> acked = new CopyOnWriteArrayList<>();
+        private final List<Integer> nacked = new CopyOnWriteArrayList<>();
+
+        @Outgoing("in")
+        public Publisher<Message<Integer>> source() {
+            return Multi.createFrom().range(0, COUNT)
+                    .map(i -> Message.of(i, () -> {
+                        acked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }, t -> {
+                        nacked.add(i);
+                        return CompletableFuture.completedFuture(null);
+                    }));
+        }
+
+        public List<Integer> acked() {
+            return acked;
+        }
+
+        public List<Integer> nacked() {
+            return nacked;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Sink {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Incoming("out")
+        public void consume(int i) {
+            received.add(i);
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+    }
+
+    /**
+     * Counts the invocations per payload.
+     */
+    public abstract static class TrackingConsumer {
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+        private final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        int attempt(int i) {
+            return attempts.computeIfAbsent(i, x -> new AtomicInteger()).incrementAndGet();
+        }
+
+        public List<Integer> received() {
+            return received;
+        }
+
+        public Map<Integer, AtomicInteger> attempts() {
+            return attempts;
+        }
+    }
+
+    @ApplicationScoped
+    public static class RecoveringConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @MaxConcurrency(1)
+        @DelayedRetry(delay = 10, jitter = 0)
+        public CompletionStage<Void> consume(int i) {
+            if (attempt(i) < 3) {
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("boom " + i));
+                return future;
+            }
+            received().add(i);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @ApplicationScoped
+    public static class FailingBlockingConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @Blocking
+        @DelayedRetry(maxAttempts = 4, delay = 5, multiplier = 1.5)
+        public void consume(int i) {
+            attempt(i);
+            if (i % 2 == 0) {
+                throw new IllegalArgumentException("boom " + i);
+            }
+            received().add(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConcurrentConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @MaxConcurrency(4)
+        @DelayedRetry(delay = 200)
+        public Uni<Void> consume(int i) {
+            if (i == 0 && attempt(i) == 1) {
+                return Uni.createFrom().failure(new IllegalStateException("boom"));
+            }
+            received().add(i);
+            return Uni.createFrom().voidItem();
+        }
+    }
+
+    @ApplicationScoped
+    public static class DefaultConcurrencyConsumer extends TrackingConsumer {
+        @Incoming("in")
+        @DelayedRetry(delay = 200)
+        public Uni<Void> consume(int i) {
+            if (i == 0 && attempt(i) == 1) {
+                return Uni.createFrom().failure(new IllegalStateException("boom"));
+            }
+            received().add(i);
+            return Uni.createFrom().voidItem();
+        }
+    }
+
+    @ApplicationScoped
+    public static class RecoveringProcessor extends TrackingConsumer {
+        @Incoming("in")
+        @Outgoing("out")
+        @Blocking
+        @DelayedRetry(delay = 10)
+        public int process(int i) {
+            if (attempt(i) == 1) {
+                throw new IllegalStateException("boom " + i);
+            }
+            return i * 10;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidValueConsumer {
+        @Incoming("in")
+        @DelayedRetry(delay = 100, maxDelay = 10)
+        public void consume(int i) {
+            // Never called
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidProcessor {
+        @Incoming("in")
+        @Outgoing("out")
+        @DelayedRetry
+        public Publisher<Integer> process(int i) {
+            return Multi.createFrom().item(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class NonBlockingProcessor extends TrackingConsumer {
+        @Incoming("in")
+        @Outgoing("out")
+        @DelayedRetry(delay = 200)
+        public Uni<Integer> process(int i) {
+            if (i == 0 && attempt(i) == 1) {
+                return Uni.createFrom().failure(new IllegalStateException("boom"));
+            }
+            return Uni.createFrom().item(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class OrderedProcessor extends TrackingConsumer {
+        @Incoming("in")
+        @Outgoing("out")
+        @MaxConcurrency(1)
+        @DelayedRetry(delay = 10)
+        public int process(int i) {
+            if (attempt(i) == 1) {
+                throw new IllegalStateException("boom " + i);
+            }
+            return i;
+        }
+    }
+}
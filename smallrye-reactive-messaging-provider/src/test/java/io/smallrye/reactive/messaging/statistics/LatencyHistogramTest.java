@@ -0,0 +1,74 @@
+package io.smallrye.reactive.messaging.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMin()).isEqualTo(0);
+        assertThat(histogram.getMax()).isEqualTo(0);
+        assertThat(histogram.getMean()).isEqualTo(0.0);
+        assertThat(histogram.getStdDev()).isEqualTo(0.0);
+        assertThat(histogram.getPercentile(0.99)).isEqualTo(0);
+        assertThat(histogram.getValues()).isEmpty();
+    }
+
+    @Test
+    public void testRecording() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+        histogram.record(-5);
+        assertThat(histogram.getCount()).isEqualTo(101);
+        assertThat(histogram.getMax()).isEqualTo(100_000);
+        assertThat(histogram.getMean()).isEqualTo(5050_000.0 / 101);
+        assertThat(histogram.getMin()).isEqualTo(0);
+        assertThat(histogram.getSum()).isEqualTo(5050_000);
+    }
+
+    @Test
+    public void testStandardDeviation() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : new long[] { 2, 4, 4, 4, 5, 5, 7, 9 }) {
+            histogram.record(value);
+        }
+        assertThat(histogram.getMin()).isEqualTo(2);
+        assertThat(histogram.getStdDev()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void testValuesAreTheBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(5);
+        histogram.record(6);
+        histogram.record(100);
+        assertThat(histogram.getValues()).containsExactly(3L, 7L, 100L);
+    }
+
+    @Test
+    public void testPercentilesAreWithinTheBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        // Each estimate is the upper bound of the bucket containing the actual value
+        assertThat(histogram.getPercentile(0.5)).isBetween(500L, 1000L);
+        assertThat(histogram.getPercentile(0.99)).isBetween(990L, 1000L);
+        assertThat(histogram.getPercentile(1.0)).isEqualTo(1000);
+        assertThat(histogram.getPercentile(0.0)).isEqualTo(1);
+    }
+
+    @Test
+    public void testLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.getPercentile(0.5)).isEqualTo(Long.MAX_VALUE);
+    }
+}
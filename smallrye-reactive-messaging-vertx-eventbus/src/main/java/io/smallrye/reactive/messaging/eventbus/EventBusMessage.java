@@ -7,7 +7,9 @@ import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+import io.smallrye.reactive.messaging.IngressMetadata;
 import io.vertx.core.MultiMap;
 
 public class EventBusMessage<T> implements Message<T> {
@@ -19,27 +21,52 @@ public class EventBusMessage<T> implements Message<T> {
     private final String replyAddress;
 
     private final MultiMap headers;
+    private final IngressMetadata ingress;
+    private final Metadata metadata;
 
-    EventBusMessage(io.vertx.core.eventbus.Message<T> m, Supplier<CompletionStage<Void>> ack) {
+    EventBusMessage(io.vertx.core.eventbus.Message<T> m, String ingressChannel, Supplier<CompletionStage<Void>> ack) {
         this.wrapped = m;
         this.payload = m.body();
         this.address = m.address();
         this.replyAddress = m.replyAddress();
         this.headers = m.headers();
         this.ack = ack;
+        if (ingressChannel != null) {
+            this.ingress = IngressMetadata.now(ingressChannel);
+            this.metadata = Metadata.of(ingress);
+        } else {
+            this.ingress = null;
+            this.metadata = Metadata.empty();
+        }
     }
 
     @SuppressWarnings("unchecked")
-    EventBusMessage(io.vertx.mutiny.core.eventbus.Message<T> m, Supplier<CompletionStage<Void>> ack) {
-        this(m.getDelegate(), ack);
+    EventBusMessage(io.vertx.mutiny.core.eventbus.Message<T> m, String ingressChannel,
+            Supplier<CompletionStage<Void>> ack) {
+        this(m.getDelegate(), ingressChannel, ack);
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return metadata;
     }
 
     @Override
     public CompletionStage<Void> ack() {
-        if (this.ack != null) {
-            return ack.get();
+        CompletionStage<Void> stage = this.ack != null ? ack.get() : CompletableFuture.completedFuture(null);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.acknowledged());
+        }
+        return stage;
+    }
+
+    @Override
+    public CompletionStage<Void> nack(Throwable reason) {
+        CompletionStage<Void> stage = Message.super.nack(reason);
+        if (ingress != null) {
+            return stage.whenComplete((x, f) -> ingress.nacked(reason));
         }
-        return CompletableFuture.completedFuture(null);
+        return stage;
     }
 
     @Override
@@ -16,12 +16,14 @@ class EventBusSource {
     private final boolean ack;
     private final Vertx vertx;
     private final boolean broadcast;
+    private final String ingressChannel;
 
     EventBusSource(Vertx vertx, VertxEventBusConnectorIncomingConfiguration config) {
         this.vertx = vertx;
         this.address = config.getAddress();
         this.broadcast = config.getBroadcast();
         this.ack = config.getUseReplyAsAck();
+        this.ingressChannel = config.getIngressTimestamp() ? config.getChannel() : null;
     }
 
     PublisherBuilder<? extends Message<?>> source() {
@@ -36,12 +38,12 @@ class EventBusSource {
 
     private Message<?> adapt(io.vertx.mutiny.core.eventbus.Message<?> msg) {
         if (this.ack) {
-            return new EventBusMessage<>(msg, () -> {
+            return new EventBusMessage<>(msg, ingressChannel, () -> {
                 msg.replyAndForget("OK");
                 return CompletableFuture.completedFuture(null);
             });
         } else {
-            return new EventBusMessage<>(msg, null);
+            return new EventBusMessage<>(msg, ingressChannel, null);
         }
     }
 }